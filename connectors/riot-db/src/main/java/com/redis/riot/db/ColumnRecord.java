@@ -0,0 +1,265 @@
+package com.redis.riot.db;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Row of a result set holding its values in column order. Column names and
+ * their index are shared by all the rows of a query, so a row only allocates
+ * its value array. Like the maps created by
+ * {@link org.springframework.jdbc.core.ColumnMapRowMapper}, column names are
+ * case-insensitive.
+ * <p>
+ * Null values are not part of the map, and fields that are not columns (for
+ * example fields added by processors) are kept in a separate map.
+ */
+public class ColumnRecord extends AbstractMap<String, Object> {
+
+	private final Columns columns;
+	private final Object[] values;
+	private Map<String, Object> fields;
+	private boolean strings = true;
+
+	ColumnRecord(Columns columns, Object[] values) {
+		this.columns = columns;
+		this.values = values;
+	}
+
+	/**
+	 *
+	 * @return true if all values are strings, i.e. the record can be written as
+	 *         is to a Redis hash
+	 */
+	public boolean isStrings() {
+		return strings;
+	}
+
+	/**
+	 *
+	 * @return this record as a map of strings
+	 * @throws IllegalStateException if some values are not strings
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, String> asStringMap() {
+		if (!strings) {
+			throw new IllegalStateException("Record contains values that are not strings");
+		}
+		return (Map<String, String>) (Map<String, ?>) this;
+	}
+
+	@Override
+	public Object get(Object key) {
+		int index = columns.index(key);
+		if (index >= 0) {
+			return values[index];
+		}
+		return fields == null ? null : fields.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		int index = columns.index(key);
+		if (index >= 0) {
+			return values[index] != null;
+		}
+		return fields != null && fields.containsKey(key);
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		if (value != null && !(value instanceof String)) {
+			strings = false;
+		}
+		int index = columns.index(key);
+		if (index >= 0) {
+			Object previous = values[index];
+			values[index] = value;
+			return previous;
+		}
+		if (fields == null) {
+			fields = new LinkedHashMap<>();
+		}
+		return fields.put(key, value);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		int index = columns.index(key);
+		if (index >= 0) {
+			Object previous = values[index];
+			values[index] = null;
+			return previous;
+		}
+		return fields == null ? null : fields.remove(key);
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<>() {
+
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size() {
+				int size = fields == null ? 0 : fields.size();
+				for (Object value : values) {
+					if (value != null) {
+						size++;
+					}
+				}
+				return size;
+			}
+
+		};
+	}
+
+	private class EntryIterator implements Iterator<Entry<String, Object>> {
+
+		private final Iterator<Entry<String, Object>> fieldIterator = fields == null ? null
+				: fields.entrySet().iterator();
+		private int next = -1;
+		private int current = -1;
+		private boolean fieldEntry;
+
+		private EntryIterator() {
+			advance();
+		}
+
+		private void advance() {
+			do {
+				next++;
+			} while (next < values.length && values[next] == null);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < values.length || (fieldIterator != null && fieldIterator.hasNext());
+		}
+
+		@Override
+		public Entry<String, Object> next() {
+			if (next < values.length) {
+				current = next;
+				fieldEntry = false;
+				advance();
+				return new ColumnEntry(current);
+			}
+			if (fieldIterator == null) {
+				throw new NoSuchElementException();
+			}
+			fieldEntry = true;
+			return fieldIterator.next();
+		}
+
+		@Override
+		public void remove() {
+			if (fieldEntry) {
+				fieldIterator.remove();
+			} else if (current >= 0) {
+				values[current] = null;
+				current = -1;
+			} else {
+				throw new IllegalStateException();
+			}
+		}
+
+	}
+
+	private class ColumnEntry implements Entry<String, Object> {
+
+		private final int index;
+
+		private ColumnEntry(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public String getKey() {
+			return columns.name(index);
+		}
+
+		@Override
+		public Object getValue() {
+			return values[index];
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			return put(getKey(), value);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			Entry<?, ?> entry = (Entry<?, ?>) o;
+			return getKey().equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return getKey().hashCode() ^ (getValue() == null ? 0 : getValue().hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+
+	}
+
+	/**
+	 * Column names of a query and their case-insensitive index.
+	 */
+	static class Columns {
+
+		private final String[] names;
+		private final Map<String, Integer> indexes = new HashMap<>();
+
+		Columns(String[] names) {
+			this.names = names;
+			for (int index = names.length - 1; index >= 0; index--) {
+				// First column wins when several columns have the same name
+				indexes.put(names[index], index);
+				indexes.put(lowerCase(names[index]), index);
+			}
+		}
+
+		private static String lowerCase(String name) {
+			return name.toLowerCase(Locale.ROOT);
+		}
+
+		int size() {
+			return names.length;
+		}
+
+		String name(int index) {
+			return names[index];
+		}
+
+		int index(Object key) {
+			if (!(key instanceof String)) {
+				return -1;
+			}
+			Integer index = indexes.get(key);
+			if (index == null) {
+				index = indexes.get(lowerCase((String) key));
+			}
+			return index == null ? -1 : index;
+		}
+
+	}
+
+}
@@ -0,0 +1,179 @@
+package com.redis.riot.db;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * Maps rows to {@link ColumnRecord} instances holding column values formatted
+ * as strings, ready to be written as Redis fields. The result set metadata is
+ * resolved once per query, and each column is read with the accessor for its
+ * type so that numbers are not boxed before being formatted:
+ * <ul>
+ * <li>integers, floating-point numbers and booleans in their canonical
+ * form</li>
+ * <li>decimals without exponent</li>
+ * <li>dates, times and timestamps in ISO-8601 format</li>
+ * <li>binary values in Base64</li>
+ * </ul>
+ * Records are not reused across rows because items are buffered until their
+ * chunk is written.
+ */
+public class ColumnRecordRowMapper implements RowMapper<Map<String, Object>> {
+
+	private volatile Mapping mapping;
+
+	@Override
+	public Map<String, Object> mapRow(ResultSet rs, int rowNum) throws SQLException {
+		Mapping current = mapping;
+		if (current == null || current.resultSet != rs) {
+			current = new Mapping(rs);
+			mapping = current;
+		}
+		ColumnReader[] readers = current.readers;
+		Object[] values = new Object[readers.length];
+		for (int index = 0; index < readers.length; index++) {
+			values[index] = readers[index].read(rs, index + 1);
+		}
+		return new ColumnRecord(current.columns, values);
+	}
+
+	private static class Mapping {
+
+		private final ResultSet resultSet;
+		private final ColumnRecord.Columns columns;
+		private final ColumnReader[] readers;
+
+		Mapping(ResultSet resultSet) throws SQLException {
+			this.resultSet = resultSet;
+			ResultSetMetaData metaData = resultSet.getMetaData();
+			int columnCount = metaData.getColumnCount();
+			String[] names = new String[columnCount];
+			this.readers = new ColumnReader[columnCount];
+			for (int index = 0; index < columnCount; index++) {
+				names[index] = JdbcUtils.lookupColumnName(metaData, index + 1);
+				readers[index] = reader(metaData.getColumnType(index + 1));
+			}
+			this.columns = new ColumnRecord.Columns(names);
+		}
+
+	}
+
+	private interface ColumnReader {
+
+		String read(ResultSet rs, int index) throws SQLException;
+
+	}
+
+	private static ColumnReader reader(int sqlType) {
+		switch (sqlType) {
+		case Types.TINYINT:
+		case Types.SMALLINT:
+		case Types.INTEGER:
+		case Types.BIGINT:
+			return ColumnRecordRowMapper::readLong;
+		case Types.REAL:
+			return ColumnRecordRowMapper::readFloat;
+		case Types.FLOAT:
+		case Types.DOUBLE:
+			return ColumnRecordRowMapper::readDouble;
+		case Types.DECIMAL:
+		case Types.NUMERIC:
+			return ColumnRecordRowMapper::readDecimal;
+		case Types.BIT:
+		case Types.BOOLEAN:
+			return ColumnRecordRowMapper::readBoolean;
+		case Types.DATE:
+			return ColumnRecordRowMapper::readDate;
+		case Types.TIME:
+			return ColumnRecordRowMapper::readTime;
+		case Types.TIMESTAMP:
+			return ColumnRecordRowMapper::readTimestamp;
+		case Types.TIMESTAMP_WITH_TIMEZONE:
+			return ColumnRecordRowMapper::readOffsetTimestamp;
+		case Types.BINARY:
+		case Types.VARBINARY:
+		case Types.LONGVARBINARY:
+		case Types.BLOB:
+			return ColumnRecordRowMapper::readBytes;
+		case Types.CHAR:
+		case Types.VARCHAR:
+		case Types.LONGVARCHAR:
+		case Types.NCHAR:
+		case Types.NVARCHAR:
+		case Types.LONGNVARCHAR:
+		case Types.CLOB:
+		case Types.NCLOB:
+			return ResultSet::getString;
+		default:
+			return ColumnRecordRowMapper::readObject;
+		}
+	}
+
+	private static String readLong(ResultSet rs, int index) throws SQLException {
+		long value = rs.getLong(index);
+		return rs.wasNull() ? null : Long.toString(value);
+	}
+
+	private static String readFloat(ResultSet rs, int index) throws SQLException {
+		float value = rs.getFloat(index);
+		return rs.wasNull() ? null : Float.toString(value);
+	}
+
+	private static String readDouble(ResultSet rs, int index) throws SQLException {
+		double value = rs.getDouble(index);
+		return rs.wasNull() ? null : Double.toString(value);
+	}
+
+	private static String readDecimal(ResultSet rs, int index) throws SQLException {
+		BigDecimal value = rs.getBigDecimal(index);
+		return value == null ? null : value.toPlainString();
+	}
+
+	private static String readBoolean(ResultSet rs, int index) throws SQLException {
+		boolean value = rs.getBoolean(index);
+		return rs.wasNull() ? null : Boolean.toString(value);
+	}
+
+	private static String readDate(ResultSet rs, int index) throws SQLException {
+		Date value = rs.getDate(index);
+		return value == null ? null : value.toLocalDate().toString();
+	}
+
+	private static String readTime(ResultSet rs, int index) throws SQLException {
+		Time value = rs.getTime(index);
+		return value == null ? null : value.toLocalTime().toString();
+	}
+
+	private static String readTimestamp(ResultSet rs, int index) throws SQLException {
+		Timestamp value = rs.getTimestamp(index);
+		return value == null ? null : value.toLocalDateTime().toString();
+	}
+
+	private static String readOffsetTimestamp(ResultSet rs, int index) throws SQLException {
+		OffsetDateTime value = rs.getObject(index, OffsetDateTime.class);
+		return value == null ? null : value.toString();
+	}
+
+	private static String readBytes(ResultSet rs, int index) throws SQLException {
+		byte[] value = rs.getBytes(index);
+		return value == null ? null : Base64.getEncoder().encodeToString(value);
+	}
+
+	private static String readObject(ResultSet rs, int index) throws SQLException {
+		Object value = JdbcUtils.getResultSetValue(rs, index);
+		return value == null ? null : value.toString();
+	}
+
+}
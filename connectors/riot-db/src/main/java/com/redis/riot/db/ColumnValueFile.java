@@ -0,0 +1,94 @@
+package com.redis.riot.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Properties file holding a column value and its type, used to save the
+ * position of a reader so that it can resume after a restart.
+ */
+public class ColumnValueFile {
+
+	private static final String VALUE_PROPERTY = "value";
+	private static final String TYPE_PROPERTY = "type";
+
+	private final Path file;
+
+	public ColumnValueFile(Path file) {
+		Assert.notNull(file, "File must not be null");
+		this.file = file;
+	}
+
+	/**
+	 *
+	 * @return saved value converted to its original type, or null if no value was
+	 *         saved
+	 */
+	public Object read() {
+		if (!Files.exists(file)) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream inputStream = Files.newInputStream(file)) {
+			properties.load(inputStream);
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not read state file " + file, e);
+		}
+		String value = properties.getProperty(VALUE_PROPERTY);
+		if (value == null) {
+			return null;
+		}
+		Class<?> type;
+		try {
+			type = ClassUtils.forName(properties.getProperty(TYPE_PROPERTY), getClass().getClassLoader());
+		} catch (ClassNotFoundException | LinkageError e) {
+			throw new ItemStreamException("Unknown value type in state file " + file, e);
+		}
+		return DefaultConversionService.getSharedInstance().convert(value, type);
+	}
+
+	/**
+	 * Writes the given value to a temporary file which then replaces the state
+	 * file, so that a crash never leaves a partially written state file.
+	 */
+	public void write(Object value, String comment) {
+		Properties properties = new Properties();
+		properties.setProperty(VALUE_PROPERTY, String.valueOf(value));
+		properties.setProperty(TYPE_PROPERTY, value.getClass().getName());
+		try {
+			Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+			try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+				properties.store(outputStream, comment);
+			}
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not write state file " + file, e);
+		}
+	}
+
+	/**
+	 * Deletes the state file, e.g. once the reader has read all rows.
+	 */
+	public void delete() {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not delete state file " + file, e);
+		}
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+}
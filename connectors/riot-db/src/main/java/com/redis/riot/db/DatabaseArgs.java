@@ -4,6 +4,8 @@ import javax.sql.DataSource;
 
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 
+import com.zaxxer.hikari.HikariDataSource;
+
 import picocli.CommandLine.Option;
 
 public class DatabaseArgs {
@@ -53,12 +55,28 @@ public class DatabaseArgs {
 	}
 
 	public DataSource dataSource() {
+		return dataSourceProperties().initializeDataSourceBuilder().build();
+	}
+
+	/**
+	 * 
+	 * @param poolSize max number of connections in the pool
+	 * @return connection pool
+	 */
+	public DataSource dataSource(int poolSize) {
+		HikariDataSource dataSource = dataSourceProperties().initializeDataSourceBuilder()
+				.type(HikariDataSource.class).build();
+		dataSource.setMaximumPoolSize(poolSize);
+		return dataSource;
+	}
+
+	private DataSourceProperties dataSourceProperties() {
 		DataSourceProperties properties = new DataSourceProperties();
 		properties.setUrl(url);
 		properties.setDriverClassName(driver);
 		properties.setUsername(username);
 		properties.setPassword(password);
-		return properties.initializeDataSourceBuilder().build();
+		return properties;
 	}
 
 }
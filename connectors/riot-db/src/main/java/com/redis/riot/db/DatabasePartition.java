@@ -0,0 +1,37 @@
+package com.redis.riot.db;
+
+import java.util.Arrays;
+
+/**
+ * A range of rows of a SELECT statement, read by its own query.
+ */
+public class DatabasePartition {
+
+	private final String name;
+	private final String sql;
+	private final Object[] parameters;
+
+	public DatabasePartition(String name, String sql, Object... parameters) {
+		this.name = name;
+		this.sql = sql;
+		this.parameters = parameters;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getSql() {
+		return sql;
+	}
+
+	public Object[] getParameters() {
+		return parameters;
+	}
+
+	@Override
+	public String toString() {
+		return "DatabasePartition [name=" + name + ", sql=" + sql + ", parameters=" + Arrays.toString(parameters) + "]";
+	}
+
+}
@@ -0,0 +1,248 @@
+package com.redis.riot.db;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Splits a SELECT statement into ranges of a partition column, so that each
+ * range can be read by its own connection.
+ * <p>
+ * Numeric columns are split into ranges of equal width between their min and
+ * max values. Other orderable columns (dates, strings, ...) are split into
+ * ranges holding the same number of rows using the NTILE window function. Rows
+ * where the partition column is null are read by an additional partition.
+ */
+public class DatabasePartitioner {
+
+	private static final Pattern TABLE_PATTERN = Pattern.compile("\\bFROM\\s+([\\w.$]+)",
+			Pattern.CASE_INSENSITIVE);
+	private static final String PARTITION_NAME_FORMAT = "partition-%d";
+
+	private final DataSource dataSource;
+	private final String sql;
+	private final JdbcTemplate jdbcTemplate;
+
+	private String column;
+
+	public DatabasePartitioner(DataSource dataSource, String sql) {
+		Assert.notNull(dataSource, "Data source must not be null");
+		Assert.hasText(sql, "SQL must not be empty");
+		this.dataSource = dataSource;
+		this.sql = sql;
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+	/**
+	 *
+	 * @param count number of ranges to split the partition column into
+	 * @return partitions covering all the rows of the SELECT statement
+	 */
+	public List<DatabasePartition> partitions(int count) {
+		Assert.isTrue(count > 0, "Partition count must be greater than 0");
+		String partitionColumn = StringUtils.hasText(column) ? column : primaryKey();
+		Bounds bounds = jdbcTemplate.queryForObject(
+				String.format("SELECT MIN(%1$s), MAX(%1$s), COUNT(*) - COUNT(%1$s) FROM (%2$s) riot_bounds",
+						partitionColumn, sql),
+				(rs, rowNum) -> new Bounds(rs.getObject(1), rs.getObject(2), rs.getLong(3)));
+		List<DatabasePartition> partitions = new ArrayList<>();
+		if (bounds.min == null) {
+			partitions.add(new DatabasePartition(partitionName(partitions), sql));
+			return partitions;
+		}
+		List<Object> boundaries = boundaries(partitionColumn, bounds, count);
+		String select = "SELECT * FROM (" + sql + ") riot_partition WHERE ";
+		for (int index = 0; index <= boundaries.size(); index++) {
+			String name = partitionName(partitions);
+			if (boundaries.isEmpty()) {
+				partitions.add(new DatabasePartition(name, select + partitionColumn + " IS NOT NULL"));
+			} else if (index == 0) {
+				partitions.add(new DatabasePartition(name, select + partitionColumn + " < ?", boundaries.get(0)));
+			} else if (index == boundaries.size()) {
+				partitions.add(
+						new DatabasePartition(name, select + partitionColumn + " >= ?", boundaries.get(index - 1)));
+			} else {
+				partitions.add(new DatabasePartition(name,
+						select + partitionColumn + " >= ? AND " + partitionColumn + " < ?", boundaries.get(index - 1),
+						boundaries.get(index)));
+			}
+		}
+		if (bounds.nullCount > 0) {
+			partitions.add(new DatabasePartition(partitionName(partitions), select + partitionColumn + " IS NULL"));
+		}
+		return partitions;
+	}
+
+	private String partitionName(List<DatabasePartition> partitions) {
+		return String.format(PARTITION_NAME_FORMAT, partitions.size() + 1);
+	}
+
+	/**
+	 *
+	 * @return sorted distinct values separating consecutive partitions, excluding
+	 *         the min value
+	 */
+	private List<Object> boundaries(String partitionColumn, Bounds bounds, int count) {
+		List<Object> boundaries = new ArrayList<>();
+		if (count == 1) {
+			return boundaries;
+		}
+		if (bounds.min instanceof Number && bounds.max instanceof Number) {
+			BigDecimal min = decimal((Number) bounds.min);
+			BigDecimal max = decimal((Number) bounds.max);
+			BigDecimal width = max.subtract(min).divide(BigDecimal.valueOf(count), MathContext.DECIMAL64);
+			boolean integral = isIntegral(bounds.min);
+			for (int index = 1; index < count; index++) {
+				BigDecimal boundary = min.add(width.multiply(BigDecimal.valueOf(index)));
+				if (integral) {
+					boundary = boundary.setScale(0, RoundingMode.CEILING);
+				}
+				Object value = convert(boundary, bounds.min);
+				if (boundary.compareTo(min) > 0 && boundary.compareTo(max) <= 0 && !boundaries.contains(value)) {
+					boundaries.add(value);
+				}
+			}
+			return boundaries;
+		}
+		String tiles = String.format(
+				"SELECT MIN(%1$s) FROM (SELECT %1$s, NTILE(%2$d) OVER (ORDER BY %1$s) riot_tile FROM (%3$s) riot_rows WHERE %1$s IS NOT NULL) riot_tiles GROUP BY riot_tile ORDER BY 1",
+				partitionColumn, count, sql);
+		List<Object> starts = jdbcTemplate.queryForList(tiles, Object.class);
+		for (Object start : starts.subList(1, starts.size())) {
+			if (!boundaries.contains(start)) {
+				boundaries.add(start);
+			}
+		}
+		return boundaries;
+	}
+
+	private static BigDecimal decimal(Number number) {
+		if (number instanceof BigDecimal) {
+			return (BigDecimal) number;
+		}
+		if (number instanceof BigInteger) {
+			return new BigDecimal((BigInteger) number);
+		}
+		if (isIntegral(number)) {
+			return BigDecimal.valueOf(number.longValue());
+		}
+		return BigDecimal.valueOf(number.doubleValue());
+	}
+
+	private static boolean isIntegral(Object number) {
+		if (number instanceof BigDecimal) {
+			return ((BigDecimal) number).stripTrailingZeros().scale() <= 0;
+		}
+		return number instanceof Long || number instanceof Integer || number instanceof Short
+				|| number instanceof Byte || number instanceof BigInteger;
+	}
+
+	/**
+	 * Boundaries are bound with the type of the column values so that
+	 * comparisons do not prevent the database from using an index.
+	 */
+	private static Object convert(BigDecimal value, Object sample) {
+		if (sample instanceof Long) {
+			return value.longValue();
+		}
+		if (sample instanceof Integer) {
+			return value.intValue();
+		}
+		if (sample instanceof Short) {
+			return value.shortValue();
+		}
+		if (sample instanceof Byte) {
+			return value.byteValue();
+		}
+		if (sample instanceof BigInteger) {
+			return value.toBigInteger();
+		}
+		if (sample instanceof Double) {
+			return value.doubleValue();
+		}
+		if (sample instanceof Float) {
+			return value.floatValue();
+		}
+		return value;
+	}
+
+	/**
+	 * Detects the primary key of the table the SELECT statement reads from.
+	 */
+	private String primaryKey() {
+		Matcher matcher = TABLE_PATTERN.matcher(sql);
+		Assert.isTrue(matcher.find(), "Could not find table in SQL statement, specify a partition column");
+		String table = matcher.group(1);
+		try (Connection connection = dataSource.getConnection()) {
+			DatabaseMetaData metaData = connection.getMetaData();
+			String schema = null;
+			int separator = table.lastIndexOf('.');
+			if (separator > 0) {
+				schema = identifier(metaData, table.substring(0, separator));
+				table = table.substring(separator + 1);
+			}
+			List<String> columns = new ArrayList<>();
+			try (ResultSet resultSet = metaData.getPrimaryKeys(connection.getCatalog(), schema,
+					identifier(metaData, table))) {
+				while (resultSet.next()) {
+					columns.add(resultSet.getString("COLUMN_NAME"));
+				}
+			}
+			Assert.isTrue(columns.size() == 1, "Table " + table
+					+ " does not have a single-column primary key, specify a partition column");
+			return columns.get(0);
+		} catch (SQLException e) {
+			throw new DataAccessResourceFailureException("Could not read primary key of table " + table, e);
+		}
+	}
+
+	private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+		if (metaData.storesUpperCaseIdentifiers()) {
+			return name.toUpperCase(Locale.ROOT);
+		}
+		if (metaData.storesLowerCaseIdentifiers()) {
+			return name.toLowerCase(Locale.ROOT);
+		}
+		return name;
+	}
+
+	public String getColumn() {
+		return column;
+	}
+
+	public void setColumn(String column) {
+		this.column = column;
+	}
+
+	private static class Bounds {
+
+		private final Object min;
+		private final Object max;
+		private final long nullCount;
+
+		public Bounds(Object min, Object max, long nullCount) {
+			this.min = min;
+			this.max = max;
+			this.nullCount = nullCount;
+		}
+
+	}
+
+}
@@ -1,10 +1,14 @@
 package com.redis.riot.db;
 
+import java.io.File;
 import java.util.Map;
 
+import javax.sql.DataSource;
+
 import org.springframework.batch.item.database.AbstractCursorItemReader;
 import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
 import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.RowMapper;
 
 import picocli.CommandLine.Option;
 
@@ -13,6 +17,7 @@ public class DatabaseReaderArgs extends DatabaseArgs {
 	public static final int DEFAULT_FETCH_SIZE = AbstractCursorItemReader.VALUE_NOT_SET;
 	public static final int DEFAULT_MAX_RESULT_SET_ROWS = AbstractCursorItemReader.VALUE_NOT_SET;
 	public static final int DEFAULT_QUERY_TIMEOUT = AbstractCursorItemReader.VALUE_NOT_SET;
+	public static final int DEFAULT_PARTITIONS = 1;
 
 	@Option(names = "--max", description = "Max number of rows to import.", paramLabel = "<count>")
 	private int maxItemCount;
@@ -32,11 +37,55 @@ public class DatabaseReaderArgs extends DatabaseArgs {
 	@Option(names = "--verify", description = "Verify position of result set after row mapper.", hidden = true)
 	private boolean verifyCursorPosition;
 
+	@Option(names = "--partitions", description = "Number of key ranges read concurrently, each with its own connection (default: ${DEFAULT-VALUE}).", paramLabel = "<int>")
+	private int partitions = DEFAULT_PARTITIONS;
+
+	@Option(names = "--partition-column", description = "Numeric or orderable column to split into key ranges (default: primary key of the table).", paramLabel = "<name>")
+	private String partitionColumn;
+
+	@Option(names = "--keyset", description = "Read pages of rows ordered by this unique column instead of a single long-lived cursor.", paramLabel = "<column>")
+	private String keysetColumn;
+
+	@Option(names = "--page", description = "Number of rows per page with --keyset (default: ${DEFAULT-VALUE}).", paramLabel = "<size>")
+	private int pageSize = KeysetItemReader.DEFAULT_PAGE_SIZE;
+
+	@Option(names = "--checkpoint", description = "File where the last key read with --keyset is saved, so that a restart resumes after it.", paramLabel = "<file>")
+	private File checkpointFile;
+
+	@Option(names = "--typed-rows", description = "Map rows to compact records of values formatted by column type instead of maps of JDBC objects.")
+	private boolean typedRows;
+
 	public JdbcCursorItemReaderBuilder<Map<String, Object>> reader() {
+		return reader(dataSource());
+	}
+
+	public RowMapper<Map<String, Object>> rowMapper() {
+		if (typedRows) {
+			return new ColumnRecordRowMapper();
+		}
+		return new ColumnMapRowMapper();
+	}
+
+	public KeysetItemReader<Map<String, Object>> keysetReader(String sql) {
+		KeysetItemReader<Map<String, Object>> reader = new KeysetItemReader<>(dataSource(), sql, keysetColumn,
+				rowMapper());
+		reader.setPageSize(pageSize);
+		reader.setFetchSize(fetchSize);
+		reader.setQueryTimeout(queryTimeout);
+		if (checkpointFile != null) {
+			reader.setStateFile(checkpointFile.toPath());
+		}
+		if (maxItemCount > 0) {
+			reader.setMaxItemCount(maxItemCount);
+		}
+		return reader;
+	}
+
+	public JdbcCursorItemReaderBuilder<Map<String, Object>> reader(DataSource dataSource) {
 		JdbcCursorItemReaderBuilder<Map<String, Object>> builder = new JdbcCursorItemReaderBuilder<>();
 		builder.saveState(false);
-		builder.dataSource(dataSource());
-		builder.rowMapper(new ColumnMapRowMapper());
+		builder.dataSource(dataSource);
+		builder.rowMapper(rowMapper());
 		builder.fetchSize(fetchSize);
 		builder.maxRows(maxRows);
 		builder.queryTimeout(queryTimeout);
@@ -93,6 +142,54 @@ public class DatabaseReaderArgs extends DatabaseArgs {
 		this.useSharedExtendedConnection = useSharedExtendedConnection;
 	}
 
+	public int getPartitions() {
+		return partitions;
+	}
+
+	public void setPartitions(int partitions) {
+		this.partitions = partitions;
+	}
+
+	public String getPartitionColumn() {
+		return partitionColumn;
+	}
+
+	public void setPartitionColumn(String partitionColumn) {
+		this.partitionColumn = partitionColumn;
+	}
+
+	public String getKeysetColumn() {
+		return keysetColumn;
+	}
+
+	public void setKeysetColumn(String column) {
+		this.keysetColumn = column;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	public void setPageSize(int pageSize) {
+		this.pageSize = pageSize;
+	}
+
+	public File getCheckpointFile() {
+		return checkpointFile;
+	}
+
+	public void setCheckpointFile(File file) {
+		this.checkpointFile = file;
+	}
+
+	public boolean isTypedRows() {
+		return typedRows;
+	}
+
+	public void setTypedRows(boolean typedRows) {
+		this.typedRows = typedRows;
+	}
+
 	public boolean isVerifyCursorPosition() {
 		return verifyCursorPosition;
 	}
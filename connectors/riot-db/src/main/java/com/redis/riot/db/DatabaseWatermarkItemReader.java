@@ -0,0 +1,236 @@
+package com.redis.riot.db;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import com.redis.spring.batch.item.PollableItemReader;
+
+/**
+ * Reader polling a SELECT statement for rows changed since the last poll,
+ * using a watermark column that increases every time a row changes (e.g. a
+ * last-modified timestamp or a sequence). The first query reads all rows, and
+ * each following query only reads rows whose watermark is greater than the
+ * greatest value read so far.
+ * <p>
+ * If a state file is set, the watermark is saved to it every time the step
+ * commits a chunk. Only values for which all rows were read are saved, so
+ * after a restart rows sharing the last watermark value are read again rather
+ * than skipped.
+ */
+public class DatabaseWatermarkItemReader<T> extends ItemStreamSupport
+		implements ItemStreamReader<T>, PollableItemReader<T> {
+
+	public static final long DEFAULT_POLL_INTERVAL = 1000;
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final DataSource dataSource;
+	private final String sql;
+	private final String column;
+	private final RowMapper<T> rowMapper;
+
+	private Path stateFile;
+	private long pollInterval = DEFAULT_POLL_INTERVAL;
+	private int fetchSize = -1;
+	private int queryTimeout = -1;
+
+	private Connection connection;
+	private PreparedStatement statement;
+	private ResultSet resultSet;
+	private int rowNum;
+	private Object watermark;
+	private Object current;
+	private long lastQuery;
+	private boolean open;
+
+	public DatabaseWatermarkItemReader(DataSource dataSource, String sql, String column, RowMapper<T> rowMapper) {
+		setName(ClassUtils.getShortName(getClass()));
+		Assert.notNull(dataSource, "Data source must not be null");
+		Assert.hasText(sql, "SQL must not be empty");
+		Assert.hasText(column, "Watermark column must not be empty");
+		Assert.notNull(rowMapper, "Row mapper must not be null");
+		this.dataSource = dataSource;
+		this.sql = sql;
+		this.column = column;
+		this.rowMapper = rowMapper;
+	}
+
+	@Override
+	public synchronized void open(ExecutionContext executionContext) {
+		if (open) {
+			return;
+		}
+		open = true;
+		if (stateFile != null) {
+			watermark = new ColumnValueFile(stateFile).read();
+			if (watermark != null) {
+				log.info("Resuming after watermark {}", watermark);
+			}
+		}
+		current = watermark;
+		lastQuery = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(pollInterval);
+	}
+
+	@Override
+	public synchronized T read() throws Exception {
+		T item;
+		do {
+			item = poll(pollInterval, TimeUnit.MILLISECONDS);
+		} while (item == null && open);
+		return item;
+	}
+
+	@Override
+	public synchronized T poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (open) {
+			T item = next();
+			if (item != null) {
+				return item;
+			}
+			long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			if (remaining <= 0) {
+				return null;
+			}
+			wait(Math.min(remaining, pollInterval));
+		}
+		return null;
+	}
+
+	/**
+	 *
+	 * @return next changed row, or null if there is none until the next poll
+	 */
+	private T next() {
+		try {
+			if (resultSet == null) {
+				if (System.nanoTime() - lastQuery < TimeUnit.MILLISECONDS.toNanos(pollInterval)) {
+					return null;
+				}
+				query();
+			}
+			if (resultSet.next()) {
+				Object value = resultSet.getObject(column);
+				if (!Objects.equals(value, current)) {
+					// Rows are ordered by watermark so all rows of the previous value were read
+					watermark = current;
+					current = value;
+				}
+				return rowMapper.mapRow(resultSet, rowNum++);
+			}
+			closeQuery();
+			watermark = current;
+			return null;
+		} catch (SQLException e) {
+			closeQuery();
+			throw new ItemStreamException("Could not read changed rows", e);
+		}
+	}
+
+	private void query() throws SQLException {
+		lastQuery = System.nanoTime();
+		String select = "SELECT * FROM (" + sql + ") riot_watermark ";
+		String orderBy = "ORDER BY " + column;
+		connection = dataSource.getConnection();
+		// Some drivers only stream results with a fetch size outside of auto-commit
+		connection.setAutoCommit(false);
+		if (watermark == null) {
+			statement = connection.prepareStatement(select + orderBy);
+		} else {
+			statement = connection.prepareStatement(select + "WHERE " + column + " > ? " + orderBy);
+			statement.setObject(1, watermark);
+		}
+		if (fetchSize > 0) {
+			statement.setFetchSize(fetchSize);
+		}
+		if (queryTimeout > 0) {
+			statement.setQueryTimeout(queryTimeout);
+		}
+		resultSet = statement.executeQuery();
+		rowNum = 0;
+	}
+
+	private void closeQuery() {
+		JdbcUtils.closeResultSet(resultSet);
+		JdbcUtils.closeStatement(statement);
+		if (connection != null) {
+			try {
+				connection.rollback();
+			} catch (SQLException e) {
+				log.debug("Could not end read transaction", e);
+			}
+		}
+		JdbcUtils.closeConnection(connection);
+		resultSet = null;
+		statement = null;
+		connection = null;
+	}
+
+	@Override
+	public synchronized void update(ExecutionContext executionContext) {
+		if (stateFile != null && watermark != null) {
+			new ColumnValueFile(stateFile).write(watermark, sql);
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		if (!open) {
+			return;
+		}
+		open = false;
+		notifyAll();
+		closeQuery();
+	}
+
+	public Path getStateFile() {
+		return stateFile;
+	}
+
+	public void setStateFile(Path stateFile) {
+		this.stateFile = stateFile;
+	}
+
+	public long getPollInterval() {
+		return pollInterval;
+	}
+
+	public void setPollInterval(long intervalMillis) {
+		this.pollInterval = intervalMillis;
+	}
+
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	public int getQueryTimeout() {
+		return queryTimeout;
+	}
+
+	public void setQueryTimeout(int queryTimeout) {
+		this.queryTimeout = queryTimeout;
+	}
+
+}
@@ -0,0 +1,244 @@
+package com.redis.riot.db;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.batch.support.DatabaseType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reads a SELECT statement in pages ordered by a unique key column, each page
+ * starting after the last key of the previous one ({@code WHERE key > ? ORDER
+ * BY key LIMIT page}). Unlike a cursor, no connection or snapshot is held
+ * between pages. The next page is fetched in the background while the current
+ * one is processed.
+ * <p>
+ * If a state file is set, the last key read is saved to it every time the step
+ * commits a chunk, and reading resumes after that key when the reader is
+ * opened again. The state file is deleted once the chunk holding the last row
+ * was committed, so that the next run reads all rows again.
+ *
+ * @param <T> type of the items
+ */
+public class KeysetItemReader<T> extends AbstractItemCountingItemStreamItemReader<T> {
+
+	public static final int DEFAULT_PAGE_SIZE = 10000;
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final DataSource dataSource;
+	private final String sql;
+	private final String keyColumn;
+	private final RowMapper<T> rowMapper;
+
+	private int pageSize = DEFAULT_PAGE_SIZE;
+	private int fetchSize = -1;
+	private int queryTimeout = -1;
+	private Path stateFile;
+
+	private JdbcTemplate jdbcTemplate;
+	private String firstPageSql;
+	private String nextPageSql;
+	private ExecutorService executor;
+	private Future<Page<T>> nextPage;
+	private Page<T> page;
+	private int index;
+	private Object lastKey;
+	private boolean exhausted;
+
+	public KeysetItemReader(DataSource dataSource, String sql, String keyColumn, RowMapper<T> rowMapper) {
+		setName(ClassUtils.getShortName(getClass()));
+		Assert.notNull(dataSource, "Data source must not be null");
+		Assert.hasText(sql, "SQL must not be empty");
+		Assert.hasText(keyColumn, "Key column must not be empty");
+		Assert.notNull(rowMapper, "Row mapper must not be null");
+		this.dataSource = dataSource;
+		this.sql = sql;
+		this.keyColumn = keyColumn;
+		this.rowMapper = rowMapper;
+	}
+
+	@Override
+	protected void doOpen() throws Exception {
+		Assert.isTrue(pageSize > 0, "Page size must be greater than 0");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.setFetchSize(fetchSize);
+		jdbcTemplate.setQueryTimeout(queryTimeout);
+		jdbcTemplate.setMaxRows(pageSize);
+		String select = "SELECT * FROM (" + sql + ") riot_keyset ";
+		String orderBy = "ORDER BY " + keyColumn + " " + limitClause();
+		firstPageSql = select + orderBy;
+		nextPageSql = select + "WHERE " + keyColumn + " > ? " + orderBy;
+		exhausted = false;
+		lastKey = stateFile == null ? null : new ColumnValueFile(stateFile).read();
+		if (lastKey != null) {
+			log.info("Resuming after key {}", lastKey);
+		}
+		executor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "keyset-reader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		nextPage = fetch(lastKey);
+	}
+
+	private String limitClause() {
+		DatabaseType databaseType;
+		try {
+			databaseType = DatabaseType.fromMetaData(dataSource);
+		} catch (MetaDataAccessException e) {
+			log.debug("Could not detect database type, using LIMIT clause", e);
+			return "LIMIT " + pageSize;
+		}
+		switch (databaseType) {
+		case SQLSERVER:
+			return "OFFSET 0 ROWS FETCH NEXT " + pageSize + " ROWS ONLY";
+		case ORACLE:
+		case DB2:
+		case DB2VSE:
+		case DB2ZOS:
+		case DB2AS400:
+		case DERBY:
+			return "FETCH FIRST " + pageSize + " ROWS ONLY";
+		default:
+			return "LIMIT " + pageSize;
+		}
+	}
+
+	private Future<Page<T>> fetch(Object after) {
+		ResultSetExtractor<Page<T>> extractor = this::page;
+		return executor.submit(() -> {
+			if (after == null) {
+				return jdbcTemplate.query(firstPageSql, extractor);
+			}
+			return jdbcTemplate.query(nextPageSql, extractor, after);
+		});
+	}
+
+	private Page<T> page(ResultSet resultSet) throws SQLException {
+		Page<T> result = new Page<>();
+		int rowNum = 0;
+		while (resultSet.next()) {
+			result.keys.add(resultSet.getObject(keyColumn));
+			result.items.add(rowMapper.mapRow(resultSet, rowNum++));
+		}
+		return result;
+	}
+
+	@Override
+	protected T doRead() throws Exception {
+		while (page == null || index >= page.items.size()) {
+			if (nextPage == null) {
+				exhausted = true;
+				return null;
+			}
+			page = take(nextPage);
+			index = 0;
+			// A partial page is the last one
+			nextPage = page.items.size() < pageSize ? null : fetch(page.keys.get(page.keys.size() - 1));
+		}
+		lastKey = page.keys.get(index);
+		return page.items.get(index++);
+	}
+
+	private Page<T> take(Future<Page<T>> future) throws Exception {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ItemStreamException("Interrupted while reading page", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw new ItemStreamException("Could not read page", e.getCause());
+		}
+	}
+
+	@Override
+	public void update(ExecutionContext executionContext) {
+		super.update(executionContext);
+		if (stateFile == null) {
+			return;
+		}
+		if (exhausted) {
+			// Only reached once the chunk holding the last row was written
+			new ColumnValueFile(stateFile).delete();
+		} else if (lastKey != null) {
+			new ColumnValueFile(stateFile).write(lastKey, sql);
+		}
+	}
+
+	@Override
+	protected void doClose() throws Exception {
+		if (nextPage != null) {
+			nextPage.cancel(true);
+			nextPage = null;
+		}
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+		page = null;
+		index = 0;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	public void setPageSize(int pageSize) {
+		this.pageSize = pageSize;
+	}
+
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	public int getQueryTimeout() {
+		return queryTimeout;
+	}
+
+	public void setQueryTimeout(int queryTimeout) {
+		this.queryTimeout = queryTimeout;
+	}
+
+	public Path getStateFile() {
+		return stateFile;
+	}
+
+	public void setStateFile(Path stateFile) {
+		this.stateFile = stateFile;
+	}
+
+	private static class Page<T> {
+
+		private final List<Object> keys = new ArrayList<>();
+		private final List<T> items = new ArrayList<>();
+
+	}
+
+}
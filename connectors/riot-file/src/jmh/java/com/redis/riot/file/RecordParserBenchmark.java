@@ -0,0 +1,135 @@
+package com.redis.riot.file;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.file.separator.DefaultRecordSeparatorPolicy;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.batch.item.file.transform.FixedLengthTokenizer;
+import org.springframework.batch.item.file.transform.Range;
+import org.springframework.batch.item.file.transform.RangeArrayPropertyEditor;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Compares {@link RecordItemReader} with the {@code FlatFileItemReader} setup
+ * it replaces (line tokenizer, record separator policy and
+ * {@link MapFieldSetMapper}) on in-memory delimited and fixed-length files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordParserBenchmark {
+
+	private static final String[] NAMES = { "id", "name", "email", "city", "description", "amount" };
+	private static final String RANGES = "1-8,9-28,29-58,59-78,79-118,119-128";
+
+	@Param({ "10000" })
+	private int records;
+
+	private Resource delimitedResource;
+	private Resource fixedLengthResource;
+
+	@Setup
+	public void setup() {
+		StringBuilder delimited = new StringBuilder();
+		StringBuilder fixedLength = new StringBuilder();
+		for (int index = 0; index < records; index++) {
+			delimited.append(index).append(',');
+			delimited.append("Name ").append(index).append(',');
+			delimited.append("user").append(index).append("@example.com").append(',');
+			delimited.append("City ").append(index % 100).append(',');
+			delimited.append("\"Description, with a \"\"quoted\"\" part\"").append(',');
+			delimited.append(index * 3.5).append('\n');
+			fixedLength.append(String.format("%-8s%-20s%-30s%-20s%-40s%-10s%n", index, "Name " + index,
+					"user" + index + "@example.com", "City " + index % 100, "Description of item " + index,
+					index * 3.5));
+		}
+		delimitedResource = new ByteArrayResource(delimited.toString().getBytes(StandardCharsets.UTF_8));
+		fixedLengthResource = new ByteArrayResource(fixedLength.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Benchmark
+	public void delimitedLineTokenizer(Blackhole blackhole) throws Exception {
+		DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+		tokenizer.setNames(NAMES);
+		read(flatFileReader(delimitedResource).lineTokenizer(tokenizer).build(), blackhole);
+	}
+
+	@Benchmark
+	public void delimitedRecordParser(Blackhole blackhole) throws Exception {
+		read(recordReader(delimitedResource, new DelimitedRecordParser()), blackhole);
+	}
+
+	@Benchmark
+	public void fixedLengthTokenizer(Blackhole blackhole) throws Exception {
+		FixedLengthTokenizer tokenizer = new FixedLengthTokenizer();
+		tokenizer.setNames(NAMES);
+		tokenizer.setColumns(ranges());
+		tokenizer.setStrict(false);
+		read(flatFileReader(fixedLengthResource).lineTokenizer(tokenizer).build(), blackhole);
+	}
+
+	@Benchmark
+	public void fixedLengthRecordParser(Blackhole blackhole) throws Exception {
+		FixedLengthRecordParser parser = new FixedLengthRecordParser(ranges());
+		parser.setStrict(false);
+		read(recordReader(fixedLengthResource, parser), blackhole);
+	}
+
+	private Range[] ranges() {
+		RangeArrayPropertyEditor editor = new RangeArrayPropertyEditor();
+		editor.setAsText(RANGES);
+		return (Range[]) editor.getValue();
+	}
+
+	private FlatFileItemReaderBuilder<Map<String, Object>> flatFileReader(Resource resource) {
+		FlatFileItemReaderBuilder<Map<String, Object>> builder = new FlatFileItemReaderBuilder<>();
+		builder.resource(resource);
+		builder.saveState(false);
+		builder.recordSeparatorPolicy(new DefaultRecordSeparatorPolicy("\"", "\\"));
+		builder.fieldSetMapper(new MapFieldSetMapper());
+		return builder;
+	}
+
+	private RecordItemReader recordReader(Resource resource, RecordParser parser) {
+		parser.setContinuationString("\\");
+		RecordItemReader reader = new RecordItemReader(parser);
+		reader.setResource(resource);
+		reader.setSaveState(false);
+		reader.setNames(NAMES);
+		return reader;
+	}
+
+	private void read(ItemStreamReader<Map<String, Object>> reader, Blackhole blackhole) throws Exception {
+		reader.open(new ExecutionContext());
+		try {
+			Map<String, Object> item;
+			while ((item = reader.read()) != null) {
+				blackhole.consume(item);
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+}
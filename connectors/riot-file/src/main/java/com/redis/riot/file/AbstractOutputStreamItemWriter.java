@@ -0,0 +1,351 @@
+package com.redis.riot.file;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.core.io.WritableResource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Base class for writers that serialize items straight to the output stream of
+ * a resource through a single large buffer, instead of building a string for
+ * every item.
+ * <p>
+ * Like {@code FlatFileItemWriter}, when the writer is transactional the bytes
+ * of a chunk are held in memory until its transaction commits, and dropped if
+ * it rolls back.
+ *
+ * @param <T> item type
+ */
+public abstract class AbstractOutputStreamItemWriter<T> extends ItemStreamSupport
+		implements ItemStreamWriter<T>, Flushable {
+
+	public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+	public static final String DEFAULT_ENCODING = StandardCharsets.UTF_8.name();
+	public static final String DEFAULT_LINE_SEPARATOR = System.getProperty("line.separator");
+
+	private final WritableResource resource;
+
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+	private String encoding = DEFAULT_ENCODING;
+	private String lineSeparator = DEFAULT_LINE_SEPARATOR;
+	private boolean append;
+	private boolean shouldDeleteIfExists = true;
+	private boolean shouldDeleteIfEmpty;
+	private boolean forceSync;
+	private boolean transactional = true;
+
+	private FileChannel channel;
+	private TransactionAwareOutputStream transactionStream;
+	private OutputStream outputStream;
+	private long itemCount;
+	private long position;
+
+	protected AbstractOutputStreamItemWriter(WritableResource resource) {
+		Assert.notNull(resource, "Resource must not be null");
+		this.resource = resource;
+	}
+
+	@Override
+	public synchronized void open(ExecutionContext executionContext) {
+		if (outputStream != null) {
+			return;
+		}
+		try {
+			transactionStream = new TransactionAwareOutputStream(new BufferedOutputStream(outputStream(), bufferSize));
+			outputStream = transactionStream;
+			itemCount = 0;
+			doOpen(outputStream);
+		} catch (Exception e) {
+			throw new ItemStreamException("Could not open resource " + resource.getDescription(), e);
+		}
+	}
+
+	private OutputStream outputStream() throws IOException {
+		if (!resource.isFile()) {
+			return resource.getOutputStream();
+		}
+		Path path = resource.getFile().toPath();
+		if (Files.exists(path) && !append && !shouldDeleteIfExists) {
+			throw new ItemStreamException("File already exists: " + resource.getDescription());
+		}
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+		return Channels.newOutputStream(channel);
+	}
+
+	protected abstract void doOpen(OutputStream outputStream) throws Exception;
+
+	@Override
+	public synchronized void write(Chunk<? extends T> chunk) throws Exception {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		if (transactional && TransactionSynchronizationManager.isSynchronizationActive()) {
+			// Anything written outside of chunks, like a header, is not part of this one
+			doFlush();
+			transactionStream.startBuffering();
+			byte[] bytes;
+			try {
+				writeItems(chunk);
+				// Push bytes buffered by the writer itself so they belong to this chunk
+				doFlush();
+			} finally {
+				bytes = transactionStream.stopBuffering();
+			}
+			TransactionSynchronizationManager.registerSynchronization(new CommitSynchronization(bytes, chunk.size()));
+		} else {
+			writeItems(chunk);
+			written(chunk.size());
+		}
+	}
+
+	private void writeItems(Chunk<? extends T> chunk) throws Exception {
+		position = itemCount;
+		for (T item : chunk) {
+			doWrite(item);
+			position++;
+		}
+	}
+
+	private void written(int count) throws IOException {
+		itemCount += count;
+		if (forceSync) {
+			flush();
+			if (channel != null) {
+				channel.force(false);
+			}
+		}
+	}
+
+	private class CommitSynchronization implements TransactionSynchronization {
+
+		private final byte[] bytes;
+		private final int count;
+
+		public CommitSynchronization(byte[] bytes, int count) {
+			this.bytes = bytes;
+			this.count = count;
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			if (status != STATUS_COMMITTED) {
+				return;
+			}
+			synchronized (AbstractOutputStreamItemWriter.this) {
+				try {
+					transactionStream.writeCommitted(bytes);
+					written(count);
+				} catch (IOException e) {
+					throw new ItemStreamException("Could not write to resource " + resource.getDescription(), e);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Stream in front of the resource output stream that holds the bytes of the
+	 * current chunk while buffering.
+	 */
+	private static class TransactionAwareOutputStream extends OutputStream {
+
+		private final OutputStream delegate;
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+		private boolean buffering;
+
+		public TransactionAwareOutputStream(OutputStream delegate) {
+			this.delegate = delegate;
+		}
+
+		public void startBuffering() {
+			buffer.reset();
+			buffering = true;
+		}
+
+		public byte[] stopBuffering() {
+			buffering = false;
+			return buffer.toByteArray();
+		}
+
+		public void writeCommitted(byte[] bytes) throws IOException {
+			delegate.write(bytes);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if (buffering) {
+				buffer.write(b);
+			} else {
+				delegate.write(b);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (buffering) {
+				buffer.write(b, off, len);
+			} else {
+				delegate.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (!buffering) {
+				delegate.flush();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+
+	}
+
+	protected abstract void doWrite(T item) throws Exception;
+
+	@Override
+	public synchronized void flush() throws IOException {
+		if (outputStream == null) {
+			return;
+		}
+		doFlush();
+		outputStream.flush();
+	}
+
+	/**
+	 * Flushes data buffered by the writer itself to the output stream.
+	 */
+	protected void doFlush() throws IOException {
+		// nothing buffered by default
+	}
+
+	@Override
+	public synchronized void close() {
+		if (outputStream == null) {
+			return;
+		}
+		try {
+			doClose();
+			outputStream.close();
+			if (shouldDeleteIfEmpty && itemCount == 0 && resource.isFile()) {
+				Files.deleteIfExists(resource.getFile().toPath());
+			}
+		} catch (Exception e) {
+			throw new ItemStreamException("Could not close resource " + resource.getDescription(), e);
+		} finally {
+			outputStream = null;
+			transactionStream = null;
+			channel = null;
+		}
+	}
+
+	protected abstract void doClose() throws Exception;
+
+	/**
+	 *
+	 * @return true if the item being written is the first one of the output,
+	 *         taking rolled back chunks into account
+	 */
+	protected boolean isFirstItem() {
+		return position == 0;
+	}
+
+	/**
+	 *
+	 * @return number of items written to the output, not counting chunks waiting
+	 *         for their transaction to commit
+	 */
+	protected long getItemCount() {
+		return itemCount;
+	}
+
+	public WritableResource getResource() {
+		return resource;
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public void setBufferSize(int size) {
+		this.bufferSize = size;
+	}
+
+	public String getEncoding() {
+		return encoding;
+	}
+
+	public void setEncoding(String encoding) {
+		this.encoding = encoding;
+	}
+
+	public String getLineSeparator() {
+		return lineSeparator;
+	}
+
+	public void setLineSeparator(String separator) {
+		this.lineSeparator = separator;
+	}
+
+	public boolean isAppend() {
+		return append;
+	}
+
+	public void setAppend(boolean append) {
+		this.append = append;
+	}
+
+	public boolean isShouldDeleteIfExists() {
+		return shouldDeleteIfExists;
+	}
+
+	public void setShouldDeleteIfExists(boolean shouldDeleteIfExists) {
+		this.shouldDeleteIfExists = shouldDeleteIfExists;
+	}
+
+	public boolean isShouldDeleteIfEmpty() {
+		return shouldDeleteIfEmpty;
+	}
+
+	public void setShouldDeleteIfEmpty(boolean shouldDeleteIfEmpty) {
+		this.shouldDeleteIfEmpty = shouldDeleteIfEmpty;
+	}
+
+	public boolean isForceSync() {
+		return forceSync;
+	}
+
+	public void setForceSync(boolean forceSync) {
+		this.forceSync = forceSync;
+	}
+
+	public boolean isTransactional() {
+		return transactional;
+	}
+
+	public void setTransactional(boolean transactional) {
+		this.transactional = transactional;
+	}
+
+}
@@ -0,0 +1,223 @@
+package com.redis.riot.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+
+/**
+ * Output stream uploading its content to S3 as a multipart upload while it is
+ * being written. Each full part is uploaded by a pool of workers, and writers
+ * block once {@code concurrency} parts are in flight, so memory is bounded by
+ * part size times concurrency. Objects smaller than one part are uploaded with
+ * a single request on close.
+ * <p>
+ * S3 accepts at most 10,000 parts, so the part size doubles every 1,000 parts
+ * up to 1GB. A failed part fails the next write, and the upload is aborted
+ * rather than completed if a part fails or if {@link #abort()} was called
+ * before the stream is closed.
+ */
+public class AmazonS3MultipartOutputStream extends OutputStream {
+
+	public static final int MAX_PARTS = 10000;
+	public static final int MAX_PART_SIZE = 1024 * 1024 * 1024;
+
+	private static final int PARTS_PER_SIZE = 1000;
+
+	private final AmazonS3 client;
+	private final String bucket;
+	private final String key;
+	private final int partSize;
+	private final ExecutorService executor;
+	private final Semaphore inFlight;
+	private final List<Future<PartETag>> parts = new ArrayList<>();
+
+	private String uploadId;
+	private byte[] buffer;
+	private int position;
+	private int checked;
+	private boolean closed;
+	private volatile boolean aborted;
+
+	public AmazonS3MultipartOutputStream(AmazonS3 client, String bucket, String key, int partSize,
+			int concurrency) {
+		this.client = client;
+		this.bucket = bucket;
+		this.key = key;
+		this.partSize = partSize;
+		this.executor = Executors.newFixedThreadPool(concurrency, r -> {
+			Thread thread = new Thread(r, "s3-uploader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.inFlight = new Semaphore(concurrency);
+		this.buffer = new byte[partSize];
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (position == buffer.length) {
+			uploadPart();
+		}
+		buffer[position++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			if (position == buffer.length) {
+				uploadPart();
+			}
+			int length = Math.min(len, buffer.length - position);
+			System.arraycopy(b, off, buffer, position, length);
+			position += length;
+			off += length;
+			len -= length;
+		}
+	}
+
+	private void uploadPart() throws IOException {
+		if (aborted) {
+			throw new IOException("Upload to s3://" + bucket + "/" + key + " was aborted");
+		}
+		checkParts();
+		if (parts.size() == MAX_PARTS) {
+			throw new IOException(String.format("Could not upload s3://%s/%s: object exceeds %,d parts", bucket, key,
+					MAX_PARTS));
+		}
+		if (uploadId == null) {
+			uploadId = client.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, key)).getUploadId();
+		}
+		try {
+			inFlight.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting to upload part");
+		}
+		UploadPartRequest request = new UploadPartRequest().withBucketName(bucket).withKey(key)
+				.withUploadId(uploadId).withPartNumber(parts.size() + 1)
+				.withInputStream(new ByteArrayInputStream(buffer, 0, position)).withPartSize(position);
+		parts.add(executor.submit(() -> {
+			try {
+				return client.uploadPart(request).getPartETag();
+			} finally {
+				inFlight.release();
+			}
+		}));
+		buffer = new byte[partSize(parts.size())];
+		position = 0;
+	}
+
+	/**
+	 * Fails as soon as an uploaded part failed instead of when the upload is
+	 * completed.
+	 */
+	private void checkParts() throws IOException {
+		while (checked < parts.size() && parts.get(checked).isDone()) {
+			try {
+				parts.get(checked).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while uploading parts");
+			} catch (ExecutionException e) {
+				throw new IOException("Could not upload part of s3://" + bucket + "/" + key, e.getCause());
+			}
+			checked++;
+		}
+	}
+
+	private int partSize(int index) {
+		long size = (long) partSize << (index / PARTS_PER_SIZE);
+		return (int) Math.min(size, Math.max(partSize, MAX_PART_SIZE));
+	}
+
+	/**
+	 * Aborts the upload when the stream is closed instead of completing it, e.g.
+	 * because the export failed.
+	 */
+	public void abort() {
+		aborted = true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		boolean completed = false;
+		try {
+			if (aborted) {
+				completed = true;
+				if (uploadId != null) {
+					abortUpload();
+				}
+			} else if (uploadId == null) {
+				putObject();
+				completed = true;
+			} else {
+				if (position > 0) {
+					uploadPart();
+				}
+				complete();
+				completed = true;
+			}
+		} finally {
+			if (!completed && uploadId != null) {
+				abortQuietly();
+			}
+			executor.shutdownNow();
+			buffer = null;
+		}
+	}
+
+	private void putObject() {
+		ObjectMetadata metadata = new ObjectMetadata();
+		metadata.setContentLength(position);
+		client.putObject(bucket, key, new ByteArrayInputStream(buffer, 0, position), metadata);
+	}
+
+	private void complete() throws IOException {
+		List<PartETag> etags = new ArrayList<>(parts.size());
+		try {
+			for (Future<PartETag> part : parts) {
+				etags.add(part.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while uploading parts");
+		} catch (ExecutionException e) {
+			throw new IOException("Could not upload part of s3://" + bucket + "/" + key, e.getCause());
+		}
+		client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, etags));
+	}
+
+	private void abortUpload() {
+		parts.forEach(part -> part.cancel(true));
+		client.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+	}
+
+	private void abortQuietly() {
+		try {
+			abortUpload();
+		} catch (RuntimeException e) {
+			// Keep the exception that made the upload fail
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.StringUtils;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3URI;
+
+/**
+ * Writable S3 resource streaming its output as a parallel multipart upload.
+ * Uploads of the output streams opened so far are aborted instead of completed
+ * if {@link #abort()} is called before they are closed.
+ *
+ * @see AmazonS3MultipartOutputStream
+ */
+public class AmazonS3MultipartResource extends AbstractResource implements WritableResource {
+
+	private final AmazonS3 client;
+	private final String location;
+	private final AmazonS3URI uri;
+	private final int partSize;
+	private final int concurrency;
+	private final List<AmazonS3MultipartOutputStream> outputStreams = new ArrayList<>();
+
+	public AmazonS3MultipartResource(AmazonS3 client, String location, int partSize, int concurrency) {
+		this.client = client;
+		this.location = location;
+		this.uri = new AmazonS3URI(location);
+		this.partSize = partSize;
+		this.concurrency = concurrency;
+	}
+
+	@Override
+	public synchronized OutputStream getOutputStream() {
+		AmazonS3MultipartOutputStream outputStream = new AmazonS3MultipartOutputStream(client, uri.getBucket(),
+				uri.getKey(), partSize, concurrency);
+		outputStreams.add(outputStream);
+		return outputStream;
+	}
+
+	public synchronized void abort() {
+		outputStreams.forEach(AmazonS3MultipartOutputStream::abort);
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return client.getObject(uri.getBucket(), uri.getKey()).getObjectContent();
+	}
+
+	@Override
+	public boolean exists() {
+		return client.doesObjectExist(uri.getBucket(), uri.getKey());
+	}
+
+	@Override
+	public String getFilename() {
+		return StringUtils.getFilename(uri.getKey());
+	}
+
+	@Override
+	public String getDescription() {
+		return "Amazon S3 multipart upload [" + location + "]";
+	}
+
+}
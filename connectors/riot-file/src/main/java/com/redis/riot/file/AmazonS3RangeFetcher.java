@@ -0,0 +1,54 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3URI;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+
+/**
+ * Fetches byte ranges of an S3 object with ranged GET requests. Requests are
+ * constrained to the ETag read by {@link #size()}.
+ */
+public class AmazonS3RangeFetcher implements RangeFetcher {
+
+	private final AmazonS3 client;
+	private final String bucket;
+	private final String key;
+
+	private volatile String eTag;
+
+	public AmazonS3RangeFetcher(AmazonS3 client, String location) {
+		AmazonS3URI uri = new AmazonS3URI(location);
+		this.client = client;
+		this.bucket = uri.getBucket();
+		this.key = uri.getKey();
+	}
+
+	@Override
+	public long size() {
+		ObjectMetadata metadata = client.getObjectMetadata(bucket, key);
+		eTag = metadata.getETag();
+		return metadata.getContentLength();
+	}
+
+	@Override
+	public byte[] fetch(long offset, int length) throws IOException {
+		GetObjectRequest request = new GetObjectRequest(bucket, key).withRange(offset, offset + length - 1);
+		if (eTag != null) {
+			request.withMatchingETagConstraint(eTag);
+		}
+		S3Object s3Object = client.getObject(request);
+		if (s3Object == null) {
+			// Constraints not met
+			throw new IOException("Object s3://" + bucket + "/" + key + " changed during download");
+		}
+		try (S3Object object = s3Object; InputStream inputStream = object.getObjectContent()) {
+			return RangedInputStream.readFully(inputStream, length);
+		}
+	}
+
+}
@@ -0,0 +1,263 @@
+package com.redis.riot.file;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Input stream decompressing BGZF data, as written by bgzip, where every gzip
+ * member records its compressed size in a 'BC' extra subfield. Members can
+ * therefore be read without inflating them and are inflated concurrently by a
+ * pool of workers, while output is returned in order.
+ */
+public class BgzfInputStream extends InputStream {
+
+	private static final int ID1 = 0x1f;
+	private static final int ID2 = 0x8b;
+	private static final int CM_DEFLATE = 8;
+	private static final int FHCRC = 2;
+	private static final int FEXTRA = 4;
+	private static final int FNAME = 8;
+	private static final int FCOMMENT = 16;
+	private static final int HEADER_LENGTH = 12;
+	private static final int BGZF_HEADER_LENGTH = 18;
+	private static final int TRAILER_LENGTH = 8;
+	private static final byte[] EMPTY = new byte[0];
+
+	private final InputStream source;
+	private final ExecutorService executor;
+	private final int maxPending;
+	private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+	private boolean sourceEnd;
+	private byte[] block = EMPTY;
+	private int position;
+
+	public BgzfInputStream(InputStream source, int workers) {
+		this.source = source;
+		this.executor = Executors.newFixedThreadPool(workers, r -> {
+			Thread thread = new Thread(r, "bgzf-inflater");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.maxPending = workers * 2;
+	}
+
+	/**
+	 * Checks whether the given stream starts with a BGZF member, leaving the
+	 * stream position unchanged.
+	 *
+	 * @param in stream supporting mark/reset
+	 * @return true if the stream starts with a BGZF header
+	 * @throws IOException
+	 */
+	public static boolean isBgzf(InputStream in) throws IOException {
+		in.mark(BGZF_HEADER_LENGTH);
+		try {
+			byte[] header = new byte[BGZF_HEADER_LENGTH];
+			int length = in.readNBytes(header, 0, header.length);
+			return length == BGZF_HEADER_LENGTH && (header[0] & 0xFF) == ID1 && (header[1] & 0xFF) == ID2
+					&& header[2] == CM_DEFLATE && (header[3] & FEXTRA) != 0 && header[12] == 'B' && header[13] == 'C'
+					&& header[14] == 2 && header[15] == 0;
+		} finally {
+			in.reset();
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (position == block.length && !nextBlock()) {
+			return -1;
+		}
+		return block[position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (position == block.length && !nextBlock()) {
+			return -1;
+		}
+		int length = Math.min(len, block.length - position);
+		System.arraycopy(block, position, b, off, length);
+		position += length;
+		return length;
+	}
+
+	private boolean nextBlock() throws IOException {
+		do {
+			while (!sourceEnd && pending.size() < maxPending) {
+				byte[] member = readMember();
+				if (member == null) {
+					sourceEnd = true;
+				} else {
+					pending.add(executor.submit(() -> inflate(member)));
+				}
+			}
+			if (pending.isEmpty()) {
+				return false;
+			}
+			block = take(pending.removeFirst());
+			position = 0;
+		} while (block.length == 0);
+		return true;
+	}
+
+	private byte[] take(Future<byte[]> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while inflating BGZF block");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Could not inflate BGZF block", e.getCause());
+		}
+	}
+
+	/**
+	 *
+	 * @return next complete member, or null if the end of the source was reached
+	 */
+	private byte[] readMember() throws IOException {
+		byte[] header = new byte[HEADER_LENGTH];
+		int length = source.readNBytes(header, 0, header.length);
+		if (length == 0) {
+			return null;
+		}
+		if (length < HEADER_LENGTH) {
+			throw new EOFException("Truncated BGZF header");
+		}
+		if ((header[0] & 0xFF) != ID1 || (header[1] & 0xFF) != ID2 || header[2] != CM_DEFLATE
+				|| (header[3] & FEXTRA) == 0) {
+			throw new ZipException("Not a BGZF member header");
+		}
+		int extraLength = unsignedShort(header, 10);
+		byte[] extra = readFully(extraLength);
+		int blockSize = blockSize(extra);
+		byte[] member = new byte[blockSize];
+		System.arraycopy(header, 0, member, 0, HEADER_LENGTH);
+		System.arraycopy(extra, 0, member, HEADER_LENGTH, extraLength);
+		int offset = HEADER_LENGTH + extraLength;
+		if (source.readNBytes(member, offset, blockSize - offset) < blockSize - offset) {
+			throw new EOFException("Truncated BGZF block");
+		}
+		return member;
+	}
+
+	private byte[] readFully(int length) throws IOException {
+		byte[] bytes = new byte[length];
+		if (source.readNBytes(bytes, 0, length) < length) {
+			throw new EOFException("Truncated BGZF header");
+		}
+		return bytes;
+	}
+
+	private static int blockSize(byte[] extra) throws ZipException {
+		int index = 0;
+		while (index + 4 <= extra.length) {
+			int subfieldLength = unsignedShort(extra, index + 2);
+			if (extra[index] == 'B' && extra[index + 1] == 'C' && subfieldLength == 2) {
+				return unsignedShort(extra, index + 4) + 1;
+			}
+			index += 4 + subfieldLength;
+		}
+		throw new ZipException("Missing BGZF block size");
+	}
+
+	private static byte[] inflate(byte[] member) throws IOException {
+		int trailerOffset = member.length - TRAILER_LENGTH;
+		int dataOffset = dataOffset(member, trailerOffset);
+		long expectedCrc = unsignedInt(member, trailerOffset);
+		int size = (int) unsignedInt(member, trailerOffset + 4);
+		byte[] output = new byte[size];
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(member, dataOffset, trailerOffset - dataOffset);
+			int length = 0;
+			while (length < size) {
+				int inflated = inflater.inflate(output, length, size - length);
+				if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+					break;
+				}
+				length += inflated;
+			}
+			if (length != size) {
+				throw new ZipException("Corrupt BGZF block: expected " + size + " bytes but got " + length);
+			}
+		} catch (DataFormatException e) {
+			throw new ZipException("Corrupt BGZF block: " + e.getMessage());
+		} finally {
+			inflater.end();
+		}
+		CRC32 crc = new CRC32();
+		crc.update(output);
+		if (crc.getValue() != expectedCrc) {
+			throw new ZipException("Corrupt BGZF block: CRC mismatch");
+		}
+		return output;
+	}
+
+	/**
+	 *
+	 * @return offset of the deflate data, after the optional header fields
+	 */
+	private static int dataOffset(byte[] member, int limit) throws ZipException {
+		int flags = member[3];
+		int offset = HEADER_LENGTH + unsignedShort(member, 10);
+		if ((flags & FNAME) != 0) {
+			offset = skipZeroTerminated(member, offset, limit);
+		}
+		if ((flags & FCOMMENT) != 0) {
+			offset = skipZeroTerminated(member, offset, limit);
+		}
+		if ((flags & FHCRC) != 0) {
+			offset += 2;
+		}
+		if (offset > limit) {
+			throw new ZipException("Corrupt BGZF block: header exceeds block size");
+		}
+		return offset;
+	}
+
+	private static int skipZeroTerminated(byte[] bytes, int offset, int limit) throws ZipException {
+		for (int index = offset; index < limit; index++) {
+			if (bytes[index] == 0) {
+				return index + 1;
+			}
+		}
+		throw new ZipException("Corrupt BGZF block: unterminated header field");
+	}
+
+	private static int unsignedShort(byte[] bytes, int offset) {
+		return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+	}
+
+	private static long unsignedInt(byte[] bytes, int offset) {
+		return unsignedShort(bytes, offset) | ((long) unsignedShort(bytes, offset + 2)) << 16;
+	}
+
+	@Override
+	public void close() throws IOException {
+		pending.forEach(future -> future.cancel(true));
+		pending.clear();
+		executor.shutdownNow();
+		source.close();
+	}
+
+}
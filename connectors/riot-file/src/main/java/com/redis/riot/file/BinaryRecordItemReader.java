@@ -0,0 +1,102 @@
+package com.redis.riot.file;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.file.ResourceAwareItemReaderItemStream;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Reader of files written by {@link BinaryRecordItemWriter}.
+ * <p>
+ * The implementation is <b>not</b> thread-safe.
+ *
+ * @param <T> item type
+ */
+public class BinaryRecordItemReader<T> extends AbstractItemCountingItemStreamItemReader<T>
+		implements ResourceAwareItemReaderItemStream<T> {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final ObjectReader reader;
+
+	private Resource resource;
+
+	private DataInputStream input;
+	private byte[] buffer = new byte[1024];
+
+	public BinaryRecordItemReader(ObjectMapper mapper, Class<? extends T> itemType) {
+		Assert.notNull(mapper, "Object mapper must not be null");
+		Assert.notNull(itemType, "Item type must not be null");
+		this.reader = mapper.readerFor(itemType);
+	}
+
+	@Override
+	protected void doOpen() throws Exception {
+		Assert.notNull(resource, "Input resource must be set");
+		if (!resource.exists()) {
+			throw new ItemStreamException("Input resource does not exist: " + resource.getDescription());
+		}
+		input = new DataInputStream(new BufferedInputStream(resource.getInputStream(), BUFFER_SIZE));
+	}
+
+	@Override
+	protected T doRead() throws Exception {
+		int first = input.read();
+		if (first == -1) {
+			return null;
+		}
+		int length;
+		try {
+			length = first << 24 | input.readUnsignedByte() << 16 | input.readUnsignedShort();
+		} catch (EOFException e) {
+			throw parseException("Truncated record length", e);
+		}
+		if (length < 0) {
+			throw parseException("Invalid record length " + length, null);
+		}
+		if (length > buffer.length) {
+			buffer = new byte[Math.max(length, buffer.length * 2)];
+		}
+		try {
+			input.readFully(buffer, 0, length);
+		} catch (EOFException e) {
+			throw parseException("Truncated record of length " + length, e);
+		}
+		try {
+			return reader.readValue(buffer, 0, length);
+		} catch (Exception e) {
+			throw parseException("Parsing error", e);
+		}
+	}
+
+	private FlatFileParseException parseException(String message, Throwable cause) {
+		// The item count is incremented before doRead is called
+		int record = getCurrentItemCount();
+		return new FlatFileParseException(
+				message + " at record: " + record + " in resource=[" + resource.getDescription() + "]", cause, "",
+				record);
+	}
+
+	@Override
+	protected void doClose() throws Exception {
+		if (input != null) {
+			input.close();
+			input = null;
+		}
+	}
+
+	@Override
+	public void setResource(Resource resource) {
+		this.resource = resource;
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.redis.riot.file;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Writer serializing items with a binary Jackson data format (CBOR, Smile,
+ * MessagePack) as a sequence of records, each prefixed with its length as a
+ * 4-byte big-endian integer.
+ *
+ * @param <T> item type
+ */
+public class BinaryRecordItemWriter<T> extends ItemStreamSupport implements ItemStreamWriter<T> {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final WritableResource resource;
+	private final ObjectWriter writer;
+
+	private DataOutputStream output;
+
+	public BinaryRecordItemWriter(WritableResource resource, ObjectMapper mapper) {
+		Assert.notNull(resource, "Resource must not be null");
+		Assert.notNull(mapper, "Object mapper must not be null");
+		this.resource = resource;
+		this.writer = mapper.writer();
+	}
+
+	@Override
+	public synchronized void open(ExecutionContext executionContext) {
+		if (output != null) {
+			return;
+		}
+		try {
+			output = new DataOutputStream(new BufferedOutputStream(resource.getOutputStream(), BUFFER_SIZE));
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not open resource " + resource.getDescription(), e);
+		}
+	}
+
+	@Override
+	public synchronized void write(Chunk<? extends T> chunk) throws IOException {
+		for (T item : chunk) {
+			byte[] record = writer.writeValueAsBytes(item);
+			output.writeInt(record.length);
+			output.write(record);
+		}
+		output.flush();
+	}
+
+	@Override
+	public synchronized void close() {
+		if (output == null) {
+			return;
+		}
+		try {
+			output.close();
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not close resource " + resource.getDescription(), e);
+		} finally {
+			output = null;
+		}
+	}
+
+}
@@ -0,0 +1,24 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.springframework.batch.item.Chunk;
+
+/**
+ * Serializes a chunk of items into bytes.
+ *
+ * @param <T> item type
+ */
+@FunctionalInterface
+public interface ChunkSerializer<T> {
+
+	/**
+	 * 
+	 * @param chunk        items to serialize
+	 * @param outputStream where to write the serialized items
+	 * @throws IOException
+	 */
+	void serialize(Chunk<? extends T> chunk, OutputStream outputStream) throws IOException;
+
+}
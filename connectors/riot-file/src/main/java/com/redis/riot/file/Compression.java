@@ -0,0 +1,7 @@
+package com.redis.riot.file;
+
+public enum Compression {
+
+	NONE, GZIP, ZSTD, LZ4
+
+}
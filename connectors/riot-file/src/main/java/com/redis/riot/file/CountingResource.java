@@ -0,0 +1,73 @@
+package com.redis.riot.file;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.WritableResource;
+
+/**
+ * Resource counting the bytes written to its output stream. It never reports
+ * itself as a file so that writers always go through
+ * {@link #getOutputStream()}.
+ */
+public class CountingResource extends AbstractResource implements WritableResource {
+
+	private final WritableResource delegate;
+	private final AtomicLong count = new AtomicLong();
+
+	public CountingResource(WritableResource delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public OutputStream getOutputStream() throws IOException {
+		return new FilterOutputStream(delegate.getOutputStream()) {
+
+			@Override
+			public void write(int b) throws IOException {
+				out.write(b);
+				count.incrementAndGet();
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+				count.addAndGet(len);
+			}
+
+		};
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return delegate.getInputStream();
+	}
+
+	@Override
+	public boolean exists() {
+		return delegate.exists();
+	}
+
+	@Override
+	public String getFilename() {
+		return delegate.getFilename();
+	}
+
+	@Override
+	public String getDescription() {
+		return delegate.getDescription();
+	}
+
+	/**
+	 *
+	 * @return number of bytes written so far
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.redis.riot.file;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import net.jpountz.lz4.LZ4FrameInputStream;
+
+/**
+ * Resource decompressing the delegate resource. Nothing is opened until
+ * {@link #getInputStream()} is called, so resources can be created for all the
+ * files of a job upfront.
+ * <p>
+ * Decompression runs in a background thread so that it overlaps with parsing.
+ * BGZF files are inflated concurrently, one block per worker, and so are the
+ * members of other multi-member gzip files.
+ */
+public class DecompressingResource extends AbstractResource {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Resource delegate;
+	private final Compression compression;
+	private final int workers;
+
+	public DecompressingResource(Resource delegate, Compression compression, int workers) {
+		this.delegate = delegate;
+		this.compression = compression;
+		this.workers = workers;
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		InputStream inputStream = delegate.getInputStream();
+		try {
+			return decompress(new BufferedInputStream(inputStream, BUFFER_SIZE));
+		} catch (IOException | RuntimeException e) {
+			inputStream.close();
+			throw e;
+		}
+	}
+
+	private InputStream decompress(BufferedInputStream inputStream) throws IOException {
+		switch (compression) {
+		case GZIP:
+			if (BgzfInputStream.isBgzf(inputStream)) {
+				return new BgzfInputStream(inputStream, workers);
+			}
+			if (workers > 1) {
+				return new ReadAheadInputStream(new GzipMemberInputStream(inputStream, workers));
+			}
+			return new ReadAheadInputStream(new GZIPInputStream(inputStream, BUFFER_SIZE));
+		case ZSTD:
+			return new ReadAheadInputStream(new ZstdInputStream(inputStream));
+		case LZ4:
+			return new ReadAheadInputStream(new LZ4FrameInputStream(inputStream));
+		default:
+			return inputStream;
+		}
+	}
+
+	@Override
+	public boolean exists() {
+		return delegate.exists();
+	}
+
+	@Override
+	public String getFilename() {
+		return delegate.getFilename();
+	}
+
+	@Override
+	public String getDescription() {
+		return delegate.getDescription();
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+
+import org.springframework.batch.item.ParseException;
+import org.springframework.util.Assert;
+
+/**
+ * RFC 4180 parser for delimited records. Quoted fields may contain delimiters,
+ * line breaks and quotes escaped by doubling them. Outside quotes, a line
+ * ending with the continuation string continues on the next line.
+ */
+public class DelimitedRecordParser extends RecordParser {
+
+	public static final String DEFAULT_DELIMITER = ",";
+	public static final char DEFAULT_QUOTE_CHARACTER = '"';
+
+	private String delimiter = DEFAULT_DELIMITER;
+	private char quoteCharacter = DEFAULT_QUOTE_CHARACTER;
+
+	@Override
+	public boolean parse(RecordInput input, FieldBuffer fields) throws IOException {
+		fields.clear();
+		if (input.isEnd()) {
+			return false;
+		}
+		char delimiterChar = delimiter.charAt(0);
+		char delimiterLastChar = delimiter.charAt(delimiter.length() - 1);
+		boolean singleCharDelimiter = delimiter.length() == 1;
+		boolean quoted = false;
+		int c;
+		while ((c = input.next()) != RecordInput.EOF) {
+			if (quoted) {
+				if (c == quoteCharacter) {
+					if (input.peek() == quoteCharacter) {
+						input.next();
+						fields.append(quoteCharacter);
+					} else {
+						quoted = false;
+					}
+				} else if (c != '\r' || input.peek() != '\n') {
+					fields.append((char) c);
+				}
+			} else if (c == '\n' || c == '\r') {
+				if (c == '\r') {
+					input.skipLineFeed();
+				}
+				if (!removeContinuation(fields)) {
+					fields.endField();
+					return true;
+				}
+			} else if (c == quoteCharacter && fields.isFieldBlank()) {
+				fields.truncateField(fields.fieldLength());
+				quoted = true;
+			} else if (singleCharDelimiter && c == delimiterChar) {
+				fields.endField();
+			} else {
+				fields.append((char) c);
+				if (!singleCharDelimiter && c == delimiterLastChar && fields.fieldEndsWith(delimiter)) {
+					fields.truncateField(delimiter.length());
+					fields.endField();
+				}
+			}
+		}
+		if (quoted) {
+			throw new ParseException("Unexpected end of file before record complete");
+		}
+		fields.endField();
+		return true;
+	}
+
+	public String getDelimiter() {
+		return delimiter;
+	}
+
+	public void setDelimiter(String delimiter) {
+		Assert.hasLength(delimiter, "Delimiter must not be empty");
+		this.delimiter = delimiter;
+	}
+
+	public char getQuoteCharacter() {
+		return quoteCharacter;
+	}
+
+	public void setQuoteCharacter(char quoteCharacter) {
+		this.quoteCharacter = quoteCharacter;
+	}
+
+}
@@ -0,0 +1,175 @@
+package com.redis.riot.file;
+
+import java.util.Arrays;
+
+/**
+ * Reusable buffer holding the characters and boundaries of the fields of a
+ * record. Parsers obtain one per thread with {@link #get()} so that parsing a
+ * record does not allocate anything but the field values that are actually
+ * used.
+ */
+public class FieldBuffer implements RecordFields {
+
+	private static final ThreadLocal<FieldBuffer> BUFFERS = ThreadLocal.withInitial(FieldBuffer::new);
+
+	private char[] chars = new char[1024];
+	private int length;
+	private int[] starts = new int[32];
+	private int[] ends = new int[32];
+	private int count;
+	private int fieldStart;
+
+	public static FieldBuffer get() {
+		return BUFFERS.get();
+	}
+
+	public void clear() {
+		length = 0;
+		count = 0;
+		fieldStart = 0;
+	}
+
+	public void append(char c) {
+		if (length == chars.length) {
+			chars = Arrays.copyOf(chars, length * 2);
+		}
+		chars[length++] = c;
+	}
+
+	/**
+	 *
+	 * @return number of characters of the record
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 *
+	 * @return number of characters of the current field
+	 */
+	public int fieldLength() {
+		return length - fieldStart;
+	}
+
+	/**
+	 *
+	 * @return true if the current field is empty or contains only whitespace
+	 */
+	public boolean isFieldBlank() {
+		for (int index = fieldStart; index < length; index++) {
+			if (chars[index] > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 *
+	 * @param suffix characters to look for
+	 * @return true if the current field ends with the given suffix
+	 */
+	public boolean fieldEndsWith(String suffix) {
+		if (fieldLength() < suffix.length()) {
+			return false;
+		}
+		int offset = length - suffix.length();
+		for (int index = 0; index < suffix.length(); index++) {
+			if (chars[offset + index] != suffix.charAt(index)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Removes trailing whitespace from the current field.
+	 */
+	public void trimField() {
+		while (length > fieldStart && chars[length - 1] <= ' ') {
+			length--;
+		}
+	}
+
+	/**
+	 * Removes the given number of trailing characters from the current field.
+	 */
+	public void truncateField(int count) {
+		length = Math.max(fieldStart, length - count);
+	}
+
+	/**
+	 * Removes the given suffix from the current field, ignoring trailing
+	 * whitespace.
+	 *
+	 * @return true if the suffix was found and removed
+	 */
+	public boolean removeSuffix(String suffix) {
+		int previousLength = length;
+		trimField();
+		if (fieldEndsWith(suffix)) {
+			truncateField(suffix.length());
+			return true;
+		}
+		length = previousLength;
+		return false;
+	}
+
+	/**
+	 * Adds a field spanning the given offsets of the record characters.
+	 */
+	public void addField(int start, int end) {
+		if (count == starts.length) {
+			starts = Arrays.copyOf(starts, count * 2);
+			ends = Arrays.copyOf(ends, count * 2);
+		}
+		starts[count] = start;
+		ends[count] = end;
+		count++;
+	}
+
+	public void endField() {
+		addField(fieldStart, length);
+		fieldStart = length;
+	}
+
+	@Override
+	public int getFieldCount() {
+		return count;
+	}
+
+	/**
+	 *
+	 * @param index field index
+	 * @return trimmed value of the field at the given index
+	 */
+	@Override
+	public String value(int index) {
+		int start = starts[index];
+		int end = ends[index];
+		while (start < end && chars[start] <= ' ') {
+			start++;
+		}
+		while (end > start && chars[end - 1] <= ' ') {
+			end--;
+		}
+		if (start == end) {
+			return "";
+		}
+		return new String(chars, start, end - start);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (int index = 0; index < count; index++) {
+			if (index > 0) {
+				builder.append('|');
+			}
+			builder.append(chars, starts[index], ends[index] - starts[index]);
+		}
+		return builder.toString();
+	}
+
+}
@@ -17,10 +17,12 @@ import org.springframework.util.ResourceUtils;
 
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.ServiceOptions;
+import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageOptions;
 
 import picocli.CommandLine.ArgGroup;
@@ -30,6 +32,7 @@ public class FileArgs {
 
 	public static final String DEFAULT_ENCODING = StandardCharsets.UTF_8.name();
 	public static final char DEFAULT_QUOTE_CHARACTER = '"';
+	public static final int DEFAULT_COMPRESSION_WORKERS = Runtime.getRuntime().availableProcessors();
 
 	@ArgGroup(exclusive = false)
 	private AmazonS3Args amazonS3Args = new AmazonS3Args();
@@ -49,6 +52,15 @@ public class FileArgs {
 	@Option(names = { "-z", "--gzip" }, description = "File is gzip compressed.")
 	private boolean gzipped;
 
+	@Option(names = "--compression", description = "Compression codec: ${COMPLETION-CANDIDATES} (default: from file extension).", paramLabel = "<codec>")
+	private Compression compression;
+
+	@Option(names = "--compression-level", description = "Compression level (default: codec default).", paramLabel = "<int>")
+	private Integer compressionLevel;
+
+	@Option(names = "--compression-workers", description = "Number of threads used to compress or decompress files (default: ${DEFAULT-VALUE}).", paramLabel = "<int>")
+	private int compressionWorkers = DEFAULT_COMPRESSION_WORKERS;
+
 	@Option(names = "--header", description = "Use first line as field names for CSV/fixed-length files")
 	private boolean header;
 
@@ -67,6 +79,10 @@ public class FileArgs {
 	}
 
 	private GoogleStorageResource googleStorageResource(String location) throws IOException {
+		return new GoogleStorageResource(googleStorage(), location);
+	}
+
+	public Storage googleStorage() throws IOException {
 		StorageOptions.Builder builder = StorageOptions.newBuilder().setProjectId(ServiceOptions.getDefaultProjectId())
 				.setHeaderProvider(new UserAgentHeaderProvider(GcpStorageAutoConfiguration.class));
 		if (googleStorageArgs.getKeyFile() != null) {
@@ -82,7 +98,7 @@ public class FileArgs {
 		if (googleStorageArgs.getProjectId() != null) {
 			builder.setProjectId(googleStorageArgs.getProjectId());
 		}
-		return new GoogleStorageResource(builder.build().getService(), location);
+		return builder.build().getService();
 	}
 
 	public Resource resource(String location) throws IOException {
@@ -99,6 +115,16 @@ public class FileArgs {
 	}
 
 	private Resource amazonS3Resource(String location) {
+		AmazonS3ProtocolResolver resolver = new AmazonS3ProtocolResolver(amazonS3ClientBuilder());
+		resolver.afterPropertiesSet();
+		return resolver.resolve(location, new DefaultResourceLoader());
+	}
+
+	public AmazonS3 amazonS3() {
+		return amazonS3ClientBuilder().build();
+	}
+
+	private AmazonS3ClientBuilder amazonS3ClientBuilder() {
 		AmazonS3ClientBuilder clientBuilder = AmazonS3Client.builder();
 		if (amazonS3Args.getRegion() != null) {
 			clientBuilder.withRegion(amazonS3Args.getRegion());
@@ -111,15 +137,23 @@ public class FileArgs {
 					amazonS3Args.getSecretKey());
 			clientBuilder.withCredentials(new AWSStaticCredentialsProvider(credentials));
 		}
-		AmazonS3ProtocolResolver resolver = new AmazonS3ProtocolResolver(clientBuilder);
-		resolver.afterPropertiesSet();
-		return resolver.resolve(location, new DefaultResourceLoader());
+		return clientBuilder;
 	}
 
 	public FileType fileType(String file) throws IOException {
 		return fileType(resource(file));
 	}
 
+	public Compression compression(String location) {
+		if (compression != null) {
+			return compression;
+		}
+		if (gzipped) {
+			return Compression.GZIP;
+		}
+		return FileUtils.compression(location);
+	}
+
 	public String getEncoding() {
 		return encoding;
 	}
@@ -136,6 +170,30 @@ public class FileArgs {
 		this.gzipped = gzipped;
 	}
 
+	public Compression getCompression() {
+		return compression;
+	}
+
+	public void setCompression(Compression compression) {
+		this.compression = compression;
+	}
+
+	public Integer getCompressionLevel() {
+		return compressionLevel;
+	}
+
+	public void setCompressionLevel(Integer level) {
+		this.compressionLevel = level;
+	}
+
+	public int getCompressionWorkers() {
+		return compressionWorkers;
+	}
+
+	public void setCompressionWorkers(int workers) {
+		this.compressionWorkers = workers;
+	}
+
 	public GoogleStorageArgs getGoogleStorageArgs() {
 		return googleStorageArgs;
 	}
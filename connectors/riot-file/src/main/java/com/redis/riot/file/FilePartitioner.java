@@ -0,0 +1,231 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Splits a local file into byte ranges aligned to record boundaries. A record
+ * ends with a newline that is neither inside a quoted field nor preceded by the
+ * continuation string, mirroring
+ * {@link org.springframework.batch.item.file.separator.DefaultRecordSeparatorPolicy}.
+ * <p>
+ * Quote state at each split point is derived from the number of quote
+ * characters preceding it, which is counted for each range in parallel.
+ */
+public class FilePartitioner {
+
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private static final byte NEWLINE = '\n';
+	private static final int NO_QUOTE = -1;
+
+	private int quote = NO_QUOTE;
+	private byte[] continuation = new byte[0];
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+	/**
+	 *
+	 * @param charset file encoding
+	 * @return true if records in files with the given encoding can be split on
+	 *         single-byte newlines
+	 */
+	public static boolean supports(Charset charset) {
+		byte[] bytes = "\n".getBytes(charset);
+		return bytes.length == 1 && bytes[0] == NEWLINE;
+	}
+
+	public void setQuoteCharacter(char character) {
+		Assert.isTrue(character < 128, "Quote character must be ASCII");
+		this.quote = character;
+	}
+
+	public void setContinuationString(String continuationString, Charset charset) {
+		if (StringUtils.hasLength(continuationString)) {
+			this.continuation = continuationString.getBytes(charset);
+		} else {
+			this.continuation = new byte[0];
+		}
+	}
+
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 *
+	 * @param path  file to scan
+	 * @param lines number of lines to skip
+	 * @return offset of the first byte after the given number of lines
+	 * @throws IOException
+	 */
+	public long skipLines(Path path, int lines) throws IOException {
+		long position = 0;
+		if (lines <= 0) {
+			return position;
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+			int count = 0;
+			int read;
+			while ((read = channel.read(buffer.clear(), position)) > 0) {
+				for (int index = 0; index < read; index++) {
+					if (buffer.get(index) == NEWLINE && ++count == lines) {
+						return position + index + 1;
+					}
+				}
+				position += read;
+			}
+			return position;
+		}
+	}
+
+	/**
+	 *
+	 * @param path  file to partition
+	 * @param start offset at which records start
+	 * @param count number of partitions
+	 * @return at most {@code count} contiguous ranges covering the file from
+	 *         {@code start}, each ending on a record boundary
+	 * @throws IOException
+	 */
+	public List<FileRange> partition(Path path, long start, int count) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			List<FileRange> ranges = new ArrayList<>();
+			long chunkSize = (size - start) / Math.max(count, 1);
+			if (count <= 1 || chunkSize == 0) {
+				ranges.add(new FileRange(start, size));
+				return ranges;
+			}
+			long[] splits = new long[count - 1];
+			for (int index = 0; index < splits.length; index++) {
+				splits[index] = start + (index + 1) * chunkSize;
+			}
+			boolean[] quoted = quoted(channel, start, splits);
+			long rangeStart = start;
+			for (int index = 0; index < splits.length; index++) {
+				if (splits[index] < rangeStart) {
+					continue;
+				}
+				long boundary = nextBoundary(channel, splits[index], quoted[index]);
+				if (boundary >= size) {
+					break;
+				}
+				ranges.add(new FileRange(rangeStart, boundary));
+				rangeStart = boundary;
+			}
+			ranges.add(new FileRange(rangeStart, size));
+			return ranges;
+		}
+	}
+
+	/**
+	 *
+	 * @return for each split point, whether it falls inside a quoted field
+	 */
+	private boolean[] quoted(FileChannel channel, long start, long[] splits) throws IOException {
+		boolean[] quoted = new boolean[splits.length];
+		if (quote == NO_QUOTE) {
+			return quoted;
+		}
+		long[] counts = new long[splits.length];
+		try {
+			IntStream.range(0, splits.length).parallel().forEach(index -> {
+				long from = index == 0 ? start : splits[index - 1];
+				try {
+					counts[index] = countQuotes(channel, from, splits[index]);
+				} catch (IOException e) {
+					throw new RuntimeIOException("Could not count quotes in range [" + from + "-" + splits[index] + ")",
+							e);
+				}
+			});
+		} catch (RuntimeIOException e) {
+			throw (IOException) e.getCause();
+		}
+		long total = 0;
+		for (int index = 0; index < counts.length; index++) {
+			total += counts[index];
+			quoted[index] = total % 2 == 1;
+		}
+		return quoted;
+	}
+
+	private long countQuotes(FileChannel channel, long from, long to) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+		long count = 0;
+		long position = from;
+		while (position < to) {
+			buffer.clear().limit((int) Math.min(bufferSize, to - position));
+			int read = channel.read(buffer, position);
+			if (read <= 0) {
+				break;
+			}
+			for (int index = 0; index < read; index++) {
+				if (buffer.get(index) == quote) {
+					count++;
+				}
+			}
+			position += read;
+		}
+		return count;
+	}
+
+	private long nextBoundary(FileChannel channel, long from, boolean quoted) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+		long position = from;
+		int read;
+		while ((read = channel.read(buffer.clear(), position)) > 0) {
+			for (int index = 0; index < read; index++) {
+				byte b = buffer.get(index);
+				if (quote != NO_QUOTE && b == quote) {
+					quoted = !quoted;
+				} else if (b == NEWLINE && !quoted && !isContinued(channel, position + index)) {
+					return position + index + 1;
+				}
+			}
+			position += read;
+		}
+		return position;
+	}
+
+	/**
+	 *
+	 * @param newline offset of a newline character
+	 * @return true if the line ending at the given offset ends with the
+	 *         continuation string, ignoring trailing whitespace
+	 */
+	private boolean isContinued(FileChannel channel, long newline) throws IOException {
+		if (continuation.length == 0) {
+			return false;
+		}
+		int length = (int) Math.min(newline, continuation.length + 64);
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining() && channel.read(buffer, newline - length + buffer.position()) > 0) {
+			// read until buffer is full
+		}
+		int end = buffer.position();
+		while (end > 0 && (buffer.get(end - 1) & 0xFF) <= ' ') {
+			end--;
+		}
+		if (end < continuation.length) {
+			return false;
+		}
+		for (int index = 0; index < continuation.length; index++) {
+			if (buffer.get(end - continuation.length + index) != continuation[index]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
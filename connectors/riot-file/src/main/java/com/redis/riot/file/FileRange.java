@@ -0,0 +1,33 @@
+package com.redis.riot.file;
+
+/**
+ * Byte range of a file, start inclusive and end exclusive.
+ */
+public class FileRange {
+
+	private final long start;
+	private final long end;
+
+	public FileRange(long start, long end) {
+		this.start = start;
+		this.end = end;
+	}
+
+	public long getStart() {
+		return start;
+	}
+
+	public long getEnd() {
+		return end;
+	}
+
+	public long length() {
+		return end - start;
+	}
+
+	@Override
+	public String toString() {
+		return "[" + start + "-" + end + ")";
+	}
+
+}
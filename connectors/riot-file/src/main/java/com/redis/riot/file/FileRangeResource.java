@@ -0,0 +1,132 @@
+package com.redis.riot.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * Resource exposing a byte range of a local file.
+ */
+public class FileRangeResource extends AbstractResource {
+
+	private final Path path;
+	private final FileRange range;
+
+	public FileRangeResource(Path path, FileRange range) {
+		this.path = path;
+		this.range = range;
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	public FileRange getRange() {
+		return range;
+	}
+
+	@Override
+	public boolean exists() {
+		return Files.exists(path);
+	}
+
+	@Override
+	public String getFilename() {
+		return path.getFileName().toString();
+	}
+
+	@Override
+	public long contentLength() {
+		return range.length();
+	}
+
+	@Override
+	public File getFile() {
+		return path.toFile();
+	}
+
+	@Override
+	public String getDescription() {
+		return "file [" + path.toAbsolutePath() + "] range " + range;
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return new RangeInputStream(FileChannel.open(path, StandardOpenOption.READ), range);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(path, range.getStart(), range.getEnd());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		FileRangeResource other = (FileRangeResource) obj;
+		return Objects.equals(path, other.path) && range.getStart() == other.range.getStart()
+				&& range.getEnd() == other.range.getEnd();
+	}
+
+	private static class RangeInputStream extends InputStream {
+
+		private final FileChannel channel;
+		private final long end;
+		private long position;
+
+		public RangeInputStream(FileChannel channel, FileRange range) {
+			this.channel = channel;
+			this.position = range.getStart();
+			this.end = range.getEnd();
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			int n = read(b, 0, 1);
+			if (n == -1) {
+				return -1;
+			}
+			return b[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			long remaining = end - position;
+			if (remaining <= 0) {
+				return -1;
+			}
+			int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, remaining)), position);
+			if (n > 0) {
+				position += n;
+			}
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return (int) Math.min(Integer.MAX_VALUE, end - position);
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+
+	}
+
+}
@@ -1,14 +1,13 @@
 package com.redis.riot.file;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPInputStream;
 
 import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
 
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
@@ -17,6 +16,10 @@ public class FileReaderArgs extends FileArgs {
 
 	public static final String DEFAULT_CONTINUATION_STRING = "\\";
 	public static final int DEFAULT_MAX_ITEM_COUNT = Integer.MAX_VALUE;
+	public static final int DEFAULT_PARTITIONS = 1;
+	public static final int DEFAULT_DOWNLOAD_THREADS = 4;
+	public static final DataSize DEFAULT_DOWNLOAD_PART_SIZE = DataSize.ofMegabytes(8);
+	public static final int DEFAULT_XML_WORKERS = Runtime.getRuntime().availableProcessors();
 
 	@Parameters(arity = "1..*", description = "Files or URLs to import. Use '-' to read from stdin.", paramLabel = "FILE")
 	private List<String> files;
@@ -42,6 +45,18 @@ public class FileReaderArgs extends FileArgs {
 	@Option(names = "--max", description = "Max number of lines to import.", paramLabel = "<count>")
 	private int maxItemCount = DEFAULT_MAX_ITEM_COUNT;
 
+	@Option(names = "--partitions", description = "Number of partitions to read concurrently from local uncompressed CSV/fixed-length/JSONL files, snapshots and Parquet files (default: ${DEFAULT-VALUE}).", paramLabel = "<int>")
+	private int partitions = DEFAULT_PARTITIONS;
+
+	@Option(names = "--download-threads", description = "Number of concurrent range requests used to download files from S3, GCS or HTTP (default: ${DEFAULT-VALUE}).", paramLabel = "<int>")
+	private int downloadThreads = DEFAULT_DOWNLOAD_THREADS;
+
+	@Option(names = "--download-part-size", description = "Size of each range request (default: ${DEFAULT-VALUE}).", paramLabel = "<size>")
+	private DataSize downloadPartSize = DEFAULT_DOWNLOAD_PART_SIZE;
+
+	@Option(names = "--xml-workers", description = "Number of threads mapping XML elements to records (default: ${DEFAULT-VALUE}).", paramLabel = "<int>")
+	private int xmlWorkers = DEFAULT_XML_WORKERS;
+
 	@Override
 	public Resource resource(String location) {
 		if (FileUtils.isStdin(location)) {
@@ -49,26 +64,56 @@ public class FileReaderArgs extends FileArgs {
 		}
 		Resource resource;
 		try {
-			resource = super.resource(location);
+			resource = ranged(location, super.resource(location));
 		} catch (IOException e) {
 			throw new RuntimeIOException("Could not create resource for file " + location, e);
 		}
-		InputStream inputStream;
+		Compression compression = compression(location);
+		if (compression != Compression.NONE) {
+			return new DecompressingResource(resource, compression, getCompressionWorkers());
+		}
+		return resource;
+	}
+
+	/**
+	 * 
+	 * @param location file location
+	 * @return resource as stored, without decompression or ranged download
+	 */
+	public Resource storedResource(String location) {
 		try {
-			inputStream = resource.getInputStream();
+			return super.resource(location);
 		} catch (IOException e) {
-			throw new RuntimeIOException("Could not open input stream for resource " + resource, e);
+			throw new RuntimeIOException("Could not create resource for file " + location, e);
 		}
-		if (isGzipped() || FileUtils.isGzip(location)) {
-			GZIPInputStream gzipInputStream;
-			try {
-				gzipInputStream = new GZIPInputStream(inputStream);
-			} catch (IOException e) {
-				throw new RuntimeIOException("Could not create gzip input stream for resource " + resource, e);
-			}
-			return new FilenameInputStreamResource(gzipInputStream, resource.getFilename(), resource.getDescription());
+	}
+
+	/**
+	 * Remote objects larger than one part are downloaded as concurrent byte-range
+	 * requests. Their size is only looked up when the resource is opened.
+	 */
+	private Resource ranged(String location, Resource resource) throws IOException {
+		if (downloadThreads < 2) {
+			return resource;
 		}
-		return resource;
+		RangeFetcher fetcher = rangeFetcher(location, resource);
+		if (fetcher == null) {
+			return resource;
+		}
+		return new RangedResource(resource, fetcher, Math.toIntExact(downloadPartSize.toBytes()), downloadThreads);
+	}
+
+	private RangeFetcher rangeFetcher(String location, Resource resource) throws IOException {
+		if (FileUtils.isAmazonS3(location)) {
+			return new AmazonS3RangeFetcher(amazonS3(), location);
+		}
+		if (FileUtils.isGoogleStorage(location)) {
+			return new GoogleStorageRangeFetcher(googleStorage(), location);
+		}
+		if (resource instanceof UncustomizedUrlResource && location.startsWith("http")) {
+			return new HttpRangeFetcher(resource.getURL());
+		}
+		return null;
 	}
 
 	public List<String> getFiles() {
@@ -139,8 +184,44 @@ public class FileReaderArgs extends FileArgs {
 		this.maxItemCount = maxItemCount;
 	}
 
+	public int getPartitions() {
+		return partitions;
+	}
+
+	public void setPartitions(int partitions) {
+		this.partitions = partitions;
+	}
+
+	public int getXmlWorkers() {
+		return xmlWorkers;
+	}
+
+	public void setXmlWorkers(int workers) {
+		this.xmlWorkers = workers;
+	}
+
+	public int getDownloadThreads() {
+		return downloadThreads;
+	}
+
+	public void setDownloadThreads(int threads) {
+		this.downloadThreads = threads;
+	}
+
+	public DataSize getDownloadPartSize() {
+		return downloadPartSize;
+	}
+
+	public void setDownloadPartSize(DataSize size) {
+		this.downloadPartSize = size;
+	}
+
+	public List<String> locations() {
+		return files.stream().flatMap(FileUtils::expand).collect(Collectors.toList());
+	}
+
 	public List<Resource> resources() {
-		return files.stream().flatMap(FileUtils::expand).map(this::resource).collect(Collectors.toList());
+		return locations().stream().map(this::resource).collect(Collectors.toList());
 	}
 
 }
@@ -1,19 +1,38 @@
 package com.redis.riot.file;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.LocalInputFile;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemReader;
-import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.file.LineMapper;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
 import org.springframework.batch.item.file.mapping.JsonLineMapper;
 import org.springframework.batch.item.file.separator.DefaultRecordSeparatorPolicy;
 import org.springframework.batch.item.file.separator.RecordSeparatorPolicy;
-import org.springframework.batch.item.file.transform.AbstractLineTokenizer;
 import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
-import org.springframework.batch.item.file.transform.FixedLengthTokenizer;
 import org.springframework.batch.item.file.transform.Range;
 import org.springframework.batch.item.file.transform.RangeArrayPropertyEditor;
 import org.springframework.batch.item.json.JacksonJsonObjectReader;
@@ -27,7 +46,14 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.redis.riot.file.parquet.ParquetItemReader;
+import com.redis.riot.file.parquet.ParquetPartitioner;
+import com.redis.riot.file.snapshot.SnapshotEntry;
+import com.redis.riot.file.snapshot.SnapshotIndex;
+import com.redis.riot.file.snapshot.SnapshotItemReader;
 import com.redis.riot.file.xml.XmlItemReader;
 import com.redis.riot.file.xml.XmlItemReaderBuilder;
 import com.redis.riot.file.xml.XmlObjectReader;
@@ -36,6 +62,8 @@ public class FileReaderFactory {
 
 	public static final String PIPE_DELIMITER = "|";
 
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
 	private FileReaderArgs args = new FileReaderArgs();
 	private Map<Class<?>, JsonDeserializer<?>> deserializers = new HashMap<>();
 	private Class<?> itemType = Map.class;
@@ -44,49 +72,178 @@ public class FileReaderFactory {
 		FileType type = args.fileType(resource);
 		switch (type) {
 		case CSV:
-			return flatFileReader(resource, delimitedLineTokenizer(resource));
+			return recordReader(resource, delimitedParser(resource));
 		case FIXED:
-			return flatFileReader(resource, fixedLengthTokenizer());
+			return recordReader(resource, fixedLengthParser());
 		case XML:
 			return xmlReader(resource);
 		case JSON:
 			return jsonReader(resource);
 		case JSONL:
 			return jsonlReader(resource);
+		case RIOT:
+			return snapshotReader(resource);
+		case PARQUET:
+			return parquetReader(resource);
+		case CBOR:
+			return binaryReader(resource, new CBORMapper());
+		case SMILE:
+			return binaryReader(resource, new SmileMapper());
+		case MSGPACK:
+			return binaryReader(resource, new ObjectMapper(new MessagePackFactory()));
 		default:
 			throw new UnsupportedOperationException("Unsupported file type: " + type);
 		}
 	}
 
-	private DelimitedLineTokenizer delimitedLineTokenizer(Resource resource) {
-		DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
-		tokenizer.setDelimiter(delimiter(resource));
-		tokenizer.setQuoteCharacter(args.getQuoteCharacter());
-		if (!ObjectUtils.isEmpty(args.getIncludedFields())) {
-			tokenizer.setIncludedFields(args.getIncludedFields().stream().mapToInt(Integer::intValue).toArray());
+	private DelimitedRecordParser delimitedParser(Resource resource) {
+		DelimitedRecordParser parser = new DelimitedRecordParser();
+		parser.setDelimiter(delimiter(resource));
+		parser.setQuoteCharacter(args.getQuoteCharacter());
+		parser.setContinuationString(args.getContinuationString());
+		return parser;
+	}
+
+	private FixedLengthRecordParser fixedLengthParser() {
+		FixedLengthRecordParser parser = new FixedLengthRecordParser(columnRanges());
+		parser.setContinuationString(args.getContinuationString());
+		return parser;
+	}
+
+	private Range[] columnRanges() {
+		RangeArrayPropertyEditor editor = new RangeArrayPropertyEditor();
+		Assert.notEmpty(args.getColumnRanges(), "Column ranges are required");
+		editor.setAsText(String.join(",", args.getColumnRanges()));
+		Range[] ranges = (Range[]) editor.getValue();
+		Assert.notEmpty(ranges, "Invalid ranges specified: " + args.getColumnRanges());
+		return ranges;
+	}
+
+	/**
+	 * Creates a mapper for single lines of the given resource, for files that are
+	 * read line by line as they grow. Only JSONL, delimited and fixed-length files
+	 * are supported and records cannot span several lines. Delimited and
+	 * fixed-length lines are parsed by the same parsers as whole files.
+	 */
+	public LineMapper<?> lineMapper(Resource resource) {
+		FileType type = args.fileType(resource);
+		switch (type) {
+		case JSONL:
+			return jsonLineMapper();
+		case CSV:
+			return recordLineMapper(resource, delimitedParser(resource));
+		case FIXED:
+			return recordLineMapper(resource, fixedLengthParser());
+		default:
+			throw new UnsupportedOperationException("Unsupported file type for line-by-line reading: " + type);
 		}
-		try {
-			tokenizer.afterPropertiesSet();
-		} catch (Exception e) {
-			throw new IllegalStateException("Unable to initialize DelimitedLineTokenizer", e);
+	}
+
+	private RecordLineMapper recordLineMapper(Resource resource, RecordParser parser) {
+		RecordLineMapper mapper = new RecordLineMapper(parser);
+		mapper.setIncludedFields(args.getIncludedFields());
+		if (ObjectUtils.isEmpty(args.getFields())) {
+			Assert.isTrue(args.isHeader(), "No field names specified and header not enabled");
+			mapper.setHeaderSupplier(() -> headerLine(resource));
+		} else {
+			mapper.setNames(args.getFields().toArray(new String[0]));
+		}
+		return mapper;
+	}
+
+	private String headerLine(Resource resource) {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), charset()))) {
+			String line = null;
+			for (int index = 0; index <= headerIndex(); index++) {
+				line = reader.readLine();
+			}
+			Assert.notNull(line, "No header line found in " + resource.getDescription());
+			return line;
+		} catch (IOException e) {
+			throw new RuntimeIOException("Could not read header of resource " + resource, e);
 		}
-		return tokenizer;
 	}
 
-	private FlatFileItemReader<Map<String, Object>> flatFileReader(Resource resource, AbstractLineTokenizer tokenizer) {
+	private AtomicReference<String[]> fieldNames() {
+		AtomicReference<String[]> names = new AtomicReference<>();
 		if (ObjectUtils.isEmpty(args.getFields())) {
 			Assert.isTrue(args.isHeader(), "No field names specified and header not enabled");
 		} else {
-			tokenizer.setNames(args.getFields().toArray(new String[0]));
+			names.set(args.getFields().toArray(new String[0]));
 		}
-		FlatFileItemReaderBuilder<Map<String, Object>> builder = flatFileReader(resource);
-		builder.lineTokenizer(tokenizer);
-		builder.skippedLinesCallback(new HeaderCallbackHandler(tokenizer, headerIndex()));
-		return builder.build();
+		return names;
+	}
+
+	private ItemReader<Map<String, Object>> recordReader(Resource resource, RecordParser parser) {
+		AtomicReference<String[]> names = fieldNames();
+		if (isPartitioned(resource)) {
+			return partitionedReader(resource, recordPartitioner(), (path, range) -> {
+				RecordItemReader headerReader = recordItemReader(new FileRangeResource(path, range), parser);
+				headerReader.setLinesToSkip(linesToSkip());
+				headerReader.setHeaderIndex(headerIndex());
+				readHeader(headerReader, headerReader::getNames, names);
+			}, (path, range) -> {
+				RecordItemReader reader = recordItemReader(new FileRangeResource(path, range), parser);
+				reader.setNames(names.get());
+				return reader;
+			});
+		}
+		RecordItemReader reader = recordItemReader(resource, parser);
+		reader.setNames(names.get());
+		reader.setLinesToSkip(linesToSkip());
+		reader.setHeaderIndex(headerIndex());
+		reader.setMaxItemCount(args.getMaxItemCount());
+		return reader;
+	}
+
+	private RecordItemReader recordItemReader(Resource resource, RecordParser parser) {
+		RecordItemReader reader = createRecordItemReader(resource, parser);
+		reader.setName(resource.getFilename() + "-record-reader");
+		reader.setSaveState(false);
+		reader.setCharset(charset());
+		reader.setIncludedFields(args.getIncludedFields());
+		return reader;
 	}
 
-	private FlatFileItemReaderBuilder<Map<String, Object>> flatFileReader(Resource resource) {
-		FlatFileItemReaderBuilder<Map<String, Object>> builder = new FlatFileItemReaderBuilder<>();
+	/**
+	 * Local files are memory-mapped, other resources are read from their input
+	 * stream. Both follow the rules of the same parser.
+	 */
+	private RecordItemReader createRecordItemReader(Resource resource, RecordParser parser) {
+		if (resource instanceof FileRangeResource) {
+			FileRangeResource rangeResource = (FileRangeResource) resource;
+			return new MappedRecordItemReader(parser, rangeResource.getPath(), rangeResource.getRange());
+		}
+		if (resource.isFile()) {
+			try {
+				return new MappedRecordItemReader(parser, resource.getFile().toPath());
+			} catch (IOException e) {
+				throw new RuntimeIOException("Could not access file of resource " + resource, e);
+			}
+		}
+		RecordItemReader reader = new RecordItemReader(parser);
+		reader.setResource(resource);
+		return reader;
+	}
+
+	/**
+	 * Opens the given reader, which only spans the lines to skip, to extract field
+	 * names from the header line.
+	 */
+	private void readHeader(ItemStream reader, Supplier<String[]> headerNames, AtomicReference<String[]> names) {
+		reader.open(new ExecutionContext());
+		try {
+			if (headerNames.get() != null) {
+				names.set(headerNames.get());
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private FlatFileItemReaderBuilder flatFileReader(Resource resource) {
+		FlatFileItemReaderBuilder builder = new FlatFileItemReaderBuilder<>();
 		builder.resource(resource);
 		builder.maxItemCount(args.getMaxItemCount());
 		if (args.getEncoding() != null) {
@@ -96,21 +253,9 @@ public class FileReaderFactory {
 		builder.linesToSkip(linesToSkip());
 		builder.strict(true);
 		builder.saveState(false);
-		builder.fieldSetMapper(new MapFieldSetMapper());
 		return builder;
 	}
 
-	private FixedLengthTokenizer fixedLengthTokenizer() {
-		FixedLengthTokenizer tokenizer = new FixedLengthTokenizer();
-		RangeArrayPropertyEditor editor = new RangeArrayPropertyEditor();
-		Assert.notEmpty(args.getColumnRanges(), "Column ranges are required");
-		editor.setAsText(String.join(",", args.getColumnRanges()));
-		Range[] ranges = (Range[]) editor.getValue();
-		Assert.notEmpty(ranges, "Invalid ranges specified: " + args.getColumnRanges());
-		tokenizer.setColumns(ranges);
-		return tokenizer;
-	}
-
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	private <T extends ObjectMapper> T objectMapper(T objectMapper) {
 		objectMapper.configure(DeserializationFeature.USE_LONG_FOR_INTS, true);
@@ -124,13 +269,181 @@ public class FileReaderFactory {
 		return objectMapper;
 	}
 
+	private boolean isPartitioned(Resource resource) {
+		if (args.getPartitions() <= 1) {
+			return false;
+		}
+		if (!(resource.isFile() && FilePartitioner.supports(charset()))) {
+			log.warn("Resource {} cannot be partitioned, reading it sequentially", resource.getDescription());
+			return false;
+		}
+		return true;
+	}
+
+	private Charset charset() {
+		return Charset.forName(args.getEncoding());
+	}
+
+	private FilePartitioner recordPartitioner() {
+		FilePartitioner partitioner = new FilePartitioner();
+		partitioner.setQuoteCharacter(args.getQuoteCharacter());
+		partitioner.setContinuationString(args.getContinuationString(), charset());
+		return partitioner;
+	}
+
+	/**
+	 * JSON lines cannot contain unescaped newlines, so every newline ends a
+	 * record regardless of quotes.
+	 */
+	private FilePartitioner linePartitioner() {
+		return new FilePartitioner();
+	}
+
+	/**
+	 * Creates a reader that reads byte ranges of the given local file
+	 * concurrently. Lines to skip are handed to the given header consumer upfront
+	 * so that all partitions share the same header.
+	 */
+	private <T> PartitionedItemReader<T> partitionedReader(Resource resource, FilePartitioner partitioner,
+			BiConsumer<Path, FileRange> header, BiFunction<Path, FileRange, ItemStreamReader<T>> readerFunction) {
+		try {
+			Path path = resource.getFile().toPath();
+			long start = partitioner.skipLines(path, linesToSkip());
+			if (start > 0) {
+				header.accept(path, new FileRange(0, start));
+			}
+			List<FileRange> ranges = partitioner.partition(path, start, args.getPartitions());
+			log.info("Reading {} in {} partitions: {}", resource.getDescription(), ranges.size(), ranges);
+			List<ItemStreamReader<T>> readers = new ArrayList<>();
+			for (FileRange range : ranges) {
+				readers.add(readerFunction.apply(path, range));
+			}
+			PartitionedItemReader<T> reader = new PartitionedItemReader<>(readers);
+			reader.setName(resource.getFilename() + "-partitioned-reader");
+			reader.setMaxItemCount(args.getMaxItemCount());
+			return reader;
+		} catch (IOException e) {
+			throw new RuntimeIOException("Could not partition resource " + resource, e);
+		}
+	}
+
+	private ItemReader<Map<String, Object>> parquetReader(Resource resource) {
+		InputFile inputFile = new LocalInputFile(localFile(resource));
+		if (args.getPartitions() > 1) {
+			try {
+				List<FileRange> ranges = ParquetPartitioner.partition(inputFile, args.getPartitions());
+				log.info("Reading {} in {} partitions: {}", resource.getDescription(), ranges.size(), ranges);
+				List<ItemStreamReader<Map<String, Object>>> readers = new ArrayList<>();
+				for (FileRange range : ranges) {
+					ParquetItemReader reader = parquetReader(resource, inputFile);
+					reader.setRange(range);
+					readers.add(reader);
+				}
+				if (!readers.isEmpty()) {
+					PartitionedItemReader<Map<String, Object>> reader = new PartitionedItemReader<>(readers);
+					reader.setName(resource.getFilename() + "-partitioned-reader");
+					reader.setMaxItemCount(args.getMaxItemCount());
+					return reader;
+				}
+			} catch (IOException e) {
+				throw new RuntimeIOException("Could not partition resource " + resource, e);
+			}
+		}
+		ParquetItemReader reader = parquetReader(resource, inputFile);
+		reader.setMaxItemCount(args.getMaxItemCount());
+		return reader;
+	}
+
+	private ParquetItemReader parquetReader(Resource resource, InputFile inputFile) {
+		ParquetItemReader reader = new ParquetItemReader(inputFile);
+		reader.setName(resource.getFilename() + "-parquet-reader");
+		reader.setSaveState(false);
+		return reader;
+	}
+
+	/**
+	 * Parquet files need random access, so resources that are not local files are
+	 * first copied to a temporary file.
+	 */
+	private Path localFile(Resource resource) {
+		try {
+			if (resource.isFile()) {
+				return resource.getFile().toPath();
+			}
+			Path file = Files.createTempFile("riot-", "-" + resource.getFilename());
+			file.toFile().deleteOnExit();
+			log.info("Copying {} to {}", resource.getDescription(), file);
+			try (InputStream inputStream = resource.getInputStream()) {
+				Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return file;
+		} catch (IOException e) {
+			throw new RuntimeIOException("Could not copy resource " + resource + " to a local file", e);
+		}
+	}
+
+	private ItemReader<SnapshotEntry> snapshotReader(Resource resource) {
+		if (args.getPartitions() > 1 && resource.isFile()) {
+			try {
+				Path path = resource.getFile().toPath();
+				List<FileRange> ranges = SnapshotIndex.read(path).partition(args.getPartitions());
+				log.info("Reading {} in {} partitions: {}", resource.getDescription(), ranges.size(), ranges);
+				List<ItemStreamReader<SnapshotEntry>> readers = new ArrayList<>();
+				for (FileRange range : ranges) {
+					SnapshotItemReader reader = snapshotReader(new FileRangeResource(path, range));
+					reader.setReadHeader(false);
+					readers.add(reader);
+				}
+				if (!readers.isEmpty()) {
+					PartitionedItemReader<SnapshotEntry> reader = new PartitionedItemReader<>(readers);
+					reader.setName(resource.getFilename() + "-partitioned-reader");
+					reader.setMaxItemCount(args.getMaxItemCount());
+					return reader;
+				}
+			} catch (IOException e) {
+				throw new RuntimeIOException("Could not partition resource " + resource, e);
+			}
+		}
+		SnapshotItemReader reader = snapshotReader(resource);
+		reader.setMaxItemCount(args.getMaxItemCount());
+		return reader;
+	}
+
+	private SnapshotItemReader snapshotReader(Resource resource) {
+		SnapshotItemReader reader = new SnapshotItemReader();
+		reader.setName(resource.getFilename() + "-snapshot-reader");
+		reader.setResource(resource);
+		reader.setSaveState(false);
+		return reader;
+	}
+
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private FlatFileItemReader jsonlReader(Resource resource) {
+	private ItemReader jsonlReader(Resource resource) {
+		if (isPartitioned(resource)) {
+			return partitionedReader(resource, linePartitioner(), (path, range) -> {
+				// JSON lines have no header
+			}, (path, range) -> {
+				FlatFileItemReaderBuilder reader = flatFileReader(new FileRangeResource(path, range));
+				reader.lineMapper(jsonLineMapper());
+				reader.linesToSkip(0);
+				return reader.build();
+			});
+		}
 		FlatFileItemReaderBuilder reader = flatFileReader(resource);
 		reader.lineMapper(jsonLineMapper());
 		return reader.build();
 	}
 
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private BinaryRecordItemReader binaryReader(Resource resource, ObjectMapper mapper) {
+		BinaryRecordItemReader reader = new BinaryRecordItemReader<>(objectMapper(mapper), itemType);
+		reader.setName(resource.getFilename() + "-binary-reader");
+		reader.setResource(resource);
+		reader.setSaveState(false);
+		reader.setMaxItemCount(args.getMaxItemCount());
+		return reader;
+	}
+
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	private XmlItemReader xmlReader(Resource resource) {
 		XmlItemReaderBuilder builder = new XmlItemReaderBuilder<>();
@@ -138,6 +451,7 @@ public class FileReaderFactory {
 		builder.resource(resource);
 		XmlObjectReader objectReader = new XmlObjectReader<>(itemType);
 		objectReader.setMapper(objectMapper(new XmlMapper()));
+		objectReader.setWorkers(args.getXmlWorkers());
 		builder.xmlObjectReader(objectReader);
 		builder.maxItemCount(args.getMaxItemCount());
 		return builder.build();
@@ -196,7 +510,7 @@ public class FileReaderFactory {
 		return linesToSkip() - 1;
 	}
 
-	private int linesToSkip() {
+	public int linesToSkip() {
 		if (args.getLinesToSkip() != null) {
 			return args.getLinesToSkip();
 		}
@@ -0,0 +1,311 @@
+package com.redis.riot.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import com.redis.spring.batch.item.PollableItemReader;
+
+/**
+ * Reader following a growing file like {@code tail -F}: lines are returned as
+ * they are appended and the file is reopened from the start when it is rotated
+ * or truncated. Only complete lines are returned, so a line that is being
+ * written is read once its line separator is there.
+ * <p>
+ * If a state file is set, the offset of the last line read is saved to it
+ * every time the step commits a chunk, and reading resumes from that offset
+ * when the reader is opened again on the same file.
+ */
+public class FileTailItemReader<T> extends ItemStreamSupport implements ItemStreamReader<T>, PollableItemReader<T> {
+
+	public static final long DEFAULT_POLL_INTERVAL = 100;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final String FILE_KEY_PROPERTY = "file";
+	private static final String OFFSET_PROPERTY = "offset";
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final Path file;
+	private final LineMapper<T> lineMapper;
+
+	private Path stateFile;
+	private Charset charset = StandardCharsets.UTF_8;
+	private int linesToSkip;
+	private long pollInterval = DEFAULT_POLL_INTERVAL;
+
+	private FileChannel channel;
+	private Object fileKey;
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+	private long position;
+	private long offset;
+	private int lineCount;
+	private boolean open;
+
+	public FileTailItemReader(Path file, LineMapper<T> lineMapper) {
+		setName(ClassUtils.getShortName(getClass()));
+		Assert.notNull(file, "File must not be null");
+		Assert.notNull(lineMapper, "Line mapper must not be null");
+		this.file = file;
+		this.lineMapper = lineMapper;
+		buffer.limit(0);
+	}
+
+	@Override
+	public synchronized void open(ExecutionContext executionContext) {
+		if (open) {
+			return;
+		}
+		open = true;
+		Properties state = stateFile == null ? null : new StateFile(stateFile).read();
+		try {
+			reopen();
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not open file " + file, e);
+		}
+		if (channel != null && state != null && state.getProperty(OFFSET_PROPERTY) != null
+				&& Objects.equals(String.valueOf(fileKey), state.getProperty(FILE_KEY_PROPERTY))) {
+			long savedOffset = Long.parseLong(state.getProperty(OFFSET_PROPERTY));
+			try {
+				if (savedOffset > 0 && savedOffset <= channel.size()) {
+					log.info("Resuming {} from offset {}", file, savedOffset);
+					position = savedOffset;
+					offset = savedOffset;
+					lineCount = linesToSkip;
+				}
+			} catch (IOException e) {
+				throw new ItemStreamException("Could not read size of file " + file, e);
+			}
+		}
+	}
+
+	/**
+	 * Opens the current file from its beginning, or leaves the reader without a
+	 * channel if the file does not exist yet.
+	 */
+	private void reopen() throws IOException {
+		closeChannel();
+		try {
+			channel = FileChannel.open(file, StandardOpenOption.READ);
+		} catch (NoSuchFileException e) {
+			return;
+		}
+		fileKey = fileKey();
+		position = 0;
+		offset = 0;
+		lineCount = 0;
+		line.reset();
+	}
+
+	private Object fileKey() throws IOException {
+		Object key = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+		if (key == null) {
+			// File systems without file keys: fall back to creation time
+			return Files.readAttributes(file, BasicFileAttributes.class).creationTime();
+		}
+		return key;
+	}
+
+	@Override
+	public synchronized T read() throws Exception {
+		T item;
+		do {
+			item = poll(pollInterval, TimeUnit.MILLISECONDS);
+		} while (item == null && open);
+		return item;
+	}
+
+	@Override
+	public synchronized T poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (open) {
+			String nextLine = nextLine();
+			if (nextLine != null) {
+				return map(nextLine);
+			}
+			long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			if (remaining <= 0) {
+				return null;
+			}
+			wait(Math.min(remaining, pollInterval));
+		}
+		return null;
+	}
+
+	private T map(String nextLine) {
+		try {
+			return lineMapper.mapLine(nextLine, lineCount);
+		} catch (Exception e) {
+			throw new FlatFileParseException("Parsing error at line " + lineCount + " in " + file + ", input=["
+					+ nextLine + "]", e, nextLine, lineCount);
+		}
+	}
+
+	/**
+	 *
+	 * @return next complete line that is not skipped, or null if none is
+	 *         available yet
+	 */
+	private String nextLine() {
+		try {
+			while (true) {
+				if (channel == null) {
+					reopen();
+					if (channel == null) {
+						return null;
+					}
+				}
+				String nextLine = readLine();
+				if (nextLine == null) {
+					if (isRotated()) {
+						log.info("File {} was rotated or truncated, reopening it", file);
+						reopen();
+						continue;
+					}
+					return null;
+				}
+				lineCount++;
+				if (lineCount > linesToSkip) {
+					return nextLine;
+				}
+			}
+		} catch (IOException e) {
+			throw new RuntimeIOException("Could not read file " + file, e);
+		}
+	}
+
+	private String readLine() throws IOException {
+		while (true) {
+			while (buffer.hasRemaining()) {
+				byte b = buffer.get();
+				if (b == '\n') {
+					offset = position - buffer.remaining();
+					return decodeLine();
+				}
+				line.write(b);
+			}
+			buffer.clear();
+			int length = channel.read(buffer, position);
+			if (length <= 0) {
+				buffer.limit(0);
+				return null;
+			}
+			position += length;
+			buffer.flip();
+		}
+	}
+
+	private String decodeLine() {
+		byte[] bytes = line.toByteArray();
+		line.reset();
+		int length = bytes.length;
+		if (length > 0 && bytes[length - 1] == '\r') {
+			length--;
+		}
+		return new String(bytes, 0, length, charset);
+	}
+
+	/**
+	 * Called once all data of the current channel has been read.
+	 */
+	private boolean isRotated() throws IOException {
+		if (channel.size() < position) {
+			return true;
+		}
+		if (!Files.exists(file)) {
+			return false;
+		}
+		return !fileKey.equals(fileKey());
+	}
+
+	@Override
+	public synchronized void update(ExecutionContext executionContext) {
+		if (stateFile == null || fileKey == null) {
+			return;
+		}
+		Properties state = new Properties();
+		state.setProperty(FILE_KEY_PROPERTY, String.valueOf(fileKey));
+		state.setProperty(OFFSET_PROPERTY, String.valueOf(offset));
+		new StateFile(stateFile).write(state, file.toString());
+	}
+
+	@Override
+	public synchronized void close() {
+		if (!open) {
+			return;
+		}
+		open = false;
+		notifyAll();
+		closeChannel();
+	}
+
+	private void closeChannel() {
+		if (channel == null) {
+			return;
+		}
+		try {
+			channel.close();
+		} catch (IOException e) {
+			log.debug("Could not close file {}", file, e);
+		}
+		channel = null;
+		buffer.clear();
+		buffer.limit(0);
+	}
+
+	public Path getStateFile() {
+		return stateFile;
+	}
+
+	public void setStateFile(Path stateFile) {
+		this.stateFile = stateFile;
+	}
+
+	public Charset getCharset() {
+		return charset;
+	}
+
+	public void setCharset(Charset charset) {
+		this.charset = charset;
+	}
+
+	public int getLinesToSkip() {
+		return linesToSkip;
+	}
+
+	public void setLinesToSkip(int linesToSkip) {
+		this.linesToSkip = linesToSkip;
+	}
+
+	public long getPollInterval() {
+		return pollInterval;
+	}
+
+	public void setPollInterval(long intervalMillis) {
+		this.pollInterval = intervalMillis;
+	}
+
+}
@@ -2,15 +2,20 @@ package com.redis.riot.file;
 
 import java.io.IOException;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.springframework.core.io.Resource;
@@ -20,7 +25,9 @@ public abstract class FileUtils {
 
 	public static final String GS_URI_PREFIX = "gs://";
 	public static final String S3_URI_PREFIX = "s3://";
-	public static final Pattern EXTENSION_PATTERN = Pattern.compile("(?i)\\.(?<extension>\\w+)(?:\\.(?<gz>gz))?$");
+	public static final Pattern GLOB_CHARACTERS = Pattern.compile("[*?\\[{]");
+	public static final Pattern EXTENSION_PATTERN = Pattern.compile(
+			"(?i)\\.(?<extension>\\w+)(?:\\.(?<compression>gz|zst|lz4))?$");
 
 	public static final String CSV = "csv";
 	public static final String TSV = "tsv";
@@ -29,12 +36,45 @@ public abstract class FileUtils {
 	public static final String JSON = "json";
 	public static final String JSONL = "jsonl";
 	public static final String XML = "xml";
+	public static final String RIOT = "riot";
+	public static final String PARQUET = "parquet";
+	public static final String CBOR = "cbor";
+	public static final String SMILE = "smile";
+	public static final String MSGPACK = "msgpack";
+	public static final String GZ = "gz";
+	public static final String ZST = "zst";
+	public static final String LZ4 = "lz4";
+
+	public static final long UNKNOWN_SIZE = -1;
 
 	private FileUtils() {
 	}
 
 	public static boolean isGzip(String file) {
-		return extensionGroup(file, "gz") != null;
+		return compression(file) == Compression.GZIP;
+	}
+
+	/**
+	 * 
+	 * @param file Filename
+	 * @return compression codec matching the file extension, or
+	 *         {@link Compression#NONE} if the file is not compressed
+	 */
+	public static Compression compression(String file) {
+		String extension = extensionGroup(file, "compression");
+		if (extension == null) {
+			return Compression.NONE;
+		}
+		switch (extension.toLowerCase()) {
+		case GZ:
+			return Compression.GZIP;
+		case ZST:
+			return Compression.ZSTD;
+		case LZ4:
+			return Compression.LZ4;
+		default:
+			return Compression.NONE;
+		}
 	}
 
 	private static String extensionGroup(String file, String group) {
@@ -67,6 +107,16 @@ public abstract class FileUtils {
 			return FileType.JSONL;
 		case XML:
 			return FileType.XML;
+		case RIOT:
+			return FileType.RIOT;
+		case PARQUET:
+			return FileType.PARQUET;
+		case CBOR:
+			return FileType.CBOR;
+		case SMILE:
+			return FileType.SMILE;
+		case MSGPACK:
+			return FileType.MSGPACK;
 		case CSV:
 		case PSV:
 		case TSV:
@@ -93,6 +143,26 @@ public abstract class FileUtils {
 		return Stream.of(file);
 	}
 
+	/**
+	 * 
+	 * @param file File location
+	 * @return size in bytes of the given file, or {@link #UNKNOWN_SIZE} if it is
+	 *         not a local file or its size cannot be determined
+	 */
+	public static long size(String file) {
+		if (isFile(file)) {
+			Path path = Paths.get(file);
+			if (Files.isRegularFile(path)) {
+				try {
+					return Files.size(path);
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+		return UNKNOWN_SIZE;
+	}
+
 	public static boolean isStdin(String file) {
 		return "-".equals(file);
 	}
@@ -103,15 +173,58 @@ public abstract class FileUtils {
 	}
 
 	public static List<Path> expand(Path path) {
-		if (Files.exists(path) || path.getParent() == null || !Files.exists(path.getParent())) {
+		return expand(Paths.get(""), path);
+	}
+
+	/**
+	 * 
+	 * @param directory directory that relative paths are resolved against
+	 * @param path      path that might include a glob pattern
+	 * @return files matching the given path, relative to the given directory if
+	 *         the path is relative
+	 */
+	static List<Path> expand(Path directory, Path path) {
+		Path pattern = directory.resolve(path);
+		if (Files.exists(pattern)) {
+			return Arrays.asList(path);
+		}
+		Path root = globRoot(path);
+		Path dir = root == null ? directory : directory.resolve(root);
+		if (!Files.isDirectory(dir)) {
 			return Arrays.asList(path);
 		}
-		Path dir = path.getParent();
-		String glob = path.getFileName().toString();
+		List<Path> paths;
+		if (Objects.equals(root, path.getParent())) {
+			paths = list(dir, path.getFileName().toString());
+		} else {
+			paths = walk(dir, pattern.toString());
+		}
+		if (path.isAbsolute()) {
+			return paths;
+		}
+		return paths.stream().map(directory::relativize).collect(Collectors.toList());
+	}
+
+	/**
+	 * 
+	 * @return the deepest ancestor of the given path without glob characters, or
+	 *         null if the first element of a relative path is a glob pattern
+	 */
+	private static Path globRoot(Path path) {
+		Path root = path.getParent();
+		while (root != null && GLOB_CHARACTERS.matcher(root.toString()).find()) {
+			root = root.getParent();
+		}
+		return root;
+	}
+
+	private static List<Path> list(Path dir, String glob) {
 		// Path might be glob pattern
 		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
 			List<Path> paths = new ArrayList<>();
 			stream.iterator().forEachRemaining(paths::add);
+			// Directory order is unspecified: sort so that runs see files in the same order
+			Collections.sort(paths);
 			return paths;
 		} catch (IOException e) {
 			throw new RuntimeIOException(
@@ -119,4 +232,47 @@ public abstract class FileUtils {
 		}
 	}
 
+	/**
+	 * Recursively lists the regular files under the given directory that match
+	 * the glob pattern. Each {@code **} segment matches any number of
+	 * directories, including none.
+	 */
+	private static List<Path> walk(Path dir, String glob) {
+		List<PathMatcher> matchers = flatGlobs(glob, dir.getFileSystem().getSeparator()).stream()
+				.map(g -> FileSystems.getDefault().getPathMatcher("glob:" + g)).collect(Collectors.toList());
+		try (Stream<Path> stream = Files.walk(dir)) {
+			return stream.filter(Files::isRegularFile).filter(p -> matchers.stream().anyMatch(m -> m.matches(p)))
+					.sorted().collect(Collectors.toList());
+		} catch (IOException e) {
+			throw new RuntimeIOException(
+					MessageFormat.format("Could not walk directory {0} with glob pattern {1}", dir, glob), e);
+		}
+	}
+
+	/**
+	 * Glob patterns only match {@code **} against at least one directory, so the
+	 * pattern is expanded into every combination of its {@code **} directory
+	 * segments being kept or removed.
+	 */
+	static List<String> flatGlobs(String glob, String separator) {
+		List<List<String>> globs = new ArrayList<>();
+		globs.add(new ArrayList<>());
+		String[] segments = glob.split(Pattern.quote(separator), -1);
+		for (int index = 0; index < segments.length; index++) {
+			String segment = segments[index];
+			boolean optional = "**".equals(segment) && index < segments.length - 1;
+			List<List<String>> next = new ArrayList<>();
+			for (List<String> g : globs) {
+				if (optional) {
+					next.add(g);
+				}
+				List<String> kept = new ArrayList<>(g);
+				kept.add(segment);
+				next.add(kept);
+			}
+			globs = next;
+		}
+		return globs.stream().map(g -> String.join(separator, g)).collect(Collectors.toList());
+	}
+
 }
@@ -2,12 +2,27 @@ package com.redis.riot.file;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.zip.GZIPOutputStream;
 
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.springframework.cloud.gcp.core.GcpScope;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.WritableResource;
 import org.springframework.util.Assert;
+import org.springframework.util.unit.DataSize;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.redis.riot.file.parquet.ParquetItemWriter;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream.BLOCKSIZE;
+import net.jpountz.lz4.LZ4FrameOutputStream.FLG;
+import net.jpountz.xxhash.XXHashFactory;
 
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
@@ -19,6 +34,15 @@ public class FileWriterArgs extends FileArgs {
 	public static final String DEFAULT_ROOT_NAME = "root";
 	public static final boolean DEFAULT_SHOULD_DELETE_IF_EXISTS = true;
 	public static final boolean DEFAULT_TRANSACTIONAL = true;
+	public static final int DEFAULT_SCHEMA_SAMPLE_SIZE = ParquetItemWriter.DEFAULT_SAMPLE_SIZE;
+	public static final long DEFAULT_ROW_GROUP_SIZE = ParquetItemWriter.DEFAULT_ROW_GROUP_SIZE;
+	public static final CompressionCodecName DEFAULT_PARQUET_CODEC = ParquetItemWriter.DEFAULT_CODEC;
+	public static final DataSize DEFAULT_UPLOAD_PART_SIZE = DataSize.ofMegabytes(16);
+	public static final int DEFAULT_UPLOAD_THREADS = 4;
+	public static final int DEFAULT_MAX_SHARDS = ShardedItemWriter.DEFAULT_MAX_SHARDS;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int LZ4_HIGH_COMPRESSION_LEVEL = 3;
 
 	@Parameters(arity = "0..1", description = "File path or URL. If omitted, export is written to stdout.", paramLabel = "FILE")
 	private String file;
@@ -47,9 +71,41 @@ public class FileWriterArgs extends FileArgs {
 	@Option(names = "--delete-exists", description = "Delete file if it already exists.", negatable = true, defaultValue = "true", fallbackValue = "true")
 	private boolean shouldDeleteIfExists = DEFAULT_SHOULD_DELETE_IF_EXISTS;
 
-	@Option(names = "--transactional", description = "Delay writing to the buffer if a transaction is active.", negatable = true, defaultValue = "true", fallbackValue = "true")
+	@Option(names = "--transactional", description = "Delay writing to the buffer if a transaction is active. Does not apply to sharded or rolled-over files.", negatable = true, defaultValue = "true", fallbackValue = "true")
 	private boolean transactional = DEFAULT_TRANSACTIONAL;
 
+	@Option(names = "--parquet-schema", description = "Parquet message type of records, e.g. 'message record { required binary id (STRING); optional int64 count; }' (default: inferred).", paramLabel = "<schema>")
+	private String parquetSchema;
+
+	@Option(names = "--schema-sample", description = "Number of records used to infer the Parquet schema (default: ${DEFAULT-VALUE}).", paramLabel = "<int>")
+	private int schemaSampleSize = DEFAULT_SCHEMA_SAMPLE_SIZE;
+
+	@Option(names = "--row-group-size", description = "Parquet row group size in bytes (default: ${DEFAULT-VALUE}).", paramLabel = "<bytes>")
+	private long rowGroupSize = DEFAULT_ROW_GROUP_SIZE;
+
+	@Option(names = "--parquet-codec", description = "Parquet compression codec: ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE}).", paramLabel = "<codec>")
+	private CompressionCodecName parquetCodec = DEFAULT_PARQUET_CODEC;
+
+	@Option(names = "--parquet-lenient", description = "Drop fields that are not in the Parquet schema and write nulls for values that do not match it, instead of failing.")
+	private boolean parquetLenient;
+
+	@Option(names = "--max-file-items", description = "Roll over to a new file after this many records.", paramLabel = "<int>")
+	private long maxFileItems;
+
+	@Option(names = "--max-file-size", description = "Roll over to a new file after this many uncompressed bytes, e.g. 1GB.", paramLabel = "<size>")
+	private DataSize maxFileSize;
+
+	@Option(names = "--max-shards", description = "Max number of shards, i.e. of files written at the same time (default: ${DEFAULT-VALUE}).", paramLabel = "<int>")
+	private int maxShards = DEFAULT_MAX_SHARDS;
+
+	@Option(names = "--upload-part-size", description = "Size of multipart upload parts for S3 exports (default: ${DEFAULT-VALUE}).", paramLabel = "<size>")
+	private DataSize uploadPartSize = DEFAULT_UPLOAD_PART_SIZE;
+
+	@Option(names = "--upload-threads", description = "Number of S3 parts uploaded concurrently (default: ${DEFAULT-VALUE}).", paramLabel = "<int>")
+	private int uploadThreads = DEFAULT_UPLOAD_THREADS;
+
+	private final List<AmazonS3MultipartResource> uploads = new ArrayList<>();
+
 	public FileWriterArgs() {
 		getGoogleStorageArgs().setScope(GcpScope.STORAGE_READ_WRITE);
 	}
@@ -61,31 +117,106 @@ public class FileWriterArgs extends FileArgs {
 		}
 		Resource resource;
 		try {
-			resource = super.resource(location);
+			resource = writableResource(location);
 		} catch (IOException e) {
 			throw new RuntimeIOException("Could not get resource " + location, e);
 		}
 		Assert.notNull(resource, "Could not resolve file " + location);
 		Assert.isInstanceOf(WritableResource.class, resource);
 		WritableResource writableResource = (WritableResource) resource;
-		if (isGzipped() || FileUtils.isGzip(location)) {
+		Compression compression = compression(location);
+		if (compression != Compression.NONE) {
 			OutputStream outputStream;
 			try {
 				outputStream = writableResource.getOutputStream();
 			} catch (IOException e) {
 				throw new RuntimeIOException("Could not open output stream on resource " + writableResource, e);
 			}
-			GZIPOutputStream gzipOutputStream;
+			OutputStream compressedStream;
 			try {
-				gzipOutputStream = new GZIPOutputStream(outputStream);
+				compressedStream = compress(outputStream, compression);
 			} catch (IOException e) {
-				throw new RuntimeIOException("Could not open gzip output stream on resource " + writableResource, e);
+				throw new RuntimeIOException(
+						"Could not open " + compression + " output stream on resource " + writableResource, e);
 			}
-			return new OutputStreamResource(gzipOutputStream, resource.getFilename(), resource.getDescription());
+			return new OutputStreamResource(compressedStream, resource.getFilename(), resource.getDescription());
 		}
 		return writableResource;
 	}
 
+	private Resource writableResource(String location) throws IOException {
+		if (FileUtils.isAmazonS3(location)) {
+			AmazonS3MultipartResource resource = new AmazonS3MultipartResource(amazonS3(), location,
+					Math.toIntExact(uploadPartSize.toBytes()), uploadThreads);
+			synchronized (uploads) {
+				uploads.add(resource);
+			}
+			return resource;
+		}
+		return super.resource(location);
+	}
+
+	/**
+	 * Aborts the S3 uploads of the resources created so far, so that a failed
+	 * export does not leave partial objects behind. Must be called before the
+	 * writers are closed.
+	 */
+	public void abortUploads() {
+		synchronized (uploads) {
+			uploads.forEach(AmazonS3MultipartResource::abort);
+			uploads.clear();
+		}
+	}
+
+	/**
+	 * Determines the file type from the location alone, without opening a
+	 * compressed output stream on it.
+	 */
+	@Override
+	public FileType fileType(String file) throws IOException {
+		if (file == null) {
+			return fileType(resource(file));
+		}
+		return fileType(super.resource(file));
+	}
+
+	private OutputStream compress(OutputStream outputStream, Compression compression) throws IOException {
+		Integer level = getCompressionLevel();
+		switch (compression) {
+		case GZIP:
+			return new GZIPOutputStream(outputStream, BUFFER_SIZE) {
+				{
+					if (level != null) {
+						def.setLevel(level);
+					}
+				}
+			};
+		case ZSTD:
+			ZstdOutputStream zstdOutputStream = new ZstdOutputStream(outputStream,
+					level == null ? Zstd.defaultCompressionLevel() : level);
+			if (getCompressionWorkers() > 1) {
+				zstdOutputStream.setWorkers(getCompressionWorkers());
+			}
+			return zstdOutputStream;
+		case LZ4:
+			LZ4Factory factory = LZ4Factory.fastestInstance();
+			LZ4Compressor compressor = level == null || level < LZ4_HIGH_COMPRESSION_LEVEL ? factory.fastCompressor()
+					: factory.highCompressor(level);
+			return new LZ4FrameOutputStream(outputStream, BLOCKSIZE.SIZE_4MB, -1, compressor,
+					XXHashFactory.fastestInstance().hash32(), FLG.Bits.BLOCK_INDEPENDENCE);
+		default:
+			return outputStream;
+		}
+	}
+
+	/**
+	 * 
+	 * @return true if records are split into several files
+	 */
+	public boolean isRollover() {
+		return maxFileItems > 0 || maxFileSize != null;
+	}
+
 	public String getFile() {
 		return file;
 	}
@@ -166,6 +297,46 @@ public class FileWriterArgs extends FileArgs {
 		this.transactional = transactional;
 	}
 
+	public String getParquetSchema() {
+		return parquetSchema;
+	}
+
+	public void setParquetSchema(String schema) {
+		this.parquetSchema = schema;
+	}
+
+	public int getSchemaSampleSize() {
+		return schemaSampleSize;
+	}
+
+	public void setSchemaSampleSize(int size) {
+		this.schemaSampleSize = size;
+	}
+
+	public long getRowGroupSize() {
+		return rowGroupSize;
+	}
+
+	public void setRowGroupSize(long size) {
+		this.rowGroupSize = size;
+	}
+
+	public CompressionCodecName getParquetCodec() {
+		return parquetCodec;
+	}
+
+	public void setParquetCodec(CompressionCodecName codec) {
+		this.parquetCodec = codec;
+	}
+
+	public boolean isParquetLenient() {
+		return parquetLenient;
+	}
+
+	public void setParquetLenient(boolean lenient) {
+		this.parquetLenient = lenient;
+	}
+
 	public FileType fileType() {
 		try {
 			return fileType(file);
@@ -174,4 +345,44 @@ public class FileWriterArgs extends FileArgs {
 		}
 	}
 
+	public long getMaxFileItems() {
+		return maxFileItems;
+	}
+
+	public void setMaxFileItems(long count) {
+		this.maxFileItems = count;
+	}
+
+	public DataSize getMaxFileSize() {
+		return maxFileSize;
+	}
+
+	public void setMaxFileSize(DataSize size) {
+		this.maxFileSize = size;
+	}
+
+	public int getMaxShards() {
+		return maxShards;
+	}
+
+	public void setMaxShards(int max) {
+		this.maxShards = max;
+	}
+
+	public DataSize getUploadPartSize() {
+		return uploadPartSize;
+	}
+
+	public void setUploadPartSize(DataSize size) {
+		this.uploadPartSize = size;
+	}
+
+	public int getUploadThreads() {
+		return uploadThreads;
+	}
+
+	public void setUploadThreads(int threads) {
+		this.uploadThreads = threads;
+	}
+
 }
@@ -1,29 +1,34 @@
 package com.redis.riot.file;
 
+import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.file.transform.LineAggregator;
 import org.springframework.batch.item.file.transform.PassThroughFieldExtractor;
-import org.springframework.batch.item.json.JacksonJsonObjectMarshaller;
 import org.springframework.core.io.WritableResource;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
 
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
-import com.redis.riot.file.xml.XmlResourceItemWriter;
-import com.redis.riot.file.xml.XmlResourceItemWriterBuilder;
-import com.redis.riot.resource.FlatFileItemWriter;
+import com.redis.riot.file.parquet.ParquetItemWriter;
+import com.redis.riot.file.parquet.ResourceOutputFile;
+import com.redis.riot.file.snapshot.SnapshotItemWriter;
+import com.redis.riot.file.xml.XmlGeneratorItemWriter;
 import com.redis.riot.resource.FlatFileItemWriterBuilder;
 import com.redis.riot.resource.FlatFileItemWriterBuilder.DelimitedBuilder;
 import com.redis.riot.resource.FlatFileItemWriterBuilder.FormattedBuilder;
-import com.redis.riot.resource.JsonFileItemWriter;
-import com.redis.riot.resource.JsonFileItemWriterBuilder;
 
 public class FileWriterFactory {
 
@@ -31,10 +36,30 @@ public class FileWriterFactory {
 
 	private FileWriterArgs options = new FileWriterArgs();
 	private Supplier<Map<String, Object>> headerSupplier = () -> null;
+	private int threads = 1;
+	private Function<Object, String> shardFunction;
 
-	@SuppressWarnings("unchecked")
 	public <T> ItemWriter<T> create(String file) {
-		WritableResource resource = options.resource(file);
+		if (file != null && (options.isRollover() || shardFunction != null)) {
+			return shardedWriter(file);
+		}
+		return create(options.resource(file));
+	}
+
+	private <T> ShardedItemWriter<T> shardedWriter(String file) {
+		ShardedItemWriter<T> writer = new ShardedItemWriter<>(file, options::resource, this::create);
+		writer.setName(file);
+		writer.setShardFunction(shardFunction);
+		writer.setMaxItemCount(options.getMaxFileItems());
+		writer.setMaxShards(options.getMaxShards());
+		if (options.getMaxFileSize() != null) {
+			writer.setMaxSize(options.getMaxFileSize().toBytes());
+		}
+		return writer;
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> ItemWriter<T> create(WritableResource resource) {
 		FileType type = options.fileType(resource);
 		switch (type) {
 		case CSV:
@@ -47,15 +72,53 @@ public class FileWriterFactory {
 			return jsonlWriter(resource);
 		case XML:
 			return xmlWriter(resource);
+		case RIOT:
+			return (ItemWriter<T>) snapshotWriter(resource);
+		case PARQUET:
+			return (ItemWriter<T>) parquetWriter(resource);
+		case CBOR:
+			return binaryWriter(resource, new CBORMapper());
+		case SMILE:
+			return binaryWriter(resource, new SmileMapper());
+		case MSGPACK:
+			return binaryWriter(resource, new ObjectMapper(new MessagePackFactory()));
 		default:
 			throw new UnsupportedOperationException("Unsupported file type: " + type);
 		}
 	}
 
-	private <T> FlatFileItemWriter<T> jsonlWriter(WritableResource resource) {
-		FlatFileItemWriterBuilder<T> builder = flatFileWriter(resource);
-		builder.lineAggregator(new JsonLineAggregator<>(objectMapper(new ObjectMapper())));
-		return builder.build();
+	private ParquetItemWriter parquetWriter(WritableResource resource) {
+		ParquetItemWriter writer = new ParquetItemWriter(new ResourceOutputFile(resource));
+		writer.setName(resource.getFilename());
+		if (StringUtils.hasText(options.getParquetSchema())) {
+			writer.setSchema(MessageTypeParser.parseMessageType(options.getParquetSchema()));
+		}
+		writer.setSampleSize(options.getSchemaSampleSize());
+		writer.setRowGroupSize(options.getRowGroupSize());
+		writer.setCodec(options.getParquetCodec());
+		writer.setLenient(options.isParquetLenient());
+		return writer;
+	}
+
+	private <T> BinaryRecordItemWriter<T> binaryWriter(WritableResource resource, ObjectMapper mapper) {
+		BinaryRecordItemWriter<T> writer = new BinaryRecordItemWriter<>(resource, objectMapper(mapper));
+		writer.setName(resource.getFilename());
+		return writer;
+	}
+
+	private SnapshotItemWriter snapshotWriter(WritableResource resource) {
+		SnapshotItemWriter writer = new SnapshotItemWriter(resource);
+		writer.setName(resource.getFilename());
+		return writer;
+	}
+
+	private <T> ItemWriter<T> jsonlWriter(WritableResource resource) {
+		if (threads > 1) {
+			return orderedWriter(resource, jsonSerializer(true));
+		}
+		JsonGeneratorItemWriter<T> writer = jsonGeneratorWriter(resource);
+		writer.setLines(true);
+		return writer;
 	}
 
 	private <T extends ObjectMapper> T objectMapper(T objectMapper) {
@@ -64,32 +127,66 @@ public class FileWriterFactory {
 		return objectMapper;
 	}
 
-	private <T> JsonFileItemWriter<T> jsonWriter(WritableResource resource) {
-		JsonFileItemWriterBuilder<T> writer = new JsonFileItemWriterBuilder<>();
-		writer.name(resource.getFilename());
-		writer.append(options.isAppend());
-		writer.encoding(options.getEncoding());
-		writer.lineSeparator(options.getLineSeparator());
-		writer.resource(resource);
-		writer.saveState(false);
-		ObjectMapper mapper = objectMapper(new ObjectMapper());
-		writer.jsonObjectMarshaller(new JacksonJsonObjectMarshaller<>(mapper));
-		return writer.build();
+	private <T> ItemWriter<T> jsonWriter(WritableResource resource) {
+		if (threads > 1) {
+			JsonChunkSerializer<T> serializer = jsonSerializer(false);
+			OrderedFileItemWriter<T> writer = orderedWriter(resource, serializer);
+			writer.setSeparator(bytes(serializer.getChunkSeparator()));
+			writer.setHeader(bytes("[" + options.getLineSeparator()));
+			writer.setFooter(bytes(options.getLineSeparator() + "]" + options.getLineSeparator()));
+			return writer;
+		}
+		return jsonGeneratorWriter(resource);
+	}
+
+	private <T> JsonChunkSerializer<T> jsonSerializer(boolean lines) {
+		return new JsonChunkSerializer<>(objectMapper(new ObjectMapper()), charset(), options.getLineSeparator(),
+				lines);
+	}
+
+	private <T> OrderedFileItemWriter<T> orderedWriter(WritableResource resource, ChunkSerializer<T> serializer) {
+		OrderedFileItemWriter<T> writer = new OrderedFileItemWriter<>(resource, serializer);
+		writer.setName(resource.getFilename());
+		writer.setAppend(options.isAppend());
+		writer.setShouldDeleteIfExists(options.isShouldDeleteIfExists());
+		writer.setShouldDeleteIfEmpty(options.isShouldDeleteIfEmpty());
+		writer.setForceSync(options.isForceSync());
+		writer.setTransactional(options.isTransactional());
+		return writer;
+	}
+
+	private Charset charset() {
+		return Charset.forName(options.getEncoding());
+	}
+
+	private byte[] bytes(String string) {
+		return string.getBytes(charset());
 	}
 
-	private <T> XmlResourceItemWriter<T> xmlWriter(WritableResource resource) {
-		XmlResourceItemWriterBuilder<T> writer = new XmlResourceItemWriterBuilder<>();
-		writer.name(resource.getFilename());
-		writer.append(options.isAppend());
-		writer.encoding(options.getEncoding());
-		writer.lineSeparator(options.getLineSeparator());
-		writer.rootName(options.getRootName());
-		writer.resource(resource);
-		writer.saveState(false);
+	private <T> JsonGeneratorItemWriter<T> jsonGeneratorWriter(WritableResource resource) {
+		JsonGeneratorItemWriter<T> writer = new JsonGeneratorItemWriter<>(resource, objectMapper(new ObjectMapper()));
+		configure(writer, resource);
+		return writer;
+	}
+
+	private <T> XmlGeneratorItemWriter<T> xmlWriter(WritableResource resource) {
 		XmlMapper mapper = objectMapper(new XmlMapper());
 		mapper.setConfig(mapper.getSerializationConfig().withRootName(options.getElementName()));
-		writer.xmlObjectMarshaller(new JacksonJsonObjectMarshaller<>(mapper));
-		return writer.build();
+		XmlGeneratorItemWriter<T> writer = new XmlGeneratorItemWriter<>(resource, mapper);
+		writer.setRootName(options.getRootName());
+		configure(writer, resource);
+		return writer;
+	}
+
+	private void configure(AbstractOutputStreamItemWriter<?> writer, WritableResource resource) {
+		writer.setName(resource.getFilename());
+		writer.setAppend(options.isAppend());
+		writer.setEncoding(options.getEncoding());
+		writer.setLineSeparator(options.getLineSeparator());
+		writer.setShouldDeleteIfExists(options.isShouldDeleteIfExists());
+		writer.setShouldDeleteIfEmpty(options.isShouldDeleteIfEmpty());
+		writer.setForceSync(options.isForceSync());
+		writer.setTransactional(options.isTransactional());
 	}
 
 	private ItemWriter<Map<String, Object>> delimitedWriter(WritableResource resource) {
@@ -98,33 +195,50 @@ public class FileWriterFactory {
 		delimitedBuilder.delimiter(options.getDelimiter());
 		delimitedBuilder.fieldExtractor(new PassThroughFieldExtractor<>());
 		delimitedBuilder.quoteCharacter(String.valueOf(options.getQuoteCharacter()));
-		return writer(writer, delimitedBuilder.build());
+		return writer(resource, writer, delimitedBuilder.build());
 	}
 
-	private FlatFileItemWriter<Map<String, Object>> writer(FlatFileItemWriterBuilder<Map<String, Object>> writer,
+	private ItemWriter<Map<String, Object>> writer(WritableResource resource,
+			FlatFileItemWriterBuilder<Map<String, Object>> writer,
 			LineAggregator<Map<String, Object>> lineAggregator) {
-		writer.lineAggregator(lineAggregator);
-		if (options.isHeader()) {
-			Map<String, Object> headerRecord = headerSupplier.get();
-			if (CollectionUtils.isEmpty(headerRecord)) {
-				log.warn("Could not determine header");
-			} else {
-				Map<String, Object> headerFieldMap = new HashMap<>();
-				headerRecord.forEach((k, v) -> headerFieldMap.put(k, k));
-				String headerLine = lineAggregator.aggregate(headerFieldMap);
-				log.info("Found header: {}", headerLine);
-				writer.headerCallback(w -> w.write(headerLine));
+		String headerLine = headerLine(lineAggregator);
+		if (threads > 1) {
+			OrderedFileItemWriter<Map<String, Object>> orderedWriter = orderedWriter(resource,
+					new LineChunkSerializer<>(lineAggregator, charset(), options.getLineSeparator()));
+			if (headerLine != null) {
+				orderedWriter.setHeader(bytes(headerLine + options.getLineSeparator()));
 			}
+			return orderedWriter;
+		}
+		writer.lineAggregator(lineAggregator);
+		if (headerLine != null) {
+			writer.headerCallback(w -> w.write(headerLine));
 		}
 		return writer.build();
 	}
 
+	private String headerLine(LineAggregator<Map<String, Object>> lineAggregator) {
+		if (!options.isHeader()) {
+			return null;
+		}
+		Map<String, Object> headerRecord = headerSupplier.get();
+		if (CollectionUtils.isEmpty(headerRecord)) {
+			log.warn("Could not determine header");
+			return null;
+		}
+		Map<String, Object> headerFieldMap = new HashMap<>();
+		headerRecord.forEach((k, v) -> headerFieldMap.put(k, k));
+		String headerLine = lineAggregator.aggregate(headerFieldMap);
+		log.info("Found header: {}", headerLine);
+		return headerLine;
+	}
+
 	private ItemWriter<Map<String, Object>> fixedLengthWriter(WritableResource resource) {
 		FlatFileItemWriterBuilder<Map<String, Object>> writer = flatFileWriter(resource);
 		FormattedBuilder<Map<String, Object>> formattedBuilder = writer.formatted();
 		formattedBuilder.format(options.getFormatterString());
 		formattedBuilder.fieldExtractor(new PassThroughFieldExtractor<>());
-		return writer(writer, formattedBuilder.build());
+		return writer(resource, writer, formattedBuilder.build());
 	}
 
 	private <T> FlatFileItemWriterBuilder<T> flatFileWriter(WritableResource resource) {
@@ -150,6 +264,32 @@ public class FileWriterFactory {
 		this.options = options;
 	}
 
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * 
+	 * @param threads number of threads writing concurrently. Delimited,
+	 *                fixed-length, JSON and JSON lines writers are made
+	 *                thread-safe when greater than 1.
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	public Function<Object, String> getShardFunction() {
+		return shardFunction;
+	}
+
+	/**
+	 * 
+	 * @param function returns the shard each item is written to
+	 */
+	public void setShardFunction(Function<Object, String> function) {
+		this.shardFunction = function;
+	}
+
 	public Supplier<Map<String, Object>> getHeaderSupplier() {
 		return headerSupplier;
 	}
@@ -0,0 +1,100 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+
+import org.springframework.batch.item.file.transform.IncorrectLineLengthException;
+import org.springframework.batch.item.file.transform.Range;
+import org.springframework.util.Assert;
+
+/**
+ * Parser for fixed-length records. Each record is a line, possibly continued on
+ * the following lines with the continuation string, and fields are column
+ * ranges of that line.
+ */
+public class FixedLengthRecordParser extends RecordParser {
+
+	private final int[] starts;
+	private final int[] ends;
+	private final int maxRange;
+	private final boolean open;
+
+	private boolean strict = true;
+
+	/**
+	 *
+	 * @param ranges 1-based column ranges, as parsed by
+	 *               {@code RangeArrayPropertyEditor}
+	 */
+	public FixedLengthRecordParser(Range... ranges) {
+		Assert.notEmpty(ranges, "Ranges must not be empty");
+		this.starts = new int[ranges.length];
+		this.ends = new int[ranges.length];
+		int max = 0;
+		boolean hasOpenRange = false;
+		for (int index = 0; index < ranges.length; index++) {
+			Range range = ranges[index];
+			starts[index] = range.getMin() - 1;
+			if (range.hasMaxValue()) {
+				ends[index] = range.getMax();
+				max = Math.max(max, range.getMax());
+			} else {
+				ends[index] = -1;
+				max = Math.max(max, range.getMin());
+				hasOpenRange = true;
+			}
+		}
+		this.maxRange = max;
+		this.open = hasOpenRange;
+	}
+
+	@Override
+	public boolean parse(RecordInput input, FieldBuffer fields) throws IOException {
+		fields.clear();
+		if (input.isEnd()) {
+			return false;
+		}
+		int c;
+		while ((c = input.next()) != RecordInput.EOF) {
+			if (c == '\n' || c == '\r') {
+				if (c == '\r') {
+					input.skipLineFeed();
+				}
+				if (!removeContinuation(fields)) {
+					break;
+				}
+			} else {
+				fields.append((char) c);
+			}
+		}
+		int length = fields.length();
+		if (strict) {
+			if (length < maxRange) {
+				throw new IncorrectLineLengthException("Line is shorter than max range " + maxRange, maxRange, length,
+						line(fields));
+			}
+			if (!open && length > maxRange) {
+				throw new IncorrectLineLengthException("Line is longer than max range " + maxRange, maxRange, length,
+						line(fields));
+			}
+		}
+		for (int index = 0; index < starts.length; index++) {
+			int end = ends[index] == -1 ? length : Math.min(ends[index], length);
+			fields.addField(Math.min(starts[index], end), end);
+		}
+		return true;
+	}
+
+	private String line(FieldBuffer fields) {
+		fields.endField();
+		return fields.value(0);
+	}
+
+	public boolean isStrict() {
+		return strict;
+	}
+
+	public void setStrict(boolean strict) {
+		this.strict = strict;
+	}
+
+}
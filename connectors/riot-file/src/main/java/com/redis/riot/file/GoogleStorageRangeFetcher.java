@@ -0,0 +1,57 @@
+package com.redis.riot.file;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.google.cloud.ReadChannel;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.Storage;
+
+/**
+ * Fetches byte ranges of a Google Cloud Storage object with a seeking read
+ * channel per range. Ranges are read from the generation of the object read by
+ * {@link #size()}.
+ */
+public class GoogleStorageRangeFetcher implements RangeFetcher {
+
+	private final Storage storage;
+	private final BlobId blobId;
+
+	private volatile BlobId generationId;
+
+	public GoogleStorageRangeFetcher(Storage storage, String location) {
+		String path = location.substring(FileUtils.GS_URI_PREFIX.length());
+		int slash = path.indexOf('/');
+		this.storage = storage;
+		this.blobId = BlobId.of(path.substring(0, slash), path.substring(slash + 1));
+	}
+
+	@Override
+	public long size() {
+		Blob blob = storage.get(blobId);
+		if (blob == null) {
+			return -1;
+		}
+		generationId = BlobId.of(blobId.getBucket(), blobId.getName(), blob.getGeneration());
+		return blob.getSize();
+	}
+
+	@Override
+	public byte[] fetch(long offset, int length) throws IOException {
+		BlobId id = generationId == null ? blobId : generationId;
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		try (ReadChannel channel = storage.reader(id)) {
+			channel.setChunkSize(length);
+			channel.seek(offset);
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) < 0) {
+					throw new EOFException("Unexpected end of " + id + " at offset " + offset);
+				}
+			}
+		}
+		return buffer.array();
+	}
+
+}
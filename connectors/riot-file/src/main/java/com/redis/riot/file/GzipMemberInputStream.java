@@ -0,0 +1,410 @@
+package com.redis.riot.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import org.springframework.util.Assert;
+
+/**
+ * Input stream decompressing gzip data made of several members, for example
+ * concatenated gzip files. Unlike BGZF, members do not record their compressed
+ * size, so gzip headers are looked for in a window of compressed bytes and the
+ * members they start are inflated speculatively by a pool of workers. The
+ * result of a member is only used once the previous member is known to end at
+ * its offset, so output is the same as with {@link java.util.zip.GZIPInputStream}.
+ * <p>
+ * A member that does not fit in the window, like the single member of most
+ * gzip files, is inflated as it is read.
+ */
+public class GzipMemberInputStream extends InputStream {
+
+	public static final int DEFAULT_WINDOW_SIZE = 4 * 1024 * 1024;
+
+	private static final int ID1 = 0x1f;
+	private static final int ID2 = 0x8b;
+	private static final int CM_DEFLATE = 8;
+	private static final int FHCRC = 2;
+	private static final int FEXTRA = 4;
+	private static final int FNAME = 8;
+	private static final int FCOMMENT = 16;
+	private static final int FRESERVED = 0xE0;
+	private static final int HEADER_LENGTH = 10;
+	private static final int TRAILER_LENGTH = 8;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	// Members inflating to more than this are left to the reading thread, which
+	// also bounds the memory used by false candidates
+	private static final int MAX_MEMBER_SIZE = 64 * 1024 * 1024;
+	private static final byte[] EMPTY = new byte[0];
+
+	private final InputStream source;
+	private final int windowSize;
+	private final ExecutorService executor;
+	private final int maxPending;
+	private final Deque<Candidate> pending = new ArrayDeque<>();
+	private final CRC32 crc = new CRC32();
+
+	// Windows are never modified once read so that workers can share them
+	private byte[] window = EMPTY;
+	private long windowStart;
+	private long offset;
+	private long scanned;
+	private boolean sourceEnd;
+
+	private Inflater inflater;
+	private long inflatedSize;
+
+	private byte[] block = EMPTY;
+	private int position;
+
+	public GzipMemberInputStream(InputStream source, int workers) {
+		this(source, workers, DEFAULT_WINDOW_SIZE);
+	}
+
+	public GzipMemberInputStream(InputStream source, int workers, int windowSize) {
+		Assert.isTrue(windowSize >= BUFFER_SIZE, "Window size must be at least " + BUFFER_SIZE);
+		this.source = source;
+		this.windowSize = windowSize;
+		this.executor = Executors.newFixedThreadPool(workers, r -> {
+			Thread thread = new Thread(r, "gzip-inflater");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.maxPending = workers * 2;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (position == block.length && !nextBlock()) {
+			return -1;
+		}
+		return block[position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (position == block.length && !nextBlock()) {
+			return -1;
+		}
+		int length = Math.min(len, block.length - position);
+		System.arraycopy(block, position, b, off, length);
+		position += length;
+		return length;
+	}
+
+	private boolean nextBlock() throws IOException {
+		while (true) {
+			if (inflater != null) {
+				if (inflateStreaming()) {
+					return true;
+				}
+				continue;
+			}
+			fill();
+			if (offset == windowStart + window.length) {
+				return false;
+			}
+			schedule();
+			Candidate candidate = pending.peekFirst();
+			if (candidate == null || candidate.offset != offset) {
+				if (offset == 0) {
+					throw new ZipException("Not in GZIP format");
+				}
+				// Trailing bytes that are not a member are ignored, like GZIPInputStream
+				return false;
+			}
+			pending.removeFirst();
+			Member member = take(candidate.future);
+			if (member == null) {
+				startStreaming();
+				continue;
+			}
+			offset = member.end;
+			discard();
+			if (member.output.length > 0) {
+				block = member.output;
+				position = 0;
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Reads more compressed bytes once less than half a window is left after the
+	 * current offset.
+	 */
+	private void fill() throws IOException {
+		int index = (int) (offset - windowStart);
+		int remaining = window.length - index;
+		if (sourceEnd || remaining >= windowSize / 2) {
+			return;
+		}
+		byte[] bytes = new byte[windowSize];
+		System.arraycopy(window, index, bytes, 0, remaining);
+		int length = remaining + source.readNBytes(bytes, remaining, windowSize - remaining);
+		if (length < windowSize) {
+			sourceEnd = true;
+			bytes = Arrays.copyOf(bytes, length);
+		}
+		window = bytes;
+		windowStart = offset;
+	}
+
+	/**
+	 * Submits the members starting at the next header candidates of the window.
+	 */
+	private void schedule() {
+		byte[] bytes = window;
+		long start = windowStart;
+		long end = start + bytes.length - 3;
+		scanned = Math.max(scanned, offset);
+		while (pending.size() < maxPending && scanned < end) {
+			int index = (int) (scanned - start);
+			if (isHeader(bytes, index)) {
+				pending.add(new Candidate(scanned, executor.submit(() -> inflate(bytes, index, start))));
+			}
+			scanned++;
+		}
+	}
+
+	private static boolean isHeader(byte[] bytes, int index) {
+		return (bytes[index] & 0xFF) == ID1 && (bytes[index + 1] & 0xFF) == ID2 && bytes[index + 2] == CM_DEFLATE
+				&& (bytes[index + 3] & FRESERVED) == 0;
+	}
+
+	private void discard() {
+		while (!pending.isEmpty() && pending.peekFirst().offset < offset) {
+			pending.removeFirst().future.cancel(true);
+		}
+	}
+
+	private Member take(Future<Member> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while inflating gzip member");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Could not inflate gzip member", e.getCause());
+		}
+	}
+
+	/**
+	 *
+	 * @return inflated member starting at the given index of the window, or null
+	 *         if it does not end within the window
+	 */
+	private static Member inflate(byte[] window, int index, long windowStart) throws IOException {
+		int dataIndex = dataIndex(window, index);
+		if (dataIndex < 0) {
+			return null;
+		}
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(window, dataIndex, window.length - dataIndex);
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (!inflater.finished()) {
+				int length = inflater.inflate(buffer);
+				if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					return null;
+				}
+				output.write(buffer, 0, length);
+				if (output.size() > MAX_MEMBER_SIZE) {
+					return null;
+				}
+			}
+			int trailerIndex = window.length - inflater.getRemaining();
+			if (trailerIndex + TRAILER_LENGTH > window.length) {
+				return null;
+			}
+			byte[] bytes = output.toByteArray();
+			CRC32 crc = new CRC32();
+			crc.update(bytes);
+			checkTrailer(window, trailerIndex, crc.getValue(), bytes.length);
+			return new Member(bytes, windowStart + trailerIndex + TRAILER_LENGTH);
+		} catch (DataFormatException e) {
+			throw new ZipException("Corrupt gzip member: " + e.getMessage());
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 *
+	 * @return index of the deflate data of the member starting at the given index,
+	 *         or -1 if the header does not end within the bytes
+	 */
+	private static int dataIndex(byte[] bytes, int index) throws ZipException {
+		if (index + HEADER_LENGTH > bytes.length) {
+			return -1;
+		}
+		if (!isHeader(bytes, index)) {
+			throw new ZipException("Not a gzip member header");
+		}
+		int flags = bytes[index + 3];
+		int dataIndex = index + HEADER_LENGTH;
+		if ((flags & FEXTRA) != 0) {
+			if (dataIndex + 2 > bytes.length) {
+				return -1;
+			}
+			dataIndex += 2 + unsignedShort(bytes, dataIndex);
+		}
+		if ((flags & FNAME) != 0) {
+			dataIndex = skipZeroTerminated(bytes, dataIndex);
+		}
+		if ((flags & FCOMMENT) != 0) {
+			dataIndex = skipZeroTerminated(bytes, dataIndex);
+		}
+		if ((flags & FHCRC) != 0) {
+			dataIndex += 2;
+		}
+		return dataIndex < 0 || dataIndex > bytes.length ? -1 : dataIndex;
+	}
+
+	private static int skipZeroTerminated(byte[] bytes, int index) {
+		if (index < 0) {
+			return index;
+		}
+		for (int current = index; current < bytes.length; current++) {
+			if (bytes[current] == 0) {
+				return current + 1;
+			}
+		}
+		return -1;
+	}
+
+	private static void checkTrailer(byte[] bytes, int index, long crc, long size) throws ZipException {
+		if (unsignedInt(bytes, index) != crc) {
+			throw new ZipException("Corrupt gzip member: CRC mismatch");
+		}
+		if (unsignedInt(bytes, index + 4) != (size & 0xFFFFFFFFL)) {
+			throw new ZipException("Corrupt gzip member: size mismatch");
+		}
+	}
+
+	/**
+	 * Inflates the member at the current offset as its compressed bytes are read.
+	 */
+	private void startStreaming() throws IOException {
+		pending.forEach(candidate -> candidate.future.cancel(true));
+		pending.clear();
+		int dataIndex = dataIndex(window, (int) (offset - windowStart));
+		if (dataIndex < 0) {
+			throw new EOFException("Unexpected end of gzip header");
+		}
+		inflater = new Inflater(true);
+		inflater.setInput(window, dataIndex, window.length - dataIndex);
+		inflatedSize = 0;
+		crc.reset();
+	}
+
+	/**
+	 *
+	 * @return false if the streamed member ended without more output
+	 */
+	private boolean inflateStreaming() throws IOException {
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try {
+			while (!inflater.finished()) {
+				int length = inflater.inflate(buffer);
+				if (length > 0) {
+					crc.update(buffer, 0, length);
+					inflatedSize += length;
+					block = length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+					position = 0;
+					return true;
+				}
+				if (inflater.needsDictionary()) {
+					throw new ZipException("Corrupt gzip member: preset dictionary");
+				}
+				if (inflater.needsInput()) {
+					offset = windowStart + window.length;
+					fill();
+					if (offset == windowStart + window.length) {
+						throw new EOFException("Unexpected end of ZLIB input stream");
+					}
+					inflater.setInput(window, 0, window.length);
+				}
+			}
+		} catch (DataFormatException e) {
+			throw new ZipException("Corrupt gzip member: " + e.getMessage());
+		}
+		offset = windowStart + window.length - inflater.getRemaining();
+		inflater.end();
+		inflater = null;
+		fill();
+		int index = (int) (offset - windowStart);
+		if (index + TRAILER_LENGTH > window.length) {
+			throw new EOFException("Unexpected end of ZLIB input stream");
+		}
+		checkTrailer(window, index, crc.getValue(), inflatedSize);
+		offset += TRAILER_LENGTH;
+		scanned = offset;
+		return false;
+	}
+
+	private static int unsignedShort(byte[] bytes, int offset) {
+		return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+	}
+
+	private static long unsignedInt(byte[] bytes, int offset) {
+		return unsignedShort(bytes, offset) | ((long) unsignedShort(bytes, offset + 2)) << 16;
+	}
+
+	@Override
+	public void close() throws IOException {
+		pending.forEach(candidate -> candidate.future.cancel(true));
+		pending.clear();
+		executor.shutdownNow();
+		if (inflater != null) {
+			inflater.end();
+			inflater = null;
+		}
+		source.close();
+	}
+
+	private static class Candidate {
+
+		private final long offset;
+		private final Future<Member> future;
+
+		public Candidate(long offset, Future<Member> future) {
+			this.offset = offset;
+			this.future = future;
+		}
+
+	}
+
+	private static class Member {
+
+		private final byte[] output;
+		private final long end;
+
+		public Member(byte[] output, long end) {
+			this.output = output;
+			this.end = end;
+		}
+
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Fetches byte ranges of a URL with HTTP {@code Range} requests. If the server
+ * returned a strong ETag, requests are made conditional on it with
+ * {@code If-Range}, so that a changed resource fails the download.
+ */
+public class HttpRangeFetcher implements RangeFetcher {
+
+	private static final String ACCEPT_RANGES = "Accept-Ranges";
+	private static final String BYTES = "bytes";
+	private static final String ETAG = "ETag";
+	private static final String WEAK_ETAG_PREFIX = "W/";
+
+	private final URL url;
+
+	private volatile String eTag;
+
+	public HttpRangeFetcher(URL url) {
+		this.url = url;
+	}
+
+	@Override
+	public long size() throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		try {
+			connection.setRequestMethod("HEAD");
+			if (connection.getResponseCode() != HttpURLConnection.HTTP_OK
+					|| !BYTES.equalsIgnoreCase(connection.getHeaderField(ACCEPT_RANGES))) {
+				return -1;
+			}
+			String header = connection.getHeaderField(ETAG);
+			eTag = header == null || header.startsWith(WEAK_ETAG_PREFIX) ? null : header;
+			return connection.getContentLengthLong();
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	@Override
+	public byte[] fetch(long offset, int length) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setRequestProperty("Range", BYTES + "=" + offset + "-" + (offset + length - 1));
+		if (eTag != null) {
+			connection.setRequestProperty("If-Range", eTag);
+		}
+		if (connection.getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+			connection.disconnect();
+			throw new IOException("Expected partial content from " + url + " but got HTTP status "
+					+ connection.getResponseCode());
+		}
+		try (InputStream inputStream = connection.getInputStream()) {
+			return RangedInputStream.readFully(inputStream, length);
+		}
+	}
+
+}
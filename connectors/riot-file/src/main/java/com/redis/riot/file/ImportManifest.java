@@ -0,0 +1,209 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Manifest of the files imported by previous runs, used to skip files that have
+ * not changed since they were imported. A file is unchanged if its size,
+ * last-modified time and, when hashing is enabled, SHA-256 content hash are
+ * the same as when it was imported.
+ * <p>
+ * The manifest is rewritten every time a file is added, so that an import that
+ * fails halfway through keeps track of the files that were already imported.
+ */
+public class ImportManifest {
+
+	private static final String FILES_FIELD = "files";
+	private static final String HASH_ALGORITHM = "SHA-256";
+	private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+	private final ObjectMapper mapper = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+	private final Path file;
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+	private boolean hash;
+
+	public ImportManifest(Path file) {
+		Assert.notNull(file, "Manifest file must not be null");
+		this.file = file;
+	}
+
+	public synchronized void load() {
+		entries.clear();
+		if (!Files.exists(file)) {
+			return;
+		}
+		try (InputStream inputStream = Files.newInputStream(file)) {
+			Map<String, List<Entry>> manifest = mapper.readValue(inputStream,
+					new TypeReference<Map<String, List<Entry>>>() {
+					});
+			List<Entry> files = manifest.get(FILES_FIELD);
+			if (files != null) {
+				files.forEach(e -> entries.put(e.getLocation(), e));
+			}
+		} catch (IOException e) {
+			throw new RuntimeIOException("Could not read manifest " + file, e);
+		}
+	}
+
+	/**
+	 *
+	 * @param location location of the file
+	 * @param resource resource as stored, i.e. before decompression
+	 * @return current state of the file
+	 */
+	public Entry entry(String location, Resource resource) {
+		Entry entry = new Entry();
+		entry.setLocation(location);
+		try {
+			entry.setSize(resource.contentLength());
+			entry.setLastModified(resource.lastModified());
+			if (hash) {
+				entry.setHash(hash(resource));
+			}
+		} catch (IOException e) {
+			throw new RuntimeIOException("Could not read attributes of " + resource.getDescription(), e);
+		}
+		return entry;
+	}
+
+	private String hash(Resource resource) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Missing " + HASH_ALGORITHM + " algorithm", e);
+		}
+		try (InputStream inputStream = new DigestInputStream(resource.getInputStream(), digest)) {
+			byte[] buffer = new byte[HASH_BUFFER_SIZE];
+			while (inputStream.read(buffer) != -1) {
+				// digest is updated while reading
+			}
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	/**
+	 *
+	 * @param entry current state of a file
+	 * @return true if the file was imported in the same state
+	 */
+	public synchronized boolean isImported(Entry entry) {
+		Entry imported = entries.get(entry.getLocation());
+		return imported != null && imported.getSize() == entry.getSize()
+				&& imported.getLastModified() == entry.getLastModified()
+				&& (entry.getHash() == null || Objects.equals(imported.getHash(), entry.getHash()));
+	}
+
+	/**
+	 * Records the given file as imported and saves the manifest.
+	 */
+	public synchronized void add(Entry entry) {
+		entries.put(entry.getLocation(), entry);
+		save();
+	}
+
+	private void save() {
+		Map<String, Object> manifest = new LinkedHashMap<>();
+		manifest.put(FILES_FIELD, new ArrayList<>(entries.values()));
+		try {
+			Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+			try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+				mapper.writerWithDefaultPrettyPrinter().writeValue(outputStream, manifest);
+			}
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new RuntimeIOException("Could not write manifest " + file, e);
+		}
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public boolean isHash() {
+		return hash;
+	}
+
+	public void setHash(boolean hash) {
+		this.hash = hash;
+	}
+
+	public static class Entry {
+
+		private String location;
+		private long size;
+		private long lastModified;
+		private String hash;
+		private long count;
+
+		public String getLocation() {
+			return location;
+		}
+
+		public void setLocation(String location) {
+			this.location = location;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		public void setSize(long size) {
+			this.size = size;
+		}
+
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		public void setLastModified(long lastModified) {
+			this.lastModified = lastModified;
+		}
+
+		public String getHash() {
+			return hash;
+		}
+
+		public void setHash(String hash) {
+			this.hash = hash;
+		}
+
+		/**
+		 *
+		 * @return number of records read from the file, including records that
+		 *         were filtered out by processors
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		public void setCount(long count) {
+			this.count = count;
+		}
+
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.batch.item.Chunk;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Serializes items as JSON lines, or as the elements of a JSON array whose
+ * brackets are written separately as the header and footer of the file, and
+ * whose separator between chunks is {@link #getChunkSeparator()}.
+ *
+ * @param <T> item type
+ */
+public class JsonChunkSerializer<T> implements ChunkSerializer<T> {
+
+	private final ObjectMapper mapper;
+	private final Charset charset;
+	private final boolean lines;
+	private final String separator;
+	private final ObjectWriter writer;
+
+	public JsonChunkSerializer(ObjectMapper mapper, Charset charset, String lineSeparator, boolean lines) {
+		this.mapper = mapper;
+		this.charset = charset;
+		this.lines = lines;
+		this.separator = lines ? lineSeparator : "," + lineSeparator;
+		this.writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+				.withRootValueSeparator(separator);
+	}
+
+	@Override
+	public void serialize(Chunk<? extends T> chunk, OutputStream outputStream) throws IOException {
+		JsonGenerator generator = generator(outputStream);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		for (T item : chunk) {
+			writer.writeValue(generator, item);
+		}
+		if (lines) {
+			generator.writeRaw(separator);
+		}
+		generator.close();
+	}
+
+	/**
+	 * 
+	 * @return string to write between two chunks
+	 */
+	public String getChunkSeparator() {
+		return lines ? "" : separator;
+	}
+
+	private JsonGenerator generator(OutputStream outputStream) throws IOException {
+		if (charset.equals(StandardCharsets.UTF_8)) {
+			return mapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+		}
+		return mapper.getFactory().createGenerator(new OutputStreamWriter(outputStream, charset));
+	}
+
+}
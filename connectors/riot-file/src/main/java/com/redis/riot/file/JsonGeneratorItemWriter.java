@@ -0,0 +1,98 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writer serializing items through a single {@link JsonGenerator}, either as
+ * the elements of a JSON array or as JSON lines.
+ *
+ * @param <T> item type
+ */
+public class JsonGeneratorItemWriter<T> extends AbstractOutputStreamItemWriter<T> {
+
+	private final ObjectMapper mapper;
+
+	private boolean lines;
+
+	private String separator;
+	private ObjectWriter writer;
+	private JsonGenerator generator;
+
+	public JsonGeneratorItemWriter(WritableResource resource, ObjectMapper mapper) {
+		super(resource);
+		Assert.notNull(mapper, "Object mapper must not be null");
+		this.mapper = mapper;
+	}
+
+	@Override
+	protected void doOpen(OutputStream outputStream) throws IOException {
+		// Separators are written here rather than by the generator, which does not
+		// know about chunks that were rolled back
+		separator = lines ? getLineSeparator() : "," + getLineSeparator();
+		writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).withRootValueSeparator("");
+		generator = generator(outputStream);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		if (!lines) {
+			generator.writeRaw("[" + getLineSeparator());
+		}
+	}
+
+	private JsonGenerator generator(OutputStream outputStream) throws IOException {
+		Charset charset = Charset.forName(getEncoding());
+		if (charset.equals(StandardCharsets.UTF_8)) {
+			return mapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+		}
+		return mapper.getFactory().createGenerator(new OutputStreamWriter(outputStream, charset));
+	}
+
+	@Override
+	protected void doWrite(T item) throws IOException {
+		if (!isFirstItem()) {
+			generator.writeRaw(separator);
+		}
+		writer.writeValue(generator, item);
+	}
+
+	@Override
+	protected void doFlush() throws IOException {
+		generator.flush();
+	}
+
+	@Override
+	protected void doClose() throws IOException {
+		if (lines) {
+			if (getItemCount() > 0) {
+				generator.writeRaw(getLineSeparator());
+			}
+		} else {
+			generator.writeRaw(getLineSeparator() + "]" + getLineSeparator());
+		}
+		generator.close();
+	}
+
+	public boolean isLines() {
+		return lines;
+	}
+
+	/**
+	 *
+	 * @param lines true to write one item per line, false to write a JSON array
+	 */
+	public void setLines(boolean lines) {
+		this.lines = lines;
+	}
+
+}
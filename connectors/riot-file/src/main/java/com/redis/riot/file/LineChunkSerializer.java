@@ -0,0 +1,39 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.file.transform.LineAggregator;
+
+/**
+ * Serializes each item as a line built by a {@link LineAggregator}.
+ *
+ * @param <T> item type
+ */
+public class LineChunkSerializer<T> implements ChunkSerializer<T> {
+
+	private final LineAggregator<T> lineAggregator;
+	private final Charset charset;
+	private final String lineSeparator;
+
+	public LineChunkSerializer(LineAggregator<T> lineAggregator, Charset charset, String lineSeparator) {
+		this.lineAggregator = lineAggregator;
+		this.charset = charset;
+		this.lineSeparator = lineSeparator;
+	}
+
+	@Override
+	public void serialize(Chunk<? extends T> chunk, OutputStream outputStream) throws IOException {
+		Writer writer = new OutputStreamWriter(outputStream, charset);
+		for (T item : chunk) {
+			writer.write(lineAggregator.aggregate(item));
+			writer.write(lineSeparator);
+		}
+		writer.flush();
+	}
+
+}
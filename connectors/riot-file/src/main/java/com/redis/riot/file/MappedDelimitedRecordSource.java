@@ -0,0 +1,477 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.springframework.batch.item.ParseException;
+import org.springframework.util.StringUtils;
+
+/**
+ * Source of delimited records scanned directly in memory-mapped segments of a
+ * local file, with the same rules as {@link DelimitedRecordParser}. Fields are
+ * kept as offsets in the mapped segment and only decoded when their value is
+ * used. Bytes are only copied for fields that differ from their value in the
+ * file, e.g. quoted fields with escaped quotes or continued lines.
+ * <p>
+ * Delimiters, quotes and line breaks are matched as bytes, which is only
+ * correct for charsets where their encoding never appears inside the encoding
+ * of other characters.
+ */
+class MappedDelimitedRecordSource implements RecordSource {
+
+	private static final Set<Charset> CHARSETS = Set.of(StandardCharsets.UTF_8, StandardCharsets.US_ASCII,
+			StandardCharsets.ISO_8859_1);
+
+	private static final byte NEWLINE = '\n';
+	private static final byte CARRIAGE_RETURN = '\r';
+
+	private final Path path;
+	private final Charset charset;
+	private final FileChannel channel;
+	private final long end;
+	private final int segmentSize;
+	private final byte[] delimiter;
+	private final byte quote;
+	private final byte[] continuation;
+	private final MappedFields fields = new MappedFields();
+
+	private MappedByteBuffer buffer;
+	private long bufferStart;
+	private long position;
+	private int lineNumber;
+	private byte[] bytes = new byte[256];
+
+	/**
+	 *
+	 * @param path        local file to read
+	 * @param range       byte range of the file to read, or null to read the
+	 *                    whole file
+	 * @param charset     file encoding, which must be {@link #supports supported}
+	 * @param segmentSize max number of bytes mapped at once
+	 * @param parser      parser whose delimiter, quote character and
+	 *                    continuation string are used
+	 * @throws IOException
+	 */
+	public MappedDelimitedRecordSource(Path path, FileRange range, Charset charset, int segmentSize,
+			DelimitedRecordParser parser) throws IOException {
+		this.path = path;
+		this.charset = charset;
+		this.segmentSize = segmentSize;
+		this.delimiter = parser.getDelimiter().getBytes(charset);
+		this.quote = (byte) parser.getQuoteCharacter();
+		String continuationString = parser.getContinuationString();
+		this.continuation = StringUtils.hasLength(continuationString) ? continuationString.getBytes(charset)
+				: new byte[0];
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		long size = channel.size();
+		this.end = range == null ? size : Math.min(range.getEnd(), size);
+		this.position = range == null ? 0 : Math.min(range.getStart(), end);
+		remap(position);
+	}
+
+	/**
+	 *
+	 * @return true if records of the given parser and charset can be scanned as
+	 *         bytes
+	 */
+	public static boolean supports(DelimitedRecordParser parser, Charset charset) {
+		return CHARSETS.contains(charset) && parser.getQuoteCharacter() < 128;
+	}
+
+	private void remap(long offset) throws IOException {
+		long size = Math.min(segmentSize, end - offset);
+		buffer = channel.map(MapMode.READ_ONLY, offset, size);
+		bufferStart = offset;
+	}
+
+	/**
+	 * Maps the segment starting at the current position so that the record at
+	 * that position can be scanned again.
+	 */
+	private void remapRecord() throws IOException {
+		if (bufferStart == position && buffer.limit() == segmentSize) {
+			throw new ParseException("Record exceeds segment size " + segmentSize);
+		}
+		remap(position);
+	}
+
+	private int index() {
+		return (int) (position - bufferStart);
+	}
+
+	private boolean isLastSegment() {
+		return bufferStart + buffer.limit() == end;
+	}
+
+	@Override
+	public String readLine() throws IOException {
+		while (position < end) {
+			int start = index();
+			int limit = buffer.limit();
+			boolean last = isLastSegment();
+			for (int index = start; index < limit; index++) {
+				byte b = buffer.get(index);
+				if (b == NEWLINE || b == CARRIAGE_RETURN) {
+					int next = index + 1;
+					if (b == CARRIAGE_RETURN) {
+						if (next == limit && !last) {
+							break;
+						}
+						if (next < limit && buffer.get(next) == NEWLINE) {
+							next++;
+						}
+					}
+					String line = decode(start, index);
+					position = bufferStart + next;
+					lineNumber++;
+					return line;
+				}
+			}
+			if (last) {
+				String line = decode(start, limit);
+				position = end;
+				return line;
+			}
+			remapRecord();
+		}
+		return null;
+	}
+
+	@Override
+	public boolean startsWith(String prefix) throws IOException {
+		byte[] prefixBytes = prefix.getBytes(charset);
+		if (position + prefixBytes.length > end) {
+			return false;
+		}
+		if (index() + prefixBytes.length > buffer.limit()) {
+			remap(position);
+			if (prefixBytes.length > buffer.limit()) {
+				return false;
+			}
+		}
+		int start = index();
+		for (int index = 0; index < prefixBytes.length; index++) {
+			if (buffer.get(start + index) != prefixBytes[index]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean next() throws IOException {
+		while (position < end) {
+			if (scan()) {
+				return true;
+			}
+			remapRecord();
+		}
+		fields.clear(index());
+		return false;
+	}
+
+	/**
+	 * Scans the record at the current position, like
+	 * {@link DelimitedRecordParser#parse(RecordInput, FieldBuffer)}.
+	 *
+	 * @return false if the record does not end within the mapped segment
+	 */
+	private boolean scan() {
+		int index = index();
+		int limit = buffer.limit();
+		boolean last = isLastSegment();
+		byte delimiterLastByte = delimiter[delimiter.length - 1];
+		boolean singleByteDelimiter = delimiter.length == 1;
+		boolean quoted = false;
+		int lines = 0;
+		fields.clear(index);
+		while (index < limit) {
+			byte b = buffer.get(index);
+			int next = index + 1;
+			if ((b == quote || b == CARRIAGE_RETURN) && next == limit && !last) {
+				// Next byte is needed to tell what this one means
+				return false;
+			}
+			if (quoted) {
+				if (b == quote) {
+					if (next < limit && buffer.get(next) == quote) {
+						fields.append(next);
+						next++;
+					} else {
+						quoted = false;
+					}
+				} else if (b != CARRIAGE_RETURN || next == limit || buffer.get(next) != NEWLINE) {
+					if (b == NEWLINE) {
+						lines++;
+					}
+					fields.append(index);
+				}
+			} else if (b == NEWLINE || b == CARRIAGE_RETURN) {
+				if (b == CARRIAGE_RETURN && next < limit && buffer.get(next) == NEWLINE) {
+					next++;
+				}
+				lines++;
+				if (!fields.removeSuffix(continuation)) {
+					fields.endField(next);
+					position = bufferStart + next;
+					lineNumber += lines;
+					return true;
+				}
+			} else if (b == quote && fields.isFieldBlank()) {
+				fields.truncateField(fields.fieldLength());
+				quoted = true;
+			} else if (singleByteDelimiter && b == delimiter[0]) {
+				fields.endField(next);
+			} else {
+				fields.append(index);
+				if (!singleByteDelimiter && b == delimiterLastByte && fields.fieldEndsWith(delimiter)) {
+					fields.truncateField(delimiter.length);
+					fields.endField(next);
+				}
+			}
+			index = next;
+		}
+		if (!last) {
+			return false;
+		}
+		if (quoted) {
+			throw new ParseException("Unexpected end of file before record complete");
+		}
+		fields.endField(limit);
+		position = end;
+		lineNumber += lines;
+		return true;
+	}
+
+	private String decode(int start, int end) {
+		int length = end - start;
+		if (bytes.length < length) {
+			bytes = new byte[Math.max(length, bytes.length * 2)];
+		}
+		buffer.get(start, bytes, 0, length);
+		return new String(bytes, 0, length, charset);
+	}
+
+	@Override
+	public RecordFields fields() {
+		return fields;
+	}
+
+	@Override
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	@Override
+	public void close() throws IOException {
+		buffer = null;
+		channel.close();
+	}
+
+	@Override
+	public String toString() {
+		return "MappedDelimitedRecordSource[" + path + "]";
+	}
+
+	/**
+	 * Fields of the scanned record. A field is a range of the mapped segment as
+	 * long as its value is the same as its bytes in the file, and is copied to a
+	 * scratch buffer otherwise.
+	 */
+	private class MappedFields implements RecordFields {
+
+		private int[] starts = new int[16];
+		private int[] ends = new int[16];
+		private boolean[] copied = new boolean[16];
+		private int count;
+
+		private byte[] scratch = new byte[256];
+		private int scratchLength;
+
+		// Current field, either the buffer range [viewStart, viewEnd) or the scratch
+		// range starting at scratchStart
+		private boolean view;
+		private int viewStart;
+		private int viewEnd;
+		private int scratchStart;
+
+		public void clear(int index) {
+			count = 0;
+			scratchLength = 0;
+			startField(index);
+		}
+
+		private void startField(int index) {
+			view = true;
+			viewStart = index;
+			viewEnd = index;
+			scratchStart = scratchLength;
+		}
+
+		/**
+		 * Appends the byte at the given buffer index to the current field.
+		 */
+		public void append(int index) {
+			if (view) {
+				if (index == viewEnd) {
+					viewEnd++;
+					return;
+				}
+				if (viewStart == viewEnd) {
+					viewStart = index;
+					viewEnd = index + 1;
+					return;
+				}
+				copy();
+			}
+			ensureScratch(1);
+			scratch[scratchLength++] = buffer.get(index);
+		}
+
+		private void copy() {
+			int length = viewEnd - viewStart;
+			ensureScratch(length);
+			buffer.get(viewStart, scratch, scratchLength, length);
+			scratchLength += length;
+			view = false;
+		}
+
+		private void ensureScratch(int length) {
+			if (scratchLength + length > scratch.length) {
+				scratch = Arrays.copyOf(scratch, Math.max(scratchLength + length, scratch.length * 2));
+			}
+		}
+
+		public int fieldLength() {
+			return view ? viewEnd - viewStart : scratchLength - scratchStart;
+		}
+
+		private byte fieldByte(int index) {
+			return view ? buffer.get(viewStart + index) : scratch[scratchStart + index];
+		}
+
+		public boolean isFieldBlank() {
+			for (int index = 0; index < fieldLength(); index++) {
+				if ((fieldByte(index) & 0xFF) > ' ') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		public boolean fieldEndsWith(byte[] suffix) {
+			int length = fieldLength();
+			if (length < suffix.length) {
+				return false;
+			}
+			for (int index = 0; index < suffix.length; index++) {
+				if (fieldByte(length - suffix.length + index) != suffix[index]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		public void truncateField(int count) {
+			if (view) {
+				viewEnd -= count;
+			} else {
+				scratchLength -= count;
+			}
+		}
+
+		/**
+		 * Removes the given suffix from the current field, ignoring trailing
+		 * whitespace.
+		 *
+		 * @return true if the suffix was found and removed
+		 */
+		public boolean removeSuffix(byte[] suffix) {
+			if (suffix.length == 0) {
+				return false;
+			}
+			int length = fieldLength();
+			int trimmed = length;
+			while (trimmed > 0 && (fieldByte(trimmed - 1) & 0xFF) <= ' ') {
+				trimmed--;
+			}
+			truncateField(length - trimmed);
+			if (fieldEndsWith(suffix)) {
+				truncateField(suffix.length);
+				return true;
+			}
+			truncateField(trimmed - length);
+			return false;
+		}
+
+		/**
+		 * Ends the current field and starts the next one at the given buffer index.
+		 */
+		public void endField(int next) {
+			if (count == starts.length) {
+				starts = Arrays.copyOf(starts, count * 2);
+				ends = Arrays.copyOf(ends, count * 2);
+				copied = Arrays.copyOf(copied, count * 2);
+			}
+			copied[count] = !view;
+			starts[count] = view ? viewStart : scratchStart;
+			ends[count] = view ? viewEnd : scratchLength;
+			count++;
+			startField(next);
+		}
+
+		@Override
+		public int getFieldCount() {
+			return count;
+		}
+
+		private byte byteAt(int field, int index) {
+			return copied[field] ? scratch[index] : buffer.get(index);
+		}
+
+		@Override
+		public String value(int index) {
+			int start = starts[index];
+			int end = ends[index];
+			while (start < end && (byteAt(index, start) & 0xFF) <= ' ') {
+				start++;
+			}
+			while (end > start && (byteAt(index, end - 1) & 0xFF) <= ' ') {
+				end--;
+			}
+			if (start == end) {
+				return "";
+			}
+			return string(index, start, end);
+		}
+
+		private String string(int field, int start, int end) {
+			if (copied[field]) {
+				return new String(scratch, start, end - start, charset);
+			}
+			return decode(start, end);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder();
+			for (int index = 0; index < count; index++) {
+				if (index > 0) {
+					builder.append('|');
+				}
+				builder.append(string(index, starts[index], ends[index]));
+			}
+			return builder.toString();
+		}
+
+	}
+
+}
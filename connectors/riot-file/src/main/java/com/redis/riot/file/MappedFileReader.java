@@ -0,0 +1,107 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.util.Assert;
+
+/**
+ * Reader decoding characters straight from memory-mapped segments of a local
+ * file, without copying its bytes to an intermediate buffer. Like
+ * {@link java.io.InputStreamReader}, malformed input is replaced rather than
+ * reported.
+ */
+public class MappedFileReader extends Reader {
+
+	public static final int DEFAULT_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+	private static final int MIN_SEGMENT_SIZE = 16;
+
+	private final Path path;
+	private final FileChannel channel;
+	private final long end;
+	private final int segmentSize;
+	private final CharsetDecoder decoder;
+
+	private MappedByteBuffer buffer;
+	private long bufferStart;
+	private boolean eof;
+
+	public MappedFileReader(Path path, Charset charset) throws IOException {
+		this(path, null, charset, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 *
+	 * @param path        local file to read
+	 * @param range       byte range of the file to read, or null to read the
+	 *                    whole file
+	 * @param charset     file encoding
+	 * @param segmentSize max number of bytes mapped at once
+	 * @throws IOException
+	 */
+	public MappedFileReader(Path path, FileRange range, Charset charset, int segmentSize) throws IOException {
+		Assert.notNull(path, "Path must not be null");
+		Assert.isTrue(segmentSize >= MIN_SEGMENT_SIZE, "Segment size must be at least " + MIN_SEGMENT_SIZE);
+		this.path = path;
+		this.segmentSize = segmentSize;
+		this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		long size = channel.size();
+		this.end = range == null ? size : Math.min(range.getEnd(), size);
+		map(range == null ? 0 : Math.min(range.getStart(), end));
+	}
+
+	private void map(long offset) throws IOException {
+		long size = Math.min(segmentSize, end - offset);
+		buffer = channel.map(MapMode.READ_ONLY, offset, size);
+		bufferStart = offset;
+	}
+
+	@Override
+	public int read(char[] chars, int offset, int length) throws IOException {
+		if (buffer == null) {
+			throw new IOException("Reader for " + path + " is closed");
+		}
+		if (length == 0) {
+			return 0;
+		}
+		CharBuffer out = CharBuffer.wrap(chars, offset, length);
+		while (out.position() == offset && !eof) {
+			boolean last = bufferStart + buffer.limit() == end;
+			CoderResult result = decoder.decode(buffer, out, last);
+			if (result.isError()) {
+				result.throwException();
+			}
+			if (result.isUnderflow()) {
+				if (last) {
+					decoder.flush(out);
+					eof = true;
+				} else {
+					// Bytes of a character may straddle the end of the segment
+					map(bufferStart + buffer.position());
+				}
+			}
+		}
+		int count = out.position() - offset;
+		return count == 0 ? -1 : count;
+	}
+
+	@Override
+	public void close() throws IOException {
+		buffer = null;
+		channel.close();
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.Assert;
+
+/**
+ * {@link RecordItemReader} for local files, which reads records from
+ * memory-mapped segments of the file instead of going through an input stream.
+ * <p>
+ * Delimited records in UTF-8, ASCII or ISO-8859-1 files are scanned as bytes
+ * directly in the mapped segments by a {@link MappedDelimitedRecordSource}, and
+ * only the fields that are used are decoded. Other records are decoded to
+ * characters, which copies every byte once, and parsed by the
+ * {@link RecordParser}. Both follow the same rules, so a local file is read
+ * exactly like the same file compressed or downloaded.
+ * <p>
+ * The implementation is <b>not</b> thread-safe.
+ */
+public class MappedRecordItemReader extends RecordItemReader {
+
+	public static final int DEFAULT_SEGMENT_SIZE = MappedFileReader.DEFAULT_SEGMENT_SIZE;
+
+	private final Path path;
+	private final FileRange range;
+
+	private int segmentSize = DEFAULT_SEGMENT_SIZE;
+
+	public MappedRecordItemReader(RecordParser parser, Path path) {
+		this(parser, path, null);
+	}
+
+	/**
+	 *
+	 * @param parser parser for the records of the file
+	 * @param path   local file to read
+	 * @param range  byte range of the file to read, or null to read the whole
+	 *               file
+	 */
+	public MappedRecordItemReader(RecordParser parser, Path path, FileRange range) {
+		super(parser);
+		Assert.notNull(path, "Path must not be null");
+		this.path = path;
+		this.range = range;
+		setResource(range == null ? new FileSystemResource(path) : new FileRangeResource(path, range));
+	}
+
+	@Override
+	RecordSource source(Charset charset) throws IOException {
+		if (getParser() instanceof DelimitedRecordParser) {
+			DelimitedRecordParser parser = (DelimitedRecordParser) getParser();
+			if (MappedDelimitedRecordSource.supports(parser, charset)) {
+				return new MappedDelimitedRecordSource(path, range, charset, segmentSize, parser);
+			}
+		}
+		return super.source(charset);
+	}
+
+	@Override
+	protected Reader reader(Charset charset) throws IOException {
+		return new MappedFileReader(path, range, charset, segmentSize);
+	}
+
+	public void setSegmentSize(int segmentSize) {
+		this.segmentSize = segmentSize;
+	}
+
+}
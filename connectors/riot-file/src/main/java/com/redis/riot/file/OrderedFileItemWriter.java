@@ -0,0 +1,367 @@
+package com.redis.riot.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.core.io.WritableResource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Thread-safe writer for multi-threaded steps. Calling threads serialize their
+ * chunk into a byte buffer in parallel, and a single I/O thread appends the
+ * buffers to the output channel in the order in which the chunks were handed
+ * to the writer. At most {@code maxPending} serialized chunks wait for the I/O
+ * thread so that serialization and disk writes overlap with bounded memory.
+ * <p>
+ * Like {@code FlatFileItemWriter}, when the writer is transactional a chunk is
+ * only handed to the I/O thread once its transaction commits, and dropped if it
+ * rolls back. The separator is written by the I/O thread between non-empty
+ * chunks, so that dropped chunks do not leave stray separators.
+ *
+ * @param <T> item type
+ */
+public class OrderedFileItemWriter<T> extends ItemStreamSupport implements ItemStreamWriter<T>, Flushable {
+
+	public static final int DEFAULT_MAX_PENDING = 2;
+	public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+	private static final byte[] EMPTY = new byte[0];
+
+	private final WritableResource resource;
+	private final ChunkSerializer<T> serializer;
+	private final Object lock = new Object();
+	private final ThreadLocal<ByteArrayOutputStream> buffers = ThreadLocal
+			.withInitial(() -> new ByteArrayOutputStream(DEFAULT_BUFFER_SIZE));
+
+	private byte[] header = EMPTY;
+	private byte[] footer = EMPTY;
+	private byte[] separator = EMPTY;
+	private boolean append;
+	private boolean shouldDeleteIfExists = true;
+	private boolean shouldDeleteIfEmpty;
+	private boolean forceSync;
+	private boolean transactional = true;
+	private int maxPending = DEFAULT_MAX_PENDING;
+
+	private WritableByteChannel channel;
+	private Thread thread;
+	private Map<Long, byte[]> pending;
+	private long sequence;
+	private long written;
+	private long chunksWritten;
+	private boolean closed;
+	private volatile Exception exception;
+
+	public OrderedFileItemWriter(WritableResource resource, ChunkSerializer<T> serializer) {
+		Assert.notNull(resource, "Resource must not be null");
+		Assert.notNull(serializer, "Serializer must not be null");
+		this.resource = resource;
+		this.serializer = serializer;
+	}
+
+	@Override
+	public synchronized void open(ExecutionContext executionContext) {
+		if (thread != null) {
+			return;
+		}
+		try {
+			boolean appending = append && resource.isFile() && resource.getFile().length() > 0;
+			channel = channel();
+			if (!appending) {
+				write(header);
+			}
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not open resource " + resource.getDescription(), e);
+		}
+		pending = new HashMap<>();
+		sequence = 0;
+		written = 0;
+		chunksWritten = 0;
+		closed = false;
+		exception = null;
+		thread = new Thread(this::drain, "ordered-file-writer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private WritableByteChannel channel() throws IOException {
+		if (resource.isFile()) {
+			Path path = resource.getFile().toPath();
+			if (append) {
+				return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.APPEND);
+			}
+			if (!shouldDeleteIfExists) {
+				return FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+			}
+			return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+		}
+		return Channels.newChannel(resource.getOutputStream());
+	}
+
+	@Override
+	public void write(Chunk<? extends T> chunk) throws Exception {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		long position;
+		synchronized (lock) {
+			position = sequence++;
+		}
+		byte[] bytes = EMPTY;
+		boolean deferred = false;
+		try {
+			ByteArrayOutputStream buffer = buffers.get();
+			buffer.reset();
+			serializer.serialize(chunk, buffer);
+			bytes = buffer.toByteArray();
+			if (transactional && TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.registerSynchronization(new CommitSynchronization(position, bytes));
+				deferred = true;
+			}
+		} finally {
+			// Always hand over the sequence number so the I/O thread never waits on it
+			if (!deferred) {
+				put(position, bytes);
+			}
+		}
+	}
+
+	private class CommitSynchronization implements TransactionSynchronization {
+
+		private final long position;
+		private final byte[] bytes;
+
+		public CommitSynchronization(long position, byte[] bytes) {
+			this.position = position;
+			this.bytes = bytes;
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			try {
+				put(position, status == STATUS_COMMITTED ? bytes : EMPTY);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (Exception e) {
+				// I/O thread failed, which is reported by the next write or close
+			}
+		}
+
+	}
+
+	private void put(long position, byte[] bytes) throws Exception {
+		synchronized (lock) {
+			while (position - written >= maxPending && exception == null) {
+				lock.wait();
+			}
+			if (exception != null) {
+				throw exception;
+			}
+			pending.put(position, bytes);
+			lock.notifyAll();
+		}
+	}
+
+	private void drain() {
+		try {
+			while (true) {
+				byte[] bytes;
+				synchronized (lock) {
+					while (!pending.containsKey(written) && !(closed && written == sequence)) {
+						lock.wait();
+					}
+					if (closed && written == sequence) {
+						return;
+					}
+					bytes = pending.remove(written);
+				}
+				if (bytes.length > 0) {
+					if (chunksWritten > 0) {
+						write(separator);
+					}
+					write(bytes);
+					if (forceSync && channel instanceof FileChannel) {
+						((FileChannel) channel).force(false);
+					}
+					chunksWritten++;
+				}
+				synchronized (lock) {
+					written++;
+					lock.notifyAll();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			fail(new InterruptedIOException("Interrupted while writing " + resource.getDescription()));
+		} catch (Exception e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Waits until the I/O thread has written all the chunks handed to it. Must
+	 * not be called while a chunk of the calling thread waits for its
+	 * transaction to commit.
+	 */
+	@Override
+	public void flush() throws IOException {
+		synchronized (lock) {
+			while (pending != null && written < sequence && exception == null) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while flushing " + resource.getDescription());
+				}
+			}
+			if (exception != null) {
+				throw new IOException("Could not write to resource " + resource.getDescription(), exception);
+			}
+		}
+	}
+
+	private void fail(Exception e) {
+		synchronized (lock) {
+			exception = e;
+			lock.notifyAll();
+		}
+	}
+
+	private void write(byte[] bytes) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		if (thread == null) {
+			return;
+		}
+		synchronized (lock) {
+			closed = true;
+			lock.notifyAll();
+		}
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			if (exception == null) {
+				write(footer);
+			}
+			channel.close();
+			if (shouldDeleteIfEmpty && chunksWritten == 0 && resource.isFile()) {
+				Files.deleteIfExists(resource.getFile().toPath());
+			}
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not close resource " + resource.getDescription(), e);
+		} finally {
+			thread = null;
+			channel = null;
+			pending = null;
+		}
+		if (exception != null) {
+			throw new ItemStreamException("Could not write to resource " + resource.getDescription(), exception);
+		}
+	}
+
+	public byte[] getHeader() {
+		return header;
+	}
+
+	public void setHeader(byte[] header) {
+		this.header = header;
+	}
+
+	public byte[] getFooter() {
+		return footer;
+	}
+
+	public void setFooter(byte[] footer) {
+		this.footer = footer;
+	}
+
+	public byte[] getSeparator() {
+		return separator;
+	}
+
+	/**
+	 * 
+	 * @param separator bytes written between two non-empty chunks
+	 */
+	public void setSeparator(byte[] separator) {
+		this.separator = separator;
+	}
+
+	public boolean isAppend() {
+		return append;
+	}
+
+	public void setAppend(boolean append) {
+		this.append = append;
+	}
+
+	public boolean isShouldDeleteIfExists() {
+		return shouldDeleteIfExists;
+	}
+
+	public void setShouldDeleteIfExists(boolean shouldDeleteIfExists) {
+		this.shouldDeleteIfExists = shouldDeleteIfExists;
+	}
+
+	public boolean isShouldDeleteIfEmpty() {
+		return shouldDeleteIfEmpty;
+	}
+
+	public void setShouldDeleteIfEmpty(boolean shouldDeleteIfEmpty) {
+		this.shouldDeleteIfEmpty = shouldDeleteIfEmpty;
+	}
+
+	public boolean isForceSync() {
+		return forceSync;
+	}
+
+	public void setForceSync(boolean forceSync) {
+		this.forceSync = forceSync;
+	}
+
+	public boolean isTransactional() {
+		return transactional;
+	}
+
+	public void setTransactional(boolean transactional) {
+		this.transactional = transactional;
+	}
+
+	public int getMaxPending() {
+		return maxPending;
+	}
+
+	public void setMaxPending(int max) {
+		this.maxPending = max;
+	}
+
+}
@@ -0,0 +1,178 @@
+package com.redis.riot.file;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.ParseException;
+import org.springframework.util.Assert;
+
+/**
+ * Reader that reads each of its delegates in a dedicated thread and hands out
+ * their items through a bounded queue. Item order across delegates is not
+ * preserved.
+ * <p>
+ * Parse errors are returned to the caller so that they can be skipped, while
+ * any other error stops the delegate it originated from.
+ *
+ * @param <T> item type
+ */
+public class PartitionedItemReader<T> extends ItemStreamSupport implements ItemStreamReader<T> {
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+	public static final long DEFAULT_MAX_ITEM_COUNT = Long.MAX_VALUE;
+
+	private static final long POLL_TIMEOUT_MILLIS = 100;
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final List<? extends ItemStreamReader<T>> delegates;
+
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+	private long maxItemCount = DEFAULT_MAX_ITEM_COUNT;
+
+	private BlockingQueue<Result<T>> queue;
+	private List<Thread> threads;
+	private AtomicInteger activeThreads;
+	private AtomicLong itemCount;
+	private volatile boolean running;
+
+	public PartitionedItemReader(List<? extends ItemStreamReader<T>> delegates) {
+		Assert.notEmpty(delegates, "At least one delegate is required");
+		this.delegates = delegates;
+	}
+
+	@Override
+	public synchronized void open(ExecutionContext executionContext) {
+		if (threads != null) {
+			return;
+		}
+		queue = new LinkedBlockingQueue<>(queueCapacity);
+		itemCount = new AtomicLong();
+		activeThreads = new AtomicInteger(delegates.size());
+		running = true;
+		threads = new ArrayList<>();
+		for (int index = 0; index < delegates.size(); index++) {
+			ItemStreamReader<T> delegate = delegates.get(index);
+			delegate.open(new ExecutionContext());
+			String threadName = getName() + "-partition-" + index;
+			Thread thread = new Thread(() -> read(delegate), threadName);
+			thread.setDaemon(true);
+			threads.add(thread);
+		}
+		log.info("Starting {} partition readers", threads.size());
+		threads.forEach(Thread::start);
+	}
+
+	private void read(ItemStreamReader<T> delegate) {
+		try {
+			while (running) {
+				T item;
+				try {
+					item = delegate.read();
+				} catch (ParseException e) {
+					queue.put(new Result<>(null, e));
+					continue;
+				}
+				if (item == null) {
+					return;
+				}
+				queue.put(new Result<>(item, null));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			log.error("Could not read partition", e);
+			try {
+				queue.put(new Result<>(null, e));
+			} catch (InterruptedException interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		} finally {
+			activeThreads.decrementAndGet();
+		}
+	}
+
+	@Override
+	public T read() throws Exception {
+		if (itemCount.get() >= maxItemCount) {
+			return null;
+		}
+		Result<T> result;
+		do {
+			result = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		} while (result == null && (activeThreads.get() > 0 || !queue.isEmpty()));
+		if (result == null) {
+			return null;
+		}
+		if (result.exception != null) {
+			throw result.exception;
+		}
+		if (itemCount.incrementAndGet() > maxItemCount) {
+			return null;
+		}
+		return result.item;
+	}
+
+	@Override
+	public synchronized void close() {
+		if (threads == null) {
+			return;
+		}
+		running = false;
+		threads.forEach(Thread::interrupt);
+		for (Thread thread : threads) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ItemStreamException("Interrupted while waiting for partition readers", e);
+			}
+		}
+		threads = null;
+		queue = null;
+		for (ItemStreamReader<T> delegate : delegates) {
+			delegate.close();
+		}
+		super.close();
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int capacity) {
+		this.queueCapacity = capacity;
+	}
+
+	public long getMaxItemCount() {
+		return maxItemCount;
+	}
+
+	public void setMaxItemCount(long count) {
+		this.maxItemCount = count;
+	}
+
+	private static class Result<T> {
+
+		private final T item;
+		private final Exception exception;
+
+		public Result(T item, Exception exception) {
+			this.item = item;
+			this.exception = exception;
+		}
+
+	}
+
+}
@@ -0,0 +1,197 @@
+package com.redis.riot.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reader going through many files one after the other with a single delegate
+ * reader per file, so that all files are imported in one step. While a file is
+ * being parsed the next one is resolved and, unless it is a local file, up to
+ * {@code prefetchSize} bytes of it are loaded in a background thread.
+ * <p>
+ * An optional completion listener is given the location and record count of
+ * every file that was read to the end, once the step has updated the reader
+ * state after the chunk holding its last records.
+ * <p>
+ * The implementation is <b>not</b> thread-safe.
+ *
+ * @param <T> item type
+ */
+public class PrefetchingMultiResourceItemReader<T> extends AbstractItemCountingItemStreamItemReader<T> {
+
+	public static final int DEFAULT_PREFETCH_SIZE = 8 * 1024 * 1024;
+
+	private final List<String> locations;
+	private final Function<String, Resource> resourceFactory;
+	private final Function<Resource, ? extends ItemReader<? extends T>> readerFactory;
+
+	private int prefetchSize = DEFAULT_PREFETCH_SIZE;
+	private BiConsumer<String, Long> completionListener;
+
+	private ExecutorService executor;
+	private Future<Resource> next;
+	private int index;
+	private ItemReader<? extends T> reader;
+	private String location;
+	private long count;
+	private final Map<String, Long> completed = new LinkedHashMap<>();
+
+	public PrefetchingMultiResourceItemReader(List<String> locations, Function<String, Resource> resourceFactory,
+			Function<Resource, ? extends ItemReader<? extends T>> readerFactory) {
+		setName(ClassUtils.getShortName(getClass()));
+		Assert.notNull(locations, "Locations must not be null");
+		Assert.notNull(resourceFactory, "Resource factory must not be null");
+		Assert.notNull(readerFactory, "Reader factory must not be null");
+		this.locations = locations;
+		this.resourceFactory = resourceFactory;
+		this.readerFactory = readerFactory;
+	}
+
+	@Override
+	protected void doOpen() {
+		executor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "file-prefetcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		index = 0;
+		completed.clear();
+		prefetchNext();
+	}
+
+	private void prefetchNext() {
+		if (index < locations.size()) {
+			String nextLocation = locations.get(index++);
+			next = executor.submit(() -> prefetch(resourceFactory.apply(nextLocation)));
+		} else {
+			next = null;
+		}
+	}
+
+	/**
+	 * Loads the beginning of the resource in memory. Resources that fit in the
+	 * prefetch size are not read from their source again. Local files are left
+	 * untouched whatever their size so that they are read the same way as when
+	 * they are not prefetched, i.e. memory-mapped and possibly partitioned.
+	 */
+	private Resource prefetch(Resource resource) throws IOException {
+		if (resource.isFile()) {
+			return resource;
+		}
+		InputStream inputStream = resource.getInputStream();
+		byte[] bytes = inputStream.readNBytes(prefetchSize);
+		InputStream prefetchedStream = new ByteArrayInputStream(bytes);
+		if (bytes.length < prefetchSize) {
+			inputStream.close();
+		} else {
+			prefetchedStream = new SequenceInputStream(prefetchedStream, inputStream);
+		}
+		return new FilenameInputStreamResource(prefetchedStream, resource.getFilename(), resource.getDescription());
+	}
+
+	@Override
+	protected T doRead() throws Exception {
+		while (true) {
+			if (reader == null) {
+				if (next == null) {
+					return null;
+				}
+				location = locations.get(index - 1);
+				count = 0;
+				Resource resource = take(next);
+				prefetchNext();
+				reader = readerFactory.apply(resource);
+				if (reader instanceof ItemStream) {
+					((ItemStream) reader).open(new ExecutionContext());
+				}
+			}
+			T item = reader.read();
+			if (item != null) {
+				count++;
+				return item;
+			}
+			closeReader();
+			completed.put(location, count);
+		}
+	}
+
+	private Resource take(Future<Resource> future) throws Exception {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private void closeReader() {
+		if (reader instanceof ItemStream) {
+			((ItemStream) reader).close();
+		}
+		reader = null;
+	}
+
+	@Override
+	public void update(ExecutionContext executionContext) {
+		super.update(executionContext);
+		if (completionListener != null) {
+			completed.forEach(completionListener);
+		}
+		completed.clear();
+	}
+
+	@Override
+	protected void doClose() {
+		closeReader();
+		if (next != null) {
+			next.cancel(true);
+			next = null;
+		}
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	public BiConsumer<String, Long> getCompletionListener() {
+		return completionListener;
+	}
+
+	public void setCompletionListener(BiConsumer<String, Long> listener) {
+		this.completionListener = listener;
+	}
+
+	public int getPrefetchSize() {
+		return prefetchSize;
+	}
+
+	/**
+	 * 
+	 * @param size max number of bytes of the next file to load in memory
+	 */
+	public void setPrefetchSize(int size) {
+		this.prefetchSize = size;
+	}
+
+}
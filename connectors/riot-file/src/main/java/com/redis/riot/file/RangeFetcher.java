@@ -0,0 +1,29 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+
+/**
+ * Fetches byte ranges of a remote object.
+ */
+public interface RangeFetcher {
+
+	/**
+	 * Looks up the current version of the object. Ranges fetched afterwards must
+	 * belong to that version, so that an object replaced during a download fails
+	 * the download instead of mixing parts of both versions.
+	 * 
+	 * @return size of the object in bytes, or -1 if ranged reads are not supported
+	 * @throws IOException
+	 */
+	long size() throws IOException;
+
+	/**
+	 * 
+	 * @param offset position of the first byte to fetch
+	 * @param length number of bytes to fetch
+	 * @return the fetched bytes
+	 * @throws IOException if the object changed since {@link #size()} was called
+	 */
+	byte[] fetch(long offset, int length) throws IOException;
+
+}
@@ -0,0 +1,117 @@
+package com.redis.riot.file;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Input stream downloading a remote object as concurrent byte-range requests.
+ * Parts are fetched by a pool of workers and returned in order, so at most
+ * {@code concurrency} parts are held in memory at any time.
+ */
+public class RangedInputStream extends InputStream {
+
+	private static final byte[] EMPTY = new byte[0];
+
+	private final RangeFetcher fetcher;
+	private final long size;
+	private final int partSize;
+	private final int concurrency;
+	private final ExecutorService executor;
+	private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+	private long offset;
+	private byte[] part = EMPTY;
+	private int position;
+
+	public RangedInputStream(RangeFetcher fetcher, long size, int partSize, int concurrency) {
+		this.fetcher = fetcher;
+		this.size = size;
+		this.partSize = partSize;
+		this.concurrency = concurrency;
+		this.executor = Executors.newFixedThreadPool(concurrency, r -> {
+			Thread thread = new Thread(r, "ranged-reader");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (position == part.length && !nextPart()) {
+			return -1;
+		}
+		return part[position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (position == part.length && !nextPart()) {
+			return -1;
+		}
+		int length = Math.min(len, part.length - position);
+		System.arraycopy(part, position, b, off, length);
+		position += length;
+		return length;
+	}
+
+	@Override
+	public int available() {
+		return part.length - position;
+	}
+
+	private boolean nextPart() throws IOException {
+		while (offset < size && pending.size() < concurrency) {
+			long start = offset;
+			int length = (int) Math.min(partSize, size - start);
+			pending.add(executor.submit(() -> fetcher.fetch(start, length)));
+			offset += length;
+		}
+		if (pending.isEmpty()) {
+			return false;
+		}
+		part = take(pending.removeFirst());
+		position = 0;
+		return true;
+	}
+
+	private byte[] take(Future<byte[]> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while fetching range");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Could not fetch range", e.getCause());
+		}
+	}
+
+	@Override
+	public void close() {
+		pending.forEach(future -> future.cancel(true));
+		pending.clear();
+		executor.shutdownNow();
+	}
+
+	public static byte[] readFully(InputStream inputStream, int length) throws IOException {
+		byte[] bytes = new byte[length];
+		if (inputStream.readNBytes(bytes, 0, length) < length) {
+			throw new EOFException("Expected " + length + " bytes");
+		}
+		return bytes;
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Resource whose input stream downloads the delegate resource in concurrent
+ * parts. The size of the object is looked up every time the resource is
+ * opened, and objects that fit in a single part or that do not support ranged
+ * reads are read from the delegate resource.
+ */
+public class RangedResource extends AbstractResource {
+
+	private final Resource delegate;
+	private final RangeFetcher fetcher;
+	private final int partSize;
+	private final int concurrency;
+
+	public RangedResource(Resource delegate, RangeFetcher fetcher, int partSize, int concurrency) {
+		this.delegate = delegate;
+		this.fetcher = fetcher;
+		this.partSize = partSize;
+		this.concurrency = concurrency;
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		long size = fetcher.size();
+		if (size <= partSize) {
+			return delegate.getInputStream();
+		}
+		return new RangedInputStream(fetcher, size, partSize, concurrency);
+	}
+
+	@Override
+	public boolean exists() {
+		return true;
+	}
+
+	@Override
+	public long contentLength() throws IOException {
+		long size = fetcher.size();
+		if (size < 0) {
+			return delegate.contentLength();
+		}
+		return size;
+	}
+
+	@Override
+	public String getFilename() {
+		return delegate.getFilename();
+	}
+
+	@Override
+	public String getDescription() {
+		return delegate.getDescription();
+	}
+
+}
@@ -0,0 +1,152 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Input stream that reads its delegate in a background thread, for example to
+ * decompress data while the caller is parsing it. Blocks read ahead are handed
+ * over through a bounded queue so that memory use stays constant.
+ */
+public class ReadAheadInputStream extends InputStream {
+
+	public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+	public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+	private static final byte[] EOF = new byte[0];
+
+	private final InputStream delegate;
+	private final int blockSize;
+	private final BlockingQueue<byte[]> queue;
+	private final Thread thread;
+
+	private volatile IOException exception;
+	private volatile boolean closed;
+
+	private byte[] block;
+	private int position;
+	private int limit;
+
+	public ReadAheadInputStream(InputStream delegate) {
+		this(delegate, DEFAULT_BLOCK_SIZE, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	public ReadAheadInputStream(InputStream delegate, int blockSize, int queueCapacity) {
+		this.delegate = delegate;
+		this.blockSize = blockSize;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.thread = new Thread(this::readAhead, "read-ahead");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	private void readAhead() {
+		try {
+			while (!closed) {
+				byte[] buffer = new byte[blockSize];
+				int length = readBlock(buffer);
+				if (length > 0) {
+					queue.put(length == blockSize ? buffer : Arrays.copyOf(buffer, length));
+				}
+				if (length < blockSize) {
+					break;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			exception = e;
+		} catch (RuntimeException | Error e) {
+			exception = new IOException("Could not read ahead", e);
+		} finally {
+			// Always signal the end so that readers never wait forever. When the stream
+			// is closed the interrupt flag is set and this does not block.
+			try {
+				queue.put(EOF);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private int readBlock(byte[] buffer) throws IOException {
+		int length = 0;
+		while (length < buffer.length) {
+			int read = delegate.read(buffer, length, buffer.length - length);
+			if (read < 0) {
+				break;
+			}
+			length += read;
+		}
+		return length;
+	}
+
+	/**
+	 *
+	 * @return false if the end of the stream was reached
+	 */
+	private boolean nextBlock() throws IOException {
+		if (block == EOF) {
+			return false;
+		}
+		try {
+			block = queue.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for data");
+		}
+		position = 0;
+		limit = block.length;
+		if (block == EOF) {
+			if (exception != null) {
+				throw exception;
+			}
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (position == limit && !nextBlock()) {
+			return -1;
+		}
+		return block[position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (position == limit && !nextBlock()) {
+			return -1;
+		}
+		int length = Math.min(len, limit - position);
+		System.arraycopy(block, position, b, off, length);
+		position += length;
+		return length;
+	}
+
+	@Override
+	public int available() {
+		return limit - position;
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		thread.interrupt();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		delegate.close();
+	}
+
+}
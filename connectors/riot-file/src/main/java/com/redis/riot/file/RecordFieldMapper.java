@@ -0,0 +1,89 @@
+package com.redis.riot.file;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.batch.item.file.transform.IncorrectTokenCountException;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Maps the included fields of parsed records to maps keyed by field names, for
+ * {@link RecordItemReader} and {@link RecordLineMapper}.
+ */
+class RecordFieldMapper {
+
+	private boolean[] includedFields;
+	private String[] names;
+
+	/**
+	 *
+	 * @param fields fields of a header record
+	 * @return values of the included fields
+	 */
+	public String[] values(RecordFields fields) {
+		List<String> values = new ArrayList<>();
+		for (int index = 0; index < fields.getFieldCount(); index++) {
+			if (isIncluded(index)) {
+				values.add(fields.value(index));
+			}
+		}
+		return values.toArray(new String[0]);
+	}
+
+	public Map<String, Object> map(RecordFields fields) {
+		int count = includedCount(fields);
+		if (count != names.length) {
+			throw new IncorrectTokenCountException(names.length, count, fields.toString());
+		}
+		Map<String, Object> map = new HashMap<>();
+		int nameIndex = 0;
+		for (int index = 0; index < fields.getFieldCount(); index++) {
+			if (isIncluded(index)) {
+				String value = fields.value(index);
+				if (!value.isEmpty()) {
+					map.put(names[nameIndex], value);
+				}
+				nameIndex++;
+			}
+		}
+		return map;
+	}
+
+	private int includedCount(RecordFields fields) {
+		if (includedFields == null) {
+			return fields.getFieldCount();
+		}
+		int count = 0;
+		for (int index = 0; index < fields.getFieldCount(); index++) {
+			if (isIncluded(index)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private boolean isIncluded(int index) {
+		return includedFields == null || (index < includedFields.length && includedFields[index]);
+	}
+
+	public String[] getNames() {
+		return names;
+	}
+
+	public void setNames(String... names) {
+		this.names = names;
+	}
+
+	public void setIncludedFields(Set<Integer> fields) {
+		if (ObjectUtils.isEmpty(fields)) {
+			this.includedFields = null;
+		} else {
+			this.includedFields = new boolean[fields.stream().mapToInt(Integer::intValue).max().getAsInt() + 1];
+			fields.forEach(index -> includedFields[index] = true);
+		}
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.redis.riot.file;
+
+/**
+ * Fields of a parsed record.
+ */
+interface RecordFields {
+
+	int getFieldCount();
+
+	/**
+	 *
+	 * @param index field index
+	 * @return trimmed value of the field at the given index
+	 */
+	String value(int index);
+
+}
@@ -0,0 +1,158 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Buffered character input read by a {@link RecordParser}. Unlike a
+ * {@code BufferedReader} it does not split its input into lines, so parsers can
+ * handle line breaks inside records in a single pass.
+ */
+public class RecordInput {
+
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+	public static final int EOF = -1;
+
+	private final Reader reader;
+	private char[] buffer;
+	private int position;
+	private int limit;
+	private int lineNumber;
+
+	public RecordInput(Reader reader) {
+		this(reader, DEFAULT_BUFFER_SIZE);
+	}
+
+	public RecordInput(Reader reader, int bufferSize) {
+		this.reader = reader;
+		this.buffer = new char[bufferSize];
+	}
+
+	/**
+	 *
+	 * @return next character, or {@link #EOF} if the end of the input was reached
+	 * @throws IOException
+	 */
+	public int next() throws IOException {
+		if (position == limit && !fill()) {
+			return EOF;
+		}
+		char c = buffer[position++];
+		if (c == '\n') {
+			lineNumber++;
+		}
+		return c;
+	}
+
+	/**
+	 *
+	 * @return next character without consuming it, or {@link #EOF} if the end of
+	 *         the input was reached
+	 * @throws IOException
+	 */
+	public int peek() throws IOException {
+		if (position == limit && !fill()) {
+			return EOF;
+		}
+		return buffer[position];
+	}
+
+	public boolean isEnd() throws IOException {
+		return peek() == EOF;
+	}
+
+	/**
+	 *
+	 * @param prefix string to look for
+	 * @return true if the remaining input starts with the given prefix
+	 * @throws IOException
+	 */
+	public boolean startsWith(String prefix) throws IOException {
+		while (limit - position < prefix.length()) {
+			if (!fill()) {
+				return false;
+			}
+		}
+		for (int index = 0; index < prefix.length(); index++) {
+			if (buffer[position + index] != prefix.charAt(index)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reads a physical line.
+	 *
+	 * @return line without its terminator, or null if the end of the input was
+	 *         reached
+	 * @throws IOException
+	 */
+	public String readLine() throws IOException {
+		if (isEnd()) {
+			return null;
+		}
+		StringBuilder line = new StringBuilder();
+		int c;
+		while ((c = next()) != EOF) {
+			if (c == '\n') {
+				break;
+			}
+			if (c == '\r') {
+				if (peek() == '\n') {
+					next();
+				} else {
+					lineNumber++;
+				}
+				break;
+			}
+			line.append((char) c);
+		}
+		return line.toString();
+	}
+
+	/**
+	 * Consumes a line terminator following a carriage return that was just read.
+	 *
+	 * @throws IOException
+	 */
+	public void skipLineFeed() throws IOException {
+		if (peek() == '\n') {
+			next();
+		} else {
+			lineNumber++;
+		}
+	}
+
+	/**
+	 *
+	 * @return number of line terminators consumed so far
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	private boolean fill() throws IOException {
+		if (position > 0) {
+			System.arraycopy(buffer, position, buffer, 0, limit - position);
+			limit -= position;
+			position = 0;
+		}
+		if (limit == buffer.length) {
+			char[] newBuffer = new char[buffer.length * 2];
+			System.arraycopy(buffer, 0, newBuffer, 0, limit);
+			buffer = newBuffer;
+		}
+		int read = reader.read(buffer, limit, buffer.length - limit);
+		if (read <= 0) {
+			return false;
+		}
+		limit += read;
+		return true;
+	}
+
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
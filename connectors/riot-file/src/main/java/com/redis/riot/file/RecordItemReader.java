@@ -0,0 +1,211 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.file.ResourceAwareItemReaderItemStream;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Reader mapping records parsed by a {@link RecordParser} to maps, keyed by
+ * field names given explicitly or read from a header line. Like
+ * {@link MapFieldSetMapper}, values are trimmed and empty values are omitted.
+ * <p>
+ * The implementation is <b>not</b> thread-safe.
+ */
+public class RecordItemReader extends AbstractItemCountingItemStreamItemReader<Map<String, Object>>
+		implements ResourceAwareItemReaderItemStream<Map<String, Object>> {
+
+	public static final String DEFAULT_COMMENT_PREFIX = "#";
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final RecordParser parser;
+	private final RecordFieldMapper mapper = new RecordFieldMapper();
+
+	private Resource resource;
+	private Charset charset = StandardCharsets.UTF_8;
+	private String commentPrefix = DEFAULT_COMMENT_PREFIX;
+	private int linesToSkip;
+	private int headerIndex = -1;
+
+	private RecordSource source;
+
+	public RecordItemReader(RecordParser parser) {
+		Assert.notNull(parser, "Parser must not be null");
+		this.parser = parser;
+	}
+
+	@Override
+	protected void doOpen() throws Exception {
+		Assert.notNull(resource, "Input resource must be set");
+		if (!resource.exists()) {
+			throw new ItemStreamException("Input resource does not exist: " + resource.getDescription());
+		}
+		source = source(charset);
+		for (int index = 0; index < linesToSkip; index++) {
+			String line = source.readLine();
+			if (line == null) {
+				break;
+			}
+			if (index == headerIndex) {
+				mapper.setNames(header(line));
+			}
+		}
+		if (mapper.getNames() == null) {
+			throw new ItemStreamException("No header found in resource " + resource.getDescription());
+		}
+	}
+
+	/**
+	 *
+	 * @param charset encoding of the resource
+	 * @return source of the records of the resource
+	 * @throws IOException
+	 */
+	RecordSource source(Charset charset) throws IOException {
+		return new ParserRecordSource(new RecordInput(reader(charset)), parser);
+	}
+
+	/**
+	 *
+	 * @param charset encoding of the resource
+	 * @return reader for the characters of the resource
+	 * @throws IOException
+	 */
+	protected Reader reader(Charset charset) throws IOException {
+		return new InputStreamReader(resource.getInputStream(), charset);
+	}
+
+	private String[] header(String line) throws Exception {
+		log.info("Found header: {}", line);
+		FieldBuffer fields = FieldBuffer.get();
+		parser.parse(new RecordInput(new StringReader(line)), fields);
+		String[] fieldNames = mapper.values(fields);
+		log.info("Using field names {}", Arrays.asList(fieldNames));
+		return fieldNames;
+	}
+
+	@Override
+	protected Map<String, Object> doRead() throws Exception {
+		while (StringUtils.hasLength(commentPrefix) && source.startsWith(commentPrefix)) {
+			source.readLine();
+		}
+		int lineNumber = source.getLineNumber() + 1;
+		try {
+			if (!source.next()) {
+				return null;
+			}
+			return mapper.map(source.fields());
+		} catch (RuntimeException e) {
+			String record = source.fields().toString();
+			throw new FlatFileParseException("Parsing error at line: " + lineNumber + " in resource=["
+					+ resource.getDescription() + "], input=[" + record + "]", e, record, lineNumber);
+		}
+	}
+
+	@Override
+	protected void doClose() throws Exception {
+		if (source != null) {
+			source.close();
+			source = null;
+		}
+	}
+
+	@Override
+	public void setResource(Resource resource) {
+		this.resource = resource;
+	}
+
+	public RecordParser getParser() {
+		return parser;
+	}
+
+	public String[] getNames() {
+		return mapper.getNames();
+	}
+
+	public void setNames(String... names) {
+		mapper.setNames(names);
+	}
+
+	public void setCharset(Charset charset) {
+		this.charset = charset;
+	}
+
+	public void setCommentPrefix(String prefix) {
+		this.commentPrefix = prefix;
+	}
+
+	public void setIncludedFields(Set<Integer> fields) {
+		mapper.setIncludedFields(fields);
+	}
+
+	public void setLinesToSkip(int linesToSkip) {
+		this.linesToSkip = linesToSkip;
+	}
+
+	public void setHeaderIndex(int headerIndex) {
+		this.headerIndex = headerIndex;
+	}
+
+	/**
+	 * Source parsing records from characters with a {@link RecordParser}.
+	 */
+	private static class ParserRecordSource implements RecordSource {
+
+		private final RecordInput input;
+		private final RecordParser parser;
+
+		public ParserRecordSource(RecordInput input, RecordParser parser) {
+			this.input = input;
+			this.parser = parser;
+		}
+
+		@Override
+		public String readLine() throws IOException {
+			return input.readLine();
+		}
+
+		@Override
+		public boolean startsWith(String prefix) throws IOException {
+			return input.startsWith(prefix);
+		}
+
+		@Override
+		public boolean next() throws IOException {
+			return parser.parse(input, FieldBuffer.get());
+		}
+
+		@Override
+		public RecordFields fields() {
+			return FieldBuffer.get();
+		}
+
+		@Override
+		public int getLineNumber() {
+			return input.getLineNumber();
+		}
+
+		@Override
+		public void close() throws IOException {
+			input.close();
+		}
+
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.util.Assert;
+
+/**
+ * Line mapper parsing each line with a {@link RecordParser}, so that lines read
+ * one at a time, e.g. from a growing file, are mapped exactly like records of
+ * a {@link RecordItemReader}. Records cannot span several lines.
+ */
+public class RecordLineMapper implements LineMapper<Map<String, Object>> {
+
+	private final RecordParser parser;
+	private final RecordFieldMapper mapper = new RecordFieldMapper();
+
+	private Supplier<String> headerSupplier;
+
+	public RecordLineMapper(RecordParser parser) {
+		Assert.notNull(parser, "Parser must not be null");
+		this.parser = parser;
+	}
+
+	@Override
+	public Map<String, Object> mapLine(String line, int lineNumber) throws Exception {
+		if (headerSupplier != null) {
+			setHeader(headerSupplier.get());
+			headerSupplier = null;
+		}
+		return mapper.map(parse(line));
+	}
+
+	private FieldBuffer parse(String line) throws IOException {
+		FieldBuffer fields = FieldBuffer.get();
+		parser.parse(new RecordInput(new StringReader(line), line.length() + 1), fields);
+		return fields;
+	}
+
+	/**
+	 * Sets field names from the included fields of the given header line.
+	 */
+	public void setHeader(String line) {
+		try {
+			mapper.setNames(mapper.values(parse(line)));
+		} catch (IOException e) {
+			throw new RuntimeIOException("Could not parse header " + line, e);
+		}
+	}
+
+	/**
+	 * Sets the supplier of the header line, which is only called when the first
+	 * line is mapped so that the header of a file that does not exist yet can be
+	 * read once it is written.
+	 */
+	public void setHeaderSupplier(Supplier<String> supplier) {
+		this.headerSupplier = supplier;
+	}
+
+	public String[] getNames() {
+		return mapper.getNames();
+	}
+
+	public void setNames(String... names) {
+		mapper.setNames(names);
+	}
+
+	public void setIncludedFields(Set<Integer> fields) {
+		mapper.setIncludedFields(fields);
+	}
+
+}
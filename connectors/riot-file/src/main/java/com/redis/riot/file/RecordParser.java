@@ -0,0 +1,44 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Parser splitting character input into records and fields in a single pass.
+ * Parsers hold configuration only and can be shared by several readers and
+ * threads; parsing state lives in the {@link RecordInput} and
+ * {@link FieldBuffer} they are given.
+ */
+public abstract class RecordParser {
+
+	private String continuationString;
+
+	/**
+	 * Parses the next record from the given input.
+	 *
+	 * @param input  input to read from
+	 * @param fields buffer receiving the fields of the record
+	 * @return false if there are no more records
+	 * @throws IOException
+	 */
+	public abstract boolean parse(RecordInput input, FieldBuffer fields) throws IOException;
+
+	/**
+	 * Removes the continuation string ending the current line, if any.
+	 *
+	 * @return true if the record continues on the next line
+	 */
+	protected boolean removeContinuation(FieldBuffer fields) {
+		return StringUtils.hasLength(continuationString) && fields.removeSuffix(continuationString);
+	}
+
+	public String getContinuationString() {
+		return continuationString;
+	}
+
+	public void setContinuationString(String continuationString) {
+		this.continuationString = continuationString;
+	}
+
+}
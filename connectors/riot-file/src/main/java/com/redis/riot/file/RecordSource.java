@@ -0,0 +1,49 @@
+package com.redis.riot.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Input of a {@link RecordItemReader}, splitting it into records and fields.
+ */
+interface RecordSource extends Closeable {
+
+	/**
+	 * Reads a physical line, e.g. a header or a comment.
+	 *
+	 * @return line without its terminator, or null if the end of the input was
+	 *         reached
+	 * @throws IOException
+	 */
+	String readLine() throws IOException;
+
+	/**
+	 *
+	 * @param prefix string to look for
+	 * @return true if the remaining input starts with the given prefix
+	 * @throws IOException
+	 */
+	boolean startsWith(String prefix) throws IOException;
+
+	/**
+	 * Parses the next record into {@link #fields()}.
+	 *
+	 * @return false if there are no more records
+	 * @throws IOException
+	 */
+	boolean next() throws IOException;
+
+	/**
+	 *
+	 * @return fields of the record parsed last, possibly incomplete if parsing
+	 *         failed
+	 */
+	RecordFields fields();
+
+	/**
+	 *
+	 * @return number of line terminators consumed so far
+	 */
+	int getLineNumber();
+
+}
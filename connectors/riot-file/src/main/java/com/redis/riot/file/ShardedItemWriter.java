@@ -0,0 +1,376 @@
+package com.redis.riot.file;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writer splitting its output into several files. Items are routed to shards
+ * by an optional shard function, and each shard rolls over to a new file once
+ * it reaches the max item count or max size. Shards are written concurrently by
+ * a pool shared by all shards, and the number of shards, i.e. of open files, is
+ * bounded by {@code maxShards}. File names are derived from the base location by inserting the shard
+ * and file index before the extension, e.g. {@code export-user-00000.jsonl}.
+ * When the writer is closed after its step completed, a manifest listing the
+ * files and their record counts is written next to them, so that a failed
+ * export leaves no manifest.
+ * <p>
+ * Sizes are counted in bytes handed to the underlying resource, i.e. before
+ * compression, and are only checked between chunks. Writers implementing
+ * {@link Flushable} are flushed before their size is checked so that buffered
+ * bytes are counted. Other writers, like Parquet writers that buffer whole row
+ * groups, roll over once their buffered data reaches the resource.
+ * <p>
+ * Shards are written outside of the chunk transaction, so items are handed to
+ * the underlying writers as soon as they are written and transactional
+ * buffering does not apply.
+ *
+ * @param <T> item type
+ */
+public class ShardedItemWriter<T> extends ItemStreamSupport
+		implements ItemStreamWriter<T>, StepExecutionListener {
+
+	public static final String MANIFEST_SUFFIX = "-manifest.json";
+	public static final int DEFAULT_MAX_SHARDS = 256;
+
+	private static final String INDEX_FORMAT = "%05d";
+
+	private final String location;
+	private final Function<String, WritableResource> resourceFactory;
+	private final Function<WritableResource, ItemWriter<T>> writerFactory;
+
+	private Function<? super T, String> shardFunction;
+	private long maxItemCount;
+	private long maxSize;
+	private int maxShards = DEFAULT_MAX_SHARDS;
+
+	private ExecutorService executor;
+	private final Map<String, Shard> shards = new LinkedHashMap<>();
+	private final List<ShardFile> files = new ArrayList<>();
+	private boolean completed;
+
+	public ShardedItemWriter(String location, Function<String, WritableResource> resourceFactory,
+			Function<WritableResource, ItemWriter<T>> writerFactory) {
+		Assert.hasText(location, "Location must not be empty");
+		Assert.notNull(resourceFactory, "Resource factory must not be null");
+		Assert.notNull(writerFactory, "Writer factory must not be null");
+		this.location = location;
+		this.resourceFactory = resourceFactory;
+		this.writerFactory = writerFactory;
+	}
+
+	@Override
+	public synchronized void open(ExecutionContext executionContext) {
+		if (executor != null) {
+			return;
+		}
+		Assert.isTrue(maxShards > 0, "Max shards must be greater than 0");
+		int threads = Math.min(maxShards, Runtime.getRuntime().availableProcessors());
+		executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "shard-writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		completed = false;
+	}
+
+	@Override
+	public void write(Chunk<? extends T> chunk) throws Exception {
+		Map<String, List<T>> groups = new LinkedHashMap<>();
+		for (T item : chunk) {
+			String shard = shardFunction == null ? null : shardFunction.apply(item);
+			groups.computeIfAbsent(shard, k -> new ArrayList<>()).add(item);
+		}
+		List<Future<?>> futures = new ArrayList<>(groups.size());
+		for (Map.Entry<String, List<T>> group : groups.entrySet()) {
+			Shard shard = shard(group.getKey());
+			List<T> items = group.getValue();
+			futures.add(executor.submit(() -> {
+				shard.write(items);
+				return null;
+			}));
+		}
+		for (Future<?> future : futures) {
+			get(future);
+		}
+	}
+
+	private Shard shard(String name) {
+		synchronized (shards) {
+			Shard shard = shards.get(name);
+			if (shard == null) {
+				if (shards.size() >= maxShards) {
+					throw new ItemStreamException(String.format(
+							"Could not write shard %s of %s: max shard count of %s reached", name, location, maxShards));
+				}
+				shard = new Shard(name);
+				shards.put(name, shard);
+			}
+			return shard;
+		}
+	}
+
+	private static void get(Future<?> future) throws Exception {
+		try {
+			future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		List<Exception> exceptions = new ArrayList<>();
+		for (Shard shard : shards.values()) {
+			try {
+				shard.close();
+			} catch (Exception e) {
+				exceptions.add(e);
+			}
+		}
+		shards.clear();
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+		if (!exceptions.isEmpty()) {
+			throw new ItemStreamException("Could not close shards of " + location, exceptions.get(0));
+		}
+		if (completed && !files.isEmpty()) {
+			writeManifest();
+		}
+		files.clear();
+	}
+
+	@Override
+	public synchronized ExitStatus afterStep(StepExecution stepExecution) {
+		completed = stepExecution.getStatus() == BatchStatus.COMPLETED;
+		return stepExecution.getExitStatus();
+	}
+
+	/**
+	 * 
+	 * @param completed true if the manifest is to be written when the writer is
+	 *                  closed. Set by {@link #afterStep} when the writer is a
+	 *                  listener of its step.
+	 */
+	public synchronized void setCompleted(boolean completed) {
+		this.completed = completed;
+	}
+
+	private void writeManifest() {
+		WritableResource resource = resourceFactory.apply(baseName() + MANIFEST_SUFFIX);
+		try (OutputStream outputStream = resource.getOutputStream()) {
+			Map<String, Object> manifest = new LinkedHashMap<>();
+			manifest.put("location", location);
+			manifest.put("files", files);
+			new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(outputStream, manifest);
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not write manifest " + resource.getDescription(), e);
+		}
+	}
+
+	private String baseName() {
+		int dot = extensionIndex();
+		return dot < 0 ? location : location.substring(0, dot);
+	}
+
+	private int extensionIndex() {
+		return location.indexOf('.', location.lastIndexOf('/') + 1);
+	}
+
+	protected String location(String shard, int index) {
+		StringBuilder builder = new StringBuilder(baseName());
+		if (shard != null) {
+			builder.append('-').append(shard.replaceAll("[^A-Za-z0-9_.-]", "_"));
+		}
+		builder.append('-').append(String.format(INDEX_FORMAT, index));
+		int dot = extensionIndex();
+		if (dot >= 0) {
+			builder.append(location.substring(dot));
+		}
+		return builder.toString();
+	}
+
+	public List<ShardFile> getFiles() {
+		return Collections.unmodifiableList(files);
+	}
+
+	public Function<? super T, String> getShardFunction() {
+		return shardFunction;
+	}
+
+	public void setShardFunction(Function<? super T, String> function) {
+		this.shardFunction = function;
+	}
+
+	public long getMaxItemCount() {
+		return maxItemCount;
+	}
+
+	/**
+	 * 
+	 * @param count max number of items per file, 0 for no limit
+	 */
+	public void setMaxItemCount(long count) {
+		this.maxItemCount = count;
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * 
+	 * @param size max number of bytes per file, 0 for no limit
+	 */
+	public void setMaxSize(long size) {
+		this.maxSize = size;
+	}
+
+	public int getMaxShards() {
+		return maxShards;
+	}
+
+	/**
+	 * 
+	 * @param max max number of shards, i.e. of files open at the same time
+	 */
+	public void setMaxShards(int max) {
+		this.maxShards = max;
+	}
+
+	private class Shard {
+
+		private final String name;
+
+		private int index;
+		private ItemWriter<T> writer;
+		private CountingResource resource;
+		private ShardFile file;
+
+		public Shard(String name) {
+			this.name = name;
+		}
+
+		public synchronized void write(List<T> items) throws Exception {
+			int offset = 0;
+			while (offset < items.size()) {
+				if (writer == null) {
+					open();
+				}
+				int length = items.size() - offset;
+				if (maxItemCount > 0) {
+					length = (int) Math.min(length, maxItemCount - file.getCount());
+				}
+				writer.write(new Chunk<>(items.subList(offset, offset + length)));
+				offset += length;
+				file.count += length;
+				if ((maxItemCount > 0 && file.getCount() >= maxItemCount) || (maxSize > 0 && size() >= maxSize)) {
+					closeWriter();
+				}
+			}
+		}
+
+		private long size() throws IOException {
+			if (writer instanceof Flushable) {
+				((Flushable) writer).flush();
+			}
+			return resource.getCount();
+		}
+
+		private void open() {
+			String fileLocation = location(name, index++);
+			resource = new CountingResource(resourceFactory.apply(fileLocation));
+			writer = writerFactory.apply(resource);
+			if (writer instanceof ItemStream) {
+				((ItemStream) writer).open(new ExecutionContext());
+			}
+			file = new ShardFile(name, fileLocation);
+			synchronized (files) {
+				files.add(file);
+			}
+		}
+
+		private void closeWriter() {
+			if (writer == null) {
+				return;
+			}
+			if (writer instanceof ItemStream) {
+				((ItemStream) writer).close();
+			}
+			file.size = resource.getCount();
+			writer = null;
+			resource = null;
+		}
+
+		public synchronized void close() {
+			closeWriter();
+		}
+
+	}
+
+	public static class ShardFile {
+
+		private final String shard;
+		private final String location;
+		private long count;
+		private long size;
+
+		public ShardFile(String shard, String location) {
+			this.shard = shard;
+			this.location = location;
+		}
+
+		public String getShard() {
+			return shard;
+		}
+
+		public String getLocation() {
+			return location;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * 
+		 * @return number of bytes written, before compression
+		 */
+		public long getSize() {
+			return size;
+		}
+
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.util.Assert;
+
+/**
+ * Properties file used to save the position of a reader so that it can resume
+ * after a restart.
+ */
+public class StateFile {
+
+	private final Path file;
+
+	public StateFile(Path file) {
+		Assert.notNull(file, "File must not be null");
+		this.file = file;
+	}
+
+	/**
+	 *
+	 * @return saved properties, or null if no state was saved
+	 */
+	public Properties read() {
+		if (!Files.exists(file)) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream inputStream = Files.newInputStream(file)) {
+			properties.load(inputStream);
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not read state file " + file, e);
+		}
+		return properties;
+	}
+
+	/**
+	 * Writes the given properties to a temporary file which then replaces the
+	 * state file, so that a crash never leaves a partially written state file.
+	 */
+	public void write(Properties properties, String comment) {
+		try {
+			Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+			try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+				properties.store(outputStream, comment);
+			}
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not write state file " + file, e);
+		}
+	}
+
+	public void delete() {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not delete state file " + file, e);
+		}
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.redis.riot.file.parquet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.util.Assert;
+
+import com.redis.riot.file.FileRange;
+
+/**
+ * Reader returning the records of a Parquet file as maps, one row group at a
+ * time. When a byte range is given only the row groups whose midpoint falls
+ * within it are read, so that several readers can share a file.
+ * <p>
+ * The implementation is <b>not</b> thread-safe.
+ */
+public class ParquetItemReader extends AbstractItemCountingItemStreamItemReader<Map<String, Object>> {
+
+	private final InputFile inputFile;
+
+	private FileRange range;
+
+	private ParquetFileReader reader;
+	private MessageType schema;
+	private MessageColumnIO columnIO;
+	private RecordReader<Group> recordReader;
+	private long remainingRows;
+
+	public ParquetItemReader(InputFile inputFile) {
+		Assert.notNull(inputFile, "Input file must not be null");
+		this.inputFile = inputFile;
+	}
+
+	@Override
+	protected void doOpen() throws Exception {
+		ParquetReadOptions.Builder options = ParquetReadOptions.builder();
+		if (range != null) {
+			options.withRange(range.getStart(), range.getEnd());
+		}
+		reader = ParquetFileReader.open(inputFile, options.build());
+		schema = reader.getFooter().getFileMetaData().getSchema();
+		columnIO = new ColumnIOFactory().getColumnIO(schema);
+		remainingRows = 0;
+	}
+
+	@Override
+	protected Map<String, Object> doRead() throws Exception {
+		while (remainingRows == 0) {
+			PageReadStore rowGroup = reader.readNextRowGroup();
+			if (rowGroup == null) {
+				return null;
+			}
+			remainingRows = rowGroup.getRowCount();
+			recordReader = columnIO.getRecordReader(rowGroup, new GroupRecordConverter(schema));
+		}
+		remainingRows--;
+		return map(recordReader.read());
+	}
+
+	private Map<String, Object> map(Group group) {
+		GroupType type = group.getType();
+		Map<String, Object> map = new HashMap<>();
+		for (int index = 0; index < type.getFieldCount(); index++) {
+			if (group.getFieldRepetitionCount(index) > 0) {
+				map.put(type.getFieldName(index), value(group, type.getType(index), index));
+			}
+		}
+		return map;
+	}
+
+	private Object value(Group group, Type type, int index) {
+		if (!type.isPrimitive()) {
+			return group.getValueToString(index, 0);
+		}
+		switch (type.asPrimitiveType().getPrimitiveTypeName()) {
+		case INT32:
+			return group.getInteger(index, 0);
+		case INT64:
+			return group.getLong(index, 0);
+		case FLOAT:
+			return group.getFloat(index, 0);
+		case DOUBLE:
+			return group.getDouble(index, 0);
+		case BOOLEAN:
+			return group.getBoolean(index, 0);
+		default:
+			return group.getValueToString(index, 0);
+		}
+	}
+
+	@Override
+	protected void doClose() throws Exception {
+		recordReader = null;
+		if (reader != null) {
+			reader.close();
+			reader = null;
+		}
+	}
+
+	public FileRange getRange() {
+		return range;
+	}
+
+	public void setRange(FileRange range) {
+		this.range = range;
+	}
+
+}
@@ -0,0 +1,250 @@
+package com.redis.riot.file.parquet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.util.Assert;
+
+/**
+ * Writer of flat records to a Parquet file. Unless a schema is given, the first
+ * {@link #setSampleSize(int) sample size} records are buffered and used to
+ * infer one. A record with a field that is not part of the schema or with a
+ * value that does not match the type of its field, e.g. after the sample, fails
+ * the write unless the writer is {@link #setLenient(boolean) lenient}, in which
+ * case the field is dropped or the value written as null.
+ */
+public class ParquetItemWriter extends ItemStreamSupport implements ItemStreamWriter<Map<String, Object>> {
+
+	public static final int DEFAULT_SAMPLE_SIZE = 1000;
+	public static final long DEFAULT_ROW_GROUP_SIZE = ParquetWriter.DEFAULT_BLOCK_SIZE;
+	public static final CompressionCodecName DEFAULT_CODEC = CompressionCodecName.SNAPPY;
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final OutputFile outputFile;
+
+	private MessageType schema;
+	private int sampleSize = DEFAULT_SAMPLE_SIZE;
+	private long rowGroupSize = DEFAULT_ROW_GROUP_SIZE;
+	private CompressionCodecName codec = DEFAULT_CODEC;
+	private boolean lenient;
+
+	private List<Map<String, Object>> sample;
+	private MessageType writerSchema;
+	private ParquetWriter<Group> writer;
+	private SimpleGroupFactory groupFactory;
+	private Set<String> droppedFields;
+	private Set<String> mismatchedFields;
+
+	public ParquetItemWriter(OutputFile outputFile) {
+		Assert.notNull(outputFile, "Output file must not be null");
+		this.outputFile = outputFile;
+	}
+
+	@Override
+	public synchronized void open(ExecutionContext executionContext) {
+		sample = new ArrayList<>();
+		droppedFields = new HashSet<>();
+		mismatchedFields = new HashSet<>();
+		writerSchema = schema;
+		if (writerSchema != null) {
+			openWriter();
+		}
+	}
+
+	private void openWriter() {
+		log.info("Writing Parquet file {} with schema {}", outputFile.getPath(), writerSchema);
+		try {
+			ExampleParquetWriter.Builder builder = ExampleParquetWriter.builder(outputFile);
+			builder.withType(writerSchema);
+			builder.withCompressionCodec(codec);
+			builder.withRowGroupSize(rowGroupSize);
+			builder.withWriteMode(ParquetFileWriter.Mode.OVERWRITE);
+			writer = builder.build();
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not open Parquet file " + outputFile.getPath(), e);
+		}
+		groupFactory = new SimpleGroupFactory(writerSchema);
+	}
+
+	@Override
+	public synchronized void write(Chunk<? extends Map<String, Object>> chunk) throws IOException {
+		if (writer == null) {
+			sample.addAll(chunk.getItems());
+			if (sample.size() < sampleSize) {
+				return;
+			}
+			flushSample();
+			return;
+		}
+		for (Map<String, Object> item : chunk) {
+			writer.write(group(item));
+		}
+	}
+
+	private void flushSample() throws IOException {
+		writerSchema = new ParquetSchemaInferrer().infer(sample);
+		openWriter();
+		for (Map<String, Object> item : sample) {
+			writer.write(group(item));
+		}
+		sample.clear();
+	}
+
+	private Group group(Map<String, Object> item) {
+		Group group = groupFactory.newGroup();
+		for (Map.Entry<String, Object> entry : item.entrySet()) {
+			if (entry.getValue() == null) {
+				continue;
+			}
+			if (!writerSchema.containsField(entry.getKey())) {
+				if (!lenient) {
+					throw new IllegalArgumentException(mismatch("Field " + entry.getKey() + " is not in Parquet schema"));
+				}
+				if (droppedFields.add(entry.getKey())) {
+					log.warn("Dropping field {} which is not in Parquet schema", entry.getKey());
+				}
+				continue;
+			}
+			Type type = writerSchema.getType(entry.getKey());
+			append(group, type, entry.getKey(), entry.getValue());
+		}
+		return group;
+	}
+
+	private void append(Group group, Type type, String field, Object value) {
+		Assert.isTrue(type.isPrimitive(), () -> "Field " + field + " must have a primitive type");
+		PrimitiveType primitiveType = type.asPrimitiveType();
+		try {
+			switch (primitiveType.getPrimitiveTypeName()) {
+			case INT32:
+				group.append(field, value instanceof Number ? ((Number) value).intValue()
+						: Integer.parseInt(value.toString()));
+				break;
+			case INT64:
+				group.append(field, value instanceof Number ? ((Number) value).longValue()
+						: ParquetSchemaInferrer.parseLong(value.toString()));
+				break;
+			case FLOAT:
+				group.append(field, value instanceof Number ? ((Number) value).floatValue()
+						: Float.parseFloat(value.toString()));
+				break;
+			case DOUBLE:
+				group.append(field, value instanceof Number ? ((Number) value).doubleValue()
+						: ParquetSchemaInferrer.parseDouble(value.toString()));
+				break;
+			case BOOLEAN:
+				group.append(field, value instanceof Boolean ? (Boolean) value
+						: ParquetSchemaInferrer.parseBoolean(value.toString()));
+				break;
+			default:
+				group.append(field, value.toString());
+				break;
+			}
+		} catch (IllegalArgumentException e) {
+			if (!lenient) {
+				throw new IllegalArgumentException(mismatch(String.format(
+						"Value '%s' of field %s does not match Parquet type %s", value, field,
+						primitiveType.getPrimitiveTypeName())), e);
+			}
+			if (mismatchedFields.add(field)) {
+				log.warn("Writing nulls for values of field {} that do not match Parquet type {}, e.g. '{}'", field,
+						primitiveType.getPrimitiveTypeName(), value);
+			} else {
+				log.debug("Writing null for value '{}' of field {}", value, field);
+			}
+		}
+	}
+
+	private String mismatch(String message) {
+		if (schema == null) {
+			return message
+					+ ". Give the schema with --parquet-schema or infer it from more records with --schema-sample";
+		}
+		return message + ". Check the schema given with --parquet-schema";
+	}
+
+	@Override
+	public synchronized void close() {
+		try {
+			if (writer == null && sample != null && !sample.isEmpty()) {
+				flushSample();
+			}
+			if (writer != null) {
+				writer.close();
+			}
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not close Parquet file " + outputFile.getPath(), e);
+		} finally {
+			writer = null;
+			sample = null;
+		}
+	}
+
+	public MessageType getSchema() {
+		return schema;
+	}
+
+	public void setSchema(MessageType schema) {
+		this.schema = schema;
+	}
+
+	public int getSampleSize() {
+		return sampleSize;
+	}
+
+	public void setSampleSize(int size) {
+		this.sampleSize = size;
+	}
+
+	public long getRowGroupSize() {
+		return rowGroupSize;
+	}
+
+	public void setRowGroupSize(long size) {
+		this.rowGroupSize = size;
+	}
+
+	public CompressionCodecName getCodec() {
+		return codec;
+	}
+
+	public void setCodec(CompressionCodecName codec) {
+		this.codec = codec;
+	}
+
+	public boolean isLenient() {
+		return lenient;
+	}
+
+	/**
+	 *
+	 * @param lenient true to drop fields that are not in the schema and write nulls
+	 *                for values that do not match it, instead of failing
+	 */
+	public void setLenient(boolean lenient) {
+		this.lenient = lenient;
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.redis.riot.file.parquet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.io.InputFile;
+
+import com.redis.riot.file.FileRange;
+
+/**
+ * Splits a Parquet file into byte ranges of contiguous row groups holding about
+ * the same number of rows.
+ */
+public abstract class ParquetPartitioner {
+
+	private ParquetPartitioner() {
+	}
+
+	public static List<FileRange> partition(InputFile inputFile, int count) throws IOException {
+		List<BlockMetaData> rowGroups;
+		try (ParquetFileReader reader = ParquetFileReader.open(inputFile)) {
+			rowGroups = reader.getFooter().getBlocks();
+		}
+		List<FileRange> ranges = new ArrayList<>();
+		if (rowGroups.isEmpty()) {
+			return ranges;
+		}
+		long totalRows = rowGroups.stream().mapToLong(BlockMetaData::getRowCount).sum();
+		long rowsPerPartition = Math.max(1, (totalRows + count - 1) / count);
+		long start = rowGroups.get(0).getStartingPos();
+		long end = start;
+		long rows = 0;
+		for (BlockMetaData rowGroup : rowGroups) {
+			if (rows >= rowsPerPartition) {
+				ranges.add(new FileRange(start, end));
+				start = rowGroup.getStartingPos();
+				rows = 0;
+			}
+			rows += rowGroup.getRowCount();
+			end = rowGroup.getStartingPos() + rowGroup.getCompressedSize();
+		}
+		ranges.add(new FileRange(start, end));
+		return ranges;
+	}
+
+}
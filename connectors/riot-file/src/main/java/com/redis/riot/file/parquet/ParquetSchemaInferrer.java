@@ -0,0 +1,159 @@
+package com.redis.riot.file.parquet;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+import org.apache.parquet.schema.Types.MessageTypeBuilder;
+
+/**
+ * Infers a flat Parquet schema from sample records. Fields are optional and
+ * ordered by first occurrence. A field is typed as INT64, DOUBLE or BOOLEAN when
+ * all of its sample values are of that type or are strings that convert to it
+ * and back unchanged, and as a UTF-8 string otherwise.
+ */
+public class ParquetSchemaInferrer {
+
+	public static final String DEFAULT_NAME = "record";
+
+	private String name = DEFAULT_NAME;
+
+	public MessageType infer(List<Map<String, Object>> records) {
+		Map<String, PrimitiveTypeName> types = new LinkedHashMap<>();
+		for (Map<String, Object> record : records) {
+			record.forEach((field, value) -> {
+				if (value != null) {
+					types.merge(field, type(value), ParquetSchemaInferrer::widen);
+				}
+			});
+		}
+		MessageTypeBuilder builder = Types.buildMessage();
+		types.forEach((field, type) -> {
+			if (type == PrimitiveTypeName.BINARY) {
+				builder.optional(type).as(LogicalTypeAnnotation.stringType()).named(field);
+			} else {
+				builder.optional(type).named(field);
+			}
+		});
+		return builder.named(name);
+	}
+
+	private static PrimitiveTypeName type(Object value) {
+		if (value instanceof Boolean) {
+			return PrimitiveTypeName.BOOLEAN;
+		}
+		if (value instanceof Float || value instanceof Double) {
+			return PrimitiveTypeName.DOUBLE;
+		}
+		if (value instanceof Number) {
+			return PrimitiveTypeName.INT64;
+		}
+		String string = value.toString();
+		if (isBoolean(string)) {
+			return PrimitiveTypeName.BOOLEAN;
+		}
+		if (isLong(string)) {
+			return PrimitiveTypeName.INT64;
+		}
+		if (isDouble(string)) {
+			return PrimitiveTypeName.DOUBLE;
+		}
+		return PrimitiveTypeName.BINARY;
+	}
+
+	/**
+	 * Strings are only converted when they round-trip exactly, so that values like
+	 * "01234", "1e5" or "NaN" are kept as strings.
+	 */
+	private static boolean isBoolean(String string) {
+		return Boolean.toString(Boolean.parseBoolean(string)).equals(string);
+	}
+
+	private static boolean isLong(String string) {
+		try {
+			return Long.toString(Long.parseLong(string)).equals(string);
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private static boolean isDouble(String string) {
+		try {
+			double value = Double.parseDouble(string);
+			return Double.isFinite(value) && Double.toString(value).equals(string);
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	/**
+	 *
+	 * @param string value to convert
+	 * @return the boolean represented by the given string
+	 * @throws IllegalArgumentException if the string is not exactly "true" or
+	 *                                  "false"
+	 */
+	public static boolean parseBoolean(String string) {
+		if (!isBoolean(string)) {
+			throw new IllegalArgumentException("Not a boolean: " + string);
+		}
+		return Boolean.parseBoolean(string);
+	}
+
+	/**
+	 *
+	 * @param string value to convert
+	 * @return the long represented by the given string
+	 * @throws NumberFormatException if the string is not the canonical form of a
+	 *                               long
+	 */
+	public static long parseLong(String string) {
+		if (!isLong(string)) {
+			throw new NumberFormatException("Not a canonical integer: " + string);
+		}
+		return Long.parseLong(string);
+	}
+
+	/**
+	 *
+	 * @param string value to convert
+	 * @return the double represented by the given string, which can also be an
+	 *         integer since integer and floating-point samples are widened to
+	 *         doubles
+	 * @throws NumberFormatException if the string is not the canonical form of a
+	 *                               long or finite double
+	 */
+	public static double parseDouble(String string) {
+		if (!isLong(string) && !isDouble(string)) {
+			throw new NumberFormatException("Not a canonical number: " + string);
+		}
+		return Double.parseDouble(string);
+	}
+
+	private static PrimitiveTypeName widen(PrimitiveTypeName type1, PrimitiveTypeName type2) {
+		if (type1 == type2) {
+			return type1;
+		}
+		if (isNumber(type1) && isNumber(type2)) {
+			return PrimitiveTypeName.DOUBLE;
+		}
+		return PrimitiveTypeName.BINARY;
+	}
+
+	private static boolean isNumber(PrimitiveTypeName type) {
+		return type == PrimitiveTypeName.INT64 || type == PrimitiveTypeName.DOUBLE;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.redis.riot.file.parquet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.springframework.core.io.WritableResource;
+
+/**
+ * Parquet output file writing sequentially to a resource output stream, for
+ * example standard output or a cloud storage object.
+ */
+public class ResourceOutputFile implements OutputFile {
+
+	private final WritableResource resource;
+
+	public ResourceOutputFile(WritableResource resource) {
+		this.resource = resource;
+	}
+
+	@Override
+	public PositionOutputStream create(long blockSizeHint) throws IOException {
+		return new CountingPositionOutputStream(resource.getOutputStream());
+	}
+
+	@Override
+	public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+		return create(blockSizeHint);
+	}
+
+	@Override
+	public boolean supportsBlockSize() {
+		return false;
+	}
+
+	@Override
+	public long defaultBlockSize() {
+		return 0;
+	}
+
+	@Override
+	public String getPath() {
+		return resource.getDescription();
+	}
+
+	private static class CountingPositionOutputStream extends PositionOutputStream {
+
+		private final OutputStream delegate;
+
+		private long position;
+
+		public CountingPositionOutputStream(OutputStream delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public long getPos() {
+			return position;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			delegate.write(b);
+			position++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			delegate.write(b, off, len);
+			position += len;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			delegate.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.redis.riot.file.snapshot;
+
+/**
+ * Key with its serialized value, as returned by the Redis DUMP command, and its
+ * expiration time.
+ */
+public class SnapshotEntry {
+
+	private byte[] key;
+	private long ttl;
+	private byte[] value;
+
+	public SnapshotEntry() {
+	}
+
+	public SnapshotEntry(byte[] key, long ttl, byte[] value) {
+		this.key = key;
+		this.ttl = ttl;
+		this.value = value;
+	}
+
+	public byte[] getKey() {
+		return key;
+	}
+
+	public void setKey(byte[] key) {
+		this.key = key;
+	}
+
+	/**
+	 *
+	 * @return expiration time in milliseconds, as returned by the Redis reader
+	 */
+	public long getTtl() {
+		return ttl;
+	}
+
+	public void setTtl(long ttl) {
+		this.ttl = ttl;
+	}
+
+	/**
+	 *
+	 * @return serialized value, or null if the key does not exist
+	 */
+	public byte[] getValue() {
+		return value;
+	}
+
+	public void setValue(byte[] value) {
+		this.value = value;
+	}
+
+}
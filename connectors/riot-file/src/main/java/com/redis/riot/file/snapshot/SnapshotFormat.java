@@ -0,0 +1,90 @@
+package com.redis.riot.file.snapshot;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+import net.jpountz.lz4.LZ4Factory;
+
+/**
+ * Layout of RIOT snapshot files:
+ *
+ * <pre>
+ * file    := header block* end index trailer
+ * header  := "RIOT" version(byte)
+ * block   := rawLength(int) storedLength(int) entryCount(int) data
+ * end     := 0(int)
+ * entry   := keyLength(int) key ttl(long) valueLength(int) value
+ * index   := blockCount(int) (offset(long) entryCount(int))*
+ * trailer := indexOffset(long) entryCount(long) "RIOT"
+ * </pre>
+ *
+ * Block data is LZ4-compressed unless the stored length equals the raw length.
+ * A value length of -1 denotes a key that does not exist. Integers are
+ * big-endian.
+ */
+public abstract class SnapshotFormat {
+
+	public static final byte VERSION = 1;
+	public static final int HEADER_LENGTH = 5;
+	public static final int TRAILER_LENGTH = 20;
+	public static final int BLOCK_HEADER_LENGTH = 12;
+	public static final int NULL_LENGTH = -1;
+
+	static final byte[] MAGIC = { 'R', 'I', 'O', 'T' };
+
+	static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+	private SnapshotFormat() {
+	}
+
+	static void checkMagic(byte[] bytes) throws IOException {
+		if (!Arrays.equals(MAGIC, bytes)) {
+			throw new IOException("Not a RIOT snapshot");
+		}
+	}
+
+	static void readHeader(DataInputStream input) throws IOException {
+		byte[] magic = new byte[MAGIC.length];
+		input.readFully(magic);
+		checkMagic(magic);
+		byte version = input.readByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported RIOT snapshot version: " + version);
+		}
+	}
+
+	/**
+	 *
+	 * @param endMarker whether the stream must end with the end marker, i.e. it
+	 *                  holds a whole file rather than a range of blocks
+	 * @return uncompressed content of the next block, or null if the end marker or
+	 *         the end of the stream was reached
+	 */
+	static byte[] readBlock(DataInputStream input, boolean endMarker) throws IOException {
+		int rawLength;
+		try {
+			rawLength = input.readInt();
+		} catch (EOFException e) {
+			if (endMarker) {
+				throw new EOFException("Truncated RIOT snapshot: missing end marker");
+			}
+			return null;
+		}
+		if (rawLength == 0) {
+			return null;
+		}
+		int storedLength = input.readInt();
+		input.readInt();
+		byte[] stored = new byte[storedLength];
+		input.readFully(stored);
+		if (storedLength == rawLength) {
+			return stored;
+		}
+		byte[] raw = new byte[rawLength];
+		LZ4.fastDecompressor().decompress(stored, 0, raw, 0, rawLength);
+		return raw;
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.redis.riot.file.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.redis.riot.file.FileRange;
+
+/**
+ * Block index read from the end of a RIOT snapshot file.
+ */
+public class SnapshotIndex {
+
+	private static final int INDEX_ENTRY_LENGTH = Long.BYTES + Integer.BYTES;
+
+	private final List<Block> blocks;
+	private final long end;
+	private final long entryCount;
+
+	public SnapshotIndex(List<Block> blocks, long end, long entryCount) {
+		this.blocks = blocks;
+		this.end = end;
+		this.entryCount = entryCount;
+	}
+
+	public static SnapshotIndex read(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < SnapshotFormat.HEADER_LENGTH + Integer.BYTES + SnapshotFormat.TRAILER_LENGTH) {
+				throw new IOException("Truncated RIOT snapshot: " + path);
+			}
+			ByteBuffer trailer = read(channel, size - SnapshotFormat.TRAILER_LENGTH, SnapshotFormat.TRAILER_LENGTH);
+			long indexOffset = trailer.getLong();
+			long entryCount = trailer.getLong();
+			byte[] magic = new byte[SnapshotFormat.MAGIC.length];
+			trailer.get(magic);
+			SnapshotFormat.checkMagic(magic);
+			long indexLength = size - SnapshotFormat.TRAILER_LENGTH - indexOffset;
+			if (indexOffset < SnapshotFormat.HEADER_LENGTH + Integer.BYTES || indexLength < Integer.BYTES
+					|| indexLength > Integer.MAX_VALUE) {
+				throw new IOException("Invalid RIOT snapshot index offset: " + indexOffset);
+			}
+			ByteBuffer index = read(channel, indexOffset, (int) indexLength);
+			int blockCount = index.getInt();
+			if (blockCount < 0 || indexLength != Integer.BYTES + (long) blockCount * INDEX_ENTRY_LENGTH) {
+				throw new IOException("Invalid RIOT snapshot index: " + blockCount + " blocks in " + indexLength
+						+ " bytes");
+			}
+			long end = indexOffset - Integer.BYTES;
+			List<Block> blocks = new ArrayList<>(blockCount);
+			long previousOffset = SnapshotFormat.HEADER_LENGTH - 1;
+			long indexedCount = 0;
+			for (int i = 0; i < blockCount; i++) {
+				Block block = new Block(index.getLong(), index.getInt());
+				if (block.getOffset() <= previousOffset || block.getOffset() >= end || block.getEntryCount() < 0) {
+					throw new IOException("Invalid RIOT snapshot block offset: " + block.getOffset());
+				}
+				previousOffset = block.getOffset();
+				indexedCount += block.getEntryCount();
+				blocks.add(block);
+			}
+			if (indexedCount != entryCount) {
+				throw new IOException("RIOT snapshot index holds " + indexedCount + " entries, trailer " + entryCount);
+			}
+			return new SnapshotIndex(blocks, end, entryCount);
+		}
+	}
+
+	private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Truncated RIOT snapshot");
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Splits blocks into at most the given number of contiguous byte ranges
+	 * holding about the same number of entries.
+	 */
+	public List<FileRange> partition(int count) {
+		List<FileRange> ranges = new ArrayList<>();
+		if (blocks.isEmpty()) {
+			return ranges;
+		}
+		long entriesPerPartition = Math.max(1, (entryCount + count - 1) / count);
+		long start = blocks.get(0).getOffset();
+		long entries = 0;
+		for (Block block : blocks) {
+			if (entries >= entriesPerPartition) {
+				ranges.add(new FileRange(start, block.getOffset()));
+				start = block.getOffset();
+				entries = 0;
+			}
+			entries += block.getEntryCount();
+		}
+		ranges.add(new FileRange(start, end));
+		return ranges;
+	}
+
+	public List<Block> getBlocks() {
+		return blocks;
+	}
+
+	public long getEntryCount() {
+		return entryCount;
+	}
+
+	public static class Block {
+
+		private final long offset;
+		private final int entryCount;
+
+		public Block(long offset, int entryCount) {
+			this.offset = offset;
+			this.entryCount = entryCount;
+		}
+
+		public long getOffset() {
+			return offset;
+		}
+
+		public int getEntryCount() {
+			return entryCount;
+		}
+
+	}
+
+}
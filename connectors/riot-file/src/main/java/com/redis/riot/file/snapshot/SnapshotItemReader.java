@@ -0,0 +1,88 @@
+package com.redis.riot.file.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.nio.ByteBuffer;
+
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.file.ResourceAwareItemReaderItemStream;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+/**
+ * Reader returning the entries of a RIOT snapshot file, one block at a time.
+ * When reading a range of blocks, as returned by
+ * {@link SnapshotIndex#partition(int)}, the file header must not be read.
+ * <p>
+ * The implementation is <b>not</b> thread-safe.
+ *
+ * @see SnapshotFormat
+ */
+public class SnapshotItemReader extends AbstractItemCountingItemStreamItemReader<SnapshotEntry>
+		implements ResourceAwareItemReaderItemStream<SnapshotEntry> {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private Resource resource;
+	private boolean readHeader = true;
+
+	private DataInputStream input;
+	private ByteBuffer block;
+
+	@Override
+	protected void doOpen() throws Exception {
+		Assert.notNull(resource, "Input resource must be set");
+		if (!resource.exists()) {
+			throw new ItemStreamException("Input resource does not exist: " + resource.getDescription());
+		}
+		input = new DataInputStream(new BufferedInputStream(resource.getInputStream(), BUFFER_SIZE));
+		if (readHeader) {
+			SnapshotFormat.readHeader(input);
+		}
+	}
+
+	@Override
+	protected SnapshotEntry doRead() throws Exception {
+		if (block == null || !block.hasRemaining()) {
+			byte[] bytes = SnapshotFormat.readBlock(input, readHeader);
+			if (bytes == null) {
+				return null;
+			}
+			block = ByteBuffer.wrap(bytes);
+		}
+		SnapshotEntry entry = new SnapshotEntry();
+		entry.setKey(bytes(block.getInt()));
+		entry.setTtl(block.getLong());
+		int valueLength = block.getInt();
+		if (valueLength != SnapshotFormat.NULL_LENGTH) {
+			entry.setValue(bytes(valueLength));
+		}
+		return entry;
+	}
+
+	private byte[] bytes(int length) {
+		byte[] bytes = new byte[length];
+		block.get(bytes);
+		return bytes;
+	}
+
+	@Override
+	protected void doClose() throws Exception {
+		block = null;
+		if (input != null) {
+			input.close();
+			input = null;
+		}
+	}
+
+	@Override
+	public void setResource(Resource resource) {
+		this.resource = resource;
+	}
+
+	public void setReadHeader(boolean readHeader) {
+		this.readHeader = readHeader;
+	}
+
+}
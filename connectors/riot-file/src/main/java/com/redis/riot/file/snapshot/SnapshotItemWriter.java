@@ -0,0 +1,168 @@
+package com.redis.riot.file.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.Assert;
+
+import net.jpountz.lz4.LZ4Compressor;
+
+/**
+ * Writer appending entries to a RIOT snapshot file. Entries are grouped in
+ * compressed blocks of about {@link #setBlockSize(int) block size} bytes, and
+ * the offsets of blocks are written in an index at the end of the file so that
+ * it can be read in partitions.
+ *
+ * @see SnapshotFormat
+ */
+public class SnapshotItemWriter extends ItemStreamSupport implements ItemStreamWriter<SnapshotEntry> {
+
+	public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final WritableResource resource;
+
+	private int blockSize = DEFAULT_BLOCK_SIZE;
+
+	private DataOutputStream output;
+	private DataOutputStream block;
+	private ByteArrayBuffer blockBuffer;
+	private LZ4Compressor compressor;
+	private List<SnapshotIndex.Block> blocks;
+	private long position;
+	private int blockEntryCount;
+	private long entryCount;
+
+	public SnapshotItemWriter(WritableResource resource) {
+		Assert.notNull(resource, "Resource must not be null");
+		this.resource = resource;
+	}
+
+	@Override
+	public synchronized void open(ExecutionContext executionContext) {
+		if (output != null) {
+			return;
+		}
+		try {
+			output = new DataOutputStream(new BufferedOutputStream(resource.getOutputStream(), BUFFER_SIZE));
+			output.write(SnapshotFormat.MAGIC);
+			output.writeByte(SnapshotFormat.VERSION);
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not open snapshot " + resource.getDescription(), e);
+		}
+		position = SnapshotFormat.HEADER_LENGTH;
+		blockBuffer = new ByteArrayBuffer(blockSize);
+		block = new DataOutputStream(blockBuffer);
+		compressor = SnapshotFormat.LZ4.fastCompressor();
+		blocks = new ArrayList<>();
+		blockEntryCount = 0;
+		entryCount = 0;
+	}
+
+	@Override
+	public synchronized void write(Chunk<? extends SnapshotEntry> chunk) throws IOException {
+		for (SnapshotEntry entry : chunk) {
+			block.writeInt(entry.getKey().length);
+			block.write(entry.getKey());
+			block.writeLong(entry.getTtl());
+			if (entry.getValue() == null) {
+				block.writeInt(SnapshotFormat.NULL_LENGTH);
+			} else {
+				block.writeInt(entry.getValue().length);
+				block.write(entry.getValue());
+			}
+			blockEntryCount++;
+			if (blockBuffer.size() >= blockSize) {
+				flushBlock();
+			}
+		}
+		output.flush();
+	}
+
+	private void flushBlock() throws IOException {
+		if (blockEntryCount == 0) {
+			return;
+		}
+		byte[] raw = blockBuffer.array();
+		int rawLength = blockBuffer.size();
+		byte[] stored = new byte[compressor.maxCompressedLength(rawLength)];
+		int storedLength = compressor.compress(raw, 0, rawLength, stored, 0, stored.length);
+		if (storedLength >= rawLength) {
+			stored = raw;
+			storedLength = rawLength;
+		}
+		output.writeInt(rawLength);
+		output.writeInt(storedLength);
+		output.writeInt(blockEntryCount);
+		output.write(stored, 0, storedLength);
+		blocks.add(new SnapshotIndex.Block(position, blockEntryCount));
+		position += SnapshotFormat.BLOCK_HEADER_LENGTH + storedLength;
+		entryCount += blockEntryCount;
+		blockEntryCount = 0;
+		blockBuffer.reset();
+	}
+
+	@Override
+	public synchronized void close() {
+		if (output == null) {
+			return;
+		}
+		try {
+			flushBlock();
+			output.writeInt(0);
+			long indexOffset = position + Integer.BYTES;
+			output.writeInt(blocks.size());
+			for (SnapshotIndex.Block entry : blocks) {
+				output.writeLong(entry.getOffset());
+				output.writeInt(entry.getEntryCount());
+			}
+			output.writeLong(indexOffset);
+			output.writeLong(entryCount);
+			output.write(SnapshotFormat.MAGIC);
+			output.close();
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not close snapshot " + resource.getDescription(), e);
+		} finally {
+			output = null;
+			block = null;
+			blockBuffer = null;
+			blocks = null;
+		}
+	}
+
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	public void setBlockSize(int size) {
+		this.blockSize = size;
+	}
+
+	/**
+	 * Byte array output stream exposing its internal array to avoid a copy per
+	 * block.
+	 */
+	private static class ByteArrayBuffer extends ByteArrayOutputStream {
+
+		public ByteArrayBuffer(int size) {
+			super(size);
+		}
+
+		public byte[] array() {
+			return buf;
+		}
+
+	}
+
+}
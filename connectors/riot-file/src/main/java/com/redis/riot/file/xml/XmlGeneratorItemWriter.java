@@ -0,0 +1,99 @@
+package com.redis.riot.file.xml;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.springframework.core.io.WritableResource;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import com.redis.riot.file.AbstractOutputStreamItemWriter;
+
+/**
+ * Writer serializing items as the children of a root element, straight to the
+ * {@link XMLStreamWriter} of the output:
+ * 
+ * <pre>
+ * {@code
+ * <root>
+ *  <record>...</record>
+ *  <record>...</record>
+ * </root>
+ * }
+ * </pre>
+ * 
+ * The name of item elements is the root name of the mapper serialization
+ * config.
+ *
+ * @param <T> item type
+ */
+public class XmlGeneratorItemWriter<T> extends AbstractOutputStreamItemWriter<T> {
+
+	public static final String DEFAULT_ROOT_NAME = "root";
+
+	private final XmlMapper mapper;
+
+	private String rootName = DEFAULT_ROOT_NAME;
+
+	private ObjectWriter writer;
+	private XMLStreamWriter streamWriter;
+	private ToXmlGenerator generator;
+
+	public XmlGeneratorItemWriter(WritableResource resource, XmlMapper mapper) {
+		super(resource);
+		Assert.notNull(mapper, "XML mapper must not be null");
+		this.mapper = mapper;
+	}
+
+	@Override
+	protected void doOpen(OutputStream outputStream) throws Exception {
+		writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		streamWriter = mapper.getFactory().getXMLOutputFactory().createXMLStreamWriter(outputStream, getEncoding());
+		streamWriter.writeStartElement(rootName);
+		// Characters complete the start tag, which would otherwise end up in the
+		// bytes of the first chunk
+		streamWriter.writeCharacters(getLineSeparator());
+		generator = mapper.getFactory().createGenerator(streamWriter);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	}
+
+	@Override
+	protected void doWrite(T item) throws Exception {
+		streamWriter.writeCharacters(" ");
+		writer.writeValue(generator, item);
+		streamWriter.writeCharacters(getLineSeparator());
+	}
+
+	@Override
+	protected void doFlush() throws IOException {
+		try {
+			streamWriter.flush();
+		} catch (XMLStreamException e) {
+			throw new IOException("Could not flush XML stream", e);
+		}
+	}
+
+	@Override
+	protected void doClose() throws Exception {
+		streamWriter.writeEndElement();
+		streamWriter.writeCharacters(getLineSeparator());
+		streamWriter.writeEndDocument();
+		generator.close();
+	}
+
+	public String getRootName() {
+		return rootName;
+	}
+
+	public void setRootName(String name) {
+		this.rootName = name;
+	}
+
+}
@@ -1,33 +1,59 @@
 package com.redis.riot.file.xml;
 
-import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
-import com.redis.riot.file.xml.XmlObjectReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.springframework.core.io.Resource;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
-import javax.xml.stream.XMLInputFactory;
-import javax.xml.stream.XMLStreamReader;
-import java.io.InputStream;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 
 /**
- * 
+ * Reads the elements under the root element of an XML document in a single
+ * StAX pass. With one worker each element is mapped directly from the stream.
+ * With several workers each element is copied to a standalone fragment which is
+ * mapped by a pool of workers, while items are returned in document order.
+ *
  * @author Julien Ruaux
  *
  * @param <T> type of the target object
  */
 public class XmlObjectReader<T> {
 
-	private Class<? extends T> itemType;
-	private XMLStreamReader reader;
+	public static final int DEFAULT_WORKERS = 1;
+
+	private static final String FORMAT_ERROR = "XML not in the form <root><element>...</element></root>";
+
+	private final Class<? extends T> itemType;
 	private XmlMapper mapper = new XmlMapper();
+	private int workers = DEFAULT_WORKERS;
+
 	private InputStream inputStream;
+	private XMLStreamReader reader;
+	private XMLOutputFactory outputFactory;
+	private ExecutorService executor;
+	private final Deque<Future<T>> pending = new ArrayDeque<>();
+	private boolean end;
 
 	/**
 	 * Create a new {@link XmlObjectReader} instance.
-	 * 
+	 *
 	 * @param itemType the target item type
 	 */
 	public XmlObjectReader(Class<? extends T> itemType) {
@@ -36,7 +62,7 @@ public class XmlObjectReader<T> {
 
 	/**
 	 * Set the object mapper to use to map Xml objects to domain objects.
-	 * 
+	 *
 	 * @param mapper the object mapper to use
 	 */
 	public void setMapper(XmlMapper mapper) {
@@ -44,36 +70,154 @@ public class XmlObjectReader<T> {
 		this.mapper = mapper;
 	}
 
+	/**
+	 *
+	 * @param workers number of threads mapping elements to items
+	 */
+	public void setWorkers(int workers) {
+		this.workers = workers;
+	}
+
 	public void open(Resource resource) throws Exception {
 		Assert.notNull(resource, "The resource must not be null");
 		this.inputStream = resource.getInputStream();
-		this.reader = XMLInputFactory.newFactory().createXMLStreamReader(this.inputStream);
-		this.mapper = new XmlMapper();
-		if (reader.hasNext()) {
-			reader.next(); // point to root element
-		} else {
-			throw new Exception("XML not in the form <root><element>...</element></root>");
+		this.reader = mapper.getFactory().getXMLInputFactory().createXMLStreamReader(this.inputStream);
+		if (!nextElement()) {
+			throw new IllegalStateException(FORMAT_ERROR);
+		}
+		// reader now points to root element
+		this.end = false;
+		if (workers > 1) {
+			this.outputFactory = XMLOutputFactory.newFactory();
+			this.outputFactory.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+			this.executor = Executors.newFixedThreadPool(workers, r -> {
+				Thread thread = new Thread(r, "xml-mapper");
+				thread.setDaemon(true);
+				return thread;
+			});
 		}
-		if (reader.hasNext()) {
-			reader.next(); // point to first element under root
-		} else {
-			throw new Exception("XML not in the form <root><element>...</element></root>");
+	}
+
+	/**
+	 * Advances to the next element start at the current depth.
+	 *
+	 * @return false if the end of the enclosing element or document was reached
+	 */
+	private boolean nextElement() throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				return true;
+			case XMLStreamConstants.END_ELEMENT:
+			case XMLStreamConstants.END_DOCUMENT:
+				return false;
+			default:
+				break;
+			}
 		}
+		return false;
 	}
 
 	@Nullable
 	public T read() throws Exception {
-		if (reader.hasNext()) {
-			try {
-				return mapper.readValue(reader, itemType);
-			} catch (JsonParseException e) {
-				// reached end of stream, ignore
+		if (executor == null) {
+			if (end || !nextElement()) {
+				end = true;
+				return null;
+			}
+			return mapper.readValue(reader, itemType);
+		}
+		while (!end && pending.size() < workers * 2) {
+			String fragment = nextFragment();
+			if (fragment == null) {
+				end = true;
+			} else {
+				pending.add(executor.submit(() -> mapper.readValue(fragment, itemType)));
+			}
+		}
+		if (pending.isEmpty()) {
+			return null;
+		}
+		return take(pending.removeFirst());
+	}
+
+	private T take(Future<T> future) throws Exception {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while mapping XML element");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw new IOException("Could not map XML element", e.getCause());
+		}
+	}
+
+	/**
+	 * Copies the next element under the root element to a standalone document.
+	 *
+	 * @return XML of the next element, or null if there are no more elements
+	 */
+	private String nextFragment() throws XMLStreamException {
+		if (!nextElement()) {
+			return null;
+		}
+		StringWriter fragment = new StringWriter();
+		XMLStreamWriter writer = outputFactory.createXMLStreamWriter(fragment);
+		int depth = 0;
+		do {
+			switch (reader.getEventType()) {
+			case XMLStreamConstants.START_ELEMENT:
+				writeStartElement(writer);
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				writer.writeEndElement();
+				depth--;
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				break;
+			default:
+				break;
+			}
+		} while (depth > 0 && reader.hasNext() && reader.next() > 0);
+		writer.close();
+		return fragment.toString();
+	}
+
+	private void writeStartElement(XMLStreamWriter writer) throws XMLStreamException {
+		writer.writeStartElement(prefix(reader.getPrefix()), reader.getLocalName(), namespace(reader.getNamespaceURI()));
+		for (int index = 0; index < reader.getAttributeCount(); index++) {
+			String namespace = reader.getAttributeNamespace(index);
+			if (StringUtils.hasLength(namespace)) {
+				writer.writeAttribute(prefix(reader.getAttributePrefix(index)), namespace,
+						reader.getAttributeLocalName(index), reader.getAttributeValue(index));
+			} else {
+				writer.writeAttribute(reader.getAttributeLocalName(index), reader.getAttributeValue(index));
 			}
 		}
-		return null;
+	}
+
+	private static String prefix(String prefix) {
+		return prefix == null ? "" : prefix;
+	}
+
+	private static String namespace(String namespace) {
+		return namespace == null ? "" : namespace;
 	}
 
 	public void close() throws Exception {
+		if (executor != null) {
+			pending.forEach(future -> future.cancel(true));
+			pending.clear();
+			executor.shutdownNow();
+			executor = null;
+		}
 		this.inputStream.close();
 		this.reader.close();
 	}
@@ -0,0 +1,113 @@
+package com.redis.riot.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.FileSystemResource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class BinaryRecordItemReaderTests {
+
+	@TempDir
+	Path directory;
+
+	private static List<Map<String, Object>> records(int count) {
+		List<Map<String, Object>> records = new ArrayList<>();
+		for (int index = 0; index < count; index++) {
+			records.add(Map.of("id", index, "name", "name" + index));
+		}
+		return records;
+	}
+
+	private Path write(List<Map<String, Object>> records) throws Exception {
+		Path file = directory.resolve("records.bin");
+		BinaryRecordItemWriter<Map<String, Object>> writer = new BinaryRecordItemWriter<>(
+				new FileSystemResource(file), new ObjectMapper());
+		writer.open(new ExecutionContext());
+		try {
+			writer.write(new Chunk<>(records));
+		} finally {
+			writer.close();
+		}
+		return file;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static List<Map<String, Object>> readAll(Path file) throws Exception {
+		BinaryRecordItemReader<Map<String, Object>> reader = new BinaryRecordItemReader<>(new ObjectMapper(),
+				(Class) Map.class);
+		reader.setName("binary-reader");
+		reader.setResource(new FileSystemResource(file));
+		List<Map<String, Object>> records = new ArrayList<>();
+		reader.open(new ExecutionContext());
+		try {
+			Map<String, Object> record;
+			while ((record = reader.read()) != null) {
+				records.add(record);
+			}
+		} finally {
+			reader.close();
+		}
+		return records;
+	}
+
+	private static void truncate(Path file, int removed) throws Exception {
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - removed));
+	}
+
+	@Test
+	void roundTrip() throws Exception {
+		List<Map<String, Object>> records = records(10);
+		Assertions.assertEquals(records, readAll(write(records)));
+	}
+
+	@Test
+	void truncatedRecord() throws Exception {
+		Path file = write(records(10));
+		truncate(file, 3);
+		FlatFileParseException exception = Assertions.assertThrows(FlatFileParseException.class,
+				() -> readAll(file));
+		Assertions.assertEquals(10, exception.getLineNumber());
+	}
+
+	@Test
+	void truncatedLength() throws Exception {
+		Path file = write(records(10));
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length + 2));
+		FlatFileParseException exception = Assertions.assertThrows(FlatFileParseException.class,
+				() -> readAll(file));
+		Assertions.assertEquals(11, exception.getLineNumber());
+	}
+
+	@Test
+	void negativeLength() throws Exception {
+		Path file = write(records(2));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			output.write(Files.readAllBytes(file));
+			output.writeInt(-5);
+			output.write(new byte[16]);
+		}
+		Files.write(file, bytes.toByteArray());
+		FlatFileParseException exception = Assertions.assertThrows(FlatFileParseException.class,
+				() -> readAll(file));
+		Assertions.assertEquals(3, exception.getLineNumber());
+		Assertions.assertTrue(exception.getMessage().contains("-5"));
+	}
+
+}
@@ -0,0 +1,159 @@
+package com.redis.riot.file;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+class DecompressingResourceTests {
+
+	private static final int BLOCK_SIZE = 64 * 1024;
+
+	private static byte[] data() {
+		StringBuilder builder = new StringBuilder();
+		for (int index = 0; index < 50000; index++) {
+			builder.append("id").append(index).append(',').append(index * 31 % 977).append('\n');
+		}
+		return builder.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(data);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] bgzf(byte[] data, boolean fileName) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		for (int offset = 0; offset < data.length; offset += BLOCK_SIZE) {
+			bgzfBlock(bytes, Arrays.copyOfRange(data, offset, Math.min(data.length, offset + BLOCK_SIZE)), fileName);
+		}
+		bgzfBlock(bytes, new byte[0], fileName);
+		return bytes.toByteArray();
+	}
+
+	private static void bgzfBlock(ByteArrayOutputStream out, byte[] block, boolean fileName) {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		deflater.setInput(block);
+		deflater.finish();
+		byte[] deflated = new byte[block.length + 1024];
+		int deflatedLength = deflater.deflate(deflated);
+		deflater.end();
+		byte[] name = fileName ? "data.csv\0".getBytes(StandardCharsets.US_ASCII) : new byte[0];
+		int blockSize = 18 + name.length + deflatedLength + 8;
+		out.write(new byte[] { 0x1f, (byte) 0x8b, 8, (byte) (fileName ? 4 | 8 : 4), 0, 0, 0, 0, 0, (byte) 0xff, 6, 0,
+				'B', 'C', 2, 0, (byte) (blockSize - 1), (byte) ((blockSize - 1) >> 8) }, 0, 18);
+		out.write(name, 0, name.length);
+		out.write(deflated, 0, deflatedLength);
+		CRC32 crc = new CRC32();
+		crc.update(block);
+		writeInt(out, crc.getValue());
+		writeInt(out, block.length);
+	}
+
+	private static void writeInt(ByteArrayOutputStream out, long value) {
+		for (int index = 0; index < 4; index++) {
+			out.write((int) (value >> (8 * index)) & 0xFF);
+		}
+	}
+
+	private static byte[] read(byte[] compressed, int workers) throws IOException {
+		DecompressingResource resource = new DecompressingResource(new ByteArrayResource(compressed), Compression.GZIP,
+				workers);
+		try (InputStream inputStream = resource.getInputStream()) {
+			return inputStream.readAllBytes();
+		}
+	}
+
+	@Test
+	void bgzf() throws IOException {
+		byte[] data = data();
+		byte[] compressed = bgzf(data, false);
+		Assertions.assertTrue(BgzfInputStream.isBgzf(new BufferedInputStream(new ByteArrayInputStream(compressed))));
+		Assertions.assertArrayEquals(data, read(compressed, 4));
+	}
+
+	@Test
+	void bgzfWithOptionalHeaderFields() throws IOException {
+		byte[] data = data();
+		Assertions.assertArrayEquals(data, read(bgzf(data, true), 4));
+	}
+
+	@Test
+	void multiMemberGzip() throws IOException {
+		byte[] data = data();
+		int half = data.length / 2;
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		compressed.write(gzip(Arrays.copyOfRange(data, 0, half)));
+		compressed.write(gzip(Arrays.copyOfRange(data, half, data.length)));
+		Assertions.assertArrayEquals(data, read(compressed.toByteArray(), 4));
+	}
+
+	@Test
+	void gzipMembersLargerThanWindow() throws IOException {
+		byte[] data = data();
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		for (int index = 0; index < 20; index++) {
+			byte[] member = index % 5 == 0 ? data : ("member" + index + "\n").getBytes(StandardCharsets.UTF_8);
+			expected.write(member);
+			compressed.write(gzip(member));
+		}
+		try (InputStream inputStream = new GzipMemberInputStream(new ByteArrayInputStream(compressed.toByteArray()),
+				4, 64 * 1024)) {
+			Assertions.assertArrayEquals(expected.toByteArray(), inputStream.readAllBytes());
+		}
+	}
+
+	@Test
+	void truncatedGzipMembers() throws IOException {
+		byte[] member = gzip("member\n".getBytes(StandardCharsets.UTF_8));
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		compressed.write(member);
+		compressed.write(member, 0, member.length - 4);
+		Assertions.assertThrows(EOFException.class, () -> read(compressed.toByteArray(), 4));
+	}
+
+	@Test
+	void truncatedBgzf() throws IOException {
+		byte[] compressed = bgzf(data(), false);
+		byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+		Assertions.assertThrows(IOException.class, () -> read(truncated, 4));
+	}
+
+	@Test
+	void truncatedGzip() throws IOException {
+		byte[] compressed = gzip(data());
+		byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+		Assertions.assertThrows(IOException.class, () -> read(truncated, 4));
+	}
+
+	@Test
+	void readAheadPropagatesRuntimeExceptions() {
+		InputStream failing = new InputStream() {
+
+			@Override
+			public int read() {
+				throw new IllegalStateException("Boom");
+			}
+
+		};
+		ReadAheadInputStream inputStream = new ReadAheadInputStream(failing);
+		IOException exception = Assertions.assertThrows(IOException.class, inputStream::readAllBytes);
+		Assertions.assertEquals("Boom", exception.getCause().getMessage());
+	}
+
+}
@@ -0,0 +1,188 @@
+package com.redis.riot.file;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+class FilePartitionerTests {
+
+	private static final String HEADER = "id,name,description";
+
+	@TempDir
+	Path directory;
+
+	private Path file(String content) throws Exception {
+		Path file = directory.resolve("file.csv");
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static FilePartitioner recordPartitioner() {
+		FilePartitioner partitioner = new FilePartitioner();
+		partitioner.setQuoteCharacter('"');
+		// Small buffers exercise reads that stop in the middle of a record
+		partitioner.setBufferSize(16);
+		return partitioner;
+	}
+
+	/**
+	 * Records with quoted delimiters, quotes and line breaks, alternating LF and
+	 * CRLF line endings.
+	 */
+	private static String csv(int count) {
+		StringBuilder builder = new StringBuilder(HEADER).append('\n');
+		for (int index = 0; index < count; index++) {
+			builder.append(index).append(',');
+			switch (index % 4) {
+			case 0:
+				builder.append("name").append(index).append(",plain");
+				break;
+			case 1:
+				builder.append("\"name, ").append(index).append("\",\"line one\nline two\nline three\"");
+				break;
+			case 2:
+				builder.append("\"say \"\"hi\"\"\",\"crlf\r\ninside\"");
+				break;
+			default:
+				builder.append(",\"\"");
+				break;
+			}
+			builder.append(index % 2 == 0 ? "\r\n" : "\n");
+		}
+		return builder.toString();
+	}
+
+	private static List<Map<String, Object>> read(Path file, FileRange range) throws Exception {
+		MappedRecordItemReader reader = new MappedRecordItemReader(new DelimitedRecordParser(), file, range);
+		reader.setName("record-reader");
+		reader.setNames("id", "name", "description");
+		List<Map<String, Object>> records = new ArrayList<>();
+		reader.open(new ExecutionContext());
+		try {
+			Map<String, Object> record;
+			while ((record = reader.read()) != null) {
+				records.add(record);
+			}
+		} finally {
+			reader.close();
+		}
+		return records;
+	}
+
+	private static void assertContiguous(List<FileRange> ranges, long start, long end) {
+		Assertions.assertFalse(ranges.isEmpty());
+		Assertions.assertEquals(start, ranges.get(0).getStart());
+		for (int index = 1; index < ranges.size(); index++) {
+			Assertions.assertEquals(ranges.get(index - 1).getEnd(), ranges.get(index).getStart());
+		}
+		Assertions.assertEquals(end, ranges.get(ranges.size() - 1).getEnd());
+	}
+
+	@Test
+	void skipLines() throws Exception {
+		Path file = file("a\nb\r\nc");
+		FilePartitioner partitioner = new FilePartitioner();
+		Assertions.assertEquals(0, partitioner.skipLines(file, 0));
+		Assertions.assertEquals(2, partitioner.skipLines(file, 1));
+		Assertions.assertEquals(5, partitioner.skipLines(file, 2));
+		Assertions.assertEquals(6, partitioner.skipLines(file, 3));
+	}
+
+	@Test
+	void everyRecordReadOnce() throws Exception {
+		Path file = file(csv(200));
+		FilePartitioner partitioner = recordPartitioner();
+		long start = partitioner.skipLines(file, 1);
+		Assertions.assertEquals(HEADER.length() + 1, start);
+		List<Map<String, Object>> expected = read(file, new FileRange(start, Files.size(file)));
+		Assertions.assertEquals(200, expected.size());
+		for (int count = 2; count <= 32; count++) {
+			List<FileRange> ranges = partitioner.partition(file, start, count);
+			Assertions.assertTrue(ranges.size() <= count);
+			assertContiguous(ranges, start, Files.size(file));
+			List<Map<String, Object>> actual = new ArrayList<>();
+			for (FileRange range : ranges) {
+				List<Map<String, Object>> records = read(file, range);
+				// Only the lines to skip hold the header
+				records.forEach(record -> Assertions.assertNotEquals("id", record.get("id")));
+				actual.addAll(records);
+			}
+			Assertions.assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	void quotedLineBreakAcrossSplit() throws Exception {
+		String record = "1,\"" + "x\n".repeat(50) + "\",last\n";
+		Path file = file(record + "2,b,c\n");
+		List<FileRange> ranges = recordPartitioner().partition(file, 0, 2);
+		Assertions.assertEquals(2, ranges.size());
+		Assertions.assertEquals(record.length(), ranges.get(0).getEnd());
+		Assertions.assertEquals(1, read(file, ranges.get(0)).size());
+		Assertions.assertEquals(1, read(file, ranges.get(1)).size());
+	}
+
+	@Test
+	void crlf() throws Exception {
+		String content = "1,a,b\r\n2,c,d\r\n3,e,f\r\n4,g,h\r\n";
+		Path file = file(content);
+		List<FileRange> ranges = recordPartitioner().partition(file, 0, 4);
+		Assertions.assertTrue(ranges.size() > 1);
+		assertContiguous(ranges, 0, content.length());
+		List<Map<String, Object>> records = new ArrayList<>();
+		for (FileRange range : ranges) {
+			Assertions.assertEquals("\r\n", content.substring((int) range.getEnd() - 2, (int) range.getEnd()));
+			records.addAll(read(file, range));
+		}
+		Assertions.assertEquals(4, records.size());
+		records.forEach(record -> Assertions.assertFalse(((String) record.get("description")).endsWith("\r")));
+	}
+
+	@Test
+	void continuation() throws Exception {
+		String record = "1,a,\\\n" + "b\\\n".repeat(20) + "c\n";
+		Path file = file(record + "2,b,c\n");
+		FilePartitioner partitioner = recordPartitioner();
+		partitioner.setContinuationString("\\", StandardCharsets.UTF_8);
+		List<FileRange> ranges = partitioner.partition(file, 0, 2);
+		Assertions.assertEquals(2, ranges.size());
+		Assertions.assertEquals(record.length(), ranges.get(0).getEnd());
+	}
+
+	@Test
+	void linesIgnoreQuotes() throws Exception {
+		// JSON strings escape quotes, so quote parity says nothing about line breaks
+		StringBuilder builder = new StringBuilder();
+		for (int index = 0; index < 100; index++) {
+			builder.append("{\"id\":").append(index).append(",\"name\":\"a \\\" quote\"}\n");
+		}
+		Path file = file(builder.toString());
+		List<FileRange> ranges = new FilePartitioner().partition(file, 0, 8);
+		Assertions.assertEquals(8, ranges.size());
+		assertContiguous(ranges, 0, Files.size(file));
+		List<String> lines = new ArrayList<>();
+		byte[] bytes = Files.readAllBytes(file);
+		for (FileRange range : ranges) {
+			Assertions.assertEquals('\n', bytes[(int) range.getEnd() - 1]);
+			String content = new String(bytes, (int) range.getStart(), (int) range.length(), StandardCharsets.UTF_8);
+			lines.addAll(List.of(content.split("\n")));
+		}
+		Assertions.assertEquals(List.of(builder.toString().split("\n")), lines);
+	}
+
+	@Test
+	void smallFile() throws Exception {
+		Path file = file("1,a,b\n");
+		Assertions.assertEquals(1, recordPartitioner().partition(file, 0, 16).size());
+		Assertions.assertEquals(1, recordPartitioner().partition(file, 6, 4).size());
+	}
+
+}
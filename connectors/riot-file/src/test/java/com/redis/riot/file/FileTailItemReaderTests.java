@@ -0,0 +1,143 @@
+package com.redis.riot.file;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.core.io.FileSystemResource;
+
+class FileTailItemReaderTests {
+
+	private static final String HEADER = "id,name\n";
+
+	@TempDir
+	Path directory;
+
+	private FileTailItemReader<Map<String, Object>> reader(Path file, Path stateFile) {
+		RecordLineMapper lineMapper = new RecordLineMapper(new DelimitedRecordParser());
+		lineMapper.setHeader("id,name");
+		FileTailItemReader<Map<String, Object>> reader = new FileTailItemReader<>(file, lineMapper);
+		reader.setLinesToSkip(1);
+		reader.setPollInterval(10);
+		reader.setStateFile(stateFile);
+		reader.open(new ExecutionContext());
+		return reader;
+	}
+
+	private static void append(Path file, String lines) throws Exception {
+		Files.writeString(file, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+	}
+
+	private static Object pollId(FileTailItemReader<Map<String, Object>> reader) throws Exception {
+		Map<String, Object> item = reader.poll(1, TimeUnit.SECONDS);
+		return item == null ? null : item.get("id");
+	}
+
+	private static void assertNoItem(FileTailItemReader<Map<String, Object>> reader) throws Exception {
+		Assertions.assertNull(reader.poll(50, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void append() throws Exception {
+		Path file = directory.resolve("events.csv");
+		append(file, HEADER + "1,\"one, uno\"\n2,two\n");
+		FileTailItemReader<Map<String, Object>> reader = reader(file, null);
+		try {
+			Map<String, Object> item = reader.poll(1, TimeUnit.SECONDS);
+			Assertions.assertEquals(Map.of("id", "1", "name", "one, uno"), item);
+			Assertions.assertEquals("2", pollId(reader));
+			assertNoItem(reader);
+			// Lines are only read once complete
+			append(file, "3,th");
+			assertNoItem(reader);
+			append(file, "ree\r\n");
+			Assertions.assertEquals(Map.of("id", "3", "name", "three"), reader.poll(1, TimeUnit.SECONDS));
+			assertNoItem(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	void rotation() throws Exception {
+		Path file = directory.resolve("events.csv");
+		append(file, HEADER + "1,one\n2,two\n");
+		FileTailItemReader<Map<String, Object>> reader = reader(file, null);
+		try {
+			Assertions.assertEquals("1", pollId(reader));
+			Assertions.assertEquals("2", pollId(reader));
+			Files.move(file, directory.resolve("events.csv.1"));
+			append(file, HEADER + "3,three\n");
+			Assertions.assertEquals("3", pollId(reader));
+			assertNoItem(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	void truncation() throws Exception {
+		Path file = directory.resolve("events.csv");
+		append(file, HEADER + "1,one\n2,two\n");
+		FileTailItemReader<Map<String, Object>> reader = reader(file, null);
+		try {
+			Assertions.assertEquals("1", pollId(reader));
+			Assertions.assertEquals("2", pollId(reader));
+			Files.writeString(file, HEADER + "3,c\n", StandardOpenOption.TRUNCATE_EXISTING);
+			Assertions.assertEquals("3", pollId(reader));
+			assertNoItem(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	void resume() throws Exception {
+		Path file = directory.resolve("events.csv");
+		Path stateFile = directory.resolve("events.state");
+		append(file, HEADER + "1,one\n2,two\n");
+		FileTailItemReader<Map<String, Object>> reader = reader(file, stateFile);
+		Assertions.assertEquals("1", pollId(reader));
+		Assertions.assertEquals("2", pollId(reader));
+		reader.update(new ExecutionContext());
+		reader.close();
+		Assertions.assertTrue(Files.exists(stateFile));
+		append(file, "3,three\n");
+		reader = reader(file, stateFile);
+		try {
+			Assertions.assertEquals("3", pollId(reader));
+			assertNoItem(reader);
+		} finally {
+			reader.close();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	void headerOfFileCreatedLater() throws Exception {
+		Path file = directory.resolve("events.csv");
+		FileReaderFactory factory = new FileReaderFactory();
+		factory.getArgs().setHeader(true);
+		LineMapper<Map<String, Object>> lineMapper = (LineMapper<Map<String, Object>>) factory
+				.lineMapper(new FileSystemResource(file));
+		FileTailItemReader<Map<String, Object>> reader = new FileTailItemReader<>(file, lineMapper);
+		reader.setLinesToSkip(factory.linesToSkip());
+		reader.setPollInterval(10);
+		reader.open(new ExecutionContext());
+		try {
+			assertNoItem(reader);
+			append(file, HEADER + "1,one\n");
+			Assertions.assertEquals(Map.of("id", "1", "name", "one"), reader.poll(1, TimeUnit.SECONDS));
+		} finally {
+			reader.close();
+		}
+	}
+
+}
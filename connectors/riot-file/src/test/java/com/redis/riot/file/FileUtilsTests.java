@@ -0,0 +1,90 @@
+package com.redis.riot.file;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileUtilsTests {
+
+	@TempDir
+	Path directory;
+
+	@BeforeEach
+	void createFiles() throws Exception {
+		for (String file : List.of("root.json", "root.csv", "a/a.json", "a/b/b.json", "a/b/c/c.json", "a/x/b/xb.json",
+				"a/x/b/y/xby.json", "a/x/y/b/xyb.json", "a/x/y/b/z/xybz.json", "d/d.json")) {
+			Path path = directory.resolve(file);
+			Files.createDirectories(path.getParent());
+			Files.createFile(path);
+		}
+	}
+
+	private List<String> expand(String glob) {
+		return FileUtils.expand(directory, Paths.get(glob)).stream().map(Path::toString)
+				.map(p -> p.replace(directory.getFileSystem().getSeparator(), "/")).collect(Collectors.toList());
+	}
+
+	private List<String> expandAbsolute(String glob) {
+		return FileUtils.expand(directory.resolve(glob)).stream().map(directory::relativize).map(Path::toString)
+				.map(p -> p.replace(directory.getFileSystem().getSeparator(), "/")).collect(Collectors.toList());
+	}
+
+	@Test
+	void existingFile() {
+		Assertions.assertEquals(List.of("a/a.json"), expand("a/a.json"));
+	}
+
+	@Test
+	void noMatch() {
+		Assertions.assertEquals(List.of("e/*.json"), expand("e/*.json"));
+		Assertions.assertEquals(List.of(), expand("a/*.csv"));
+	}
+
+	@Test
+	void directoryGlob() {
+		Assertions.assertEquals(List.of("root.csv", "root.json"), expand("root.*"));
+		Assertions.assertEquals(List.of("a/a.json"), expand("a/*.json"));
+		Assertions.assertEquals(List.of("a/a.json"), expandAbsolute("a/*.json"));
+	}
+
+	@Test
+	void recursiveGlob() {
+		List<String> files = List.of("a/a.json", "a/b/b.json", "a/b/c/c.json", "a/x/b/xb.json", "a/x/b/y/xby.json",
+				"a/x/y/b/xyb.json", "a/x/y/b/z/xybz.json");
+		Assertions.assertEquals(files, expand("a/**/*.json"));
+		Assertions.assertEquals(files, expandAbsolute("a/**/*.json"));
+	}
+
+	@Test
+	void recursiveGlobSegments() {
+		Assertions.assertEquals(List.of("a/b/b.json", "a/b/c/c.json", "a/x/b/xb.json", "a/x/b/y/xby.json",
+				"a/x/y/b/xyb.json", "a/x/y/b/z/xybz.json"), expand("a/**/b/**/*.json"));
+		Assertions.assertEquals(List.of("a/b/b.json", "a/x/b/xb.json", "a/x/y/b/xyb.json"), expand("a/**/b/*.json"));
+		Assertions.assertEquals(List.of("a/b/c/c.json", "a/x/b/y/xby.json", "a/x/y/b/z/xybz.json"),
+				expand("a/**/b/*/*.json"));
+	}
+
+	@Test
+	void relativeRecursiveGlob() {
+		Assertions.assertEquals(List.of("a/a.json", "a/b/b.json", "a/b/c/c.json", "a/x/b/xb.json", "a/x/b/y/xby.json",
+				"a/x/y/b/xyb.json", "a/x/y/b/z/xybz.json", "d/d.json", "root.json"), expand("**/*.json"));
+		Assertions.assertEquals(List.of("a/a.json", "d/d.json"), expand("*/*.json"));
+	}
+
+	@Test
+	void flatGlobs() {
+		Assertions.assertEquals(List.of("a/*.json", "a/**/*.json"), FileUtils.flatGlobs("a/**/*.json", "/"));
+		Assertions.assertEquals(List.of("/a/b/*.json", "/a/b/**/*.json", "/a/**/b/*.json", "/a/**/b/**/*.json"),
+				FileUtils.flatGlobs("/a/**/b/**/*.json", "/"));
+		Assertions.assertEquals(List.of("*.json", "**/*.json"), FileUtils.flatGlobs("**/*.json", "/"));
+		Assertions.assertEquals(List.of("a/**"), FileUtils.flatGlobs("a/**", "/"));
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.redis.riot.file;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+class ImportManifestTests {
+
+	@TempDir
+	Path directory;
+
+	private ImportManifest manifest(boolean hash) {
+		ImportManifest manifest = new ImportManifest(directory.resolve("manifest.json"));
+		manifest.setHash(hash);
+		manifest.load();
+		return manifest;
+	}
+
+	private static ImportManifest.Entry entry(ImportManifest manifest, Path file) {
+		return manifest.entry(file.toString(), new FileSystemResource(file));
+	}
+
+	private static void add(ImportManifest manifest, Path file, long count) {
+		ImportManifest.Entry entry = entry(manifest, file);
+		entry.setCount(count);
+		manifest.add(entry);
+	}
+
+	@Test
+	void skipUnchangedFiles() throws Exception {
+		Path file1 = Files.writeString(directory.resolve("file1.csv"), "id\n1\n");
+		Path file2 = Files.writeString(directory.resolve("file2.csv"), "id\n2\n");
+		ImportManifest manifest = manifest(false);
+		Assertions.assertFalse(manifest.isImported(entry(manifest, file1)));
+		Assertions.assertFalse(manifest.isImported(entry(manifest, file2)));
+		add(manifest, file1, 1);
+		add(manifest, file2, 1);
+		// Next run
+		manifest = manifest(false);
+		Assertions.assertTrue(manifest.isImported(entry(manifest, file1)));
+		Assertions.assertTrue(manifest.isImported(entry(manifest, file2)));
+		Files.writeString(file2, "3\n", StandardOpenOption.APPEND);
+		Assertions.assertTrue(manifest.isImported(entry(manifest, file1)));
+		Assertions.assertFalse(manifest.isImported(entry(manifest, file2)));
+		add(manifest, file2, 2);
+		// Run after the changed file was imported again
+		manifest = manifest(false);
+		Assertions.assertTrue(manifest.isImported(entry(manifest, file1)));
+		Assertions.assertTrue(manifest.isImported(entry(manifest, file2)));
+	}
+
+	@Test
+	void hashDetectsSameSizeChanges() throws Exception {
+		Path file = Files.writeString(directory.resolve("file.csv"), "id\n1\n");
+		FileTime lastModified = Files.getLastModifiedTime(file);
+		add(manifest(true), file, 1);
+		Files.writeString(file, "id\n2\n");
+		Files.setLastModifiedTime(file, lastModified);
+		ImportManifest manifest = manifest(false);
+		Assertions.assertTrue(manifest.isImported(entry(manifest, file)));
+		manifest = manifest(true);
+		Assertions.assertFalse(manifest.isImported(entry(manifest, file)));
+	}
+
+}
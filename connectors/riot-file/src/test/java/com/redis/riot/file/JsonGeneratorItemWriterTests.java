@@ -0,0 +1,96 @@
+package com.redis.riot.file;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class JsonGeneratorItemWriterTests {
+
+	@TempDir
+	Path directory;
+
+	private JsonGeneratorItemWriter<Object> writer(Path file, boolean lines) {
+		JsonGeneratorItemWriter<Object> writer = new JsonGeneratorItemWriter<>(new FileSystemResource(file),
+				new ObjectMapper());
+		writer.setLines(lines);
+		writer.setLineSeparator("\n");
+		return writer;
+	}
+
+	private static void writeInTransaction(JsonGeneratorItemWriter<Object> writer, boolean commit, Object... items)
+			throws Exception {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			writer.write(Chunk.of(items));
+			int status = commit ? TransactionSynchronization.STATUS_COMMITTED
+					: TransactionSynchronization.STATUS_ROLLED_BACK;
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager
+					.getSynchronizations()) {
+				synchronization.afterCompletion(status);
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void rolledBackChunksAreDropped() throws Exception {
+		Path file = directory.resolve("export.json");
+		JsonGeneratorItemWriter<Object> writer = writer(file, false);
+		writer.open(new ExecutionContext());
+		writeInTransaction(writer, false, 0, 1);
+		writeInTransaction(writer, true, 2, 3);
+		writeInTransaction(writer, false, 4);
+		writeInTransaction(writer, true, 5);
+		writer.close();
+		List<?> values = new ObjectMapper().readValue(file.toFile(), List.class);
+		Assertions.assertEquals(List.of(2, 3, 5), values);
+	}
+
+	@Test
+	void rolledBackLines() throws Exception {
+		Path file = directory.resolve("export.jsonl");
+		JsonGeneratorItemWriter<Object> writer = writer(file, true);
+		writer.open(new ExecutionContext());
+		writeInTransaction(writer, true, 0);
+		writeInTransaction(writer, false, 1);
+		writeInTransaction(writer, true, 2, 3);
+		writer.close();
+		Assertions.assertEquals(List.of("0", "2", "3"), Files.readAllLines(file));
+	}
+
+	@Test
+	void nonTransactional() throws Exception {
+		Path file = directory.resolve("export.jsonl");
+		JsonGeneratorItemWriter<Object> writer = writer(file, true);
+		writer.setTransactional(false);
+		writer.setForceSync(true);
+		writer.open(new ExecutionContext());
+		writeInTransaction(writer, false, 0, 1);
+		writer.close();
+		Assertions.assertEquals(List.of("0", "1"), Files.readAllLines(file));
+	}
+
+	@Test
+	void deleteIfEmpty() throws Exception {
+		Path file = directory.resolve("empty.json");
+		JsonGeneratorItemWriter<Object> writer = writer(file, false);
+		writer.setShouldDeleteIfEmpty(true);
+		writer.open(new ExecutionContext());
+		writeInTransaction(writer, false, 0);
+		writer.close();
+		Assertions.assertFalse(Files.exists(file));
+	}
+
+}
@@ -0,0 +1,126 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ParseException;
+
+class MappedDelimitedRecordSourceTests {
+
+	private static final String[] TOKENS = { "a", "bc", " ", ",", "\"", "\"\"", "\n", "\r", "\r\n", "\\", "||", "|",
+			"é", "日本", "#" };
+
+	@TempDir
+	Path directory;
+
+	private static List<String> parsed(DelimitedRecordParser parser, String content) throws IOException {
+		RecordInput input = new RecordInput(new StringReader(content), 8);
+		FieldBuffer fields = FieldBuffer.get();
+		List<String> records = new ArrayList<>();
+		while (parser.parse(input, fields)) {
+			records.add(values(fields) + "@" + input.getLineNumber());
+		}
+		return records;
+	}
+
+	private List<String> scanned(DelimitedRecordParser parser, String content, int segmentSize) throws IOException {
+		Path file = directory.resolve("records.csv");
+		Files.writeString(file, content, StandardCharsets.UTF_8);
+		List<String> records = new ArrayList<>();
+		try (MappedDelimitedRecordSource source = new MappedDelimitedRecordSource(file, null, StandardCharsets.UTF_8,
+				segmentSize, parser)) {
+			while (source.next()) {
+				records.add(values(source.fields()) + "@" + source.getLineNumber());
+			}
+		}
+		return records;
+	}
+
+	private static String values(RecordFields fields) {
+		List<String> values = new ArrayList<>();
+		for (int index = 0; index < fields.getFieldCount(); index++) {
+			values.add(fields.value(index));
+		}
+		return values.toString();
+	}
+
+	private void assertSameRecords(DelimitedRecordParser parser, String content) throws IOException {
+		List<String> expected = parsed(parser, content);
+		Assertions.assertEquals(expected, scanned(parser, content, Integer.MAX_VALUE), content);
+		Assertions.assertEquals(expected, scanned(parser, content, 64), content);
+	}
+
+	@Test
+	void quotedFields() throws IOException {
+		String content = "id,name\n1,\"Doe, \"\"J\"\"\"\r\n2, \"multi\r\nline\" \n3,\"a\"b,\"\"\n4,é日本";
+		assertSameRecords(new DelimitedRecordParser(), content);
+		Assertions.assertEquals("[1, Doe, \"J\"]@2", scanned(new DelimitedRecordParser(), content, 64).get(1));
+	}
+
+	@Test
+	void continuationAndMultiCharacterDelimiter() throws IOException {
+		DelimitedRecordParser parser = new DelimitedRecordParser();
+		parser.setDelimiter("||");
+		parser.setContinuationString("\\");
+		assertSameRecords(parser, "a||b \\ \n c||\"d||e\"\r\nf|g||\\\rh\n");
+	}
+
+	@Test
+	void unterminatedQuote() {
+		Assertions.assertThrows(ParseException.class,
+				() -> scanned(new DelimitedRecordParser(), "a,b\nc,\"d\n", Integer.MAX_VALUE));
+	}
+
+	@Test
+	void recordLargerThanSegment() {
+		Assertions.assertThrows(ParseException.class,
+				() -> scanned(new DelimitedRecordParser(), "a,\"" + "b".repeat(100) + "\"\n", 32));
+	}
+
+	@Test
+	void sameRecordsAsParser() throws IOException {
+		Random random = new Random(42);
+		for (int iteration = 0; iteration < 500; iteration++) {
+			StringBuilder content = new StringBuilder();
+			int length = random.nextInt(80);
+			for (int index = 0; index < length; index++) {
+				content.append(TOKENS[random.nextInt(TOKENS.length)]);
+			}
+			DelimitedRecordParser parser = new DelimitedRecordParser();
+			if (random.nextBoolean()) {
+				parser.setDelimiter("||");
+			}
+			if (random.nextBoolean()) {
+				parser.setContinuationString("\\");
+			}
+			List<String> expected;
+			try {
+				expected = parsed(parser, content.toString());
+			} catch (ParseException e) {
+				String input = content.toString();
+				Assertions.assertThrows(ParseException.class, () -> scanned(parser, input, Integer.MAX_VALUE), input);
+				continue;
+			}
+			Assertions.assertEquals(expected, scanned(parser, content.toString(), Integer.MAX_VALUE),
+					content.toString());
+			List<String> segmented;
+			try {
+				segmented = scanned(parser, content.toString(), 64);
+			} catch (ParseException e) {
+				Assertions.assertTrue(e.getMessage().startsWith("Record exceeds segment size"), e.getMessage());
+				continue;
+			}
+			Assertions.assertEquals(expected, segmented, content.toString());
+		}
+	}
+
+}
@@ -0,0 +1,214 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class OrderedFileItemWriterTests {
+
+	private static final String LINE_SEPARATOR = "\n";
+
+	@TempDir
+	Path directory;
+
+	private static ChunkSerializer<String> lines() {
+		return (chunk, outputStream) -> {
+			for (String item : chunk) {
+				outputStream.write((item + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8));
+			}
+		};
+	}
+
+	@Test
+	void concurrentWritesKeepOrder() throws Exception {
+		Path file = directory.resolve("ordered.txt");
+		CountDownLatch firstEntered = new CountDownLatch(1);
+		CountDownLatch othersWritten = new CountDownLatch(1);
+		ChunkSerializer<String> serializer = (chunk, outputStream) -> {
+			if (chunk.getItems().get(0).equals("0")) {
+				// First chunk is serialized last
+				firstEntered.countDown();
+				await(othersWritten);
+			}
+			lines().serialize(chunk, outputStream);
+		};
+		OrderedFileItemWriter<String> writer = new OrderedFileItemWriter<>(new FileSystemResource(file), serializer);
+		writer.setMaxPending(10);
+		writer.setTransactional(false);
+		writer.open(new ExecutionContext());
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<?> first = executor.submit(() -> write(writer, "0"));
+			await(firstEntered);
+			for (int index = 1; index < 4; index++) {
+				String item = String.valueOf(index);
+				// Each chunk is handed over before the next one is written
+				executor.submit(() -> write(writer, item)).get(10, TimeUnit.SECONDS);
+			}
+			othersWritten.countDown();
+			first.get(10, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+		writer.close();
+		Assertions.assertEquals(List.of("0", "1", "2", "3"), Files.readAllLines(file));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Void write(OrderedFileItemWriter<String> writer, String... items) {
+		try {
+			writer.write(Chunk.of(items));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	void jsonArraySeparators() throws Exception {
+		Path file = directory.resolve("records.json");
+		JsonChunkSerializer<Object> serializer = new JsonChunkSerializer<>(new ObjectMapper(), StandardCharsets.UTF_8,
+				LINE_SEPARATOR, false);
+		OrderedFileItemWriter<Object> writer = new OrderedFileItemWriter<>(new FileSystemResource(file), serializer);
+		writer.setHeader("[".getBytes(StandardCharsets.UTF_8));
+		writer.setFooter("]".getBytes(StandardCharsets.UTF_8));
+		writer.setSeparator(serializer.getChunkSeparator().getBytes(StandardCharsets.UTF_8));
+		writer.open(new ExecutionContext());
+		// First chunk is rolled back, so the first committed chunk must not start
+		// with a separator
+		writeInTransaction(writer, false, 0, 1);
+		writeInTransaction(writer, true, 2, 3);
+		writeInTransaction(writer, true, 4);
+		writeInTransaction(writer, false, 5);
+		writeInTransaction(writer, true, 6, 7);
+		writer.close();
+		List<Integer> values = new ObjectMapper().readValue(file.toFile(), List.class);
+		Assertions.assertEquals(List.of(2, 3, 4, 6, 7), values);
+	}
+
+	private void writeInTransaction(OrderedFileItemWriter<Object> writer, boolean commit, Object... items)
+			throws Exception {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			writer.write(Chunk.of(items));
+			int status = commit ? TransactionSynchronization.STATUS_COMMITTED
+					: TransactionSynchronization.STATUS_ROLLED_BACK;
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager
+					.getSynchronizations()) {
+				synchronization.afterCompletion(status);
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void ioErrorIsPropagated() throws Exception {
+		WritableResource resource = new FailingResource();
+		OrderedFileItemWriter<String> writer = new OrderedFileItemWriter<>(resource, lines());
+		writer.setTransactional(false);
+		writer.open(new ExecutionContext());
+		List<Exception> errors = new ArrayList<>();
+		try {
+			for (int index = 0; index < 100; index++) {
+				writer.write(Chunk.of("item" + index));
+			}
+		} catch (Exception e) {
+			errors.add(e);
+		}
+		ItemStreamException exception = Assertions.assertThrows(ItemStreamException.class, writer::close);
+		Assertions.assertInstanceOf(IOException.class, exception.getCause());
+		errors.forEach(e -> Assertions.assertInstanceOf(IOException.class, e));
+	}
+
+	@Test
+	void appendDoesNotRewriteHeader() throws Exception {
+		Path file = directory.resolve("append.csv");
+		for (int run = 0; run < 2; run++) {
+			OrderedFileItemWriter<String> writer = new OrderedFileItemWriter<>(new FileSystemResource(file), lines());
+			writer.setHeader(("id" + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8));
+			writer.setAppend(true);
+			writer.setTransactional(false);
+			writer.open(new ExecutionContext());
+			writer.write(Chunk.of(String.valueOf(run)));
+			writer.close();
+		}
+		Assertions.assertEquals(List.of("id", "0", "1"), Files.readAllLines(file));
+	}
+
+	@Test
+	void deleteIfEmpty() throws Exception {
+		Path file = directory.resolve("empty.csv");
+		OrderedFileItemWriter<String> writer = new OrderedFileItemWriter<>(new FileSystemResource(file), lines());
+		writer.setHeader(("id" + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8));
+		writer.setShouldDeleteIfEmpty(true);
+		writer.open(new ExecutionContext());
+		writer.close();
+		Assertions.assertFalse(Files.exists(file));
+	}
+
+	private static class FailingResource extends AbstractResource implements WritableResource {
+
+		@Override
+		public OutputStream getOutputStream() {
+			return new OutputStream() {
+
+				@Override
+				public void write(int b) throws IOException {
+					throw new IOException("Disk full");
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					throw new IOException("Disk full");
+				}
+
+			};
+		}
+
+		@Override
+		public String getDescription() {
+			return "failing resource";
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			throw new IOException("Not readable");
+		}
+
+	}
+
+}
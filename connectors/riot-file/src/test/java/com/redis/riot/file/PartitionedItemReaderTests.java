@@ -0,0 +1,236 @@
+package com.redis.riot.file;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ParseException;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.FileSystemResource;
+
+class PartitionedItemReaderTests {
+
+	private static final int PARTITIONS = 4;
+
+	@TempDir
+	Path directory;
+
+	private static <T> List<T> readAll(ItemStreamReader<T> reader) throws Exception {
+		List<T> items = new ArrayList<>();
+		reader.open(new ExecutionContext());
+		try {
+			T item;
+			while ((item = reader.read()) != null) {
+				items.add(item);
+			}
+		} finally {
+			reader.close();
+		}
+		return items;
+	}
+
+	private static List<Integer> range(int from, int to) {
+		return IntStream.range(from, to).boxed().collect(Collectors.toList());
+	}
+
+	@Test
+	void everyItemReadOnce() throws Exception {
+		List<ItemStreamReader<Integer>> delegates = new ArrayList<>();
+		for (int index = 0; index < PARTITIONS; index++) {
+			delegates.add(new IteratorItemReader<>(range(index * 1000, (index + 1) * 1000), -1, null));
+		}
+		PartitionedItemReader<Integer> reader = new PartitionedItemReader<>(delegates);
+		reader.setName("partitioned-reader");
+		reader.setQueueCapacity(10);
+		List<Integer> items = readAll(reader);
+		items.sort(null);
+		Assertions.assertEquals(range(0, PARTITIONS * 1000), items);
+	}
+
+	@Test
+	void maxItemCount() throws Exception {
+		List<ItemStreamReader<Integer>> delegates = new ArrayList<>();
+		for (int index = 0; index < PARTITIONS; index++) {
+			delegates.add(new IteratorItemReader<>(range(index * 1000, (index + 1) * 1000), -1, null));
+		}
+		PartitionedItemReader<Integer> reader = new PartitionedItemReader<>(delegates);
+		reader.setName("partitioned-reader");
+		reader.setMaxItemCount(100);
+		Assertions.assertEquals(100, readAll(reader).size());
+	}
+
+	@Test
+	void parseErrorsAreReturned() throws Exception {
+		List<ItemStreamReader<Integer>> delegates = new ArrayList<>();
+		delegates.add(new IteratorItemReader<>(range(0, 100), 50, new ParseException("Bad record")));
+		delegates.add(new IteratorItemReader<>(range(100, 200), -1, null));
+		PartitionedItemReader<Integer> reader = new PartitionedItemReader<>(delegates);
+		reader.setName("partitioned-reader");
+		reader.open(new ExecutionContext());
+		List<Integer> items = new ArrayList<>();
+		int errors = 0;
+		try {
+			while (true) {
+				try {
+					Integer item = reader.read();
+					if (item == null) {
+						break;
+					}
+					items.add(item);
+				} catch (ParseException e) {
+					errors++;
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		Assertions.assertEquals(1, errors);
+		items.sort(null);
+		// The item that failed to parse is skipped and the partition carries on
+		List<Integer> expected = range(0, 200);
+		expected.remove(Integer.valueOf(50));
+		Assertions.assertEquals(expected, items);
+	}
+
+	@Test
+	void failuresStopPartition() throws Exception {
+		List<ItemStreamReader<Integer>> delegates = new ArrayList<>();
+		delegates.add(new IteratorItemReader<>(range(0, 100), 50, new IllegalStateException("Broken partition")));
+		delegates.add(new IteratorItemReader<>(range(100, 200), -1, null));
+		PartitionedItemReader<Integer> reader = new PartitionedItemReader<>(delegates);
+		reader.setName("partitioned-reader");
+		IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class,
+				() -> readAll(reader));
+		Assertions.assertEquals("Broken partition", exception.getMessage());
+	}
+
+	private FileReaderFactory factory() {
+		FileReaderFactory factory = new FileReaderFactory();
+		factory.getArgs().setPartitions(PARTITIONS);
+		return factory;
+	}
+
+	private Path csv(int count, int badRecord) throws Exception {
+		StringBuilder builder = new StringBuilder("id,name,description\r\n");
+		for (int index = 0; index < count; index++) {
+			if (index == badRecord) {
+				builder.append(index).append(",missing description\r\n");
+			} else {
+				builder.append(index).append(",\"name ").append(index).append("\",\"line one\r\nline two\"\r\n");
+			}
+		}
+		Path file = directory.resolve("file.csv");
+		Files.write(file, builder.toString().getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ItemStreamReader<Map<String, Object>> partitionedReader(ItemReader<?> reader) {
+		Assertions.assertInstanceOf(PartitionedItemReader.class, reader);
+		return (ItemStreamReader<Map<String, Object>>) reader;
+	}
+
+	@Test
+	void headerOnlyInFirstPartition() throws Exception {
+		Path file = csv(500, -1);
+		FileReaderFactory factory = factory();
+		factory.getArgs().setHeader(true);
+		List<Map<String, Object>> records = readAll(
+				partitionedReader(factory.create(new FileSystemResource(file))));
+		Assertions.assertEquals(500, records.size());
+		List<Integer> ids = new ArrayList<>();
+		for (Map<String, Object> record : records) {
+			Assertions.assertEquals("name " + record.get("id"), record.get("name"));
+			Assertions.assertEquals("line one\r\nline two", record.get("description"));
+			ids.add(Integer.parseInt((String) record.get("id")));
+		}
+		ids.sort(null);
+		Assertions.assertEquals(range(0, 500), ids);
+	}
+
+	@Test
+	void parseErrorsFromWorkers() throws Exception {
+		Path file = csv(500, 321);
+		FileReaderFactory factory = factory();
+		factory.getArgs().setHeader(true);
+		ItemStreamReader<Map<String, Object>> reader = partitionedReader(factory.create(new FileSystemResource(file)));
+		reader.open(new ExecutionContext());
+		int count = 0;
+		FlatFileParseException error = null;
+		try {
+			while (true) {
+				try {
+					if (reader.read() == null) {
+						break;
+					}
+					count++;
+				} catch (FlatFileParseException e) {
+					error = e;
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		Assertions.assertNotNull(error);
+		Assertions.assertTrue(error.getInput().contains("missing description"));
+		Assertions.assertEquals(499, count);
+	}
+
+	@Test
+	void jsonLines() throws Exception {
+		StringBuilder builder = new StringBuilder();
+		for (int index = 0; index < 500; index++) {
+			builder.append("{\"id\":").append(index).append(",\"name\":\"a \\\" quote\"}\n");
+		}
+		Path file = directory.resolve("file.jsonl");
+		Files.write(file, builder.toString().getBytes(StandardCharsets.UTF_8));
+		List<Map<String, Object>> records = readAll(
+				partitionedReader(factory().create(new FileSystemResource(file))));
+		List<Integer> ids = new ArrayList<>();
+		for (Map<String, Object> record : records) {
+			Assertions.assertEquals("a \" quote", record.get("name"));
+			ids.add(((Number) record.get("id")).intValue());
+		}
+		ids.sort(null);
+		Assertions.assertEquals(range(0, 500), ids);
+	}
+
+	private static class IteratorItemReader<T> implements ItemStreamReader<T> {
+
+		private final Iterator<T> iterator;
+		private final T failingItem;
+		private final RuntimeException exception;
+
+		public IteratorItemReader(List<T> items, int failingIndex, RuntimeException exception) {
+			this.iterator = items.iterator();
+			this.failingItem = failingIndex < 0 ? null : items.get(failingIndex);
+			this.exception = exception;
+		}
+
+		@Override
+		public T read() {
+			if (!iterator.hasNext()) {
+				return null;
+			}
+			T item = iterator.next();
+			if (item.equals(failingItem)) {
+				throw exception;
+			}
+			return item;
+		}
+
+	}
+
+}
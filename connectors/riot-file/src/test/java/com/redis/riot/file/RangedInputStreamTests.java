@@ -0,0 +1,132 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class RangedInputStreamTests {
+
+	private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+	private final byte[] data = new byte[1024 * 1024 + 123];
+	private final AtomicInteger rangeRequests = new AtomicInteger();
+	private final AtomicInteger headRequests = new AtomicInteger();
+
+	private volatile String eTag = "\"v1\"";
+
+	private HttpServer server;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		new Random(42).nextBytes(data);
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/ranged", exchange -> handle(exchange, true));
+		server.createContext("/plain", exchange -> handle(exchange, false));
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	private void handle(HttpExchange exchange, boolean acceptRanges) throws IOException {
+		if (acceptRanges) {
+			exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+		}
+		exchange.getResponseHeaders().add("ETag", eTag);
+		if ("HEAD".equals(exchange.getRequestMethod())) {
+			headRequests.incrementAndGet();
+			exchange.getResponseHeaders().add("Content-Length", String.valueOf(data.length));
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+			return;
+		}
+		String range = exchange.getRequestHeaders().getFirst("Range");
+		Matcher matcher = range == null ? null : RANGE.matcher(range);
+		String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+		if (!acceptRanges || matcher == null || !matcher.matches() || (ifRange != null && !ifRange.equals(eTag))) {
+			exchange.sendResponseHeaders(200, data.length);
+			try (OutputStream outputStream = exchange.getResponseBody()) {
+				outputStream.write(data);
+			}
+			return;
+		}
+		rangeRequests.incrementAndGet();
+		int start = Integer.parseInt(matcher.group(1));
+		int end = Integer.parseInt(matcher.group(2));
+		exchange.sendResponseHeaders(206, end - start + 1);
+		try (OutputStream outputStream = exchange.getResponseBody()) {
+			outputStream.write(data, start, end - start + 1);
+		}
+	}
+
+	private URL url(String path) throws IOException {
+		return new URL("http://localhost:" + server.getAddress().getPort() + path);
+	}
+
+	@Test
+	void readRanges() throws IOException {
+		HttpRangeFetcher fetcher = new HttpRangeFetcher(url("/ranged"));
+		long size = fetcher.size();
+		Assertions.assertEquals(data.length, size);
+		int partSize = 64 * 1024;
+		try (InputStream inputStream = new RangedInputStream(fetcher, size, partSize, 4)) {
+			Assertions.assertArrayEquals(data, inputStream.readAllBytes());
+		}
+		Assertions.assertEquals((data.length + partSize - 1) / partSize, rangeRequests.get());
+	}
+
+	@Test
+	void rangesNotSupported() throws IOException {
+		Assertions.assertEquals(-1, new HttpRangeFetcher(url("/plain")).size());
+	}
+
+	@Test
+	void resource() throws IOException {
+		FileReaderArgs args = new FileReaderArgs();
+		args.setDownloadPartSize(DataSize.ofKilobytes(100));
+		try (InputStream inputStream = args.resource(url("/ranged").toString()).getInputStream()) {
+			Assertions.assertArrayEquals(data, inputStream.readAllBytes());
+		}
+		Assertions.assertTrue(rangeRequests.get() > 1);
+	}
+
+	@Test
+	void changedObject() throws IOException {
+		HttpRangeFetcher fetcher = new HttpRangeFetcher(url("/ranged"));
+		fetcher.size();
+		Assertions.assertEquals(100, fetcher.fetch(0, 100).length);
+		eTag = "\"v2\"";
+		Assertions.assertThrows(IOException.class, () -> fetcher.fetch(0, 100));
+	}
+
+	@Test
+	void lazySize() throws IOException {
+		FileReaderArgs args = new FileReaderArgs();
+		args.setDownloadPartSize(DataSize.ofKilobytes(100));
+		Resource resource = args.resource(url("/ranged").toString());
+		Assertions.assertEquals(0, headRequests.get());
+		try (InputStream inputStream = resource.getInputStream()) {
+			Assertions.assertArrayEquals(data, inputStream.readAllBytes());
+		}
+		Assertions.assertEquals(1, headRequests.get());
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.redis.riot.file;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ParseException;
+import org.springframework.batch.item.file.transform.IncorrectLineLengthException;
+import org.springframework.batch.item.file.transform.Range;
+
+class RecordParserTests {
+
+	private static List<List<String>> parse(RecordParser parser, String input) throws IOException {
+		// Small buffer so that records straddle buffer refills
+		RecordInput recordInput = new RecordInput(new StringReader(input), 4);
+		FieldBuffer fields = FieldBuffer.get();
+		List<List<String>> records = new ArrayList<>();
+		while (parser.parse(recordInput, fields)) {
+			List<String> values = new ArrayList<>();
+			for (int index = 0; index < fields.getFieldCount(); index++) {
+				values.add(fields.value(index));
+			}
+			records.add(values);
+		}
+		return records;
+	}
+
+	private static List<String> record(String... values) {
+		return Arrays.asList(values);
+	}
+
+	@Test
+	void quotedFields() throws IOException {
+		Assertions.assertEquals(List.of(record("a", "b,c", "d"), record("", "e", "")),
+				parse(new DelimitedRecordParser(), "a,\"b,c\",d\n,e,\n"));
+	}
+
+	@Test
+	void escapedQuotes() throws IOException {
+		Assertions.assertEquals(List.of(record("say \"hi\"", "\"")),
+				parse(new DelimitedRecordParser(), "\"say \"\"hi\"\"\",\"\"\"\""));
+	}
+
+	@Test
+	void quotedLineBreaks() throws IOException {
+		Assertions.assertEquals(List.of(record("line1\nline2", "b"), record("line3\nline4", "d")),
+				parse(new DelimitedRecordParser(), "\"line1\nline2\",b\n\"line3\r\nline4\",d"));
+	}
+
+	@Test
+	void crlf() throws IOException {
+		Assertions.assertEquals(List.of(record("a", "b"), record("c", "d"), record("e", "f")),
+				parse(new DelimitedRecordParser(), "a,b\r\nc,d\re,f\r\n"));
+	}
+
+	@Test
+	void unterminatedQuote() {
+		DelimitedRecordParser parser = new DelimitedRecordParser();
+		ParseException exception = Assertions.assertThrows(ParseException.class,
+				() -> parse(parser, "a,b\nc,\"d\n"));
+		Assertions.assertEquals("Unexpected end of file before record complete", exception.getMessage());
+	}
+
+	@Test
+	void multiCharacterDelimiter() throws IOException {
+		DelimitedRecordParser parser = new DelimitedRecordParser();
+		parser.setDelimiter("||");
+		Assertions.assertEquals(List.of(record("a", "b|c", "d||e"), record("f", "")),
+				parse(parser, "a||b|c||\"d||e\"\nf||\n"));
+	}
+
+	@Test
+	void customQuoteCharacter() throws IOException {
+		DelimitedRecordParser parser = new DelimitedRecordParser();
+		parser.setDelimiter("\t");
+		parser.setQuoteCharacter('\'');
+		Assertions.assertEquals(List.of(record("a\tb", "c\"d")), parse(parser, "'a\tb'\tc\"d"));
+	}
+
+	@Test
+	void continuation() throws IOException {
+		DelimitedRecordParser parser = new DelimitedRecordParser();
+		parser.setContinuationString("\\");
+		Assertions.assertEquals(List.of(record("a", "b", "c"), record("d", "e\\f")),
+				parse(parser, "a,b\\\n,c\nd,e\\f\n"));
+	}
+
+	@Test
+	void fixedLengthRanges() throws IOException {
+		FixedLengthRecordParser parser = new FixedLengthRecordParser(new Range(1, 3), new Range(4, 6), new Range(7));
+		Assertions.assertEquals(List.of(record("abc", "def", "ghij"), record("123", "456", "7")),
+				parse(parser, "abcdefghij\r\n1234567\n"));
+	}
+
+	@Test
+	void fixedLengthStrict() {
+		FixedLengthRecordParser parser = new FixedLengthRecordParser(new Range(1, 3), new Range(4, 6));
+		Assertions.assertThrows(IncorrectLineLengthException.class, () -> parse(parser, "abcd\n"));
+		Assertions.assertThrows(IncorrectLineLengthException.class, () -> parse(parser, "abcdefg\n"));
+	}
+
+	@Test
+	void fixedLengthLenient() throws IOException {
+		FixedLengthRecordParser parser = new FixedLengthRecordParser(new Range(1, 3), new Range(4, 6));
+		parser.setStrict(false);
+		Assertions.assertEquals(List.of(record("abc", "d"), record("ab", "")), parse(parser, "abcd\nab\n"));
+	}
+
+	@Test
+	void fixedLengthContinuation() throws IOException {
+		FixedLengthRecordParser parser = new FixedLengthRecordParser(new Range(1, 3), new Range(4, 6));
+		parser.setContinuationString("&");
+		Assertions.assertEquals(List.of(record("abc", "def")), parse(parser, "ab&\ncdef\n"));
+	}
+
+	@Test
+	void lineMapperIncludedFields() throws Exception {
+		RecordLineMapper mapper = new RecordLineMapper(new DelimitedRecordParser());
+		mapper.setIncludedFields(Set.of(0, 2));
+		mapper.setHeader("id,name,city");
+		Assertions.assertArrayEquals(new String[] { "id", "city" }, mapper.getNames());
+		Assertions.assertEquals(Map.of("id", "1", "city", "Paris, France"),
+				mapper.mapLine("1,\"Ann \"\"A\"\"\",\"Paris, France\"", 2));
+	}
+
+	@Test
+	void lineMapperFixedLength() throws Exception {
+		RecordLineMapper mapper = new RecordLineMapper(
+				new FixedLengthRecordParser(new Range(1, 2), new Range(3, 5)));
+		mapper.setNames("state", "zip");
+		Assertions.assertEquals(Map.of("state", "CA", "zip", "940"), mapper.mapLine("CA940", 1));
+	}
+
+}
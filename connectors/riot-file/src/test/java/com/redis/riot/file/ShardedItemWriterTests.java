@@ -0,0 +1,155 @@
+package com.redis.riot.file;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.WritableResource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ShardedItemWriterTests {
+
+	private static final int CHUNK_SIZE = 50;
+
+	@TempDir
+	Path directory;
+
+	private ShardedItemWriter<Map<String, Object>> writer() {
+		String location = directory.resolve("export.jsonl").toString();
+		return new ShardedItemWriter<>(location, file -> new FileSystemResource(file), this::jsonLinesWriter);
+	}
+
+	private JsonGeneratorItemWriter<Map<String, Object>> jsonLinesWriter(WritableResource resource) {
+		JsonGeneratorItemWriter<Map<String, Object>> writer = new JsonGeneratorItemWriter<>(resource,
+				new ObjectMapper());
+		writer.setLines(true);
+		writer.setLineSeparator("\n");
+		return writer;
+	}
+
+	private static void write(ShardedItemWriter<Map<String, Object>> writer, int count) throws Exception {
+		writer.open(new ExecutionContext());
+		List<Map<String, Object>> items = new ArrayList<>();
+		for (int index = 0; index < count; index++) {
+			items.add(Map.of("id", index, "shard", index % 3, "value", "value" + index));
+			if (items.size() == CHUNK_SIZE) {
+				writer.write(new Chunk<>(items));
+				items.clear();
+			}
+		}
+		writer.write(new Chunk<>(items));
+		writer.setCompleted(true);
+		writer.close();
+	}
+
+	private JsonNode manifest() throws Exception {
+		return new ObjectMapper().readTree(directory.resolve("export" + ShardedItemWriter.MANIFEST_SUFFIX).toFile());
+	}
+
+	private static long lineCount(String location) throws Exception {
+		try (var lines = Files.lines(Path.of(location))) {
+			return lines.count();
+		}
+	}
+
+	@Test
+	void rolloverByItemCount() throws Exception {
+		ShardedItemWriter<Map<String, Object>> writer = writer();
+		writer.setMaxItemCount(120);
+		write(writer, 500);
+		JsonNode files = manifest().get("files");
+		Assertions.assertEquals(5, files.size());
+		long total = 0;
+		for (int index = 0; index < files.size(); index++) {
+			JsonNode file = files.get(index);
+			String location = file.get("location").asText();
+			Assertions.assertEquals(directory.resolve(String.format("export-%05d.jsonl", index)).toString(), location);
+			long count = file.get("count").asLong();
+			Assertions.assertEquals(index < 4 ? 120 : 20, count);
+			Assertions.assertEquals(count, lineCount(location));
+			Assertions.assertEquals(Files.size(Path.of(location)), file.get("size").asLong());
+			total += count;
+		}
+		Assertions.assertEquals(500, total);
+	}
+
+	@Test
+	void rolloverBySizeCountsBufferedBytes() throws Exception {
+		ShardedItemWriter<Map<String, Object>> writer = writer();
+		long maxSize = 4096;
+		writer.setMaxSize(maxSize);
+		write(writer, 2000);
+		JsonNode files = manifest().get("files");
+		Assertions.assertTrue(files.size() > 1);
+		long total = 0;
+		for (int index = 0; index < files.size(); index++) {
+			JsonNode file = files.get(index);
+			long size = Files.size(Path.of(file.get("location").asText()));
+			Assertions.assertEquals(size, file.get("size").asLong());
+			if (index < files.size() - 1) {
+				// Sizes are checked between chunks so a file exceeds the limit by less than a chunk
+				Assertions.assertTrue(size >= maxSize);
+				Assertions.assertTrue(size < 2 * maxSize);
+			}
+			total += file.get("count").asLong();
+		}
+		Assertions.assertEquals(2000, total);
+	}
+
+	@Test
+	void shards() throws Exception {
+		ShardedItemWriter<Map<String, Object>> writer = writer();
+		writer.setShardFunction(item -> String.valueOf(item.get("shard")));
+		writer.setMaxItemCount(100);
+		write(writer, 300);
+		JsonNode manifest = manifest();
+		Assertions.assertEquals(directory.resolve("export.jsonl").toString(), manifest.get("location").asText());
+		JsonNode files = manifest.get("files");
+		Assertions.assertEquals(3, files.size());
+		for (JsonNode file : files) {
+			String shard = file.get("shard").asText();
+			String location = file.get("location").asText();
+			Assertions.assertEquals(directory.resolve("export-" + shard + "-00000.jsonl").toString(), location);
+			Assertions.assertEquals(100, file.get("count").asLong());
+			ObjectMapper mapper = new ObjectMapper();
+			for (String line : Files.readAllLines(Path.of(location))) {
+				Assertions.assertEquals(shard, mapper.readTree(line).get("shard").asText());
+			}
+		}
+	}
+
+	@Test
+	void maxShards() throws Exception {
+		ShardedItemWriter<Map<String, Object>> writer = writer();
+		writer.setShardFunction(item -> String.valueOf(item.get("shard")));
+		writer.setMaxShards(2);
+		Assertions.assertThrows(ItemStreamException.class, () -> write(writer, 10));
+	}
+
+	@Test
+	void noManifestUnlessCompleted() throws Exception {
+		ShardedItemWriter<Map<String, Object>> writer = writer();
+		writer.setMaxItemCount(100);
+		writer.open(new ExecutionContext());
+		List<Map<String, Object>> items = new ArrayList<>();
+		for (int index = 0; index < 150; index++) {
+			items.add(Map.of("id", index));
+		}
+		writer.write(new Chunk<>(items));
+		writer.close();
+		Assertions.assertTrue(Files.exists(directory.resolve("export-00000.jsonl")));
+		Assertions.assertFalse(Files.exists(directory.resolve("export" + ShardedItemWriter.MANIFEST_SUFFIX)));
+	}
+
+}
@@ -0,0 +1,157 @@
+package com.redis.riot.file.parquet;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.LocalOutputFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+
+import com.redis.riot.file.FileRange;
+
+class ParquetTests {
+
+	private static final int COUNT = 3000;
+
+	@TempDir
+	Path directory;
+
+	private Map<String, Object> record(int index) {
+		Map<String, Object> record = new HashMap<>();
+		record.put("id", String.valueOf(index));
+		record.put("zip", String.format("%05d", index));
+		record.put("score", index + ".5");
+		record.put("active", String.valueOf(index % 2 == 0));
+		record.put("name", "name" + index);
+		return record;
+	}
+
+	private Path write(List<Map<String, Object>> records, long rowGroupSize) throws Exception {
+		return write(records, rowGroupSize, false);
+	}
+
+	private Path write(List<Map<String, Object>> records, long rowGroupSize, boolean lenient) throws Exception {
+		Path file = directory.resolve("records.parquet");
+		Files.deleteIfExists(file);
+		ParquetItemWriter writer = new ParquetItemWriter(new LocalOutputFile(file));
+		writer.setRowGroupSize(rowGroupSize);
+		writer.setLenient(lenient);
+		writer.open(new ExecutionContext());
+		try {
+			for (int index = 0; index < records.size(); index += 100) {
+				writer.write(new Chunk<>(records.subList(index, Math.min(index + 100, records.size()))));
+			}
+		} finally {
+			writer.close();
+		}
+		return file;
+	}
+
+	private List<Map<String, Object>> read(InputFile inputFile, FileRange range) throws Exception {
+		ParquetItemReader reader = new ParquetItemReader(inputFile);
+		reader.setRange(range);
+		reader.open(new ExecutionContext());
+		List<Map<String, Object>> records = new ArrayList<>();
+		try {
+			Map<String, Object> record;
+			while ((record = reader.read()) != null) {
+				records.add(record);
+			}
+		} finally {
+			reader.close();
+		}
+		return records;
+	}
+
+	private List<Map<String, Object>> records() {
+		List<Map<String, Object>> records = new ArrayList<>();
+		for (int index = 0; index < COUNT; index++) {
+			records.add(record(index));
+		}
+		return records;
+	}
+
+	@Test
+	void roundTrip() throws Exception {
+		List<Map<String, Object>> records = records();
+		// Value that does not match the schema inferred from the sample
+		records.get(COUNT - 1).put("id", "abc");
+		Path file = write(records, ParquetItemWriter.DEFAULT_ROW_GROUP_SIZE, true);
+		List<Map<String, Object>> result = read(new LocalInputFile(file), null);
+		Assertions.assertEquals(COUNT, result.size());
+		Map<String, Object> first = result.get(1);
+		Assertions.assertEquals(1L, first.get("id"));
+		Assertions.assertEquals("00001", first.get("zip"));
+		Assertions.assertEquals(1.5, first.get("score"));
+		Assertions.assertEquals(false, first.get("active"));
+		Assertions.assertEquals("name1", first.get("name"));
+		Map<String, Object> last = result.get(COUNT - 1);
+		Assertions.assertFalse(last.containsKey("id"));
+		Assertions.assertEquals("name" + (COUNT - 1), last.get("name"));
+	}
+
+	@Test
+	void mismatchedValueFails() {
+		List<Map<String, Object>> records = records();
+		records.get(COUNT - 1).put("id", "abc");
+		IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+				() -> write(records, ParquetItemWriter.DEFAULT_ROW_GROUP_SIZE));
+		Assertions.assertTrue(exception.getMessage().contains("--schema-sample"), exception.getMessage());
+	}
+
+	@Test
+	void unknownFieldFails() {
+		List<Map<String, Object>> records = records();
+		records.get(COUNT - 1).put("email", "user@example.com");
+		IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+				() -> write(records, ParquetItemWriter.DEFAULT_ROW_GROUP_SIZE));
+		Assertions.assertTrue(exception.getMessage().contains("email"), exception.getMessage());
+	}
+
+	@Test
+	void inferNonCanonicalNumbersAsStrings() {
+		Map<String, Object> record = new HashMap<>();
+		record.put("zip", "01234");
+		record.put("exponent", "1e5");
+		record.put("nan", "NaN");
+		record.put("flag", "TRUE");
+		record.put("count", "1234");
+		record.put("ratio", "0.25");
+		String schema = new ParquetSchemaInferrer().infer(List.of(record)).toString();
+		Assertions.assertTrue(schema.contains("binary zip (STRING)"), schema);
+		Assertions.assertTrue(schema.contains("binary exponent (STRING)"), schema);
+		Assertions.assertTrue(schema.contains("binary nan (STRING)"), schema);
+		Assertions.assertTrue(schema.contains("binary flag (STRING)"), schema);
+		Assertions.assertTrue(schema.contains("int64 count"), schema);
+		Assertions.assertTrue(schema.contains("double ratio"), schema);
+	}
+
+	@Test
+	void partitionedRead() throws Exception {
+		Path file = write(records(), 1024);
+		InputFile inputFile = new LocalInputFile(file);
+		List<FileRange> ranges = ParquetPartitioner.partition(inputFile, 4);
+		Assertions.assertTrue(ranges.size() > 1, "Expected several partitions: " + ranges);
+		List<Object> ids = new ArrayList<>();
+		for (FileRange range : ranges) {
+			List<Map<String, Object>> records = read(inputFile, range);
+			Assertions.assertFalse(records.isEmpty());
+			records.forEach(r -> ids.add(r.get("id")));
+		}
+		List<Object> expected = new ArrayList<>();
+		for (int index = 0; index < COUNT; index++) {
+			expected.add((long) index);
+		}
+		Assertions.assertEquals(expected, ids);
+	}
+
+}
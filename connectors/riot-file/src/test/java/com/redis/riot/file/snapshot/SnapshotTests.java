@@ -0,0 +1,237 @@
+package com.redis.riot.file.snapshot;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import com.redis.riot.file.FileRange;
+import com.redis.riot.file.FileRangeResource;
+import com.redis.riot.file.PartitionedItemReader;
+
+class SnapshotTests {
+
+	private static final int BLOCK_SIZE = 1024;
+	private static final int COUNT = 1000;
+
+	@TempDir
+	Path directory;
+
+	private static List<SnapshotEntry> entries(int count) {
+		List<SnapshotEntry> entries = new ArrayList<>();
+		for (int index = 0; index < count; index++) {
+			byte[] key = ("key:" + index).getBytes(StandardCharsets.UTF_8);
+			// Keys that no longer exist have no value
+			byte[] value = index % 50 == 0 ? null
+					: ("value" + index).repeat(index % 7 + 1).getBytes(StandardCharsets.UTF_8);
+			long ttl = index % 3 == 0 ? 0 : 1700000000000L + index;
+			entries.add(new SnapshotEntry(key, ttl, value));
+		}
+		return entries;
+	}
+
+	private Path write(List<SnapshotEntry> entries) throws Exception {
+		Path file = directory.resolve("snapshot.riot");
+		SnapshotItemWriter writer = new SnapshotItemWriter(new FileSystemResource(file));
+		writer.setBlockSize(BLOCK_SIZE);
+		writer.open(new ExecutionContext());
+		for (int index = 0; index < entries.size(); index += 100) {
+			writer.write(new Chunk<>(entries.subList(index, Math.min(entries.size(), index + 100))));
+		}
+		writer.close();
+		return file;
+	}
+
+	private static SnapshotItemReader reader(Resource resource) {
+		SnapshotItemReader reader = new SnapshotItemReader();
+		reader.setName("snapshot-reader");
+		reader.setResource(resource);
+		return reader;
+	}
+
+	private static List<SnapshotEntry> readAll(ItemStreamReader<SnapshotEntry> reader) throws Exception {
+		List<SnapshotEntry> entries = new ArrayList<>();
+		reader.open(new ExecutionContext());
+		try {
+			SnapshotEntry entry;
+			while ((entry = reader.read()) != null) {
+				entries.add(entry);
+			}
+		} finally {
+			reader.close();
+		}
+		return entries;
+	}
+
+	private static void assertEntries(List<SnapshotEntry> expected, List<SnapshotEntry> actual) {
+		Assertions.assertEquals(expected.size(), actual.size());
+		for (int index = 0; index < expected.size(); index++) {
+			assertEntry(expected.get(index), actual.get(index));
+		}
+	}
+
+	private static void assertEntry(SnapshotEntry expected, SnapshotEntry actual) {
+		Assertions.assertArrayEquals(expected.getKey(), actual.getKey());
+		Assertions.assertEquals(expected.getTtl(), actual.getTtl());
+		Assertions.assertArrayEquals(expected.getValue(), actual.getValue());
+	}
+
+	private static long rawLength(List<SnapshotEntry> entries) {
+		long length = 0;
+		for (SnapshotEntry entry : entries) {
+			length += Integer.BYTES + entry.getKey().length + Long.BYTES + Integer.BYTES;
+			if (entry.getValue() != null) {
+				length += entry.getValue().length;
+			}
+		}
+		return length;
+	}
+
+	@Test
+	void roundTrip() throws Exception {
+		List<SnapshotEntry> entries = entries(COUNT);
+		Path file = write(entries);
+		assertEntries(entries, readAll(reader(new FileSystemResource(file))));
+		Assertions.assertTrue(Files.size(file) < rawLength(entries));
+	}
+
+	@Test
+	void emptySnapshot() throws Exception {
+		Path file = write(List.of());
+		Assertions.assertTrue(readAll(reader(new FileSystemResource(file))).isEmpty());
+		SnapshotIndex index = SnapshotIndex.read(file);
+		Assertions.assertEquals(0, index.getEntryCount());
+		Assertions.assertTrue(index.partition(4).isEmpty());
+	}
+
+	@Test
+	void index() throws Exception {
+		List<SnapshotEntry> entries = entries(COUNT);
+		Path file = write(entries);
+		SnapshotIndex index = SnapshotIndex.read(file);
+		Assertions.assertEquals(COUNT, index.getEntryCount());
+		Assertions.assertTrue(index.getBlocks().size() > 1);
+		Assertions.assertEquals(SnapshotFormat.HEADER_LENGTH, index.getBlocks().get(0).getOffset());
+		Assertions.assertEquals(COUNT,
+				index.getBlocks().stream().mapToLong(SnapshotIndex.Block::getEntryCount).sum());
+	}
+
+	@Test
+	void partitions() throws Exception {
+		List<SnapshotEntry> entries = entries(COUNT);
+		Path file = write(entries);
+		List<FileRange> ranges = SnapshotIndex.read(file).partition(4);
+		Assertions.assertEquals(4, ranges.size());
+		List<SnapshotEntry> actual = new ArrayList<>();
+		long start = SnapshotFormat.HEADER_LENGTH;
+		for (FileRange range : ranges) {
+			Assertions.assertEquals(start, range.getStart());
+			start = range.getEnd();
+			SnapshotItemReader reader = reader(new FileRangeResource(file, range));
+			reader.setReadHeader(false);
+			List<SnapshotEntry> partition = readAll(reader);
+			Assertions.assertFalse(partition.isEmpty());
+			actual.addAll(partition);
+		}
+		assertEntries(entries, actual);
+	}
+
+	@Test
+	void parallelRead() throws Exception {
+		List<SnapshotEntry> entries = entries(COUNT);
+		Path file = write(entries);
+		List<SnapshotItemReader> readers = new ArrayList<>();
+		for (FileRange range : SnapshotIndex.read(file).partition(4)) {
+			SnapshotItemReader reader = reader(new FileRangeResource(file, range));
+			reader.setName("snapshot-reader-" + range);
+			reader.setReadHeader(false);
+			readers.add(reader);
+		}
+		PartitionedItemReader<SnapshotEntry> reader = new PartitionedItemReader<>(readers);
+		reader.setName("partitioned-reader");
+		List<SnapshotEntry> actual = readAll(reader);
+		// Partitions are read concurrently so entries are compared by key
+		actual.sort((entry1, entry2) -> Arrays.compare(entry1.getKey(), entry2.getKey()));
+		List<SnapshotEntry> expected = new ArrayList<>(entries);
+		expected.sort((entry1, entry2) -> Arrays.compare(entry1.getKey(), entry2.getKey()));
+		assertEntries(expected, actual);
+	}
+
+	@Test
+	void notASnapshot() throws Exception {
+		Path file = directory.resolve("snapshot.riot");
+		Files.write(file, "key,value\nfoo,bar\nbaz,qux\n".getBytes(StandardCharsets.UTF_8));
+		Assertions.assertThrows(ItemStreamException.class, () -> readAll(reader(new FileSystemResource(file))));
+		Assertions.assertThrows(IOException.class, () -> SnapshotIndex.read(file));
+	}
+
+	@Test
+	void truncatedBlock() throws Exception {
+		Path file = write(entries(COUNT));
+		SnapshotIndex index = SnapshotIndex.read(file);
+		truncate(file, index.getBlocks().get(1).getOffset() + SnapshotFormat.BLOCK_HEADER_LENGTH + 10);
+		Assertions.assertThrows(EOFException.class, () -> readAll(reader(new FileSystemResource(file))));
+		Assertions.assertThrows(IOException.class, () -> SnapshotIndex.read(file));
+	}
+
+	@Test
+	void missingEndMarker() throws Exception {
+		Path file = write(entries(COUNT));
+		SnapshotIndex index = SnapshotIndex.read(file);
+		truncate(file, index.getBlocks().get(1).getOffset());
+		Assertions.assertThrows(EOFException.class, () -> readAll(reader(new FileSystemResource(file))));
+	}
+
+	@Test
+	void corruptTrailer() throws Exception {
+		Path file = write(entries(COUNT));
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[bytes.length - 1] = 'X';
+		Files.write(file, bytes);
+		Assertions.assertThrows(IOException.class, () -> SnapshotIndex.read(file));
+	}
+
+	@Test
+	void corruptIndexOffset() throws Exception {
+		Path file = write(entries(COUNT));
+		byte[] bytes = Files.readAllBytes(file);
+		ByteBuffer trailer = ByteBuffer.wrap(bytes);
+		int indexOffsetPosition = bytes.length - SnapshotFormat.TRAILER_LENGTH;
+		trailer.putLong(indexOffsetPosition, trailer.getLong(indexOffsetPosition) + 1);
+		Files.write(file, bytes);
+		Assertions.assertThrows(IOException.class, () -> SnapshotIndex.read(file));
+		trailer.putLong(indexOffsetPosition, bytes.length);
+		Files.write(file, bytes);
+		Assertions.assertThrows(IOException.class, () -> SnapshotIndex.read(file));
+	}
+
+	@Test
+	void corruptEntryCount() throws Exception {
+		Path file = write(entries(COUNT));
+		byte[] bytes = Files.readAllBytes(file);
+		ByteBuffer.wrap(bytes).putLong(bytes.length - SnapshotFormat.TRAILER_LENGTH + Long.BYTES, COUNT + 1);
+		Files.write(file, bytes);
+		Assertions.assertThrows(IOException.class, () -> SnapshotIndex.read(file));
+	}
+
+	private static void truncate(Path file, long length) throws IOException {
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, (int) length));
+	}
+
+}
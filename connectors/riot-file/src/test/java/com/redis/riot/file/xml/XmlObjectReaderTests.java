@@ -0,0 +1,102 @@
+package com.redis.riot.file.xml;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+class XmlObjectReaderTests {
+
+	private static final int COUNT = 1000;
+
+	private Resource resource() {
+		StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<records>\n");
+		for (int index = 0; index < COUNT; index++) {
+			xml.append("  <trade><id>").append(index).append("</id><isin>XYZ").append(index)
+					.append("</isin><customer>Customer &amp; Co</customer></trade>\n");
+		}
+		xml.append("</records>\n");
+		return new ByteArrayResource(xml.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private List<Map<String, Object>> readAll(int workers) throws Exception {
+		XmlObjectReader<Map> reader = new XmlObjectReader<>(Map.class);
+		reader.setWorkers(workers);
+		reader.open(resource());
+		List<Map<String, Object>> items = new ArrayList<>();
+		try {
+			Map item;
+			while ((item = reader.read()) != null) {
+				items.add(item);
+			}
+		} finally {
+			reader.close();
+		}
+		return items;
+	}
+
+	@Test
+	void parallelMappingKeepsOrder() throws Exception {
+		List<Map<String, Object>> expected = readAll(1);
+		Assertions.assertEquals(COUNT, expected.size());
+		Assertions.assertEquals("Customer & Co", expected.get(0).get("customer"));
+		Assertions.assertEquals(expected, readAll(4));
+	}
+
+	@Test
+	void configuredMapper() throws Exception {
+		XmlMapper mapper = new XmlMapper();
+		SimpleModule module = new SimpleModule();
+		module.addDeserializer(Trade.class, new TradeDeserializer());
+		mapper.registerModule(module);
+		XmlObjectReader<Trade> reader = new XmlObjectReader<>(Trade.class);
+		reader.setMapper(mapper);
+		reader.setWorkers(2);
+		reader.open(resource());
+		try {
+			for (int index = 0; index < COUNT; index++) {
+				Assertions.assertEquals("XYZ" + index, reader.read().isin);
+			}
+			Assertions.assertNull(reader.read());
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static class Trade {
+
+		private String isin;
+
+	}
+
+	private static class TradeDeserializer extends StdDeserializer<Trade> {
+
+		private static final long serialVersionUID = 1L;
+
+		protected TradeDeserializer() {
+			super(Trade.class);
+		}
+
+		@Override
+		public Trade deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+			Trade trade = new Trade();
+			trade.isin = (String) ctxt.readValue(p, Map.class).get("isin");
+			return trade;
+		}
+
+	}
+
+}
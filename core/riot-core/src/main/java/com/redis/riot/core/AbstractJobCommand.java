@@ -1,6 +1,8 @@
 package com.redis.riot.core;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -9,8 +11,11 @@ import org.springframework.batch.core.Job;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.job.builder.FlowBuilder;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.job.builder.SimpleJobBuilder;
+import org.springframework.batch.core.job.flow.Flow;
+import org.springframework.batch.core.job.flow.support.SimpleFlow;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
 import org.springframework.batch.core.repository.JobRepository;
@@ -25,6 +30,7 @@ import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.support.SynchronizedItemReader;
 import org.springframework.batch.item.support.SynchronizedItemStreamReader;
 import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -33,7 +39,7 @@ import org.springframework.util.Assert;
 
 import com.redis.spring.batch.JobUtils;
 import com.redis.spring.batch.item.AbstractAsyncItemReader;
-import com.redis.spring.batch.item.AbstractPollableItemReader;
+import com.redis.spring.batch.item.PollableItemReader;
 import com.redis.spring.batch.step.FlushingStepBuilder;
 
 import picocli.CommandLine.ArgGroup;
@@ -77,6 +83,57 @@ public abstract class AbstractJobCommand extends AbstractCommand {
 		return job.build();
 	}
 
+	/**
+	 * Creates a job running the given steps concurrently, at most
+	 * {@code parallelism} at a time. Steps are started in iteration order so
+	 * callers can put the longest ones first. Progress is reported with a single
+	 * aggregate progress bar instead of one per step.
+	 */
+	protected Job job(List<Step<?, ?>> steps, int parallelism, String taskName) {
+		if (parallelism <= 1 || steps.size() <= 1) {
+			return job(steps);
+		}
+		ProgressJobExecutionListener progressListener = new ProgressJobExecutionListener(taskName, steps.size());
+		progressListener.setProgressOptions(jobArgs.getProgressArgs());
+		progressListener.setMaxItemCountSupplier(() -> maxItemCount(steps));
+		List<Flow> flows = new ArrayList<>();
+		for (Step<?, ?> step : steps) {
+			if (shouldShowProgress()) {
+				addProgressListener(step, progressListener);
+			}
+			TaskletStep taskletStep = faultTolerant(simpleStepBuilder(step, false)).build();
+			flows.add(new FlowBuilder<SimpleFlow>(taskletStep.getName()).start(taskletStep).build());
+		}
+		log.info("Creating split flow with {} steps and parallelism {}", flows.size(), parallelism);
+		SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor(jobArgs.getName() + "-");
+		taskExecutor.setConcurrencyLimit(parallelism);
+		Flow split = new FlowBuilder<SimpleFlow>(jobArgs.getName() + "-split").split(taskExecutor)
+				.add(flows.toArray(new Flow[0])).build();
+		JobBuilder job = jobBuilder();
+		if (shouldShowProgress()) {
+			job.listener(progressListener);
+		}
+		return job.start(split).end().build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <I, O> void addProgressListener(Step<I, O> step, ProgressJobExecutionListener listener) {
+		step.executionListener(listener);
+		step.writeListener(listener);
+	}
+
+	private long maxItemCount(List<Step<?, ?>> steps) {
+		long total = 0;
+		for (Step<?, ?> step : steps) {
+			long count = step.maxItemCount();
+			if (count < 0) {
+				return -1;
+			}
+			total += count;
+		}
+		return total;
+	}
+
 	private JobBuilder jobBuilder() {
 		log.info("Creating job {}", jobArgs.getName());
 		return new JobBuilder(jobArgs.getName(), jobRepository);
@@ -134,6 +191,10 @@ public abstract class AbstractJobCommand extends AbstractCommand {
 	}
 
 	protected <I, O> SimpleStepBuilder<I, O> simpleStepBuilder(Step<I, O> step) {
+		return simpleStepBuilder(step, shouldShowProgress());
+	}
+
+	private <I, O> SimpleStepBuilder<I, O> simpleStepBuilder(Step<I, O> step, boolean showProgress) {
 		if (step.getName() == null) {
 			step.name("step");
 		}
@@ -150,7 +211,7 @@ public abstract class AbstractJobCommand extends AbstractCommand {
 		builder.taskExecutor(taskExecutor());
 		step.getExecutionListeners().forEach(builder::listener);
 		step.getWriteListeners().forEach(builder::listener);
-		if (shouldShowProgress()) {
+		if (showProgress) {
 			ProgressStepExecutionListener<I, O> listener = new ProgressStepExecutionListener<>(step);
 			builder.listener((StepExecutionListener) listener);
 			builder.listener((ItemWriteListener<?>) listener);
@@ -181,7 +242,7 @@ public abstract class AbstractJobCommand extends AbstractCommand {
 
 	@SuppressWarnings("unchecked")
 	private <I, O> ItemReader<? extends I> reader(Step<I, O> step) {
-		if (jobArgs.getThreads() == 1 || step.getReader() instanceof AbstractPollableItemReader) {
+		if (jobArgs.getThreads() == 1 || step.getReader() instanceof PollableItemReader) {
 			return step.getReader();
 		}
 		log.info("Synchronizing reader in step {}", step.getName());
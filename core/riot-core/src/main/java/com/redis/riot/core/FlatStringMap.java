@@ -0,0 +1,52 @@
+package com.redis.riot.core;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.util.Assert;
+
+/**
+ * Record whose values are all strings and none of them nested, so that it can
+ * be written as is to a Redis hash without being flattened. Importers wrap
+ * their records in it once processors have run.
+ */
+public class FlatStringMap extends AbstractMap<String, Object> {
+
+	private final Map<String, String> map;
+
+	public FlatStringMap(Map<String, String> map) {
+		Assert.notNull(map, "Map must not be null");
+		this.map = map;
+	}
+
+	/**
+	 *
+	 * @return the wrapped map of strings
+	 */
+	public Map<String, String> asStringMap() {
+		return map;
+	}
+
+	@Override
+	public Object get(Object key) {
+		return map.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return map.containsKey(key);
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return (Set) map.entrySet();
+	}
+
+}
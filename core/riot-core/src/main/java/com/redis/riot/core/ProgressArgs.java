@@ -1,5 +1,11 @@
 package com.redis.riot.core;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import me.tongfei.progressbar.DelegatingProgressBarConsumer;
+import me.tongfei.progressbar.ProgressBarBuilder;
+import me.tongfei.progressbar.ProgressBarStyle;
 import picocli.CommandLine.Option;
 
 public class ProgressArgs {
@@ -13,6 +19,30 @@ public class ProgressArgs {
 	@Option(names = "--progress-interval", description = "Progress update interval in millis (default: ${DEFAULT-VALUE}).", paramLabel = "<ms>", hidden = true)
 	private long updateInterval = DEFAULT_UPDATE_INTERVAL;
 
+	public ProgressBarBuilder progressBarBuilder(String taskName) {
+		ProgressBarBuilder builder = new ProgressBarBuilder();
+		builder.setTaskName(taskName);
+		builder.setStyle(progressBarStyle());
+		builder.setUpdateIntervalMillis(Math.toIntExact(updateInterval));
+		builder.showSpeed();
+		if (style == ProgressStyle.LOG) {
+			Logger logger = LoggerFactory.getLogger(ProgressStepExecutionListener.class);
+			builder.setConsumer(new DelegatingProgressBarConsumer(logger::info));
+		}
+		return builder;
+	}
+
+	private ProgressBarStyle progressBarStyle() {
+		switch (style) {
+		case BAR:
+			return ProgressBarStyle.COLORFUL_UNICODE_BAR;
+		case BLOCK:
+			return ProgressBarStyle.COLORFUL_UNICODE_BLOCK;
+		default:
+			return ProgressBarStyle.ASCII;
+		}
+	}
+
 	public ProgressStyle getStyle() {
 		return style;
 	}
@@ -0,0 +1,97 @@
+package com.redis.riot.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+
+import me.tongfei.progressbar.ProgressBar;
+import me.tongfei.progressbar.ProgressBarBuilder;
+
+/**
+ * Listener tracking the combined progress of steps running concurrently with a
+ * single progress bar.
+ *
+ * @author Julien Ruaux
+ */
+@SuppressWarnings("rawtypes")
+public class ProgressJobExecutionListener implements JobExecutionListener, StepExecutionListener, ItemWriteListener {
+
+	private static final String STEPS_MESSAGE = " (%,d/%,d)";
+
+	private final String taskName;
+	private final int stepCount;
+	private final AtomicInteger completedSteps = new AtomicInteger();
+
+	private ProgressArgs progressOptions = new ProgressArgs();
+	private LongSupplier maxItemCountSupplier = () -> -1;
+
+	private ProgressBar progressBar;
+
+	public ProgressJobExecutionListener(String taskName, int stepCount) {
+		this.taskName = taskName;
+		this.stepCount = stepCount;
+	}
+
+	@Override
+	public void beforeJob(JobExecution jobExecution) {
+		ProgressBarBuilder progressBarBuilder = progressOptions.progressBarBuilder(taskName);
+		progressBarBuilder.setInitialMax(maxItemCountSupplier.getAsLong());
+		this.progressBar = progressBarBuilder.build();
+		progressBar.setExtraMessage(stepsMessage());
+	}
+
+	@Override
+	public void afterWrite(Chunk items) {
+		if (progressBar != null) {
+			progressBar.stepBy(items.size());
+		}
+	}
+
+	@Override
+	public ExitStatus afterStep(StepExecution stepExecution) {
+		completedSteps.incrementAndGet();
+		if (progressBar != null) {
+			progressBar.setExtraMessage(stepsMessage());
+		}
+		return stepExecution.getExitStatus();
+	}
+
+	private String stepsMessage() {
+		return String.format(STEPS_MESSAGE, completedSteps.get(), stepCount);
+	}
+
+	@Override
+	public void afterJob(JobExecution jobExecution) {
+		if (progressBar != null) {
+			if (!jobExecution.getStatus().isUnsuccessful() && progressBar.getMax() > 0) {
+				progressBar.stepTo(progressBar.getMax());
+			}
+			progressBar.close();
+			progressBar = null;
+		}
+	}
+
+	public ProgressArgs getProgressOptions() {
+		return progressOptions;
+	}
+
+	public void setProgressOptions(ProgressArgs progressOptions) {
+		this.progressOptions = progressOptions;
+	}
+
+	public LongSupplier getMaxItemCountSupplier() {
+		return maxItemCountSupplier;
+	}
+
+	public void setMaxItemCountSupplier(LongSupplier supplier) {
+		this.maxItemCountSupplier = supplier;
+	}
+
+}
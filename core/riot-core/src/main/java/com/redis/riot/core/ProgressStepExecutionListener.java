@@ -1,17 +1,13 @@
 package com.redis.riot.core;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.item.Chunk;
 
-import me.tongfei.progressbar.DelegatingProgressBarConsumer;
 import me.tongfei.progressbar.ProgressBar;
 import me.tongfei.progressbar.ProgressBarBuilder;
-import me.tongfei.progressbar.ProgressBarStyle;
 
 /**
  * Listener tracking writer or step progress with by a progress bar.
@@ -34,30 +30,11 @@ public class ProgressStepExecutionListener<I, O> implements StepExecutionListene
 
 	@Override
 	public void beforeStep(StepExecution stepExecution) {
-		ProgressBarBuilder progressBarBuilder = new ProgressBarBuilder();
-		progressBarBuilder.setTaskName(step.getTaskName());
-		progressBarBuilder.setStyle(progressBarStyle());
-		progressBarBuilder.setUpdateIntervalMillis(Math.toIntExact(progressOptions.getUpdateInterval()));
-		progressBarBuilder.showSpeed();
-		if (progressOptions.getStyle() == ProgressStyle.LOG) {
-			Logger logger = LoggerFactory.getLogger(getClass());
-			progressBarBuilder.setConsumer(new DelegatingProgressBarConsumer(logger::info));
-		}
+		ProgressBarBuilder progressBarBuilder = progressOptions.progressBarBuilder(step.getTaskName());
 		progressBarBuilder.setInitialMax(step.maxItemCount());
 		this.progressBar = progressBarBuilder.build();
 	}
 
-	private ProgressBarStyle progressBarStyle() {
-		switch (progressOptions.getStyle()) {
-		case BAR:
-			return ProgressBarStyle.COLORFUL_UNICODE_BAR;
-		case BLOCK:
-			return ProgressBarStyle.COLORFUL_UNICODE_BLOCK;
-		default:
-			return ProgressBarStyle.ASCII;
-		}
-	}
-
 	@Override
 	public void afterWrite(Chunk items) {
 		if (progressBar != null) {
@@ -72,6 +72,16 @@ public abstract class AbstractImport extends AbstractRedisCommand {
 		return RiotUtils.writer(operations().stream().map(this::writer).collect(Collectors.toList()));
 	}
 
+	/**
+	 * 
+	 * @return writer deleting the keys that {@link #mapWriter()} writes to
+	 */
+	protected ItemWriter<Map<String, Object>> deleteWriter() {
+		assertHasOperations();
+		return RiotUtils.writer(importOperationCommands.stream().map(OperationCommand::deleteOperation)
+				.map(this::writer).collect(Collectors.toList()));
+	}
+
 	@Override
 	protected void configure(RedisItemWriter<?, ?, ?> writer) {
 		log.info("Configuring Redis writer with {}", redisWriterArgs);
@@ -18,6 +18,7 @@ import com.redis.spring.batch.item.redis.RedisItemWriter;
 
 import io.lettuce.core.RedisCommandExecutionException;
 import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.cluster.SlotHash;
 import picocli.CommandLine.ArgGroup;
 
 abstract class AbstractRedisCommand extends AbstractJobCommand {
@@ -74,6 +75,13 @@ abstract class AbstractRedisCommand extends AbstractJobCommand {
 			throw new UnsupportedOperationException("Could not get GeoLocation method", e);
 		}
 		context.registerFunction("geo", method);
+		Method slotMethod;
+		try {
+			slotMethod = SlotHash.class.getDeclaredMethod("getSlot", String.class);
+		} catch (Exception e) {
+			throw new UnsupportedOperationException("Could not get SlotHash method", e);
+		}
+		context.registerFunction("slot", slotMethod);
 	}
 
 	@Override
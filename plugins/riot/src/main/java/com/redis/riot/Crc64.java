@@ -0,0 +1,49 @@
+package com.redis.riot;
+
+import java.util.zip.Checksum;
+
+/**
+ * CRC-64/Jones checksum as used by Redis in RDB files and DUMP payloads.
+ */
+public class Crc64 implements Checksum {
+
+	private static final long POLYNOMIAL = 0x95AC9329AC4BC9B5L;
+	private static final long[] TABLE = new long[256];
+
+	static {
+		for (int i = 0; i < TABLE.length; i++) {
+			long crc = i;
+			for (int bit = 0; bit < 8; bit++) {
+				crc = (crc & 1) == 0 ? crc >>> 1 : (crc >>> 1) ^ POLYNOMIAL;
+			}
+			TABLE[i] = crc;
+		}
+	}
+
+	private long value;
+
+	@Override
+	public void update(int b) {
+		value = TABLE[(int) ((value ^ b) & 0xFF)] ^ (value >>> 8);
+	}
+
+	@Override
+	public void update(byte[] b, int off, int len) {
+		long crc = value;
+		for (int index = off; index < off + len; index++) {
+			crc = TABLE[(int) ((crc ^ b[index]) & 0xFF)] ^ (crc >>> 8);
+		}
+		value = crc;
+	}
+
+	@Override
+	public long getValue() {
+		return value;
+	}
+
+	@Override
+	public void reset() {
+		value = 0;
+	}
+
+}
@@ -1,14 +1,33 @@
 package com.redis.riot;
 
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
 
 import org.springframework.batch.core.Job;
-import org.springframework.batch.item.database.JdbcCursorItemReader;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
+import org.springframework.batch.item.support.ClassifierCompositeItemWriter;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
+import com.redis.riot.core.FlatStringMap;
+import com.redis.riot.core.RiotUtils;
 import com.redis.riot.core.Step;
+import com.redis.riot.db.ColumnRecord;
+import com.redis.riot.db.DatabasePartition;
+import com.redis.riot.db.DatabasePartitioner;
+import com.redis.riot.db.DatabaseWatermarkItemReader;
 import com.redis.riot.db.DatabaseReaderArgs;
+import com.redis.riot.db.KeysetItemReader;
 
 import picocli.CommandLine.ArgGroup;
 import picocli.CommandLine.Command;
@@ -17,6 +36,10 @@ import picocli.CommandLine.Parameters;
 @Command(name = "db-import", description = "Import from a relational database.")
 public class DatabaseImport extends AbstractImport {
 
+	private static final String PARTITIONS_TASK_NAME_FORMAT = "Importing {0} partitions";
+	private static final String WATERMARK_TASK_NAME = "Syncing";
+	private static final Set<String> DELETED_FLAGS = Set.of("true", "t", "yes", "y", "1");
+
 	@Parameters(arity = "1", description = "SQL SELECT statement", paramLabel = "SQL")
 	private String sql;
 
@@ -26,19 +49,128 @@ public class DatabaseImport extends AbstractImport {
 	@ArgGroup(exclusive = false, heading = "Processor options%n")
 	private ImportProcessorArgs processorArgs = new ImportProcessorArgs();
 
+	@ArgGroup(exclusive = false, heading = "Watermark options%n")
+	private DatabaseSyncArgs syncArgs = new DatabaseSyncArgs();
+
 	public void copyTo(DatabaseImport target) {
 		super.copyTo(target);
 		target.databaseReaderArgs = databaseReaderArgs;
 		target.processorArgs = processorArgs;
+		target.syncArgs = syncArgs;
 	}
 
 	@Override
 	protected Job job() {
-		return job(new Step<>(reader(), mapWriter()).processor(mapProcessor(processorArgs)).taskName("Importing"));
+		if (StringUtils.hasLength(syncArgs.getColumn())) {
+			return job(watermarkStep());
+		}
+		if (databaseReaderArgs.getPartitions() > 1) {
+			return partitionedJob();
+		}
+		return job(new Step<>(reader(), mapWriter()).processor(processor()).taskName("Importing"));
 	}
 
-	private JdbcCursorItemReader<Map<String, Object>> reader() {
+	/**
+	 * Rows that are still all strings once processors have run are marked as
+	 * flat so that operations write them without copying them.
+	 */
+	private ItemProcessor<Map<String, Object>, Map<String, Object>> processor() {
+		ItemProcessor<Map<String, Object>, Map<String, Object>> flatStringMap = DatabaseImport::flatStringMap;
+		return RiotUtils.processor(mapProcessor(processorArgs), flatStringMap);
+	}
+
+	private static Map<String, Object> flatStringMap(Map<String, Object> row) {
+		if (row instanceof ColumnRecord && ((ColumnRecord) row).isStrings()) {
+			return new FlatStringMap(((ColumnRecord) row).asStringMap());
+		}
+		return row;
+	}
+
+	/**
+	 * Each partition is read through its own connection and written by its own
+	 * Redis writer, so partitions do not contend on a synchronized cursor.
+	 */
+	private Job partitionedJob() {
 		Assert.notNull(sql, "No SQL statement specified");
+		Assert.isTrue(!StringUtils.hasLength(databaseReaderArgs.getKeysetColumn()),
+				"Keyset pagination cannot be combined with partitions");
+		// One extra connection for rows where the partition column is null
+		DataSource dataSource = databaseReaderArgs.dataSource(databaseReaderArgs.getPartitions() + 1);
+		DatabasePartitioner partitioner = new DatabasePartitioner(dataSource, sql);
+		partitioner.setColumn(databaseReaderArgs.getPartitionColumn());
+		List<DatabasePartition> partitions = partitioner.partitions(databaseReaderArgs.getPartitions());
+		List<Step<?, ?>> steps = new ArrayList<>();
+		for (DatabasePartition partition : partitions) {
+			log.info("Creating reader for {}", partition);
+			JdbcCursorItemReaderBuilder<Map<String, Object>> reader = databaseReaderArgs.reader(dataSource);
+			reader.name(partition.getName());
+			reader.sql(partition.getSql());
+			reader.queryArguments(partition.getParameters());
+			steps.add(new Step<>(reader.build(), mapWriter()).processor(processor())
+					.name(partition.getName()).taskName("Importing " + partition.getName()));
+		}
+		return job(steps, steps.size(), MessageFormat.format(PARTITIONS_TASK_NAME_FORMAT, steps.size()));
+	}
+
+	/**
+	 * Polls for rows changed since the last watermark until the idle timeout, if
+	 * any, is reached.
+	 */
+	private Step<Map<String, Object>, Map<String, Object>> watermarkStep() {
+		Assert.notNull(sql, "No SQL statement specified");
+		Assert.isTrue(databaseReaderArgs.getPartitions() <= 1
+				&& !StringUtils.hasLength(databaseReaderArgs.getKeysetColumn()),
+				"Watermark mode cannot be combined with partitions or keyset pagination");
+		log.info("Creating watermark reader with {}", syncArgs);
+		DatabaseWatermarkItemReader<Map<String, Object>> reader = new DatabaseWatermarkItemReader<>(
+				databaseReaderArgs.dataSource(), sql, syncArgs.getColumn(), databaseReaderArgs.rowMapper());
+		reader.setName(sql);
+		reader.setStateFile(syncArgs.stateFile(databaseReaderArgs.getUrl(), sql));
+		reader.setPollInterval(syncArgs.getPollInterval());
+		reader.setFetchSize(databaseReaderArgs.getFetchSize());
+		reader.setQueryTimeout(databaseReaderArgs.getQueryTimeout());
+		Step<Map<String, Object>, Map<String, Object>> step = new Step<>(reader, watermarkWriter());
+		step.processor(processor());
+		step.taskName(WATERMARK_TASK_NAME);
+		step.flushInterval(Duration.ofMillis(syncArgs.getFlushInterval()));
+		if (syncArgs.getIdleTimeout() > 0) {
+			step.idleTimeout(Duration.ofSeconds(syncArgs.getIdleTimeout()));
+		}
+		return step;
+	}
+
+	private ItemWriter<Map<String, Object>> watermarkWriter() {
+		String deleteColumn = syncArgs.getDeleteColumn();
+		if (!StringUtils.hasLength(deleteColumn)) {
+			return mapWriter();
+		}
+		ItemWriter<Map<String, Object>> writer = mapWriter();
+		ItemWriter<Map<String, Object>> deleteWriter = deleteWriter();
+		ClassifierCompositeItemWriter<Map<String, Object>> classifierWriter = new ClassifierCompositeItemWriter<>();
+		classifierWriter.setClassifier(item -> isDeleted(item.get(deleteColumn)) ? deleteWriter : writer);
+		return classifierWriter;
+	}
+
+	private static boolean isDeleted(Object flag) {
+		if (flag instanceof Boolean) {
+			return (Boolean) flag;
+		}
+		if (flag instanceof Number) {
+			return ((Number) flag).intValue() != 0;
+		}
+		if (flag == null) {
+			return false;
+		}
+		return DELETED_FLAGS.contains(flag.toString().trim().toLowerCase(Locale.ROOT));
+	}
+
+	private ItemReader<Map<String, Object>> reader() {
+		Assert.notNull(sql, "No SQL statement specified");
+		if (StringUtils.hasLength(databaseReaderArgs.getKeysetColumn())) {
+			KeysetItemReader<Map<String, Object>> reader = databaseReaderArgs.keysetReader(sql);
+			reader.setName(sql);
+			return reader;
+		}
 		JdbcCursorItemReaderBuilder<Map<String, Object>> reader = databaseReaderArgs.reader();
 		reader.name(sql);
 		reader.sql(sql);
@@ -53,6 +185,14 @@ public class DatabaseImport extends AbstractImport {
 		this.sql = sql;
 	}
 
+	public DatabaseSyncArgs getSyncArgs() {
+		return syncArgs;
+	}
+
+	public void setSyncArgs(DatabaseSyncArgs syncArgs) {
+		this.syncArgs = syncArgs;
+	}
+
 	public DatabaseReaderArgs getDatabaseReaderArgs() {
 		return databaseReaderArgs;
 	}
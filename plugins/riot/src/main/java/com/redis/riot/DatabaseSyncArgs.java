@@ -0,0 +1,100 @@
+package com.redis.riot;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import com.redis.riot.db.DatabaseWatermarkItemReader;
+
+import picocli.CommandLine.Option;
+
+public class DatabaseSyncArgs {
+
+	public static final long DEFAULT_POLL_INTERVAL = DatabaseWatermarkItemReader.DEFAULT_POLL_INTERVAL;
+	public static final Duration DEFAULT_FLUSH_INTERVAL = RedisReaderArgs.DEFAULT_FLUSH_INTERVAL;
+	public static final String DEFAULT_STATE_DIRECTORY = ".";
+	public static final String STATE_FILE_EXTENSION = ".watermark";
+
+	@Option(names = "--watermark", description = "Keep importing rows changed since the last poll, using a column that increases every time a row changes (e.g. updated_at or a sequence).", paramLabel = "<column>")
+	private String column;
+
+	@Option(names = "--watermark-state", description = "Directory where the watermark is saved, so that a restart resumes where the previous run stopped (default: current directory).", paramLabel = "<dir>")
+	private File stateDirectory = new File(DEFAULT_STATE_DIRECTORY);
+
+	@Option(names = "--poll-interval", description = "Interval in millis between queries for changed rows (default: ${DEFAULT-VALUE}).", paramLabel = "<ms>")
+	private long pollInterval = DEFAULT_POLL_INTERVAL;
+
+	@Option(names = "--delete-column", description = "Boolean column flagging deleted rows. What flagged rows would write is deleted instead: keys, or only members for collection commands.", paramLabel = "<column>")
+	private String deleteColumn;
+
+	@Option(names = "--flush-interval", description = "Max duration in millis between flushes in watermark mode (default: ${DEFAULT-VALUE}).", paramLabel = "<ms>")
+	private long flushInterval = DEFAULT_FLUSH_INTERVAL.toMillis();
+
+	@Option(names = "--idle-timeout", description = "Min duration in seconds without changed rows to stop polling (default: no timeout).", paramLabel = "<sec>")
+	private long idleTimeout;
+
+	/**
+	 * State files are named after a hash of the database URL and SELECT
+	 * statement, so that different imports do not share watermarks.
+	 */
+	public Path stateFile(String url, String sql) {
+		String name = "db-" + Integer.toHexString((url + "|" + sql + "|" + column).hashCode()) + STATE_FILE_EXTENSION;
+		return stateDirectory.toPath().resolve(name);
+	}
+
+	public String getColumn() {
+		return column;
+	}
+
+	public void setColumn(String column) {
+		this.column = column;
+	}
+
+	public File getStateDirectory() {
+		return stateDirectory;
+	}
+
+	public void setStateDirectory(File directory) {
+		this.stateDirectory = directory;
+	}
+
+	public long getPollInterval() {
+		return pollInterval;
+	}
+
+	public void setPollInterval(long intervalMillis) {
+		this.pollInterval = intervalMillis;
+	}
+
+	public String getDeleteColumn() {
+		return deleteColumn;
+	}
+
+	public void setDeleteColumn(String column) {
+		this.deleteColumn = column;
+	}
+
+	public long getFlushInterval() {
+		return flushInterval;
+	}
+
+	public void setFlushInterval(long intervalMillis) {
+		this.flushInterval = intervalMillis;
+	}
+
+	public long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	@Override
+	public String toString() {
+		return "DatabaseSyncArgs [column=" + column + ", stateDirectory=" + stateDirectory + ", pollInterval="
+				+ pollInterval + ", deleteColumn=" + deleteColumn + ", flushInterval=" + flushInterval
+				+ ", idleTimeout=" + idleTimeout + "]";
+	}
+
+}
@@ -2,17 +2,29 @@ package com.redis.riot;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.function.Function;
 
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemStreamException;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.function.FunctionItemProcessor;
+import org.springframework.expression.Expression;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 import com.redis.riot.core.EvaluationContextArgs;
+import com.redis.riot.core.QuietMapAccessor;
+import com.redis.riot.core.Step;
+import com.redis.riot.file.FileType;
 import com.redis.riot.file.FileWriterArgs;
 import com.redis.riot.file.FileWriterFactory;
+import com.redis.riot.file.snapshot.SnapshotEntry;
+import com.redis.riot.function.ToSnapshotEntryFunction;
 import com.redis.spring.batch.item.redis.RedisItemReader;
 import com.redis.spring.batch.item.redis.common.KeyValue;
 import com.redis.spring.batch.item.redis.reader.MemKeyValue;
@@ -30,6 +42,9 @@ public class FileExport extends AbstractExport {
 	@Option(names = "--content-type", description = "Type of exported content: ${COMPLETION-CANDIDATES}.", paramLabel = "<type>")
 	private ContentType contentType;
 
+	@Option(names = "--shard", description = "SpEL expression routing each record to a file, e.g. \"key.substring(0, 4)\" or \"#slot(key) % 16\".", paramLabel = "<exp>")
+	private Expression shardExpression;
+
 	@ArgGroup(exclusive = false)
 	private EvaluationContextArgs evaluationContextArgs = new EvaluationContextArgs();
 
@@ -40,13 +55,53 @@ public class FileExport extends AbstractExport {
 		super.copyTo(target);
 		target.fileWriterArgs = fileWriterArgs;
 		target.contentType = contentType;
+		target.shardExpression = shardExpression;
 		target.processorArgs = processorArgs;
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	protected Job job() {
-		return job(exportStep(reader(), writer()).processor(processor()).taskName("Exporting"));
+		if (fileWriterArgs.fileType() == FileType.RIOT) {
+			return job(finishOnCompletion(snapshotStep()));
+		}
+		return job(finishOnCompletion(exportStep(reader(), writer()).processor(processor()).taskName("Exporting")));
+	}
+
+	/**
+	 * Listeners run before writers are closed, so uploads of a failed step are
+	 * aborted instead of completed, and writers listening to their step, like
+	 * sharded writers, only write their manifest if it completed.
+	 */
+	private <I, O> Step<I, O> finishOnCompletion(Step<I, O> step) {
+		if (step.getWriter() instanceof StepExecutionListener) {
+			step.executionListener((StepExecutionListener) step.getWriter());
+		}
+		step.executionListener(new StepExecutionListener() {
+
+			@Override
+			public ExitStatus afterStep(StepExecution stepExecution) {
+				if (stepExecution.getStatus() != BatchStatus.COMPLETED) {
+					fileWriterArgs.abortUploads();
+				}
+				return stepExecution.getExitStatus();
+			}
+
+		});
+		return step;
+	}
+
+	/**
+	 * Snapshots store DUMP payloads so values are not serialized per type.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Step<KeyValue<byte[], byte[]>, SnapshotEntry> snapshotStep() {
+		RedisItemReader<byte[], byte[], KeyValue<byte[], byte[]>> reader = (RedisItemReader) RedisItemReader.dump();
+		configure(reader);
+		Step<KeyValue<byte[], byte[]>, SnapshotEntry> step = exportStep(reader, writer());
+		step.processor(new FunctionItemProcessor<>(new ToSnapshotEntryFunction()));
+		step.taskName("Exporting");
+		return step;
 	}
 
 	private RedisItemReader<String, String, MemKeyValue<String, Object>> reader() {
@@ -65,6 +120,7 @@ public class FileExport extends AbstractExport {
 			switch (fileWriterArgs.fileType()) {
 			case CSV:
 			case FIXED:
+			case PARQUET:
 				return ContentType.FLAT;
 			default:
 				return ContentType.REDIS;
@@ -105,9 +161,22 @@ public class FileExport extends AbstractExport {
 		FileWriterFactory factory = new FileWriterFactory();
 		factory.setOptions(fileWriterArgs);
 		factory.setHeaderSupplier(this::headerRecord);
+		factory.setShardFunction(shardFunction());
+		if (shardExpression == null && !fileWriterArgs.isRollover()) {
+			factory.setThreads(getJobArgs().getThreads());
+		}
 		return factory.create(fileWriterArgs.getFile());
 	}
 
+	private Function<Object, String> shardFunction() {
+		if (shardExpression == null) {
+			return null;
+		}
+		StandardEvaluationContext evaluationContext = evaluationContext(evaluationContextArgs);
+		evaluationContext.addPropertyAccessor(new QuietMapAccessor());
+		return item -> String.valueOf(shardExpression.getValue(evaluationContext, item));
+	}
+
 	public FileWriterArgs getFileWriterArgs() {
 		return fileWriterArgs;
 	}
@@ -116,6 +185,14 @@ public class FileExport extends AbstractExport {
 		this.fileWriterArgs = fileWriterArgs;
 	}
 
+	public Expression getShardExpression() {
+		return shardExpression;
+	}
+
+	public void setShardExpression(Expression expression) {
+		this.shardExpression = expression;
+	}
+
 	public ContentType getContentType() {
 		return contentType;
 	}
@@ -0,0 +1,77 @@
+package com.redis.riot;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import picocli.CommandLine.Option;
+
+public class FileFollowArgs {
+
+	public static final Duration DEFAULT_FLUSH_INTERVAL = RedisReaderArgs.DEFAULT_FLUSH_INTERVAL;
+	public static final String DEFAULT_STATE_DIRECTORY = ".";
+	public static final String STATE_FILE_EXTENSION = ".offset";
+
+	@Option(names = "--follow", description = "Keep reading lines appended to JSONL, CSV or fixed-length files, reopening files when they are rotated.")
+	private boolean follow;
+
+	@Option(names = "--follow-state", description = "Directory where the read offsets of followed files are saved, so that a restart resumes where the previous run stopped (default: current directory).", paramLabel = "<dir>")
+	private File stateDirectory = new File(DEFAULT_STATE_DIRECTORY);
+
+	@Option(names = "--flush-interval", description = "Max duration in millis between flushes in follow mode (default: ${DEFAULT-VALUE}).", paramLabel = "<ms>")
+	private long flushInterval = DEFAULT_FLUSH_INTERVAL.toMillis();
+
+	@Option(names = "--idle-timeout", description = "Min duration in seconds without new lines to stop following files (default: no timeout).", paramLabel = "<sec>")
+	private long idleTimeout;
+
+	/**
+	 * State files are named after the followed file and a hash of its absolute
+	 * path, so that files with the same name in different directories do not
+	 * share offsets.
+	 */
+	public Path stateFile(Path file) {
+		Path absolutePath = file.toAbsolutePath().normalize();
+		String name = absolutePath.getFileName() + "-" + Integer.toHexString(absolutePath.toString().hashCode())
+				+ STATE_FILE_EXTENSION;
+		return stateDirectory.toPath().resolve(name);
+	}
+
+	public boolean isFollow() {
+		return follow;
+	}
+
+	public void setFollow(boolean follow) {
+		this.follow = follow;
+	}
+
+	public File getStateDirectory() {
+		return stateDirectory;
+	}
+
+	public void setStateDirectory(File directory) {
+		this.stateDirectory = directory;
+	}
+
+	public long getFlushInterval() {
+		return flushInterval;
+	}
+
+	public void setFlushInterval(long intervalMillis) {
+		this.flushInterval = intervalMillis;
+	}
+
+	public long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	@Override
+	public String toString() {
+		return "FileFollowArgs [follow=" + follow + ", stateDirectory=" + stateDirectory + ", flushInterval="
+				+ flushInterval + ", idleTimeout=" + idleTimeout + "]";
+	}
+
+}
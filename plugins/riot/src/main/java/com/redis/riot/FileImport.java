@@ -1,42 +1,73 @@
 package com.redis.riot;
 
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.text.ParseException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.step.builder.FaultTolerantStepBuilder;
 import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.file.LineMapper;
 import org.springframework.batch.item.function.FunctionItemProcessor;
+import org.springframework.batch.item.support.ListItemReader;
 import org.springframework.core.io.Resource;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
+import com.redis.riot.core.NoopItemWriter;
 import com.redis.riot.core.RiotUtils;
 import com.redis.riot.core.Step;
 import com.redis.riot.core.function.RegexNamedGroupFunction;
+import com.redis.riot.file.Compression;
 import com.redis.riot.file.FileReaderArgs;
 import com.redis.riot.file.FileReaderFactory;
+import com.redis.riot.file.FileTailItemReader;
+import com.redis.riot.file.FileType;
+import com.redis.riot.file.FileUtils;
+import com.redis.riot.file.ImportManifest;
 import com.redis.riot.file.MapToFieldFunction;
+import com.redis.riot.file.PrefetchingMultiResourceItemReader;
 import com.redis.riot.file.ToMapFunction;
+import com.redis.riot.function.SnapshotEntryToKeyValueFunction;
 import com.redis.spring.batch.item.redis.RedisItemWriter;
 import com.redis.spring.batch.item.redis.common.KeyValue;
 import com.redis.spring.batch.item.redis.reader.MemKeyValue;
 
 import picocli.CommandLine.ArgGroup;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 
 @Command(name = "file-import", description = "Import data from files.")
 public class FileImport extends AbstractImport {
 
+	public static final int DEFAULT_FILE_PARALLELISM = 1;
+
 	private static final String TASK_NAME_FORMAT = "Importing {0}";
+	private static final String PARALLEL_TASK_NAME_FORMAT = "Importing {0} files";
+	private static final String SINGLE_STEP_NAME = "files";
+	private static final String FOLLOW_TASK_NAME_FORMAT = "Following {0}";
+	private static final String FOLLOW_PARALLEL_TASK_NAME_FORMAT = "Following {0} files";
+	private static final String NO_FILE_TASK_NAME = "No file to import";
 
 	private final FileReaderFactory factory = new FileReaderFactory();
 
@@ -46,10 +77,33 @@ public class FileImport extends AbstractImport {
 	@ArgGroup(exclusive = false, heading = "Processor options%n")
 	private FileImportProcessorArgs processorArgs = new FileImportProcessorArgs();
 
+	@Option(names = "--file-parallelism", description = "Number of files to import concurrently (default: ${DEFAULT-VALUE}).", paramLabel = "<int>")
+	private int fileParallelism = DEFAULT_FILE_PARALLELISM;
+
+	@Option(names = "--single-step", description = "Import all files in a single step, prefetching the next file while the current one is read.")
+	private boolean singleStep;
+
+	@ArgGroup(exclusive = false, heading = "Follow options%n")
+	private FileFollowArgs followArgs = new FileFollowArgs();
+
+	@Option(names = "--manifest", description = "File recording imported files so that files that did not change are skipped on the next run.", paramLabel = "<file>")
+	private File manifestFile;
+
+	@Option(names = "--manifest-hash", description = "Also compare SHA-256 hashes of file contents to detect changed files.")
+	private boolean manifestHash;
+
+	private ImportManifest manifest;
+	private final Map<String, ImportManifest.Entry> manifestEntries = new HashMap<>();
+
 	public void copyTo(FileImport target) {
 		super.copyTo(target);
 		target.fileReaderArgs = fileReaderArgs;
 		target.processorArgs = processorArgs;
+		target.fileParallelism = fileParallelism;
+		target.singleStep = singleStep;
+		target.followArgs = followArgs;
+		target.manifestFile = manifestFile;
+		target.manifestHash = manifestHash;
 	}
 
 	@Override
@@ -63,15 +117,144 @@ public class FileImport extends AbstractImport {
 	@Override
 	protected Job job() {
 		Assert.notEmpty(fileReaderArgs.getFiles(), "No file specified");
-		return job(fileReaderArgs.resources().stream().map(this::step).collect(Collectors.toList()));
+		List<String> locations = fileReaderArgs.locations();
+		if (followArgs.isFollow()) {
+			// Followed files never end, so they are all followed concurrently
+			List<Step<?, ?>> steps = locations.stream().map(this::followStep).collect(Collectors.toList());
+			return job(steps, steps.size(), MessageFormat.format(FOLLOW_PARALLEL_TASK_NAME_FORMAT, steps.size()));
+		}
+		if (manifestFile != null) {
+			locations = unimportedLocations(locations);
+			if (locations.isEmpty()) {
+				log.info("All files are unchanged since they were imported");
+				return job(new Step<>(new ListItemReader<>(Collections.emptyList()), new NoopItemWriter<>())
+						.name(SINGLE_STEP_NAME).taskName(NO_FILE_TASK_NAME));
+			}
+		}
+		if (singleStep) {
+			// Snapshots and records need different writers, so each file type gets its own step
+			Map<FileType, List<String>> types = locations.stream().collect(Collectors.groupingBy(this::fileType,
+					LinkedHashMap::new, Collectors.toList()));
+			if (types.size() == 1) {
+				return job(singleStep(SINGLE_STEP_NAME, types.keySet().iterator().next(), locations));
+			}
+			return job(types.entrySet().stream()
+					.map(e -> singleStep(SINGLE_STEP_NAME + "-" + e.getKey().name().toLowerCase(), e.getKey(),
+							e.getValue()))
+					.collect(Collectors.toList()));
+		}
+		if (fileParallelism > 1) {
+			// Start largest files first so they don't end up running alone at the end
+			locations = locations.stream().sorted(Comparator.<String>comparingLong(FileUtils::size).reversed())
+					.collect(Collectors.toList());
+		}
+		List<Step<?, ?>> steps = locations.stream().map(this::step).collect(Collectors.toList());
+		return job(steps, fileParallelism, MessageFormat.format(PARALLEL_TASK_NAME_FORMAT, steps.size()));
+	}
+
+	/**
+	 * Files are compared to the manifest before they are imported, so a file that
+	 * changes during the import is imported again on the next run.
+	 */
+	private List<String> unimportedLocations(List<String> locations) {
+		manifest = new ImportManifest(manifestFile.toPath());
+		manifest.setHash(manifestHash);
+		manifest.load();
+		List<String> unimported = new ArrayList<>();
+		for (String location : locations) {
+			ImportManifest.Entry entry = manifest.entry(location, fileReaderArgs.storedResource(location));
+			if (manifest.isImported(entry)) {
+				log.info("Skipping {}: unchanged since it was imported", location);
+			} else {
+				manifestEntries.put(location, entry);
+				unimported.add(location);
+			}
+		}
+		return unimported;
+	}
+
+	private void addToManifest(String location, long count) {
+		ImportManifest.Entry entry = manifestEntries.get(location);
+		entry.setCount(count);
+		manifest.add(entry);
+	}
+
+	private FileType fileType(String location) {
+		return fileReaderArgs.fileType(fileReaderArgs.resource(location));
 	}
 
 	@SuppressWarnings("unchecked")
-	private Step<?, ?> step(Resource resource) {
-		Step<?, ?> step = new Step<>(factory.create(resource), writer());
-		step.processor(processor());
+	private Step<?, ?> step(String location) {
+		Resource resource = fileReaderArgs.resource(location);
+		Step<?, ?> step;
+		if (fileReaderArgs.fileType(resource) == FileType.RIOT) {
+			step = new Step<>(factory.create(resource), snapshotWriter());
+			step.processor(snapshotProcessor());
+		} else {
+			step = new Step<>(factory.create(resource), writer());
+			step.processor(processor());
+		}
 		step.name(resource.getFilename());
 		step.taskName(MessageFormat.format(TASK_NAME_FORMAT, resource.getFilename()));
+		if (manifest != null) {
+			step.executionListener(new StepExecutionListener() {
+
+				@Override
+				public ExitStatus afterStep(StepExecution stepExecution) {
+					if (stepExecution.getStatus() == BatchStatus.COMPLETED) {
+						// Records read rather than written, as counted by the single-step reader
+						addToManifest(location, stepExecution.getReadCount());
+					}
+					return stepExecution.getExitStatus();
+				}
+
+			});
+		}
+		return step;
+	}
+
+	/**
+	 * All files are expected to be of the given type.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Step<?, ?> singleStep(String name, FileType type, List<String> locations) {
+		PrefetchingMultiResourceItemReader<?> reader = new PrefetchingMultiResourceItemReader<>(locations,
+				fileReaderArgs::resource, factory::create);
+		if (manifest != null) {
+			reader.setCompletionListener(this::addToManifest);
+		}
+		Step<?, ?> step;
+		if (type == FileType.RIOT) {
+			step = new Step<>(reader, snapshotWriter());
+			step.processor(snapshotProcessor());
+		} else {
+			step = new Step<>(reader, writer());
+			step.processor(processor());
+		}
+		step.name(name);
+		step.taskName(MessageFormat.format(PARALLEL_TASK_NAME_FORMAT, locations.size()));
+		return step;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Step<?, ?> followStep(String location) {
+		Assert.isTrue(FileUtils.isFile(location) && fileReaderArgs.compression(location) == Compression.NONE,
+				"Only local uncompressed files can be followed: " + location);
+		Path file = Paths.get(location);
+		FileTailItemReader<?> reader = new FileTailItemReader<>(file,
+				(LineMapper) factory.lineMapper(fileReaderArgs.resource(location)));
+		reader.setName(file.getFileName() + "-tail-reader");
+		reader.setCharset(Charset.forName(fileReaderArgs.getEncoding()));
+		reader.setLinesToSkip(factory.linesToSkip());
+		reader.setStateFile(followArgs.stateFile(file));
+		Step<?, ?> step = new Step<>(reader, writer());
+		step.processor(processor());
+		step.name(file.getFileName().toString());
+		step.taskName(MessageFormat.format(FOLLOW_TASK_NAME_FORMAT, file.getFileName()));
+		step.flushInterval(Duration.ofMillis(followArgs.getFlushInterval()));
+		if (followArgs.getIdleTimeout() > 0) {
+			step.idleTimeout(Duration.ofSeconds(followArgs.getIdleTimeout()));
+		}
 		return step;
 	}
 
@@ -124,6 +307,21 @@ public class FileImport extends AbstractImport {
 		return writer;
 	}
 
+	@SuppressWarnings("rawtypes")
+	private ItemProcessor snapshotProcessor() {
+		return new FunctionItemProcessor<>(new SnapshotEntryToKeyValueFunction());
+	}
+
+	/**
+	 * Snapshot entries hold DUMP payloads, which are written back with RESTORE.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private ItemWriter snapshotWriter() {
+		RedisItemWriter<byte[], byte[], KeyValue<byte[], byte[]>> writer = (RedisItemWriter) RedisItemWriter.dump();
+		configure(writer);
+		return writer;
+	}
+
 	private Class<?> itemType() {
 		if (hasOperations()) {
 			return Map.class;
@@ -139,6 +337,46 @@ public class FileImport extends AbstractImport {
 		this.fileReaderArgs = args;
 	}
 
+	public int getFileParallelism() {
+		return fileParallelism;
+	}
+
+	public void setFileParallelism(int fileParallelism) {
+		this.fileParallelism = fileParallelism;
+	}
+
+	public boolean isSingleStep() {
+		return singleStep;
+	}
+
+	public void setSingleStep(boolean singleStep) {
+		this.singleStep = singleStep;
+	}
+
+	public File getManifestFile() {
+		return manifestFile;
+	}
+
+	public void setManifestFile(File file) {
+		this.manifestFile = file;
+	}
+
+	public boolean isManifestHash() {
+		return manifestHash;
+	}
+
+	public void setManifestHash(boolean manifestHash) {
+		this.manifestHash = manifestHash;
+	}
+
+	public FileFollowArgs getFollowArgs() {
+		return followArgs;
+	}
+
+	public void setFollowArgs(FileFollowArgs args) {
+		this.followArgs = args;
+	}
+
 	public FileImportProcessorArgs getProcessorArgs() {
 		return processorArgs;
 	}
@@ -17,7 +17,7 @@ import picocli.CommandLine.RunLast;
 
 @Command(name = "riot", versionProvider = Versions.class, headerHeading = "RIOT is a data import/export tool for Redis.%n%n", footerHeading = "%nDocumentation found at http://redis.github.io/riot%n", subcommands = {
 		DatabaseImport.class, DatabaseExport.class, FileImport.class, FileExport.class, FakerImport.class,
-		Generate.class, Replicate.class, Compare.class, Ping.class, GenerateCompletion.class })
+		Generate.class, Replicate.class, RdbImport.class, RdbExport.class, Compare.class, Ping.class, GenerateCompletion.class })
 public class Main extends AbstractMain {
 
 	public static void main(String[] args) {
@@ -8,12 +8,10 @@ import java.util.Map;
 import java.util.Set;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.DoubleNode;
-import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.redis.lettucemod.timeseries.Sample;
 import com.redis.spring.batch.item.redis.common.DataType;
 import com.redis.spring.batch.item.redis.common.KeyValue;
@@ -22,6 +20,11 @@ import com.redis.spring.batch.item.redis.reader.MemKeyValue;
 import io.lettuce.core.ScoredValue;
 import io.lettuce.core.StreamMessage;
 
+/**
+ * Deserializer building {@link MemKeyValue} instances directly from parser
+ * tokens. Fields can appear in any order: a value that comes before the type
+ * is buffered as tokens and deserialized once the type is known.
+ */
 @SuppressWarnings("rawtypes")
 public class MemKeyValueDeserializer extends StdDeserializer<MemKeyValue> {
 
@@ -48,116 +51,219 @@ public class MemKeyValueDeserializer extends StdDeserializer<MemKeyValue> {
 
 	@Override
 	public MemKeyValue<String, Object> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
-		JsonNode node = p.getCodec().readTree(p);
 		MemKeyValue<String, Object> keyValue = new MemKeyValue<>();
-		JsonNode keyNode = node.get(KEY);
-		if (keyNode != null) {
-			keyValue.setKey(node.get(KEY).asText());
-		}
-		JsonNode typeNode = node.get(TYPE);
-		if (typeNode != null) {
-			keyValue.setType(typeNode.asText());
-		}
-		LongNode ttlNode = (LongNode) node.get(TTL);
-		if (ttlNode != null) {
-			keyValue.setTtl(ttlNode.asLong());
-		}
-		LongNode memUsageNode = (LongNode) node.get(MEMORY_USAGE);
-		if (memUsageNode != null) {
-			keyValue.setMem(memUsageNode.asLong());
+		TokenBuffer valueBuffer = null;
+		for (JsonToken token = startObject(p); token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+			String field = p.currentName();
+			JsonToken valueToken = p.nextToken();
+			if (valueToken == JsonToken.VALUE_NULL) {
+				continue;
+			}
+			switch (field) {
+			case KEY:
+				keyValue.setKey(p.getText());
+				break;
+			case TYPE:
+				keyValue.setType(p.getText());
+				break;
+			case TTL:
+				keyValue.setTtl(p.getValueAsLong());
+				break;
+			case MEMORY_USAGE:
+				keyValue.setMem(p.getValueAsLong());
+				break;
+			case VALUE:
+				DataType type = KeyValue.type(keyValue);
+				if (type == null) {
+					valueBuffer = ctxt.bufferAsCopyOfValue(p);
+				} else {
+					keyValue.setValue(value(type, p, ctxt));
+				}
+				break;
+			default:
+				p.skipChildren();
+				break;
+			}
 		}
-		JsonNode valueNode = node.get(VALUE);
-		if (valueNode != null) {
+		if (valueBuffer != null) {
 			DataType type = KeyValue.type(keyValue);
 			if (type != null) {
-				keyValue.setValue(value(type, valueNode, ctxt));
+				try (JsonParser bufferParser = valueBuffer.asParser(p.getCodec())) {
+					bufferParser.nextToken();
+					keyValue.setValue(value(type, bufferParser, ctxt));
+				}
 			}
 		}
 		return keyValue;
 	}
 
-	private Object value(DataType type, JsonNode node, DeserializationContext ctxt) throws IOException {
+	private JsonToken startObject(JsonParser p) throws IOException {
+		JsonToken token = p.currentToken();
+		if (token == JsonToken.START_OBJECT) {
+			return p.nextToken();
+		}
+		return token;
+	}
+
+	/**
+	 * Reads the value the parser is positioned on and leaves the parser on its last
+	 * token.
+	 */
+	private Object value(DataType type, JsonParser p, DeserializationContext ctxt) throws IOException {
 		switch (type) {
 		case STREAM:
-			return streamMessages((ArrayNode) node, ctxt);
+			expectArray(p, ctxt);
+			return streamMessages(p, ctxt);
 		case ZSET:
-			return scoredValues((ArrayNode) node);
+			expectArray(p, ctxt);
+			return scoredValues(p);
 		case TIMESERIES:
-			return samples((ArrayNode) node);
+			expectArray(p, ctxt);
+			return samples(p);
 		case HASH:
-			return ctxt.readTreeAsValue(node, Map.class);
+			return ctxt.readValue(p, Map.class);
 		case STRING:
 		case JSON:
-			return node.asText();
+			return text(p);
 		case LIST:
-			return ctxt.readTreeAsValue(node, Collection.class);
+			return ctxt.readValue(p, Collection.class);
 		case SET:
-			return ctxt.readTreeAsValue(node, Set.class);
+			return ctxt.readValue(p, Set.class);
 		default:
+			p.skipChildren();
 			return null;
 		}
 	}
 
-	private Collection<Sample> samples(ArrayNode node) {
-		Collection<Sample> samples = new ArrayList<>(node.size());
-		for (int index = 0; index < node.size(); index++) {
-			JsonNode sampleNode = node.get(index);
-			if (sampleNode != null) {
-				samples.add(sample(sampleNode));
-			}
+	private void expectArray(JsonParser p, DeserializationContext ctxt) throws IOException {
+		if (!p.isExpectedStartArrayToken()) {
+			ctxt.reportWrongTokenException(this, JsonToken.START_ARRAY, "Expected array of %s values", VALUE);
+		}
+	}
+
+	private String text(JsonParser p) throws IOException {
+		if (p.currentToken().isScalarValue()) {
+			return p.getText();
+		}
+		p.skipChildren();
+		return "";
+	}
+
+	private Collection<Sample> samples(JsonParser p) throws IOException {
+		Collection<Sample> samples = new ArrayList<>();
+		while (nextElement(p)) {
+			samples.add(sample(p));
 		}
 		return samples;
 	}
 
-	private Sample sample(JsonNode node) {
-		LongNode timestampNode = (LongNode) node.get(TIMESTAMP);
-		long timestamp = timestampNode == null || timestampNode.isNull() ? 0 : timestampNode.asLong();
-		DoubleNode valueNode = (DoubleNode) node.get(VALUE);
-		double value = valueNode == null || valueNode.isNull() ? 0 : valueNode.asDouble();
+	private Sample sample(JsonParser p) throws IOException {
+		long timestamp = 0;
+		double value = 0;
+		for (JsonToken token = p.nextToken(); token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+			String field = p.currentName();
+			JsonToken valueToken = p.nextToken();
+			if (valueToken == JsonToken.VALUE_NULL) {
+				continue;
+			}
+			switch (field) {
+			case TIMESTAMP:
+				timestamp = p.getValueAsLong();
+				break;
+			case VALUE:
+				value = p.getValueAsDouble();
+				break;
+			default:
+				p.skipChildren();
+				break;
+			}
+		}
 		return Sample.of(timestamp, value);
 	}
 
-	private Set<ScoredValue<String>> scoredValues(ArrayNode node) {
-		Set<ScoredValue<String>> scoredValues = new HashSet<>(node.size());
-		for (int index = 0; index < node.size(); index++) {
-			JsonNode scoredValueNode = node.get(index);
-			if (scoredValueNode != null) {
-				scoredValues.add(scoredValue(scoredValueNode));
-			}
+	private Set<ScoredValue<String>> scoredValues(JsonParser p) throws IOException {
+		Set<ScoredValue<String>> scoredValues = new HashSet<>();
+		while (nextElement(p)) {
+			scoredValues.add(scoredValue(p));
 		}
 		return scoredValues;
 	}
 
-	private ScoredValue<String> scoredValue(JsonNode scoredValueNode) {
-		JsonNode valueNode = scoredValueNode.get(VALUE);
-		String value = valueNode == null || valueNode.isNull() ? null : valueNode.asText();
-		DoubleNode scoreNode = (DoubleNode) scoredValueNode.get(SCORE);
-		double score = scoreNode == null || scoreNode.isNull() ? 0 : scoreNode.asDouble();
+	private ScoredValue<String> scoredValue(JsonParser p) throws IOException {
+		String value = null;
+		double score = 0;
+		for (JsonToken token = p.nextToken(); token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+			String field = p.currentName();
+			JsonToken valueToken = p.nextToken();
+			if (valueToken == JsonToken.VALUE_NULL) {
+				continue;
+			}
+			switch (field) {
+			case VALUE:
+				value = text(p);
+				break;
+			case SCORE:
+				score = p.getValueAsDouble();
+				break;
+			default:
+				p.skipChildren();
+				break;
+			}
+		}
 		return ScoredValue.just(score, value);
 	}
 
-	private Collection<StreamMessage<String, String>> streamMessages(ArrayNode node, DeserializationContext ctxt)
+	private Collection<StreamMessage<String, String>> streamMessages(JsonParser p, DeserializationContext ctxt)
 			throws IOException {
-		Collection<StreamMessage<String, String>> messages = new ArrayList<>(node.size());
-		for (int index = 0; index < node.size(); index++) {
-			JsonNode messageNode = node.get(index);
-			if (messageNode != null) {
-				messages.add(streamMessage(messageNode, ctxt));
-			}
+		Collection<StreamMessage<String, String>> messages = new ArrayList<>();
+		while (nextElement(p)) {
+			messages.add(streamMessage(p, ctxt));
 		}
 		return messages;
 	}
 
 	@SuppressWarnings("unchecked")
-	private StreamMessage<String, String> streamMessage(JsonNode messageNode, DeserializationContext ctxt)
+	private StreamMessage<String, String> streamMessage(JsonParser p, DeserializationContext ctxt)
 			throws IOException {
-		JsonNode streamNode = messageNode.get(STREAM);
-		String stream = streamNode == null || streamNode.isNull() ? null : streamNode.asText();
-		JsonNode bodyNode = messageNode.get(BODY);
-		Map<String, String> body = ctxt.readTreeAsValue(bodyNode, Map.class);
-		JsonNode idNode = messageNode.get(ID);
-		String id = idNode == null || idNode.isNull() ? null : idNode.asText();
+		String stream = null;
+		String id = null;
+		Map<String, String> body = null;
+		for (JsonToken token = p.nextToken(); token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+			String field = p.currentName();
+			JsonToken valueToken = p.nextToken();
+			if (valueToken == JsonToken.VALUE_NULL) {
+				continue;
+			}
+			switch (field) {
+			case STREAM:
+				stream = text(p);
+				break;
+			case ID:
+				id = text(p);
+				break;
+			case BODY:
+				body = ctxt.readValue(p, Map.class);
+				break;
+			default:
+				p.skipChildren();
+				break;
+			}
+		}
 		return new StreamMessage<>(stream, id, body);
 	}
 
+	/**
+	 * Advances to the next object of the array the parser is in.
+	 *
+	 * @return false if the end of the array was reached
+	 */
+	private boolean nextElement(JsonParser p) throws IOException {
+		JsonToken token = p.nextToken();
+		while (token != null && token != JsonToken.END_ARRAY && token != JsonToken.START_OBJECT) {
+			p.skipChildren();
+			token = p.nextToken();
+		}
+		return token == JsonToken.START_OBJECT;
+	}
+
 }
@@ -0,0 +1,71 @@
+package com.redis.riot;
+
+import java.nio.file.Path;
+
+import org.springframework.batch.core.Job;
+
+import com.redis.riot.core.Step;
+import com.redis.spring.batch.item.redis.RedisItemReader;
+import com.redis.spring.batch.item.redis.common.KeyValue;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+@Command(name = "rdb-export", description = "Export Redis data to an RDB file.")
+public class RdbExport extends AbstractExport {
+
+	@Parameters(arity = "1", description = "RDB file to write.", paramLabel = "FILE")
+	private Path file;
+
+	@Option(names = "--rdb-version", description = "RDB version of the file (default: version of DUMP payloads).", paramLabel = "<int>")
+	private Integer rdbVersion;
+
+	public void copyTo(RdbExport target) {
+		super.copyTo(target);
+		target.file = file;
+		target.rdbVersion = rdbVersion;
+	}
+
+	@Override
+	protected Job job() {
+		RedisItemReader<byte[], byte[], KeyValue<byte[], byte[]>> reader = reader();
+		RdbItemWriter writer = writer();
+		Step<KeyValue<byte[], byte[]>, KeyValue<byte[], byte[]>> step = exportStep(reader, writer);
+		// The file is only finished if the step completed
+		step.executionListener(writer);
+		step.taskName("Exporting");
+		return job(step);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private RedisItemReader<byte[], byte[], KeyValue<byte[], byte[]>> reader() {
+		RedisItemReader<byte[], byte[], KeyValue<byte[], byte[]>> reader = (RedisItemReader) RedisItemReader.dump();
+		configure(reader);
+		return reader;
+	}
+
+	private RdbItemWriter writer() {
+		RdbItemWriter writer = new RdbItemWriter(file);
+		writer.setRdbVersion(rdbVersion);
+		writer.setDatabase(redisURIClient.getUri().getDatabase());
+		return writer;
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public void setFile(Path file) {
+		this.file = file;
+	}
+
+	public Integer getRdbVersion() {
+		return rdbVersion;
+	}
+
+	public void setRdbVersion(Integer version) {
+		this.rdbVersion = version;
+	}
+
+}
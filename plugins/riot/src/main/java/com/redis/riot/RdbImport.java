@@ -0,0 +1,179 @@
+package com.redis.riot;
+
+import java.io.File;
+import java.text.MessageFormat;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import com.redis.riot.core.RiotUtils;
+import com.redis.riot.core.Step;
+import com.redis.riot.function.StringKeyValueFunction;
+import com.redis.spring.batch.item.redis.RedisItemWriter;
+import com.redis.spring.batch.item.redis.common.KeyValue;
+
+import io.lettuce.core.codec.ByteArrayCodec;
+import picocli.CommandLine.ArgGroup;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+@Command(name = "rdb-import", description = "Import data from an RDB file.")
+public class RdbImport extends AbstractRedisCommand {
+
+	private static final String TASK_NAME_FORMAT = "Importing {0}";
+
+	@Parameters(arity = "1", description = "RDB file to import.", paramLabel = "FILE")
+	private File file;
+
+	@Option(names = "--struct", description = "Enable data-structure type-based import instead of DUMP/RESTORE.")
+	private boolean struct;
+
+	@Option(names = "--rdb-version", description = "RDB version of DUMP payloads, for restoring into older Redis versions (default: version of the file).", paramLabel = "<int>")
+	private int rdbVersion = RdbItemReader.DEFAULT_RDB_VERSION;
+
+	@Option(names = "--source-db", description = "Only import keys from this database of the RDB file (default: all).", paramLabel = "<int>")
+	private Integer sourceDatabase;
+
+	@Option(names = "--read-queue", description = "Max number of parsed keys waiting to be written (default: ${DEFAULT-VALUE}).", paramLabel = "<int>")
+	private int queueCapacity = RdbItemReader.DEFAULT_QUEUE_CAPACITY;
+
+	@ArgGroup(exclusive = false)
+	private KeyFilterArgs keyFilterArgs = new KeyFilterArgs();
+
+	@ArgGroup(exclusive = false, heading = "Processor options%n")
+	private ReplicateProcessorArgs processorArgs = new ReplicateProcessorArgs();
+
+	@ArgGroup(exclusive = false, heading = "Redis writer options%n")
+	private RedisWriterArgs redisWriterArgs = new RedisWriterArgs();
+
+	public void copyTo(RdbImport target) {
+		super.copyTo(target);
+		target.file = file;
+		target.struct = struct;
+		target.rdbVersion = rdbVersion;
+		target.sourceDatabase = sourceDatabase;
+		target.queueCapacity = queueCapacity;
+		target.keyFilterArgs = keyFilterArgs;
+		target.processorArgs = processorArgs;
+		target.redisWriterArgs = redisWriterArgs;
+	}
+
+	@Override
+	protected Job job() {
+		Step<KeyValue<byte[], Object>, KeyValue<byte[], Object>> step = new Step<>(reader(), writer());
+		step.processor(processor());
+		step.name(file.getName());
+		step.taskName(MessageFormat.format(TASK_NAME_FORMAT, file.getName()));
+		return job(step);
+	}
+
+	private RdbItemReader reader() {
+		RdbItemReader reader = new RdbItemReader(file);
+		reader.setDump(!struct);
+		reader.setRdbVersion(rdbVersion);
+		reader.setDatabase(sourceDatabase);
+		reader.setQueueCapacity(queueCapacity);
+		keyFilterArgs.predicate(ByteArrayCodec.INSTANCE).ifPresent(reader::setKeyPredicate);
+		return reader;
+	}
+
+	protected ItemProcessor<KeyValue<byte[], Object>, KeyValue<byte[], Object>> processor() {
+		StandardEvaluationContext evaluationContext = evaluationContext(processorArgs.getEvaluationContextArgs());
+		ItemProcessor<KeyValue<String, Object>, KeyValue<String, Object>> processor = processorArgs
+				.getKeyValueProcessorArgs().processor(evaluationContext);
+		if (processor == null) {
+			return null;
+		}
+		ItemProcessor<KeyValue<byte[], Object>, KeyValue<String, Object>> code = new ToStringKeyValueProcessor<>(
+				ByteArrayCodec.INSTANCE);
+		ItemProcessor<KeyValue<String, Object>, KeyValue<byte[], Object>> decode = new StringKeyValueFunction<>(
+				ByteArrayCodec.INSTANCE);
+		return RiotUtils.processor(code, processor, decode);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private RedisItemWriter<byte[], byte[], KeyValue<byte[], Object>> writer() {
+		RedisItemWriter<byte[], byte[], KeyValue<byte[], Object>> writer;
+		if (struct) {
+			writer = (RedisItemWriter) RedisItemWriter.struct(ByteArrayCodec.INSTANCE);
+		} else {
+			writer = (RedisItemWriter) RedisItemWriter.dump();
+		}
+		configure(writer);
+		return writer;
+	}
+
+	@Override
+	protected void configure(RedisItemWriter<?, ?, ?> writer) {
+		super.configure(writer);
+		log.info("Configuring Redis writer with {}", redisWriterArgs);
+		redisWriterArgs.configure(writer);
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public void setFile(File file) {
+		this.file = file;
+	}
+
+	public boolean isStruct() {
+		return struct;
+	}
+
+	public void setStruct(boolean struct) {
+		this.struct = struct;
+	}
+
+	public int getRdbVersion() {
+		return rdbVersion;
+	}
+
+	public void setRdbVersion(int version) {
+		this.rdbVersion = version;
+	}
+
+	public Integer getSourceDatabase() {
+		return sourceDatabase;
+	}
+
+	public void setSourceDatabase(Integer database) {
+		this.sourceDatabase = database;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int capacity) {
+		this.queueCapacity = capacity;
+	}
+
+	public KeyFilterArgs getKeyFilterArgs() {
+		return keyFilterArgs;
+	}
+
+	public void setKeyFilterArgs(KeyFilterArgs args) {
+		this.keyFilterArgs = args;
+	}
+
+	public ReplicateProcessorArgs getProcessorArgs() {
+		return processorArgs;
+	}
+
+	public void setProcessorArgs(ReplicateProcessorArgs args) {
+		this.processorArgs = args;
+	}
+
+	public RedisWriterArgs getRedisWriterArgs() {
+		return redisWriterArgs;
+	}
+
+	public void setRedisWriterArgs(RedisWriterArgs args) {
+		this.redisWriterArgs = args;
+	}
+
+}
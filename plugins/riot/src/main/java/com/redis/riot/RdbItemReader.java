@@ -0,0 +1,273 @@
+package com.redis.riot;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import com.moilioncircle.redis.replicator.Configuration;
+import com.moilioncircle.redis.replicator.FileType;
+import com.moilioncircle.redis.replicator.RedisReplicator;
+import com.moilioncircle.redis.replicator.Replicator;
+import com.moilioncircle.redis.replicator.event.Event;
+import com.moilioncircle.redis.replicator.rdb.datatype.KeyStringValueHash;
+import com.moilioncircle.redis.replicator.rdb.datatype.KeyStringValueList;
+import com.moilioncircle.redis.replicator.rdb.datatype.KeyStringValueSet;
+import com.moilioncircle.redis.replicator.rdb.datatype.KeyStringValueStream;
+import com.moilioncircle.redis.replicator.rdb.datatype.KeyStringValueString;
+import com.moilioncircle.redis.replicator.rdb.datatype.KeyStringValueZSet;
+import com.moilioncircle.redis.replicator.rdb.datatype.KeyValuePair;
+import com.moilioncircle.redis.replicator.rdb.datatype.Stream;
+import com.moilioncircle.redis.replicator.rdb.datatype.ZSetEntry;
+import com.moilioncircle.redis.replicator.rdb.dump.DumpRdbVisitor;
+import com.moilioncircle.redis.replicator.rdb.dump.datatype.DumpKeyValuePair;
+import com.redis.spring.batch.item.redis.common.DataType;
+import com.redis.spring.batch.item.redis.common.KeyValue;
+
+import io.lettuce.core.ScoredValue;
+import io.lettuce.core.StreamMessage;
+
+/**
+ * Reader streaming the keys of an RDB file. The file is parsed in a background
+ * thread which hands key-values over through a bounded queue, so memory use
+ * does not depend on the size of the file and several threads can consume
+ * items concurrently.
+ * <p>
+ * In dump mode values are returned as DUMP payloads, otherwise they are
+ * returned as data structures. Keys that do not match the key predicate are
+ * dropped while parsing.
+ */
+public class RdbItemReader extends ItemStreamSupport implements ItemStreamReader<KeyValue<byte[], Object>> {
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+	public static final int DEFAULT_RDB_VERSION = -1;
+
+	private static final long POLL_TIMEOUT_MILLIS = 100;
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final File file;
+
+	private boolean dump = true;
+	private int rdbVersion = DEFAULT_RDB_VERSION;
+	private Integer database;
+	private Predicate<byte[]> keyPredicate = k -> true;
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+	private BlockingQueue<KeyValue<byte[], Object>> queue;
+	private Replicator replicator;
+	private Thread thread;
+	private volatile boolean done;
+	private volatile Exception exception;
+
+	public RdbItemReader(File file) {
+		setName(ClassUtils.getShortName(getClass()));
+		Assert.notNull(file, "File must not be null");
+		this.file = file;
+	}
+
+	@Override
+	public synchronized void open(ExecutionContext executionContext) {
+		if (thread != null) {
+			return;
+		}
+		queue = new LinkedBlockingQueue<>(queueCapacity);
+		done = false;
+		exception = null;
+		try {
+			replicator = new RedisReplicator(file, FileType.RDB, Configuration.defaultSetting());
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not open RDB file " + file, e);
+		}
+		if (dump) {
+			replicator.setRdbVisitor(new DumpRdbVisitor(replicator, rdbVersion));
+		}
+		replicator.addEventListener((r, event) -> onEvent(event));
+		thread = new Thread(this::parse, "rdb-reader");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void parse() {
+		try {
+			replicator.open();
+		} catch (Exception e) {
+			if (!Thread.currentThread().isInterrupted()) {
+				exception = e;
+			}
+		} finally {
+			done = true;
+		}
+	}
+
+	private void onEvent(Event event) {
+		if (!(event instanceof KeyValuePair)) {
+			return;
+		}
+		KeyValuePair<?, ?> pair = (KeyValuePair<?, ?>) event;
+		if (database != null && pair.getDb() != null && pair.getDb().getDbNumber() != database) {
+			return;
+		}
+		byte[] key = (byte[]) pair.getKey();
+		if (!keyPredicate.test(key)) {
+			return;
+		}
+		KeyValue<byte[], Object> keyValue = keyValue(pair);
+		if (keyValue == null) {
+			return;
+		}
+		keyValue.setKey(key);
+		Long expiration = pair.getExpiredMs();
+		if (expiration != null) {
+			keyValue.setTtl(expiration);
+		}
+		try {
+			queue.put(keyValue);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ItemStreamException("Interrupted while reading RDB file " + file, e);
+		}
+	}
+
+	private KeyValue<byte[], Object> keyValue(KeyValuePair<?, ?> pair) {
+		KeyValue<byte[], Object> keyValue = new KeyValue<>();
+		if (pair instanceof DumpKeyValuePair) {
+			keyValue.setValue(((DumpKeyValuePair) pair).getValue());
+		} else if (pair instanceof KeyStringValueString) {
+			keyValue.setType(DataType.STRING.getString());
+			keyValue.setValue(((KeyStringValueString) pair).getValue());
+		} else if (pair instanceof KeyStringValueHash) {
+			keyValue.setType(DataType.HASH.getString());
+			keyValue.setValue(((KeyStringValueHash) pair).getValue());
+		} else if (pair instanceof KeyStringValueList) {
+			keyValue.setType(DataType.LIST.getString());
+			keyValue.setValue(((KeyStringValueList) pair).getValue());
+		} else if (pair instanceof KeyStringValueSet) {
+			keyValue.setType(DataType.SET.getString());
+			keyValue.setValue(((KeyStringValueSet) pair).getValue());
+		} else if (pair instanceof KeyStringValueZSet) {
+			keyValue.setType(DataType.ZSET.getString());
+			keyValue.setValue(scoredValues(((KeyStringValueZSet) pair).getValue()));
+		} else if (pair instanceof KeyStringValueStream) {
+			keyValue.setType(DataType.STREAM.getString());
+			keyValue.setValue(streamMessages((byte[]) pair.getKey(), ((KeyStringValueStream) pair).getValue()));
+		} else {
+			log.warn("Skipping key {} of unsupported RDB type {}", new String((byte[]) pair.getKey()),
+					pair.getValueRdbType());
+			return null;
+		}
+		return keyValue;
+	}
+
+	private Set<ScoredValue<byte[]>> scoredValues(Set<ZSetEntry> entries) {
+		Set<ScoredValue<byte[]>> scoredValues = new HashSet<>(entries.size());
+		for (ZSetEntry entry : entries) {
+			scoredValues.add(ScoredValue.just(entry.getScore(), entry.getElement()));
+		}
+		return scoredValues;
+	}
+
+	private Collection<StreamMessage<byte[], byte[]>> streamMessages(byte[] key, Stream stream) {
+		Collection<StreamMessage<byte[], byte[]>> messages = new ArrayList<>();
+		for (Map.Entry<Stream.ID, Stream.Entry> entry : stream.getEntries().entrySet()) {
+			if (!entry.getValue().isDeleted()) {
+				messages.add(new StreamMessage<>(key, entry.getKey().toString(), entry.getValue().getFields()));
+			}
+		}
+		return messages;
+	}
+
+	@Override
+	public KeyValue<byte[], Object> read() throws Exception {
+		KeyValue<byte[], Object> keyValue;
+		do {
+			boolean finished = done;
+			keyValue = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			if (keyValue == null && finished) {
+				if (exception != null) {
+					throw exception;
+				}
+				return null;
+			}
+		} while (keyValue == null);
+		return keyValue;
+	}
+
+	@Override
+	public synchronized void close() {
+		if (thread == null) {
+			return;
+		}
+		try {
+			replicator.close();
+		} catch (IOException e) {
+			log.debug("Could not close RDB replicator", e);
+		}
+		thread.interrupt();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		thread = null;
+		replicator = null;
+		queue = null;
+	}
+
+	public boolean isDump() {
+		return dump;
+	}
+
+	public void setDump(boolean dump) {
+		this.dump = dump;
+	}
+
+	public int getRdbVersion() {
+		return rdbVersion;
+	}
+
+	public void setRdbVersion(int version) {
+		this.rdbVersion = version;
+	}
+
+	public Integer getDatabase() {
+		return database;
+	}
+
+	public void setDatabase(Integer database) {
+		this.database = database;
+	}
+
+	public Predicate<byte[]> getKeyPredicate() {
+		return keyPredicate;
+	}
+
+	public void setKeyPredicate(Predicate<byte[]> predicate) {
+		this.keyPredicate = predicate;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int capacity) {
+		this.queueCapacity = capacity;
+	}
+
+}
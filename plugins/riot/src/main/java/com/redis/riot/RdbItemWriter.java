@@ -0,0 +1,222 @@
+package com.redis.riot;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CheckedOutputStream;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import com.redis.spring.batch.item.redis.common.KeyValue;
+
+/**
+ * Writer producing an RDB file from DUMP payloads. A DUMP payload is the RDB
+ * encoding of a value followed by the RDB version (2 bytes) and a CRC64 (8
+ * bytes), so each key is written as its expiry, the type byte of the payload,
+ * the key and the encoded value.
+ * <p>
+ * The RDB version of the file is the one of the first payload unless set
+ * explicitly. The file is written to a temporary path, and only finished (EOF
+ * opcode and checksum) and moved into place when the writer is closed after
+ * its step completed. Otherwise the temporary file is deleted so that a failed
+ * export never replaces an existing file with a partial one.
+ */
+public class RdbItemWriter extends ItemStreamSupport
+		implements ItemStreamWriter<KeyValue<byte[], byte[]>>, StepExecutionListener {
+
+	public static final int DEFAULT_RDB_VERSION = 9;
+
+	private static final byte[] MAGIC = "REDIS".getBytes(StandardCharsets.US_ASCII);
+	private static final int OPCODE_AUX = 0xFA;
+	private static final int OPCODE_EXPIRETIME_MS = 0xFC;
+	private static final int OPCODE_SELECTDB = 0xFE;
+	private static final int OPCODE_EOF = 0xFF;
+	private static final int PAYLOAD_FOOTER_LENGTH = 10;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private final Path file;
+
+	private Integer rdbVersion;
+	private int database;
+
+	private Path tempFile;
+	private Crc64 checksum;
+	private OutputStream output;
+	private int version;
+	private boolean headerWritten;
+	private boolean completed;
+
+	public RdbItemWriter(Path file) {
+		setName(ClassUtils.getShortName(getClass()));
+		Assert.notNull(file, "File must not be null");
+		this.file = file;
+	}
+
+	@Override
+	public synchronized void open(ExecutionContext executionContext) {
+		if (output != null) {
+			return;
+		}
+		tempFile = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+		checksum = new Crc64();
+		try {
+			output = new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), BUFFER_SIZE),
+					checksum);
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not open RDB file " + tempFile, e);
+		}
+		headerWritten = false;
+		completed = false;
+	}
+
+	@Override
+	public synchronized void write(Chunk<? extends KeyValue<byte[], byte[]>> chunk) throws IOException {
+		for (KeyValue<byte[], byte[]> keyValue : chunk) {
+			byte[] payload = keyValue.getValue();
+			if (payload == null || payload.length <= PAYLOAD_FOOTER_LENGTH) {
+				continue;
+			}
+			int payloadVersion = (payload[payload.length - 10] & 0xFF) | (payload[payload.length - 9] & 0xFF) << 8;
+			if (!headerWritten) {
+				writeHeader(rdbVersion == null ? payloadVersion : rdbVersion);
+			}
+			if (payloadVersion > version) {
+				throw new IOException("DUMP payload of key " + new String(keyValue.getKey(), StandardCharsets.UTF_8)
+						+ " has RDB version " + payloadVersion + " which is newer than file version " + version);
+			}
+			if (keyValue.getTtl() > 0) {
+				output.write(OPCODE_EXPIRETIME_MS);
+				writeLong(keyValue.getTtl());
+			}
+			output.write(payload[0]);
+			writeString(keyValue.getKey());
+			output.write(payload, 1, payload.length - 1 - PAYLOAD_FOOTER_LENGTH);
+		}
+	}
+
+	private void writeHeader(int version) throws IOException {
+		this.version = version;
+		output.write(MAGIC);
+		output.write(String.format("%04d", version).getBytes(StandardCharsets.US_ASCII));
+		writeAux("ctime", String.valueOf(System.currentTimeMillis() / 1000));
+		output.write(OPCODE_SELECTDB);
+		writeLength(database);
+		headerWritten = true;
+	}
+
+	private void writeAux(String key, String value) throws IOException {
+		output.write(OPCODE_AUX);
+		writeString(key.getBytes(StandardCharsets.US_ASCII));
+		writeString(value.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private void writeString(byte[] bytes) throws IOException {
+		writeLength(bytes.length);
+		output.write(bytes);
+	}
+
+	private void writeLength(long length) throws IOException {
+		if (length < 1 << 6) {
+			output.write((int) length);
+		} else if (length < 1 << 14) {
+			output.write((int) (length >> 8) | 0x40);
+			output.write((int) length & 0xFF);
+		} else if (length <= 0xFFFFFFFFL) {
+			output.write(0x80);
+			for (int shift = 24; shift >= 0; shift -= 8) {
+				output.write((int) (length >> shift) & 0xFF);
+			}
+		} else {
+			output.write(0x81);
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				output.write((int) (length >> shift) & 0xFF);
+			}
+		}
+	}
+
+	/**
+	 * Writes the given value in little-endian order.
+	 */
+	private void writeLong(long value) throws IOException {
+		for (int shift = 0; shift < Long.SIZE; shift += 8) {
+			output.write((int) (value >> shift) & 0xFF);
+		}
+	}
+
+	@Override
+	public synchronized ExitStatus afterStep(StepExecution stepExecution) {
+		completed = stepExecution.getStatus() == BatchStatus.COMPLETED;
+		return stepExecution.getExitStatus();
+	}
+
+	/**
+	 * 
+	 * @param completed true if the file is to be finished rather than deleted
+	 *                  when the writer is closed. Set by {@link #afterStep} when
+	 *                  the writer is a listener of its step.
+	 */
+	public synchronized void setCompleted(boolean completed) {
+		this.completed = completed;
+	}
+
+	@Override
+	public synchronized void close() {
+		if (output == null) {
+			return;
+		}
+		try {
+			if (completed) {
+				finish();
+			} else {
+				output.close();
+				Files.deleteIfExists(tempFile);
+			}
+		} catch (IOException e) {
+			throw new ItemStreamException("Could not write RDB file " + file, e);
+		} finally {
+			output = null;
+		}
+	}
+
+	private void finish() throws IOException {
+		if (!headerWritten) {
+			writeHeader(rdbVersion == null ? DEFAULT_RDB_VERSION : rdbVersion);
+		}
+		output.write(OPCODE_EOF);
+		writeLong(checksum.getValue());
+		output.close();
+		Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	public Integer getRdbVersion() {
+		return rdbVersion;
+	}
+
+	public void setRdbVersion(Integer version) {
+		this.rdbVersion = version;
+	}
+
+	public int getDatabase() {
+		return database;
+	}
+
+	public void setDatabase(int database) {
+		this.database = database;
+	}
+
+}
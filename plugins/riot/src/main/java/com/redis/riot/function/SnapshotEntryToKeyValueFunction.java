@@ -0,0 +1,19 @@
+package com.redis.riot.function;
+
+import java.util.function.Function;
+
+import com.redis.riot.file.snapshot.SnapshotEntry;
+import com.redis.spring.batch.item.redis.common.KeyValue;
+
+public class SnapshotEntryToKeyValueFunction implements Function<SnapshotEntry, KeyValue<byte[], byte[]>> {
+
+	@Override
+	public KeyValue<byte[], byte[]> apply(SnapshotEntry t) {
+		KeyValue<byte[], byte[]> keyValue = new KeyValue<>();
+		keyValue.setKey(t.getKey());
+		keyValue.setTtl(t.getTtl());
+		keyValue.setValue(t.getValue());
+		return keyValue;
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.redis.riot.function;
+
+import java.util.function.Function;
+
+import com.redis.riot.file.snapshot.SnapshotEntry;
+import com.redis.spring.batch.item.redis.common.KeyValue;
+
+public class ToSnapshotEntryFunction implements Function<KeyValue<byte[], byte[]>, SnapshotEntry> {
+
+	@Override
+	public SnapshotEntry apply(KeyValue<byte[], byte[]> t) {
+		return new SnapshotEntry(t.getKey(), t.getTtl(), t.getValue());
+	}
+
+}
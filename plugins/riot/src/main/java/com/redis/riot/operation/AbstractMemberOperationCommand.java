@@ -3,6 +3,8 @@ package com.redis.riot.operation;
 import java.util.Map;
 import java.util.function.Function;
 
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import picocli.CommandLine.ArgGroup;
 
 abstract class AbstractMemberOperationCommand extends AbstractOperationCommand {
@@ -14,4 +16,16 @@ abstract class AbstractMemberOperationCommand extends AbstractOperationCommand {
 		return idFunction(memberArgs.getMemberSpace(), memberArgs.getMemberFields());
 	}
 
+	/**
+	 * 
+	 * @return operation removing the members written by {@link #operation()}
+	 *         without deleting the collection key
+	 */
+	@Override
+	public Rem deleteOperation() {
+		return new Rem(keyFunction(), memberFunction(), this::rem);
+	}
+
+	protected abstract RedisFuture<?> rem(RedisAsyncCommands<String, String> commands, String key, String member);
+
 }
\ No newline at end of file
@@ -9,6 +9,8 @@ import java.util.function.ToLongFunction;
 
 import com.redis.riot.core.function.FieldExtractorFactory;
 import com.redis.riot.core.function.IdFunctionBuilder;
+import com.redis.spring.batch.item.redis.common.Operation;
+import com.redis.spring.batch.item.redis.writer.operation.Del;
 
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
@@ -97,6 +99,11 @@ public abstract class AbstractOperationCommand implements OperationCommand {
 		return idFunction(keyspace, keyFields);
 	}
 
+	@Override
+	public Operation<String, String, Map<String, Object>, Object> deleteOperation() {
+		return new Del<>(keyFunction());
+	}
+
 	protected ToDoubleFunction<Map<String, Object>> score(ScoreArgs args) {
 		return toDouble(args.getField(), args.getDefaultValue());
 	}
@@ -6,6 +6,7 @@ import java.util.function.Function;
 
 import org.springframework.util.ObjectUtils;
 
+import com.redis.riot.core.FlatStringMap;
 import com.redis.riot.core.function.MapFilteringFunction;
 import com.redis.riot.core.function.MapFlatteningFunction;
 import com.redis.riot.core.function.ObjectToStringFunction;
@@ -24,7 +25,8 @@ public class FieldFilterArgs {
 		Function<Map<String, Object>, Map<String, String>> mapFlattener = new MapFlatteningFunction<>(
 				new ObjectToStringFunction());
 		if (ObjectUtils.isEmpty(includeFields) && ObjectUtils.isEmpty(excludeFields)) {
-			return mapFlattener;
+			// Records of strings are already flat and are not modified by the operation
+			return m -> m instanceof FlatStringMap ? ((FlatStringMap) m).asStringMap() : mapFlattener.apply(m);
 		}
 		MapFilteringFunction filtering = new MapFilteringFunction();
 		if (!ObjectUtils.isEmpty(includeFields)) {
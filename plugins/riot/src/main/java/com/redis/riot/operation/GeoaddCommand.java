@@ -6,6 +6,8 @@ import java.util.function.ToDoubleFunction;
 import com.redis.riot.function.ToGeoValueFunction;
 import com.redis.spring.batch.item.redis.writer.operation.Geoadd;
 
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
@@ -45,4 +47,9 @@ public class GeoaddCommand extends AbstractMemberOperationCommand {
 		return new ToGeoValueFunction<>(memberFunction(), lon, lat);
 	}
 
+	@Override
+	protected RedisFuture<Long> rem(RedisAsyncCommands<String, String> commands, String key, String member) {
+		return commands.zrem(key, member);
+	}
+
 }
\ No newline at end of file
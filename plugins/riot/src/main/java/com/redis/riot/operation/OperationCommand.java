@@ -8,4 +8,13 @@ public interface OperationCommand {
 
 	Operation<String, String, Map<String, Object>, Object> operation();
 
+	/**
+	 * 
+	 * @return operation deleting what {@link #operation()} writes: the key itself
+	 *         for key commands, only the item member for collection commands
+	 * @throws UnsupportedOperationException if what the command writes cannot
+	 *                                       be identified and deleted
+	 */
+	Operation<String, String, Map<String, Object>, Object> deleteOperation();
+
 }
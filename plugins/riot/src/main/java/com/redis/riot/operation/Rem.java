@@ -0,0 +1,51 @@
+package com.redis.riot.operation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.batch.item.Chunk;
+
+import com.redis.spring.batch.item.redis.common.Operation;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+
+/**
+ * Removes the member of each item from the collection stored at its key,
+ * leaving the key and the other members in place.
+ */
+public class Rem implements Operation<String, String, Map<String, Object>, Object> {
+
+	public interface RemFunction {
+
+		RedisFuture<?> rem(RedisAsyncCommands<String, String> commands, String key, String member);
+
+	}
+
+	private final Function<Map<String, Object>, String> keyFunction;
+	private final Function<Map<String, Object>, String> memberFunction;
+	private final RemFunction remFunction;
+
+	public Rem(Function<Map<String, Object>, String> keyFunction, Function<Map<String, Object>, String> memberFunction,
+			RemFunction remFunction) {
+		this.keyFunction = keyFunction;
+		this.memberFunction = memberFunction;
+		this.remFunction = remFunction;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public List<RedisFuture<Object>> execute(RedisAsyncCommands<String, String> commands,
+			Chunk<? extends Map<String, Object>> items) {
+		List<RedisFuture<Object>> futures = new ArrayList<>();
+		for (Map<String, Object> item : items) {
+			String key = keyFunction.apply(item);
+			String member = memberFunction.apply(item);
+			futures.add((RedisFuture<Object>) remFunction.rem(commands, key, member));
+		}
+		return futures;
+	}
+
+}
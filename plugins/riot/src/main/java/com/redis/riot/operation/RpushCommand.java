@@ -5,6 +5,8 @@ import java.util.Map;
 
 import com.redis.spring.batch.item.redis.writer.operation.Rpush;
 
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import picocli.CommandLine.Command;
 
 @Command(name = "rpush", description = "Insert values at the tail of a list")
@@ -15,4 +17,9 @@ public class RpushCommand extends AbstractMemberOperationCommand {
 		return new Rpush<>(keyFunction(), memberFunction().andThen(Arrays::asList));
 	}
 
+	@Override
+	protected RedisFuture<Long> rem(RedisAsyncCommands<String, String> commands, String key, String member) {
+		return commands.lrem(key, 0, member);
+	}
+
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import java.util.Map;
 
 import com.redis.spring.batch.item.redis.writer.operation.Sadd;
 
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import picocli.CommandLine.Command;
 
 @Command(name = "sadd", description = "Add members to a set")
@@ -15,4 +17,9 @@ public class SaddCommand extends AbstractMemberOperationCommand {
 		return new Sadd<>(keyFunction(), memberFunction().andThen(Arrays::asList));
 	}
 
+	@Override
+	protected RedisFuture<Long> rem(RedisAsyncCommands<String, String> commands, String key, String member) {
+		return commands.srem(key, member);
+	}
+
 }
\ No newline at end of file
@@ -3,10 +3,13 @@ package com.redis.riot.operation;
 import java.util.Map;
 import java.util.function.Function;
 
+import com.redis.lettucemod.api.async.RediSearchAsyncCommands;
 import com.redis.lettucemod.search.Suggestion;
 import com.redis.riot.function.ToSuggestionFunction;
 import com.redis.spring.batch.item.redis.writer.operation.Sugadd;
 
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import picocli.CommandLine.ArgGroup;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
@@ -33,6 +36,22 @@ public class SugaddCommand extends AbstractOperationCommand {
 		return operation;
 	}
 
+	/**
+	 * 
+	 * @return operation deleting the suggestion strings written by
+	 *         {@link #operation()} from the dictionary
+	 */
+	@Override
+	public Rem deleteOperation() {
+		return new Rem(keyFunction(), toString(stringField), SugaddCommand::sugdel);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static RedisFuture<Boolean> sugdel(RedisAsyncCommands<String, String> commands, String key,
+			String string) {
+		return ((RediSearchAsyncCommands<String, String>) commands).ftSugdel(key, string);
+	}
+
 	private Function<Map<String, Object>, Suggestion<String>> suggestion() {
 		return new ToSuggestionFunction<>(toString(stringField), score(scoreArgs), toString(payloadField));
 	}
@@ -18,6 +18,7 @@ import com.redis.lettucemod.timeseries.DuplicatePolicy;
 import com.redis.lettucemod.timeseries.Sample;
 import com.redis.lettucemod.timeseries.AddOptions.Builder;
 import com.redis.riot.function.ToSampleFunction;
+import com.redis.spring.batch.item.redis.common.Operation;
 import com.redis.spring.batch.item.redis.writer.operation.TsAdd;
 
 import io.lettuce.core.KeyValue;
@@ -48,6 +49,11 @@ public class TsAddCommand extends AbstractOperationCommand {
 		return operation;
 	}
 
+	@Override
+	public Operation<String, String, Map<String, Object>, Object> deleteOperation() {
+		throw new UnsupportedOperationException("Time-series samples cannot be deleted");
+	}
+
 	@SuppressWarnings("unchecked")
 	private AddOptions<String, String> addOptions(Map<String, Object> source) {
 		Builder<String, String> builder = AddOptions.<String, String>builder().policy(duplicatePolicy);
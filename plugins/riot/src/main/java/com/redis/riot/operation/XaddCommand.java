@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.function.Function;
 
+import com.redis.spring.batch.item.redis.common.Operation;
 import com.redis.spring.batch.item.redis.writer.operation.Xadd;
 
 import io.lettuce.core.StreamMessage;
@@ -41,6 +42,11 @@ public class XaddCommand extends AbstractOperationCommand {
 		return operation;
 	}
 
+	@Override
+	public Operation<String, String, Map<String, Object>, Object> deleteOperation() {
+		throw new UnsupportedOperationException("Stream entries are added with generated IDs and cannot be deleted");
+	}
+
 	private Function<Map<String, Object>, Collection<StreamMessage<String, String>>> messageFunction() {
 		Function<Map<String, Object>, String> keyFunction = keyFunction();
 		Function<Map<String, Object>, Map<String, String>> mapFunction = fieldFilterArgs.mapFunction();
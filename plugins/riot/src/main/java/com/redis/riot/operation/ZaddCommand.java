@@ -6,6 +6,8 @@ import java.util.Map;
 import com.redis.riot.function.ToScoredValueFunction;
 import com.redis.spring.batch.item.redis.writer.operation.Zadd;
 
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import picocli.CommandLine.ArgGroup;
 import picocli.CommandLine.Command;
 
@@ -32,4 +34,9 @@ public class ZaddCommand extends AbstractMemberOperationCommand {
 		this.scoreArgs = scoreArgs;
 	}
 
+	@Override
+	protected RedisFuture<Long> rem(RedisAsyncCommands<String, String> commands, String key, String member) {
+		return commands.zrem(key, member);
+	}
+
 }
\ No newline at end of file
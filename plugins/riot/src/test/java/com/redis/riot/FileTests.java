@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
@@ -17,6 +19,7 @@ import org.junit.jupiter.api.TestInfo;
 
 import com.redis.riot.core.ProgressStyle;
 import com.redis.riot.operation.HsetCommand;
+import com.redis.spring.batch.item.redis.common.DataType;
 import com.redis.spring.batch.test.AbstractTargetTestBase;
 import com.redis.spring.batch.test.KeyspaceComparison;
 
@@ -189,4 +192,99 @@ abstract class FileTests extends AbstractTargetTestBase {
 		Assertions.assertEquals(Collections.emptyList(), comparison.mismatches());
 	}
 
+	@Test
+	void rdbExportImport(TestInfo info) throws Exception {
+		rdbExportImport(info, false);
+	}
+
+	@Test
+	void rdbExportImportStruct(TestInfo info) throws Exception {
+		rdbExportImport(info, true);
+	}
+
+	@Test
+	void rdbImportSourceDatabase(TestInfo info) throws Exception {
+		generate(info, generator(10, DataType.STRING));
+		Path file = rdbExport(info);
+		RdbImport rdbImport = rdbImport(info, file);
+		rdbImport.setSourceDatabase(1);
+		rdbImport.call();
+		Assertions.assertEquals(0, targetRedisCommands.dbsize());
+	}
+
+	@Test
+	void snapshotExportImport(TestInfo info) throws Exception {
+		snapshotExportImport(info, 1);
+	}
+
+	@Test
+	void snapshotExportImportPartitions(TestInfo info) throws Exception {
+		snapshotExportImport(info, 4);
+	}
+
+	private void snapshotExportImport(TestInfo info, int partitions) throws Exception {
+		generate(info, generator(1000, DataType.STRING, DataType.HASH, DataType.LIST, DataType.SET, DataType.ZSET,
+				DataType.STREAM));
+		Path file = Files.createTempDirectory(name(info)).resolve("export.riot");
+		FileExport fileExport = new FileExport();
+		configure(info, fileExport);
+		fileExport.getFileWriterArgs().setFile(file.toString());
+		fileExport.call();
+		FileImport fileImport = new FileImport();
+		configure(info, fileImport);
+		fileImport.getFileReaderArgs().setFiles(file.toString());
+		fileImport.getFileReaderArgs().setPartitions(partitions);
+		fileImport.getRedisArgs().setUri(RedisURI.create(getTargetRedisServer().getRedisURI()));
+		fileImport.getRedisArgs().setCluster(getTargetRedisServer().isRedisCluster());
+		fileImport.call();
+		KeyspaceComparison<String> comparison = compare(info);
+		Assertions.assertFalse(comparison.getAll().isEmpty());
+		Assertions.assertEquals(Collections.emptyList(), comparison.mismatches());
+	}
+
+	private void rdbExportImport(TestInfo info, boolean struct) throws Exception {
+		generate(info, generator(100, DataType.STRING, DataType.HASH, DataType.LIST, DataType.SET, DataType.ZSET,
+				DataType.STREAM));
+		Path file = rdbExport(info);
+		RdbImport rdbImport = rdbImport(info, file);
+		rdbImport.setStruct(struct);
+		rdbImport.call();
+		KeyspaceComparison<String> comparison = compare(info);
+		Assertions.assertFalse(comparison.getAll().isEmpty());
+		Assertions.assertEquals(Collections.emptyList(), comparison.mismatches());
+	}
+
+	private Path rdbExport(TestInfo info) throws Exception {
+		Path file = Files.createTempDirectory(name(info)).resolve("dump.rdb");
+		RdbExport rdbExport = new RdbExport();
+		configure(info, rdbExport);
+		rdbExport.setFile(file);
+		rdbExport.call();
+		assertRdbChecksum(file);
+		return file;
+	}
+
+	private RdbImport rdbImport(TestInfo info, Path file) {
+		RdbImport rdbImport = new RdbImport();
+		configure(info, rdbImport);
+		rdbImport.setFile(file.toFile());
+		rdbImport.getRedisArgs().setUri(RedisURI.create(getTargetRedisServer().getRedisURI()));
+		rdbImport.getRedisArgs().setCluster(getTargetRedisServer().isRedisCluster());
+		return rdbImport;
+	}
+
+	/**
+	 * An RDB file ends with the CRC64 of all the bytes before it, in
+	 * little-endian order.
+	 */
+	private static void assertRdbChecksum(Path file) throws Exception {
+		byte[] bytes = Files.readAllBytes(file);
+		Assertions.assertEquals("REDIS", new String(bytes, 0, 5));
+		Assertions.assertEquals(0xFF, bytes[bytes.length - 9] & 0xFF);
+		Crc64 crc = new Crc64();
+		crc.update(bytes, 0, bytes.length - 8);
+		long expected = ByteBuffer.wrap(bytes, bytes.length - 8, 8).order(ByteOrder.LITTLE_ENDIAN).getLong();
+		Assertions.assertEquals(expected, crc.getValue());
+	}
+
 }
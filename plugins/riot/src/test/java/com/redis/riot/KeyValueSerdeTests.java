@@ -3,7 +3,9 @@ package com.redis.riot;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -15,6 +17,9 @@ import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.json.JacksonJsonObjectMarshaller;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.util.unit.DataSize;
@@ -30,6 +35,13 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.DoubleNode;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.redis.lettucemod.timeseries.Sample;
+import com.redis.riot.file.BinaryRecordItemReader;
+import com.redis.riot.file.BinaryRecordItemWriter;
+import com.redis.riot.file.FileReaderFactory;
+import com.redis.riot.file.FileUtils;
+import com.redis.riot.file.FileWriterFactory;
+import com.redis.riot.file.JsonGeneratorItemWriter;
+import com.redis.riot.file.xml.XmlGeneratorItemWriter;
 import com.redis.riot.file.xml.XmlResourceItemWriter;
 import com.redis.riot.file.xml.XmlResourceItemWriterBuilder;
 import com.redis.spring.batch.item.redis.common.DataType;
@@ -60,6 +72,17 @@ class KeyValueSerdeTests {
 		Assertions.assertEquals("gen:97", keyValue.getKey());
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	void deserializeValueBeforeType() throws JsonMappingException, JsonProcessingException {
+		String json = "{\"value\":{\"field1\":\"value1\",\"field2\":\"value2\"},\"ttl\":123,\"key\":\"hash:1\",\"unknown\":[1,{\"a\":2}],\"type\":\"hash\"}";
+		MemKeyValue<String, Object> keyValue = mapper.readValue(json, MemKeyValue.class);
+		Assertions.assertEquals("hash:1", keyValue.getKey());
+		Assertions.assertEquals(DataType.HASH.getString(), keyValue.getType());
+		Assertions.assertEquals(123, keyValue.getTtl());
+		Assertions.assertEquals(Map.of("field1", "value1", "field2", "value2"), keyValue.getValue());
+	}
+
 	@Test
 	void serialize() throws JsonProcessingException {
 		String key = "ts:1";
@@ -143,4 +166,124 @@ class KeyValueSerdeTests {
 
 	}
 
+	@Test
+	void xmlGeneratorWriter() throws Exception {
+		Path file = Files.createTempDirectory(getClass().getName()).resolve("redis.xml");
+		XmlMapper mapper = new XmlMapper();
+		mapper.setConfig(mapper.getSerializationConfig().withRootName("record"));
+		XmlGeneratorItemWriter<KeyValue<String, Object>> writer = new XmlGeneratorItemWriter<>(
+				new FileSystemResource(file), mapper);
+		writer.open(new ExecutionContext());
+		KeyValue<String, Object> item1 = new KeyValue<>();
+		item1.setKey("key1");
+		item1.setTtl(123l);
+		item1.setType(DataType.HASH.getString());
+		item1.setValue(Map.of("field1", "value1", "field2", "value2"));
+		KeyValue<String, Object> item2 = new KeyValue<>();
+		item2.setKey("key2");
+		item2.setTtl(456l);
+		item2.setType(DataType.STRING.getString());
+		item2.setValue("value");
+		writer.write(Chunk.of(item1));
+		writer.write(Chunk.of(item2));
+		writer.close();
+		List<KeyValue<String, Object>> keyValues = mapper.readerFor(KeyValue.class)
+				.<KeyValue<String, Object>>readValues(file.toFile()).readAll();
+		Assertions.assertEquals(2, keyValues.size());
+		Assertions.assertEquals(item1.getKey(), keyValues.get(0).getKey());
+		Assertions.assertEquals(item2.getKey(), keyValues.get(1).getKey());
+		Assertions.assertEquals((Object) item1.getValue(), keyValues.get(0).getValue());
+		Assertions.assertEquals((Object) item2.getValue(), keyValues.get(1).getValue());
+	}
+
+	@Test
+	void jsonGeneratorWriter() throws Exception {
+		Path file = Files.createTempDirectory(getClass().getName()).resolve("redis.json");
+		JsonGeneratorItemWriter<KeyValue<String, Object>> writer = new JsonGeneratorItemWriter<>(
+				new FileSystemResource(file), new ObjectMapper());
+		writer.open(new ExecutionContext());
+		for (int index = 0; index < 3; index++) {
+			KeyValue<String, Object> item = new KeyValue<>();
+			item.setKey("key" + index);
+			item.setType(DataType.STRING.getString());
+			item.setValue("value" + index);
+			writer.write(Chunk.of(item));
+		}
+		writer.close();
+		MemKeyValue<?, ?>[] keyValues = mapper.readValue(file.toFile(), MemKeyValue[].class);
+		Assertions.assertEquals(3, keyValues.length);
+		Assertions.assertEquals("key2", keyValues[2].getKey());
+		Assertions.assertEquals("value2", keyValues[2].getValue());
+	}
+
+	private static final String[] BINARY_EXTENSIONS = { FileUtils.CBOR, FileUtils.SMILE, FileUtils.MSGPACK };
+
+	@SuppressWarnings("unchecked")
+	@Test
+	void binaryRecordsRedis() throws Exception {
+		GeneratorItemReader generator = new GeneratorItemReader();
+		generator.setMaxItemCount(17);
+		generator.open(new ExecutionContext());
+		List<MemKeyValue<String, Object>> items = AbstractTestBase.readAll(generator).stream().map(MemKeyValue::new)
+				.collect(Collectors.toList());
+		Path directory = Files.createTempDirectory(getClass().getName());
+		for (String extension : BINARY_EXTENSIONS) {
+			Path file = directory.resolve("redis." + extension);
+			write(file, items);
+			List<MemKeyValue<String, Object>> results = (List<MemKeyValue<String, Object>>) read(file,
+					MemKeyValue.class);
+			Assertions.assertEquals(items.size(), results.size(), extension);
+			for (int index = 0; index < items.size(); index++) {
+				assertEquals(items.get(index), results.get(index));
+			}
+		}
+	}
+
+	@Test
+	void binaryRecordsFlat() throws Exception {
+		List<Map<String, Object>> items = new ArrayList<>();
+		for (int index = 0; index < 100; index++) {
+			Map<String, Object> item = new LinkedHashMap<>();
+			item.put("id", (long) index);
+			item.put("name", "name" + index);
+			item.put("score", index + .5);
+			item.put("active", index % 2 == 0);
+			items.add(item);
+		}
+		Path directory = Files.createTempDirectory(getClass().getName());
+		for (String extension : BINARY_EXTENSIONS) {
+			Path file = directory.resolve("flat." + extension);
+			write(file, items);
+			Assertions.assertEquals(items, read(file, Map.class), extension);
+		}
+	}
+
+	private <T> void write(Path file, List<T> items) throws Exception {
+		ItemWriter<T> writer = new FileWriterFactory().create(new FileSystemResource(file));
+		Assertions.assertInstanceOf(BinaryRecordItemWriter.class, writer);
+		((ItemStream) writer).open(new ExecutionContext());
+		try {
+			// Several chunks so that records span several writes
+			for (int index = 0; index < items.size(); index += 5) {
+				writer.write(new Chunk<>(items.subList(index, Math.min(index + 5, items.size()))));
+			}
+		} finally {
+			((ItemStream) writer).close();
+		}
+	}
+
+	private List<?> read(Path file, Class<?> itemType) throws Exception {
+		FileReaderFactory factory = new FileReaderFactory();
+		factory.addDeserializer(MemKeyValue.class, new MemKeyValueDeserializer());
+		factory.setItemType(itemType);
+		ItemReader<?> reader = factory.create(new FileSystemResource(file));
+		Assertions.assertInstanceOf(BinaryRecordItemReader.class, reader);
+		((ItemStream) reader).open(new ExecutionContext());
+		try {
+			return AbstractTestBase.readAll(reader);
+		} finally {
+			((ItemStream) reader).close();
+		}
+	}
+
 }
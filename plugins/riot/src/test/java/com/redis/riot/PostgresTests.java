@@ -1,25 +1,36 @@
 package com.redis.riot;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
 import org.testcontainers.containers.JdbcDatabaseContainer;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.utility.DockerImageName;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.redis.riot.db.ColumnRecordRowMapper;
+import com.redis.riot.db.ColumnValueFile;
+import com.redis.riot.db.DatabaseWatermarkItemReader;
 import com.redis.spring.batch.item.redis.common.DataType;
 import com.redis.spring.batch.item.redis.gen.GeneratorItemReader;
 
@@ -43,6 +54,7 @@ class PostgresTests extends DbTests {
 	void clearTables() throws SQLException {
 		try (Statement statement = dbConnection.createStatement()) {
 			statement.execute("DROP TABLE IF EXISTS mytable");
+			statement.execute("DROP TABLE IF EXISTS products");
 		}
 	}
 
@@ -128,6 +140,74 @@ class PostgresTests extends DbTests {
 		}
 	}
 
+	@Test
+	void partitionedImport(TestInfo info) throws Exception {
+		execute(info, "db-import-postgresql-partitioned", this::executeDatabaseImport);
+		int count = keyCount("order:*");
+		try (Statement statement = dbConnection.createStatement()) {
+			try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) AS count FROM orders")) {
+				Assertions.assertTrue(resultSet.next());
+				Assertions.assertEquals(resultSet.getLong("count"), count);
+			}
+			Map<String, String> order = redisCommands.hgetall("order:10248");
+			Assertions.assertEquals("10248", order.get("order_id"));
+			Assertions.assertEquals("VINET", order.get("customer_id"));
+		}
+	}
+
+	@Test
+	void keysetImport(TestInfo info) throws Exception {
+		execute(info, "db-import-postgresql-keyset", this::executeDatabaseImport);
+		int count = keyCount("order:*");
+		try (Statement statement = dbConnection.createStatement()) {
+			try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) AS count FROM orders")) {
+				Assertions.assertTrue(resultSet.next());
+				Assertions.assertEquals(resultSet.getLong("count"), count);
+			}
+			Map<String, String> order = redisCommands.hgetall("order:11077");
+			Assertions.assertEquals("11077", order.get("order_id"));
+		}
+	}
+
+	@Test
+	void keysetCheckpoint(TestInfo info, @TempDir Path directory) throws Exception {
+		Path checkpoint = directory.resolve("orders.checkpoint");
+		new ColumnValueFile(checkpoint).write(11000, null);
+		execute(info, "db-import-postgresql-checkpoint", r -> {
+			DatabaseImport command = command(r);
+			command.getDatabaseReaderArgs().setCheckpointFile(checkpoint.toFile());
+			return executeDatabaseImport(r);
+		});
+		try (Statement statement = dbConnection.createStatement()) {
+			try (ResultSet resultSet = statement
+					.executeQuery("SELECT COUNT(*) AS count FROM orders WHERE order_id > 11000")) {
+				Assertions.assertTrue(resultSet.next());
+				Assertions.assertEquals(resultSet.getLong("count"), keyCount("order:*"));
+			}
+		}
+		Assertions.assertFalse(redisCommands.exists("order:11000") > 0);
+		Assertions.assertEquals("11001", redisCommands.hget("order:11001", "order_id"));
+		// Checkpoint is deleted once all rows were imported
+		Assertions.assertFalse(Files.exists(checkpoint));
+	}
+
+	@Test
+	void typedRowsImport(TestInfo info) throws Exception {
+		execute(info, "db-import-postgresql-typed", this::executeDatabaseImport);
+		int count = keyCount("order:*");
+		try (Statement statement = dbConnection.createStatement()) {
+			try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) AS count FROM orders")) {
+				Assertions.assertTrue(resultSet.next());
+				Assertions.assertEquals(resultSet.getLong("count"), count);
+			}
+		}
+		Map<String, String> order = redisCommands.hgetall("order:10248");
+		Assertions.assertEquals("10248", order.get("order_id"));
+		Assertions.assertEquals("VINET", order.get("customer_id"));
+		Assertions.assertEquals("1996-07-04", order.get("order_date"));
+		Assertions.assertEquals("32.38", order.get("freight"));
+	}
+
 	@Test
 	void setImport(TestInfo info) throws Exception {
 		execute(info, "db-import-postgresql-set", this::executeDatabaseImport);
@@ -155,4 +235,115 @@ class PostgresTests extends DbTests {
 		}
 	}
 
+	private void createProducts() throws SQLException {
+		try (Statement statement = dbConnection.createStatement()) {
+			statement.execute(
+					"CREATE TABLE products (id integer PRIMARY KEY, name varchar, updated_at integer, deleted boolean DEFAULT false)");
+			statement.execute("INSERT INTO products (id, name, updated_at) VALUES (1, 'one', 1), (2, 'two', 2), (3, 'three', 2)");
+		}
+	}
+
+	private void executeUpdate(String sql) throws SQLException {
+		try (Statement statement = dbConnection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+	private DatabaseWatermarkItemReader<Map<String, Object>> watermarkReader(Path stateFile) {
+		DatabaseWatermarkItemReader<Map<String, Object>> reader = new DatabaseWatermarkItemReader<>(dataSource,
+				"SELECT * FROM products", "updated_at", new ColumnRecordRowMapper());
+		reader.setStateFile(stateFile);
+		reader.setPollInterval(10);
+		reader.open(new ExecutionContext());
+		return reader;
+	}
+
+	/**
+	 * Rows sharing a watermark value are returned in no particular order, so ids
+	 * are compared as sets.
+	 */
+	private static Set<Object> pollIds(DatabaseWatermarkItemReader<Map<String, Object>> reader, int count)
+			throws InterruptedException {
+		Set<Object> ids = new HashSet<>();
+		while (ids.size() < count) {
+			Map<String, Object> row = reader.poll(1, TimeUnit.SECONDS);
+			Assertions.assertNotNull(row, "Expected " + count + " rows but got " + ids);
+			ids.add(row.get("id"));
+		}
+		return ids;
+	}
+
+	@Test
+	void watermarkPollsChangedRows(@TempDir Path directory) throws Exception {
+		createProducts();
+		DatabaseWatermarkItemReader<Map<String, Object>> reader = watermarkReader(directory.resolve("products.state"));
+		try {
+			Assertions.assertEquals(Set.of("1", "2", "3"), pollIds(reader, 3));
+			Assertions.assertNull(reader.poll(100, TimeUnit.MILLISECONDS));
+			executeUpdate("UPDATE products SET name = 'TWO', updated_at = 3 WHERE id = 2");
+			executeUpdate("INSERT INTO products (id, name, updated_at) VALUES (4, 'four', 4)");
+			// Second poll only reads rows changed since the first one
+			Assertions.assertEquals(Set.of("2", "4"), pollIds(reader, 2));
+			Assertions.assertNull(reader.poll(100, TimeUnit.MILLISECONDS));
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	void watermarkRereadsLastValue(@TempDir Path directory) throws Exception {
+		createProducts();
+		Path stateFile = directory.resolve("products.state");
+		DatabaseWatermarkItemReader<Map<String, Object>> reader = watermarkReader(stateFile);
+		Assertions.assertTrue(pollIds(reader, 2).contains("1"));
+		reader.update(new ExecutionContext());
+		reader.close();
+		// Rows 2 and 3 share watermark 2 and only one was read, so 1 is saved
+		Assertions.assertEquals(1, ((Number) new ColumnValueFile(stateFile).read()).intValue());
+		reader = watermarkReader(stateFile);
+		try {
+			Assertions.assertEquals(Set.of("2", "3"), pollIds(reader, 2));
+			Assertions.assertNull(reader.poll(100, TimeUnit.MILLISECONDS));
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	void watermarkResume(@TempDir Path directory) throws Exception {
+		createProducts();
+		Path stateFile = directory.resolve("products.state");
+		DatabaseWatermarkItemReader<Map<String, Object>> reader = watermarkReader(stateFile);
+		Assertions.assertEquals(Set.of("1", "2", "3"), pollIds(reader, 3));
+		Assertions.assertNull(reader.poll(100, TimeUnit.MILLISECONDS));
+		reader.update(new ExecutionContext());
+		reader.close();
+		executeUpdate("INSERT INTO products (id, name, updated_at) VALUES (4, 'four', 3)");
+		reader = watermarkReader(stateFile);
+		try {
+			Assertions.assertEquals(Set.of("4"), pollIds(reader, 1));
+			Assertions.assertNull(reader.poll(100, TimeUnit.MILLISECONDS));
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	void watermarkDeleteColumn(TestInfo info) throws Exception {
+		createProducts();
+		executeUpdate("UPDATE products SET deleted = true WHERE id = 3");
+		DatabaseSyncArgs syncArgs = new DatabaseSyncArgs();
+		syncArgs.setColumn("updated_at");
+		syncArgs.setStateDirectory(new File("/tmp"));
+		Files.deleteIfExists(syncArgs.stateFile(postgres.getJdbcUrl(), "SELECT * FROM products"));
+		redisCommands.hset("product:3", "name", "three");
+		redisCommands.sadd("products", "3", "5");
+		execute(info, "db-import-postgresql-watermark", this::executeDatabaseImport);
+		Assertions.assertEquals("one", redisCommands.hget("product:1", "name"));
+		Assertions.assertEquals("two", redisCommands.hget("product:2", "name"));
+		// Flagged rows delete their key and only their member of collections
+		Assertions.assertFalse(redisCommands.exists("product:3") > 0);
+		Assertions.assertEquals(Set.of("1", "2", "5"), redisCommands.smembers("products"));
+	}
+
 }
@@ -0,0 +1,78 @@
+package com.redis.riot;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+
+import com.redis.spring.batch.item.redis.common.KeyValue;
+
+class RdbItemWriterTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void crc64() {
+		Crc64 crc = new Crc64();
+		byte[] bytes = "123456789".getBytes(StandardCharsets.US_ASCII);
+		crc.update(bytes, 0, bytes.length);
+		Assertions.assertEquals(0xe9c6d914c4b8d9caL, crc.getValue());
+	}
+
+	@Test
+	void completedStep() throws Exception {
+		Path file = directory.resolve("dump.rdb");
+		write(file, BatchStatus.COMPLETED);
+		Assertions.assertTrue(Files.exists(file));
+		Assertions.assertFalse(Files.exists(directory.resolve("dump.rdb.tmp")));
+		byte[] bytes = Files.readAllBytes(file);
+		Assertions.assertEquals("REDIS0009", new String(bytes, 0, 9, StandardCharsets.US_ASCII));
+		Assertions.assertEquals(0xFF, bytes[bytes.length - 9] & 0xFF);
+	}
+
+	@Test
+	void failedStep() throws Exception {
+		Path file = directory.resolve("dump.rdb");
+		Files.writeString(file, "previous");
+		write(file, BatchStatus.FAILED);
+		Assertions.assertEquals("previous", Files.readString(file));
+		Assertions.assertFalse(Files.exists(directory.resolve("dump.rdb.tmp")));
+	}
+
+	private static void write(Path file, BatchStatus status) throws Exception {
+		RdbItemWriter writer = new RdbItemWriter(file);
+		writer.open(new ExecutionContext());
+		KeyValue<byte[], byte[]> keyValue = new KeyValue<>();
+		keyValue.setKey("key".getBytes(StandardCharsets.UTF_8));
+		keyValue.setValue(stringPayload("value", 9));
+		writer.write(Chunk.of(keyValue));
+		StepExecution stepExecution = new StepExecution("step", new JobExecution(1L));
+		stepExecution.setStatus(status);
+		writer.afterStep(stepExecution);
+		writer.close();
+	}
+
+	/**
+	 * DUMP payload of a string: type, length-prefixed value, RDB version and
+	 * CRC64, which the writer does not check.
+	 */
+	private static byte[] stringPayload(String value, int version) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		byte[] payload = new byte[2 + bytes.length + 10];
+		payload[0] = 0;
+		payload[1] = (byte) bytes.length;
+		System.arraycopy(bytes, 0, payload, 2, bytes.length);
+		payload[2 + bytes.length] = (byte) version;
+		return payload;
+	}
+
+}